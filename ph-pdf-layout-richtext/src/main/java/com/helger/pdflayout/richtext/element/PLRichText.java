@@ -27,6 +27,7 @@ import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
 import org.apache.pdfbox.pdmodel.interactive.annotation.PDBorderStyleDictionary;
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.destination.PDNamedDestination;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.Nonnegative;
 import com.helger.annotation.OverridingMethodsMustInvokeSuper;
@@ -63,6 +64,8 @@ import com.helger.pdflayout.spec.FontSpec;
 import com.helger.pdflayout.spec.LoadedFont;
 import com.helger.pdflayout.spec.PreloadFont;
 import com.helger.pdflayout.spec.SizeSpec;
+import com.helger.pdflayout.spec.TotalFitLineBreaker;
+import com.helger.pdflayout.spec.UnicodeLineBreaker;
 
 /**
  * A multi-style rich-text inline element. Each {@link PLRichTextRun} carries its own
@@ -80,11 +83,15 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
                         IPLSplittableObject <PLRichText, PLRichText>
 {
   public static final float DEFAULT_LINE_SPACING = 1f;
+  public static final boolean DEFAULT_TOTAL_FIT_LINE_BREAKING = false;
+  public static final boolean DEFAULT_UNICODE_LINE_BREAKING = false;
 
   private final ICommonsList <PLRichTextRun> m_aRuns;
   private float m_fLineSpacing = DEFAULT_LINE_SPACING;
   private EHorzAlignment m_eHorzAlign = DEFAULT_HORZ_ALIGNMENT;
   private boolean m_bVertSplittable = DEFAULT_VERT_SPLITTABLE;
+  private boolean m_bTotalFitLineBreaking = DEFAULT_TOTAL_FIT_LINE_BREAKING;
+  private boolean m_bUnicodeLineBreaking = DEFAULT_UNICODE_LINE_BREAKING;
 
   // prepare result
   private transient ICommonsList <PLRichTextLine> m_aPreparedLines;
@@ -131,6 +138,8 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
     setLineSpacing (aSource.getLineSpacing ());
     setHorzAlign (aSource.getHorzAlign ());
     setVertSplittable (aSource.isVertSplittable ());
+    setTotalFitLineBreaking (aSource.isTotalFitLineBreaking ());
+    setUnicodeLineBreaking (aSource.isUnicodeLineBreaking ());
     return this;
   }
 
@@ -184,10 +193,230 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
   }
 
   /**
-   * Layout pass. Walks the run list, calls {@link LoadedFont#getStringWidth} on each word, and
-   * emits {@link PLRichTextLine}s that fit within {@code fAvailableWidth}. Embedded {@code '\n'}
+   * @return <code>true</code> if the lines are broken with a total fit per paragraph,
+   *         <code>false</code> if they are fitted greedily. The default value is
+   *         {@link #DEFAULT_TOTAL_FIT_LINE_BREAKING}.
+   * @since 8.3.4
+   */
+  public boolean isTotalFitLineBreaking ()
+  {
+    return m_bTotalFitLineBreaking;
+  }
+
+  /**
+   * Enable or disable the total fit line breaking. With total fit, all break opportunities of a
+   * paragraph are considered together (see {@link TotalFitLineBreaker}), so that the lines have a
+   * similar width. Paragraphs that cannot be broken at spaces or other break opportunities are
+   * still fitted greedily.
+   *
+   * @param bTotalFitLineBreaking
+   *        <code>true</code> to enable total fit line breaking, <code>false</code> to use greedy
+   *        fitting.
+   * @return this for chaining
+   * @since 8.3.4
+   */
+  @NonNull
+  public PLRichText setTotalFitLineBreaking (final boolean bTotalFitLineBreaking)
+  {
+    m_bTotalFitLineBreaking = bTotalFitLineBreaking;
+    return this;
+  }
+
+  /**
+   * @return <code>true</code> if break opportunities within words are found according to the
+   *         Unicode line breaking algorithm, <code>false</code> if lines are only broken at spaces.
+   *         The default value is {@link #DEFAULT_UNICODE_LINE_BREAKING}.
+   * @since 8.3.4
+   */
+  public boolean isUnicodeLineBreaking ()
+  {
+    return m_bUnicodeLineBreaking;
+  }
+
+  /**
+   * Enable or disable the Unicode line breaking. If enabled, the break opportunities within words
+   * (e.g. after hyphens and slashes and between ideographs) are found via
+   * {@link UnicodeLineBreaker}. This must be set before the element is prepared.
+   *
+   * @param bUnicodeLineBreaking
+   *        <code>true</code> to enable Unicode line breaking, <code>false</code> to break at spaces
+   *        only.
+   * @return this for chaining
+   * @since 8.3.4
+   */
+  @NonNull
+  public PLRichText setUnicodeLineBreaking (final boolean bUnicodeLineBreaking)
+  {
+    m_bUnicodeLineBreaking = bUnicodeLineBreaking;
+    return this;
+  }
+
+  @Override
+  public boolean isRenderingPageSpecificObjects ()
+  {
+    if (super.isRenderingPageSpecificObjects ())
+      return true;
+    // Hyperlinks add link annotations to the current page and anchors register named destinations
+    return m_aRuns.containsAny (aRun -> aRun.getAllAnnotations ()
+                                            .containsAny (x -> x instanceof PLHyperlinkAnnotation ||
+                                                               x instanceof PLAnchorAnnotation));
+  }
+
+  /**
+   * The measured text of a single hard line of a run. Every code point is measured exactly once and
+   * the cumulative widths are stored per char offset, so that the width of any sub string can be
+   * determined in constant time. Additionally the last break opportunity before every offset is
+   * stored, so that the break opportunity for a line can be determined without iterating the text
+   * again. Break opportunities are spaces and - if Unicode line breaking is enabled - the offsets
+   * within words, where a break is allowed according to Unicode Standard Annex #14.
+   */
+  private static final class MeasuredText
+  {
+    private final String m_sText;
+    // Cumulative width of all chars before the offset. The offset of a low surrogate has the same
+    // value as the offset of the high surrogate
+    private final double [] m_aCumWidth;
+    // Index of the last space before the offset, or the offset of the last break opportunity within
+    // a word at or before the offset, or -1
+    private final int [] m_aLastBreak;
+
+    MeasuredText (@NonNull final String sText,
+                  @NonNull final LoadedFont aLoadedFont,
+                  final float fFontSize,
+                  final boolean bUnicodeLineBreaking) throws IOException
+    {
+      final int nLength = sText.length ();
+      m_sText = sText;
+      m_aCumWidth = new double [nLength + 1];
+      m_aLastBreak = new int [nLength + 1];
+      m_aLastBreak[0] = -1;
+
+      final UnicodeLineBreaker aLineBreaker = bUnicodeLineBreaking ? new UnicodeLineBreaker () : null;
+      int nOfs = 0;
+      while (nOfs < nLength)
+      {
+        final int nCP = sText.codePointAt (nOfs);
+        final int nCharCount = Character.charCount (nCP);
+        if (aLineBreaker != null &&
+            aLineBreaker.isBreakOpportunityBefore (nCP) &&
+            nCP != ' ' &&
+            nOfs > 0 &&
+            sText.charAt (nOfs - 1) != ' ')
+        {
+          // Break opportunity within a word
+          m_aLastBreak[nOfs] = nOfs;
+        }
+        final double dWidth = m_aCumWidth[nOfs] + aLoadedFont.getCodePointWidth (nCP, fFontSize);
+        final int nLastBreak = nCP == ' ' ? nOfs : m_aLastBreak[nOfs];
+        for (int i = 1; i < nCharCount; ++i)
+        {
+          // Inside a surrogate pair
+          m_aCumWidth[nOfs + i] = m_aCumWidth[nOfs];
+          m_aLastBreak[nOfs + i] = m_aLastBreak[nOfs];
+        }
+        nOfs += nCharCount;
+        m_aCumWidth[nOfs] = dWidth;
+        m_aLastBreak[nOfs] = nLastBreak;
+      }
+    }
+
+    int getLength ()
+    {
+      return m_sText.length ();
+    }
+
+    @NonNull
+    String getText (final int nStart, final int nEnd)
+    {
+      return m_sText.substring (nStart, nEnd);
+    }
+
+    float getWidth (final int nStart, final int nEnd)
+    {
+      return (float) (m_aCumWidth[nEnd] - m_aCumWidth[nStart]);
+    }
+
+    /**
+     * @return The largest code point boundary, so that the text between the start and the result
+     *         fits into the available width. Is the start offset if not even a single code point
+     *         fits.
+     */
+    int getFitEnd (final int nStart, final float fAvail)
+    {
+      final double dMax = m_aCumWidth[nStart] + fAvail;
+      // Binary search for the last offset with a cumulative width <= dMax
+      int nLow = nStart;
+      int nHigh = m_sText.length ();
+      while (nLow < nHigh)
+      {
+        final int nMid = (nLow + nHigh + 1) >>> 1;
+        if (m_aCumWidth[nMid] <= dMax)
+          nLow = nMid;
+        else
+          nHigh = nMid - 1;
+      }
+      // Never split a surrogate pair
+      if (nLow > nStart && nLow < m_sText.length () && Character.isLowSurrogate (m_sText.charAt (nLow)))
+        nLow--;
+      return nLow;
+    }
+
+    /**
+     * @return The end of the first code point after the start offset.
+     */
+    int getNextCodePointEnd (final int nStart)
+    {
+      return nStart + Character.charCount (m_sText.codePointAt (nStart));
+    }
+
+    /**
+     * @return The index of the last space between start (incl.) and end (excl.), or the offset of
+     *         the last break opportunity within a word between start (incl.) and end (incl.), or
+     *         -1.
+     */
+    int getLastBreak (final int nStart, final int nEnd)
+    {
+      final int ret = m_aLastBreak[nEnd];
+      return ret >= nStart ? ret : -1;
+    }
+
+    boolean isSpace (final int nIndex)
+    {
+      return m_sText.charAt (nIndex) == ' ';
+    }
+
+    /**
+     * @return <code>true</code> if there is a break opportunity within a word right before the
+     *         provided offset.
+     */
+    boolean isBreakWithinWord (final int nIndex)
+    {
+      return nIndex > 0 && m_aLastBreak[nIndex] == nIndex;
+    }
+
+    /**
+     * @return The cumulative width of all chars before the provided offset.
+     */
+    double getPosition (final int nIndex)
+    {
+      return m_aCumWidth[nIndex];
+    }
+  }
+
+  /**
+   * A hard line of a run as part of a paragraph, together with its start position within the
+   * paragraph.
+   */
+  private record ParagraphPiece (PLRichTextRun run, LoadedFont loadedFont, MeasuredText text, double startPos)
+  {}
+
+  /**
+   * Layout pass. Walks the run list, measures each code point of a run exactly once, and emits
+   * {@link PLRichTextLine}s that fit within {@code fAvailableWidth}. Embedded {@code '\n'}
    * characters force a hard line break. When a run overflows the current line we split on the last
-   * whitespace - the second half inherits the run's font and annotations.
+   * whitespace or other break opportunity - the second half inherits the run's font and
+   * annotations. The break positions are determined via the cumulative widths, so the runtime is
+   * linear in the text length.
    */
   @NonNull
   private ICommonsList <PLRichTextLine> _layout (final float fAvailableWidth,
@@ -208,34 +437,36 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
       final String [] aHardLines = aRun.getText ().split ("\n", -1);
       for (int nHL = 0; nHL < aHardLines.length; ++nHL)
       {
-        String sRemaining = aHardLines[nHL];
-        while (sRemaining.length () > 0)
+        final MeasuredText aText = new MeasuredText (aHardLines[nHL], aLoadedFont, fFontSize, m_bUnicodeLineBreaking);
+        final int nLength = aText.getLength ();
+        int nStart = 0;
+        while (nStart < nLength)
         {
           final float fAvail = fAvailableWidth - fCurrentWidth;
-          final float fSegWidth = aLoadedFont.getStringWidth (sRemaining, fFontSize);
+          final float fSegWidth = aText.getWidth (nStart, nLength);
           if (fSegWidth <= fAvail)
           {
             // Fits as a whole.
-            aCurrent.add (new PLRichTextSegment (sRemaining, aFontSpec, aLoadedFont, fSegWidth, aAnnotations, aRun.getBaselineOffsetScale ()));
+            aCurrent.add (new PLRichTextSegment (aText.getText (nStart, nLength), aFontSpec, aLoadedFont, fSegWidth, aAnnotations, aRun.getBaselineOffsetScale ()));
             fCurrentWidth += fSegWidth;
-            sRemaining = "";
+            nStart = nLength;
           }
           else
           {
-            // Need to break. Find the last space that still fits.
-            final int nBreakAt = _findBreakPoint (sRemaining, aLoadedFont, fFontSize, fAvail);
-            if (nBreakAt <= 0)
+            // Need to break. Find the last break opportunity that still fits.
+            final int nFitEnd = aText.getFitEnd (nStart, fAvail);
+            final int nBreakAt = aText.getLastBreak (nStart, nFitEnd);
+            if (nBreakAt <= nStart)
             {
               // Nothing of this run fits on the current line.
               if (aCurrent.isEmpty ())
               {
-                // Cannot wrap - emit at least one char.
-                final int nForce = Math.max (1, _findBreakPoint (sRemaining, aLoadedFont, fFontSize, fAvail, true));
-                final String sPart = sRemaining.substring (0, nForce);
-                final float fPartWidth = aLoadedFont.getStringWidth (sPart, fFontSize);
-                aCurrent.add (new PLRichTextSegment (sPart, aFontSpec, aLoadedFont, fPartWidth, aAnnotations, aRun.getBaselineOffsetScale ()));
+                // Cannot wrap - emit at least one code point.
+                final int nForceEnd = nFitEnd > nStart ? nFitEnd : aText.getNextCodePointEnd (nStart);
+                final float fPartWidth = aText.getWidth (nStart, nForceEnd);
+                aCurrent.add (new PLRichTextSegment (aText.getText (nStart, nForceEnd), aFontSpec, aLoadedFont, fPartWidth, aAnnotations, aRun.getBaselineOffsetScale ()));
                 fCurrentWidth += fPartWidth;
-                sRemaining = sRemaining.substring (nForce);
+                nStart = nForceEnd;
               }
               // Flush current line and try again.
               aLines.add (new PLRichTextLine (aCurrent, fCurrentWidth, false));
@@ -244,26 +475,26 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
             }
             else
             {
-              // Break at last whitespace.
-              String sPart = sRemaining.substring (0, nBreakAt);
-              // Drop the trailing space the break sits on, if any.
-              int nConsume = nBreakAt;
-              if (sPart.endsWith (" "))
+              // Break at the last break opportunity and consume it, if it is a whitespace.
+              int nPartEnd = nBreakAt;
+              int nNextStart = nBreakAt;
+              if (aText.isSpace (nBreakAt))
               {
-                sPart = sPart.substring (0, sPart.length () - 1);
-              }
-              else
-                if (nBreakAt < sRemaining.length () && sRemaining.charAt (nBreakAt) == ' ')
+                nNextStart = nBreakAt + 1;
+                if (aText.isSpace (nBreakAt - 1))
                 {
-                  nConsume = nBreakAt + 1;
+                  // Drop only one of multiple spaces
+                  nPartEnd = nBreakAt - 1;
+                  nNextStart = nBreakAt;
                 }
-              final float fPartWidth = aLoadedFont.getStringWidth (sPart, fFontSize);
-              aCurrent.add (new PLRichTextSegment (sPart, aFontSpec, aLoadedFont, fPartWidth, aAnnotations, aRun.getBaselineOffsetScale ()));
+              }
+              final float fPartWidth = aText.getWidth (nStart, nPartEnd);
+              aCurrent.add (new PLRichTextSegment (aText.getText (nStart, nPartEnd), aFontSpec, aLoadedFont, fPartWidth, aAnnotations, aRun.getBaselineOffsetScale ()));
               fCurrentWidth += fPartWidth;
               aLines.add (new PLRichTextLine (aCurrent, fCurrentWidth, false));
               aCurrent = new CommonsArrayList <> ();
               fCurrentWidth = 0f;
-              sRemaining = sRemaining.substring (nConsume);
+              nStart = nNextStart;
             }
           }
         }
@@ -292,42 +523,169 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
     return aLines;
   }
 
+  @NonNull
+  private static PLRichTextLine _createLine (@NonNull final ICommonsList <ParagraphPiece> aPieces,
+                                             final int nStartPiece,
+                                             final int nStartOffset,
+                                             final int nEndPiece,
+                                             final int nEndOffset,
+                                             final boolean bDisplayAsNewline)
+  {
+    final ICommonsList <PLRichTextSegment> aSegments = new CommonsArrayList <> ();
+    float fLineWidth = 0f;
+    for (int nPiece = nStartPiece; nPiece <= nEndPiece; ++nPiece)
+    {
+      final ParagraphPiece aPiece = aPieces.get (nPiece);
+      final MeasuredText aText = aPiece.text ();
+      final int nStart = nPiece == nStartPiece ? nStartOffset : 0;
+      final int nEnd = nPiece == nEndPiece ? nEndOffset : aText.getLength ();
+      if (nStart < nEnd)
+      {
+        final PLRichTextRun aRun = aPiece.run ();
+        final float fPartWidth = aText.getWidth (nStart, nEnd);
+        aSegments.add (new PLRichTextSegment (aText.getText (nStart, nEnd), aRun.getFontSpec (), aPiece.loadedFont (), fPartWidth, aRun.getAllAnnotations (), aRun.getBaselineOffsetScale ()));
+        fLineWidth += fPartWidth;
+      }
+    }
+    return new PLRichTextLine (aSegments, fLineWidth, bDisplayAsNewline);
+  }
+
   /**
-   * Find the byte offset in {@code sText} at the last whitespace whose preceding substring fits in
-   * {@code fAvail}. Returns -1 if no such whitespace exists.
+   * Break a single paragraph with a total fit and add the resulting lines.
+   *
+   * @return <code>false</code> if the paragraph cannot be broken without exceeding the available
+   *         width.
    */
-  private static int _findBreakPoint (@NonNull final String sText,
-                                      @NonNull final LoadedFont aLoadedFont,
-                                      final float fFontSize,
-                                      final float fAvail) throws IOException
+  private static boolean _addTotalFitParagraph (@NonNull final ICommonsList <ParagraphPiece> aPieces,
+                                                final double dParagraphWidth,
+                                                final boolean bHardNewline,
+                                                @NonNull final TotalFitLineBreaker aBreaker,
+                                                @NonNull final ICommonsList <PLRichTextLine> aLines)
   {
-    return _findBreakPoint (sText, aLoadedFont, fFontSize, fAvail, false);
+    int nTotalLength = 0;
+    for (final ParagraphPiece aPiece : aPieces)
+      nTotalLength += aPiece.text ().getLength ();
+
+    // For each break candidate the piece index and the offset within the piece
+    final int [] aCandidatePieces = new int [nTotalLength];
+    final int [] aCandidateOffsets = new int [nTotalLength];
+    aBreaker.reset ();
+    for (int nPiece = 0; nPiece < aPieces.size (); ++nPiece)
+    {
+      final ParagraphPiece aPiece = aPieces.get (nPiece);
+      final MeasuredText aText = aPiece.text ();
+      final double dStartPos = aPiece.startPos ();
+      for (int nOfs = 0; nOfs < aText.getLength (); ++nOfs)
+      {
+        final int nCandidate = aBreaker.getBreakCandidateCount ();
+        if (aText.isSpace (nOfs))
+        {
+          if (nPiece > 0 || nOfs > 0)
+          {
+            // Break at the space and consume it
+            aCandidatePieces[nCandidate] = nPiece;
+            aCandidateOffsets[nCandidate] = nOfs;
+            aBreaker.addBreakCandidate (dStartPos + aText.getPosition (nOfs),
+                                        dStartPos + aText.getPosition (nOfs + 1),
+                                        false);
+          }
+        }
+        else
+          if (aText.isBreakWithinWord (nOfs))
+          {
+            aCandidatePieces[nCandidate] = nPiece;
+            aCandidateOffsets[nCandidate] = nOfs;
+            final double dPos = dStartPos + aText.getPosition (nOfs);
+            aBreaker.addBreakCandidate (dPos, dPos, true);
+          }
+      }
+    }
+
+    final int [] aBreaks = aBreaker.getBreaks (dParagraphWidth);
+    if (aBreaks == null)
+      return false;
+
+    int nLinePiece = 0;
+    int nLineOffset = 0;
+    for (final int nBreak : aBreaks)
+    {
+      final int nBreakPiece = aCandidatePieces[nBreak];
+      final int nBreakOffset = aCandidateOffsets[nBreak];
+      aLines.add (_createLine (aPieces, nLinePiece, nLineOffset, nBreakPiece, nBreakOffset, false));
+      nLinePiece = nBreakPiece;
+      nLineOffset = aPieces.get (nBreakPiece).text ().isSpace (nBreakOffset) ? nBreakOffset + 1 : nBreakOffset;
+    }
+    if (!aPieces.isEmpty ())
+    {
+      final int nLastPiece = aPieces.size () - 1;
+      final PLRichTextLine aLastLine = _createLine (aPieces,
+                                                   nLinePiece,
+                                                   nLineOffset,
+                                                   nLastPiece,
+                                                   aPieces.get (nLastPiece).text ().getLength (),
+                                                   true);
+      // Same as in the greedy layout: the last line is only added if it is not empty
+      if (bHardNewline || aLastLine.segments ().isNotEmpty ())
+        aLines.add (aLastLine);
+    }
+    else
+      if (bHardNewline)
+        aLines.add (new PLRichTextLine (new CommonsArrayList <> (), 0f, true));
+    return true;
   }
 
-  private static int _findBreakPoint (@NonNull final String sText,
-                                      @NonNull final LoadedFont aLoadedFont,
-                                      final float fFontSize,
-                                      final float fAvail,
-                                      final boolean bByChar) throws IOException
+  /**
+   * Layout pass with a total fit per paragraph. A paragraph may span multiple runs and ends at a
+   * hard newline. The break opportunities of a paragraph are the same as in the greedy layout, but
+   * they are chosen via {@link TotalFitLineBreaker}, so that the lines have a similar width.
+   *
+   * @return <code>null</code> if at least one paragraph cannot be broken without exceeding the
+   *         available width, so that the greedy layout must be used instead.
+   */
+  @Nullable
+  private ICommonsList <PLRichTextLine> _layoutTotalFit (final float fAvailableWidth,
+                                                         @NonNull final ICommonsMap <FontSpec, LoadedFont> aLoadedFonts) throws IOException
   {
-    float fSum = 0f;
-    int nLastSpace = -1;
-    for (int i = 0; i < sText.length (); ++i)
+    final ICommonsList <PLRichTextLine> aLines = new CommonsArrayList <> ();
+    final TotalFitLineBreaker aBreaker = new TotalFitLineBreaker (fAvailableWidth);
+    final ICommonsList <ParagraphPiece> aPieces = new CommonsArrayList <> ();
+    double dParagraphWidth = 0;
+
+    for (final PLRichTextRun aRun : m_aRuns)
     {
-      final char c = sText.charAt (i);
-      final float fW = aLoadedFont.getStringWidth (String.valueOf (c), fFontSize);
-      if (fSum + fW > fAvail)
+      final FontSpec aFontSpec = aRun.getFontSpec ();
+      final LoadedFont aLoadedFont = aLoadedFonts.get (aFontSpec);
+      final String [] aHardLines = aRun.getText ().split ("\n", -1);
+      for (int nHL = 0; nHL < aHardLines.length; ++nHL)
       {
-        if (bByChar)
-          return i;
-        return nLastSpace;
+        final MeasuredText aText = new MeasuredText (aHardLines[nHL],
+                                                     aLoadedFont,
+                                                     aFontSpec.getFontSize (),
+                                                     m_bUnicodeLineBreaking);
+        if (aText.getLength () > 0)
+        {
+          aPieces.add (new ParagraphPiece (aRun, aLoadedFont, aText, dParagraphWidth));
+          dParagraphWidth += aText.getWidth (0, aText.getLength ());
+        }
+        if (nHL < aHardLines.length - 1)
+        {
+          // Hard newline ends the paragraph
+          if (!_addTotalFitParagraph (aPieces, dParagraphWidth, true, aBreaker, aLines))
+            return null;
+          aPieces.clear ();
+          dParagraphWidth = 0;
+        }
       }
-      fSum += fW;
-      if (c == ' ')
-        nLastSpace = i;
     }
-    // Whole string fits.
-    return sText.length ();
+    if (!_addTotalFitParagraph (aPieces, dParagraphWidth, false, aBreaker, aLines))
+      return null;
+
+    if (aLines.isEmpty ())
+    {
+      // Empty input - keep a single empty line so the element still occupies a row.
+      aLines.add (new PLRichTextLine (new CommonsArrayList <> (), 0f, true));
+    }
+    return aLines;
   }
 
   @Override
@@ -358,7 +716,9 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
       m_fTextHeight = fMaxTextHeight;
       m_fDescent = fMaxDescent;
 
-      m_aPreparedLines = _layout (fElementWidth, aLoadedFonts);
+      m_aPreparedLines = m_bTotalFitLineBreaking ? _layoutTotalFit (fElementWidth, aLoadedFonts) : null;
+      if (m_aPreparedLines == null)
+        m_aPreparedLines = _layout (fElementWidth, aLoadedFonts);
 
       float fMaxLineWidth = 0f;
       for (final PLRichTextLine aLine : m_aPreparedLines)
@@ -503,11 +863,10 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
             else
               if (aAnn instanceof final PLAnchorAnnotation aAnchor)
               {
-                PLAnchorRegistry.registerNamedDestination (aCtx.getDocument (),
-                                                           aAnchor.getName (),
-                                                           aCS.getPage (),
-                                                           fSegStartX,
-                                                           fSegBaselineY + fFontSize);
+                aCtx.registerNamedDestination (aAnchor.getName (),
+                                               aCS.getPage (),
+                                               fSegStartX,
+                                               fSegBaselineY + fFontSize);
               }
         }
 
@@ -730,6 +1089,8 @@ public class PLRichText extends AbstractPLInlineElement <PLRichText> implements
                             .append ("LineSpacing", m_fLineSpacing)
                             .append ("HorzAlign", m_eHorzAlign)
                             .append ("VertSplittable", m_bVertSplittable)
+                            .append ("TotalFitLineBreaking", m_bTotalFitLineBreaking)
+                            .append ("UnicodeLineBreaking", m_bUnicodeLineBreaking)
                             .getToString ();
   }
 }
@@ -20,6 +20,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Factory for one markup character class. Each factory owns a regex pattern
@@ -49,6 +50,23 @@ public interface IPLMarkupCharacterFactory
     return false;
   }
 
+  /**
+   * Get all characters of which at least one is contained in every match of
+   * {@link #getPattern()} and in every text that is modified by
+   * {@link #unescape(String)}. The parser uses this to skip the factory for
+   * text segments that cannot contain the marker, without running the regex.
+   *
+   * @return the trigger characters. May be <code>null</code> if unknown, in
+   *         which case the factory is applied to every text segment (which is
+   *         the default).
+   * @since 8.3.4
+   */
+  @Nullable
+  default String getTriggerCharacters ()
+  {
+    return null;
+  }
+
   /**
    * Creates the token for a successful regex match.
    *
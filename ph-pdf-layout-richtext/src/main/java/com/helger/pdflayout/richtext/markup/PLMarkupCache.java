@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.richtext.markup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * A bounded cache for the tokens of frequently parsed markup strings, like legal boilerplate or
+ * labels. Repeated markup is parsed only once by the underlying {@link PLMarkupParser}. As the
+ * tokens are independent of the font family and size, a cached entry is shared between all
+ * {@link com.helger.pdflayout.richtext.run.PLRichTextRunBuilder} instances.<br>
+ * The cache keeps at most {@link #getMaxEntries()} entries and evicts the least recently used ones.
+ * Markup strings longer than {@link #getMaxMarkupLength()} are not cached, as long paragraphs are
+ * usually unique.<br>
+ * The cache is only used if a global instance is set via {@link #setGlobalInstance(PLMarkupCache)}.
+ * The parser of the cache is created once, so later modifications of
+ * {@link PLMarkupParser#DEFAULT_FACTORIES} are not considered by an existing cache.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@ThreadSafe
+public final class PLMarkupCache
+{
+  /** The default maximum number of cached markup strings */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+  /** The default maximum length of a markup string to be cached */
+  public static final int DEFAULT_MAX_MARKUP_LENGTH = 4096;
+
+  private static volatile PLMarkupCache s_aGlobalInstance;
+
+  private final PLMarkupParser m_aParser;
+  private final int m_nMaxEntries;
+  private final int m_nMaxMarkupLength;
+  private final Lock m_aLock = new ReentrantLock ();
+  @GuardedBy ("m_aLock")
+  private final LinkedHashMap <String, ICommonsList <IPLMarkupToken>> m_aMap;
+  @GuardedBy ("m_aLock")
+  private long m_nHitCount = 0;
+  @GuardedBy ("m_aLock")
+  private long m_nMissCount = 0;
+
+  /** Creates a cache using a default {@link PLMarkupParser} and the default limits. */
+  public PLMarkupCache ()
+  {
+    this (new PLMarkupParser (), DEFAULT_MAX_ENTRIES, DEFAULT_MAX_MARKUP_LENGTH);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aParser
+   *        The parser to use. May not be <code>null</code>.
+   * @param nMaxEntries
+   *        The maximum number of cached markup strings. Must be &gt; 0.
+   * @param nMaxMarkupLength
+   *        The maximum length of a markup string to be cached. Must be &gt; 0.
+   */
+  public PLMarkupCache (@NonNull final PLMarkupParser aParser,
+                        @Nonnegative final int nMaxEntries,
+                        @Nonnegative final int nMaxMarkupLength)
+  {
+    ValueEnforcer.notNull (aParser, "Parser");
+    ValueEnforcer.isGT0 (nMaxEntries, "MaxEntries");
+    ValueEnforcer.isGT0 (nMaxMarkupLength, "MaxMarkupLength");
+    m_aParser = aParser;
+    m_nMaxEntries = nMaxEntries;
+    m_nMaxMarkupLength = nMaxMarkupLength;
+    // Access order for LRU
+    m_aMap = new LinkedHashMap <> (16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry (final Map.Entry <String, ICommonsList <IPLMarkupToken>> aEldest)
+      {
+        return size () > m_nMaxEntries;
+      }
+    };
+  }
+
+  /**
+   * @return The global instance used by
+   *         {@link com.helger.pdflayout.richtext.run.PLRichTextRunBuilder#buildFromMarkup(String)}.
+   *         May be <code>null</code>, which is the default.
+   */
+  @Nullable
+  public static PLMarkupCache getGlobalInstance ()
+  {
+    return s_aGlobalInstance;
+  }
+
+  /**
+   * Set the global instance used by
+   * {@link com.helger.pdflayout.richtext.run.PLRichTextRunBuilder#buildFromMarkup(String)}.
+   *
+   * @param aGlobalInstance
+   *        The new global instance. May be <code>null</code> to disable caching.
+   */
+  public static void setGlobalInstance (@Nullable final PLMarkupCache aGlobalInstance)
+  {
+    s_aGlobalInstance = aGlobalInstance;
+  }
+
+  /**
+   * @return The parser used by this cache. Never <code>null</code>.
+   */
+  @NonNull
+  public PLMarkupParser getParser ()
+  {
+    return m_aParser;
+  }
+
+  /**
+   * @return The maximum number of cached markup strings. Always &gt; 0.
+   */
+  @Nonnegative
+  public int getMaxEntries ()
+  {
+    return m_nMaxEntries;
+  }
+
+  /**
+   * @return The maximum length of a markup string to be cached. Always &gt; 0.
+   */
+  @Nonnegative
+  public int getMaxMarkupLength ()
+  {
+    return m_nMaxMarkupLength;
+  }
+
+  /**
+   * Get the tokens of the provided markup, either from the cache or by parsing it.
+   *
+   * @param sMarkup
+   *        The markup string to parse. May not be <code>null</code>.
+   * @return A copy of the tokenised representation. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <IPLMarkupToken> parse (@NonNull final String sMarkup)
+  {
+    ValueEnforcer.notNull (sMarkup, "Markup");
+
+    if (sMarkup.length () > m_nMaxMarkupLength)
+    {
+      m_aLock.lock ();
+      try
+      {
+        m_nMissCount++;
+      }
+      finally
+      {
+        m_aLock.unlock ();
+      }
+      return m_aParser.parse (sMarkup);
+    }
+
+    ICommonsList <IPLMarkupToken> aTokens;
+    m_aLock.lock ();
+    try
+    {
+      aTokens = m_aMap.get (sMarkup);
+      if (aTokens != null)
+        m_nHitCount++;
+      else
+        m_nMissCount++;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+
+    if (aTokens == null)
+    {
+      // Parse outside of the lock - tokens are immutable
+      aTokens = m_aParser.parse (sMarkup);
+      m_aLock.lock ();
+      try
+      {
+        m_aMap.put (sMarkup, aTokens);
+      }
+      finally
+      {
+        m_aLock.unlock ();
+      }
+    }
+    return aTokens.getClone ();
+  }
+
+  /**
+   * @return The number of cached markup strings. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_aMap.size ();
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cache hits. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getHitCount ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nHitCount;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cache misses, including markup strings that are too long to be cached.
+   *         Always &ge; 0.
+   */
+  @Nonnegative
+  public long getMissCount ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nMissCount;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * Remove all cached entries and reset the hit and miss counts.
+   */
+  public void clear ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      m_aMap.clear ();
+      m_nHitCount = 0;
+      m_nMissCount = 0;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return new ToStringGenerator (this).append ("MaxEntries", m_nMaxEntries)
+                                         .append ("MaxMarkupLength", m_nMaxMarkupLength)
+                                         .append ("Size", m_aMap.size ())
+                                         .append ("HitCount", m_nHitCount)
+                                         .append ("MissCount", m_nMissCount)
+                                         .getToString ();
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+}
@@ -184,12 +184,15 @@ public final class PLMarkupCharacters
   {
     private final Pattern m_aPattern;
     private final String m_sMarker;
+    private final String m_sTrigger;
     private final IPLMarkupToken m_aToken;
 
     ToggleFactory (final String sPattern, final String sMarker, final IPLMarkupToken aToken)
     {
       m_aPattern = Pattern.compile (sPattern);
       m_sMarker = sMarker;
+      // The marker consists of a single repeated character
+      m_sTrigger = sMarker.substring (0, 1);
       m_aToken = aToken;
     }
 
@@ -200,6 +203,13 @@ public final class PLMarkupCharacters
       return m_aPattern;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return m_sTrigger;
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -212,9 +222,8 @@ public final class PLMarkupCharacters
     public String unescape (@NonNull final String sText)
     {
       // Replace `\X` with a literal `X` so users can embed the marker as-is in
-      // their text. The leading `\\\\` becomes a literal backslash in the
-      // regex; combined with Pattern.quote(marker) we match `\*` and emit `*`.
-      return sText.replaceAll ("\\\\" + Pattern.quote (m_sMarker), m_sMarker);
+      // their text. This is a plain (non-regex) replacement of `\*` with `*`.
+      return sText.replace ("\\" + m_sMarker, m_sMarker);
     }
   }
 
@@ -251,6 +260,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "\n";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -304,6 +320,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "\n";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -354,6 +377,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "{";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -369,7 +399,7 @@ public final class PLMarkupCharacters
     @NonNull
     public String unescape (@NonNull final String sText)
     {
-      return sText.replaceAll ("\\\\" + Pattern.quote (MARKER), MARKER);
+      return sText.replace ("\\" + MARKER, MARKER);
     }
   }
 
@@ -415,6 +445,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "_";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -429,7 +466,7 @@ public final class PLMarkupCharacters
     @NonNull
     public String unescape (@NonNull final String sText)
     {
-      return sText.replaceAll ("\\\\" + Pattern.quote (MARKER), MARKER);
+      return sText.replace ("\\" + MARKER, MARKER);
     }
 
     private static float _parseFloat (final String sValue, final float fDefault)
@@ -507,6 +544,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "{";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -540,7 +584,7 @@ public final class PLMarkupCharacters
     @NonNull
     public String unescape (@NonNull final String sText)
     {
-      return sText.replaceAll ("\\\\" + Pattern.quote (MARKER), MARKER);
+      return sText.replace ("\\" + MARKER, MARKER);
     }
 
     private static float _parseFloat (final String sValue, final float fDefault)
@@ -599,6 +643,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "{";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -618,7 +669,7 @@ public final class PLMarkupCharacters
     @NonNull
     public String unescape (@NonNull final String sText)
     {
-      return sText.replaceAll ("\\\\" + Pattern.quote (MARKER), MARKER);
+      return sText.replace ("\\" + MARKER, MARKER);
     }
   }
 
@@ -659,6 +710,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "{";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -676,7 +734,7 @@ public final class PLMarkupCharacters
     @NonNull
     public String unescape (@NonNull final String sText)
     {
-      return sText.replaceAll ("\\\\" + Pattern.quote (MARKER), MARKER);
+      return sText.replace ("\\" + MARKER, MARKER);
     }
   }
 
@@ -718,6 +776,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "{";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -741,7 +806,7 @@ public final class PLMarkupCharacters
     @NonNull
     public String unescape (@NonNull final String sText)
     {
-      return sText.replaceAll ("\\\\" + Pattern.quote (MARKER), MARKER);
+      return sText.replace ("\\" + MARKER, MARKER);
     }
   }
 
@@ -787,6 +852,13 @@ public final class PLMarkupCharacters
       return PATTERN;
     }
 
+    @Override
+    @NonNull
+    public String getTriggerCharacters ()
+    {
+      return "{";
+    }
+
     @Override
     @NonNull
     public IPLMarkupToken createToken (@NonNull final String sText, @NonNull final Matcher aMatcher)
@@ -802,7 +874,7 @@ public final class PLMarkupCharacters
     @NonNull
     public String unescape (@NonNull final String sText)
     {
-      return sText.replaceAll ("\\\\" + Pattern.quote (MARKER), MARKER);
+      return sText.replace ("\\" + MARKER, MARKER);
     }
   }
 }
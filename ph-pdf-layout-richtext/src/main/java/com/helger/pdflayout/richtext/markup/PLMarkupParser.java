@@ -19,6 +19,7 @@ package com.helger.pdflayout.richtext.markup;
 import java.util.regex.Matcher;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.collection.commons.CommonsArrayList;
@@ -34,6 +35,14 @@ import com.helger.collection.commons.ICommonsList;
  * of factories matters — markers whose lexical form prefixes another marker
  * (e.g. bold {@code **} before italic {@code *}, or double-underscore
  * underline before any single-underscore marker) must come first.
+ * <p>
+ * To avoid a regex pass per factory, the input is scanned once up front to
+ * determine which {@link IPLMarkupCharacterFactory#getTriggerCharacters()
+ * trigger characters} are present. Factories whose trigger characters don't
+ * occur at all are skipped, and a factory is only applied to the text segments
+ * that contain at least one of its trigger characters. Plain text without any
+ * markup is therefore handled with a single scan. Factories that don't provide
+ * trigger characters are always applied.
  *
  * @author Philip Helger
  */
@@ -105,6 +114,16 @@ public final class PLMarkupParser
   @ReturnsMutableCopy
   public ICommonsList <IPLMarkupToken> parse (@NonNull final String sMarkup)
   {
+    // Determine all ASCII characters contained in the markup in a single pass
+    final boolean [] aPresent = new boolean [128];
+    final int nLength = sMarkup.length ();
+    for (int i = 0; i < nLength; ++i)
+    {
+      final char c = sMarkup.charAt (i);
+      if (c < 128)
+        aPresent[c] = true;
+    }
+
     // Start with a single text segment.
     ICommonsList <Object> aSegments = new CommonsArrayList <> ();
     aSegments.add (sMarkup);
@@ -112,7 +131,9 @@ public final class PLMarkupParser
     // Split by each factory in turn.
     for (final IPLMarkupCharacterFactory aFactory : m_aFactories)
     {
-      aSegments = _splitOnce (aFactory, aSegments);
+      final String sTriggers = aFactory.getTriggerCharacters ();
+      if (sTriggers == null || _containsAnyTrigger (aPresent, sTriggers))
+        aSegments = _splitOnce (aFactory, sTriggers, aSegments);
     }
 
     // Unescape any remaining backslash-backslash pairs in the plain text.
@@ -123,7 +144,7 @@ public final class PLMarkupParser
       {
         if (!sPlain.isEmpty ())
         {
-          aResult.add (new IPLMarkupToken.Text (sPlain.replace ("\\\\", "\\")));
+          aResult.add (new IPLMarkupToken.Text (aPresent['\\'] ? sPlain.replace ("\\\\", "\\") : sPlain));
         }
       }
       else
@@ -135,42 +156,76 @@ public final class PLMarkupParser
     return aResult;
   }
 
+  private static boolean _containsAnyTrigger (final boolean @NonNull [] aPresent, @NonNull final String sTriggers)
+  {
+    for (int i = 0; i < sTriggers.length (); ++i)
+    {
+      final char c = sTriggers.charAt (i);
+      // Non-ASCII triggers are not tracked
+      if (c >= 128 || aPresent[c])
+        return true;
+    }
+    return false;
+  }
+
+  private static boolean _containsAnyTrigger (@NonNull final String sText, @Nullable final String sTriggers)
+  {
+    if (sTriggers == null)
+      return true;
+    for (int i = 0; i < sTriggers.length (); ++i)
+      if (sText.indexOf (sTriggers.charAt (i)) >= 0)
+        return true;
+    return false;
+  }
+
   /**
    * Splits every {@link String} segment in {@code aIn} by the factory's pattern,
    * keeping non-String segments unchanged. Matched regions are replaced by
-   * tokens; surrounding plain text is unescaped.
+   * tokens; surrounding plain text is unescaped. Segments that contain none of
+   * the trigger characters are kept as they are, because neither the pattern
+   * nor the unescaping can change them.
    */
   @NonNull
   private static ICommonsList <Object> _splitOnce (@NonNull final IPLMarkupCharacterFactory aFactory,
+                                                   @Nullable final String sTriggers,
                                                    @NonNull final ICommonsList <Object> aIn)
   {
-    final ICommonsList <Object> aOut = new CommonsArrayList <> ();
+    final ICommonsList <Object> aOut = new CommonsArrayList <> (aIn.size ());
     boolean bBeginOfLine = true;
     for (final Object aCurrent : aIn)
     {
       if (aCurrent instanceof final String sCurrent)
       {
-        int nBegin = 0;
-        if (!aFactory.patternMatchesBeginOfLine () || bBeginOfLine)
+        if (!_containsAnyTrigger (sCurrent, sTriggers))
+        {
+          // Quick version - nothing to split or unescape
+          if (!sCurrent.isEmpty ())
+            aOut.add (sCurrent);
+        }
+        else
         {
-          final Matcher aMatcher = aFactory.getPattern ().matcher (sCurrent);
-          while (aMatcher.find ())
+          int nBegin = 0;
+          if (!aFactory.patternMatchesBeginOfLine () || bBeginOfLine)
           {
-            final String sPart = sCurrent.substring (nBegin, aMatcher.start ());
-            nBegin = aMatcher.end ();
-
-            if (!sPart.isEmpty ())
+            final Matcher aMatcher = aFactory.getPattern ().matcher (sCurrent);
+            while (aMatcher.find ())
             {
-              aOut.add (aFactory.unescape (sPart));
-            }
+              final String sPart = sCurrent.substring (nBegin, aMatcher.start ());
+              nBegin = aMatcher.end ();
+
+              if (!sPart.isEmpty ())
+              {
+                aOut.add (aFactory.unescape (sPart));
+              }
 
-            aOut.add (aFactory.createToken (sCurrent, aMatcher));
+              aOut.add (aFactory.createToken (sCurrent, aMatcher));
+            }
           }
-        }
 
-        if (nBegin < sCurrent.length ())
-        {
-          aOut.add (aFactory.unescape (sCurrent.substring (nBegin)));
+          if (nBegin < sCurrent.length ())
+          {
+            aOut.add (aFactory.unescape (sCurrent.substring (nBegin)));
+          }
         }
       }
       else
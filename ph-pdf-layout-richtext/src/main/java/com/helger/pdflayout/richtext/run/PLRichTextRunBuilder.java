@@ -33,6 +33,7 @@ import com.helger.pdflayout.base.PLColor;
 import com.helger.pdflayout.richtext.annotation.IPLRichTextAnnotation;
 import com.helger.pdflayout.richtext.markup.IPLMarkupToken;
 import com.helger.pdflayout.richtext.markup.IPLMarkupToken.MetricsToggle;
+import com.helger.pdflayout.richtext.markup.PLMarkupCache;
 import com.helger.pdflayout.richtext.markup.PLMarkupParser;
 import com.helger.pdflayout.spec.FontSpec;
 
@@ -164,7 +165,8 @@ public final class PLRichTextRunBuilder
   }
 
   /**
-   * Convenience: parse the markup and build the runs in one step.
+   * Convenience: parse the markup and build the runs in one step. If a global
+   * {@link PLMarkupCache} is present, repeated markup is parsed only once.
    *
    * @param sMarkup
    *        the markup string.
@@ -174,6 +176,7 @@ public final class PLRichTextRunBuilder
   @ReturnsMutableCopy
   public ICommonsList <PLRichTextRun> buildFromMarkup (@NonNull final String sMarkup)
   {
-    return build (new PLMarkupParser ().parse (sMarkup));
+    final PLMarkupCache aCache = PLMarkupCache.getGlobalInstance ();
+    return build (aCache != null ? aCache.parse (sMarkup) : new PLMarkupParser ().parse (sMarkup));
   }
 }
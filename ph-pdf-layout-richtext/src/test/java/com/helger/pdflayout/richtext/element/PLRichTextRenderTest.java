@@ -16,23 +16,32 @@
  */
 package com.helger.pdflayout.richtext.element;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
 import org.junit.Test;
 
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
 import com.helger.pdflayout.PDFCreationException;
 import com.helger.pdflayout.PageLayoutPDF;
 import com.helger.pdflayout.base.PLColor;
 import com.helger.pdflayout.base.PLPageSet;
+import com.helger.pdflayout.element.text.PLText;
 import com.helger.pdflayout.richtext.run.PLFontFamily;
 import com.helger.pdflayout.richtext.run.PLRichTextRun;
+import com.helger.pdflayout.spec.EHorzAlignment;
 import com.helger.pdflayout.spec.FontSpec;
 import com.helger.pdflayout.spec.PreloadFont;
 
@@ -104,4 +113,113 @@ public final class PLRichTextRenderTest
     assertTrue ("Expected wrapped block taller than a single line",
                 aRT.getPreparedSize ().getHeight () > fSingleLineHeight);
   }
+
+  @Test
+  public void testWrappingSurrogatePairs () throws IOException, PDFCreationException
+  {
+    // A long word without spaces, consisting of characters outside the BMP, forces char wrapping
+    final String sWord = "\uD835\uDC00\uD835\uDC01\uD835\uDC02".repeat (40);
+    final ICommonsList <PLRichTextRun> aRuns = new CommonsArrayList <> ();
+    aRuns.add (new PLRichTextRun ("Start " + sWord + " end", new FontSpec (PreloadFont.REGULAR, 12, PLColor.BLACK)));
+
+    final PLRichText aRT = new PLRichText (aRuns);
+    final PLPageSet aPS = new PLPageSet (200, 400).setMargin (10);
+    aPS.addElement (aRT);
+
+    final PageLayoutPDF aLayout = new PageLayoutPDF ().addPageSet (aPS);
+    _renderToTemp (aLayout, "surrogates");
+    assertTrue (aRT.getPreparedSize ().getHeight () > 12f * 1.2f);
+  }
+
+  @Test
+  public void testLongParagraph () throws IOException, PDFCreationException
+  {
+    // A single run spanning many pages
+    final StringBuilder aSB = new StringBuilder ();
+    for (int i = 0; i < 20_000; ++i)
+      aSB.append ("word").append (i).append (' ');
+    final ICommonsList <PLRichTextRun> aRuns = new CommonsArrayList <> ();
+    aRuns.add (new PLRichTextRun (aSB.toString ().trim (), new FontSpec (PreloadFont.REGULAR, 10, PLColor.BLACK)));
+
+    final PLPageSet aPS = new PLPageSet (PDRectangle.A4).setMargin (40);
+    aPS.addElement (new PLRichText (aRuns));
+
+    final PageLayoutPDF aLayout = new PageLayoutPDF ().addPageSet (aPS);
+    _renderToTemp (aLayout, "longparagraph");
+  }
+
+  @Test
+  public void testUnicodeLineBreaking () throws IOException, PDFCreationException
+  {
+    // Long hyphenated words and a URL without spaces
+    final String sWord = "state-of-the-art-".repeat (20) + "https://example.org/a/very/long/path/".repeat (5);
+    final ICommonsList <PLRichTextRun> aRuns = new CommonsArrayList <> ();
+    aRuns.add (new PLRichTextRun ("Start " + sWord + " end", new FontSpec (PreloadFont.REGULAR, 12, PLColor.BLACK)));
+
+    final PLRichText aRT = new PLRichText (aRuns).setUnicodeLineBreaking (true);
+    assertTrue (aRT.isUnicodeLineBreaking ());
+    final PLPageSet aPS = new PLPageSet (200, 400).setMargin (10);
+    aPS.addElement (aRT);
+
+    final PageLayoutPDF aLayout = new PageLayoutPDF ().addPageSet (aPS);
+    _renderToTemp (aLayout, "unicodelinebreaking");
+    assertTrue (aRT.getPreparedSize ().getHeight () > 12f * 1.2f);
+  }
+
+  @Test
+  public void testTotalFitLineBreaking () throws IOException, PDFCreationException
+  {
+    final StringBuilder aSB = new StringBuilder ();
+    for (int i = 0; i < 200; ++i)
+      aSB.append (i % 3 == 0 ? "a" : "word").append (i).append (' ');
+    final PLRichText aRT = PLRichText.createFromMarkup ("**Bold** start " + aSB.toString ().trim () + "\n\nSecond paragraph",
+                                                        FONT_FAMILY,
+                                                        12f,
+                                                        PLColor.BLACK)
+                                     .setHorzAlign (EHorzAlignment.JUSTIFY)
+                                     .setTotalFitLineBreaking (true);
+    final PLPageSet aPS = new PLPageSet (200, 400).setMargin (10);
+    aPS.addElement (aRT);
+
+    final PageLayoutPDF aLayout = new PageLayoutPDF ().addPageSet (aPS);
+    _renderToTemp (aLayout, "totalfit");
+    assertTrue (aRT.isTotalFitLineBreaking ());
+  }
+
+  @Test
+  public void testLinkInFooterRenderedOnEachPage () throws IOException, PDFCreationException
+  {
+    final PLRichText aFooter = PLRichText.createFromMarkup ("See {link[https://github.com/phax/ph-pdf-layout]}ph-pdf-layout{link}",
+                                                            FONT_FAMILY,
+                                                            10f,
+                                                            PLColor.BLACK);
+    assertTrue (aFooter.isRenderingPageSpecificObjects ());
+    assertFalse (PLRichText.createFromMarkup ("**No link**", FONT_FAMILY, 10f, PLColor.BLACK)
+                           .isRenderingPageSpecificObjects ());
+
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+    final PLPageSet aPS = new PLPageSet (PDRectangle.A4).setMargin (60, 30).setRenderHeaderFooterAsForm (true);
+    aPS.setPageFooter (aFooter);
+    for (int i = 0; i < 250; ++i)
+      aPS.addElement (new PLText ("Body line " + i, r10));
+
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      new PageLayoutPDF ().addPageSet (aPS).renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        assertTrue (aDoc.getNumberOfPages () > 2);
+        for (int i = 0; i < aDoc.getNumberOfPages (); ++i)
+        {
+          int nLinks = 0;
+          for (final PDAnnotation aAnnotation : aDoc.getPage (i).getAnnotations ())
+            if (aAnnotation instanceof PDAnnotationLink)
+              nLinks++;
+          assertEquals ("Page " + i, 1, nLinks);
+          // The footer is not rendered as a form
+          assertFalse (aDoc.getPage (i).getResources ().getXObjectNames ().iterator ().hasNext ());
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.richtext.markup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Tests {@link PLMarkupCache}.
+ *
+ * @author Philip Helger
+ */
+public final class PLMarkupCacheTest
+{
+  @Test
+  public void testHitAndMiss ()
+  {
+    final PLMarkupCache aCache = new PLMarkupCache ();
+    final ICommonsList <IPLMarkupToken> aTokens1 = aCache.parse ("hi **bold** world");
+    assertEquals (0, aCache.getHitCount ());
+    assertEquals (1, aCache.getMissCount ());
+    assertEquals (1, aCache.size ());
+
+    final ICommonsList <IPLMarkupToken> aTokens2 = aCache.parse ("hi **bold** world");
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (1, aCache.getMissCount ());
+    assertEquals (1, aCache.size ());
+
+    // Each call returns a copy
+    assertNotSame (aTokens1, aTokens2);
+    assertEquals (5, aTokens2.size ());
+    assertTrue (aTokens2.get (1) instanceof IPLMarkupToken.BoldToggle);
+    assertEquals (new PLMarkupParser ().parse ("hi **bold** world").size (), aTokens1.size ());
+
+    aTokens2.clear ();
+    assertEquals (5, aCache.parse ("hi **bold** world").size ());
+  }
+
+  @Test
+  public void testEviction ()
+  {
+    final PLMarkupCache aCache = new PLMarkupCache (new PLMarkupParser (), 2, 10);
+    aCache.parse ("a");
+    aCache.parse ("b");
+    // Access "a" so that "b" is the least recently used
+    aCache.parse ("a");
+    aCache.parse ("c");
+    assertEquals (2, aCache.size ());
+    assertEquals (1, aCache.getHitCount ());
+
+    aCache.parse ("a");
+    assertEquals (2, aCache.getHitCount ());
+    aCache.parse ("b");
+    assertEquals (2, aCache.getHitCount ());
+
+    // Too long to be cached
+    aCache.parse ("This markup is too long");
+    aCache.parse ("This markup is too long");
+    assertEquals (2, aCache.getHitCount ());
+    assertEquals (2, aCache.size ());
+
+    aCache.clear ();
+    assertEquals (0, aCache.size ());
+    assertEquals (0, aCache.getHitCount ());
+    assertEquals (0, aCache.getMissCount ());
+  }
+}
@@ -21,6 +21,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import org.junit.Test;
 
 import com.helger.collection.commons.ICommonsList;
@@ -331,4 +334,52 @@ public final class PLMarkupParserTest
     assertEquals (0.5f, aCmyk.getY (), 0.0001f);
     assertEquals (0.999f, aCmyk.getK (), 0.0001f);
   }
+
+  @Test
+  public void testEscapedBackslashWithoutMarkers ()
+  {
+    // No factory is triggered, but the escaped backslash must still be unescaped
+    final ICommonsList <IPLMarkupToken> aTokens = new PLMarkupParser ().parse ("a\\\\b");
+    assertEquals (1, aTokens.size ());
+    assertEquals ("a\\b", ((IPLMarkupToken.Text) aTokens.get (0)).getText ());
+  }
+
+  @Test
+  public void testCustomFactoryWithoutTriggerCharacters ()
+  {
+    final IPLMarkupCharacterFactory aCustom = new IPLMarkupCharacterFactory ()
+    {
+      private final Pattern m_aPattern = Pattern.compile ("@@");
+
+      @Override
+      public Pattern getPattern ()
+      {
+        return m_aPattern;
+      }
+
+      @Override
+      public IPLMarkupToken createToken (final String sText, final Matcher aMatcher)
+      {
+        return IPLMarkupToken.BoldToggle.INSTANCE;
+      }
+
+      @Override
+      public String unescape (final String sText)
+      {
+        return sText;
+      }
+    };
+    final ICommonsList <IPLMarkupCharacterFactory> aFactories = PLMarkupParser.DEFAULT_FACTORIES.getClone ();
+    aFactories.add (aCustom);
+
+    final ICommonsList <IPLMarkupToken> aTokens = new PLMarkupParser (aFactories).parse ("x@@*y*@@");
+    // Text, BoldToggle, ItalicToggle, Text, ItalicToggle, BoldToggle
+    assertEquals (6, aTokens.size ());
+    assertEquals ("x", ((IPLMarkupToken.Text) aTokens.get (0)).getText ());
+    assertTrue (aTokens.get (1) instanceof IPLMarkupToken.BoldToggle);
+    assertTrue (aTokens.get (2) instanceof IPLMarkupToken.ItalicToggle);
+    assertEquals ("y", ((IPLMarkupToken.Text) aTokens.get (3)).getText ());
+    assertTrue (aTokens.get (4) instanceof IPLMarkupToken.ItalicToggle);
+    assertTrue (aTokens.get (5) instanceof IPLMarkupToken.BoldToggle);
+  }
 }
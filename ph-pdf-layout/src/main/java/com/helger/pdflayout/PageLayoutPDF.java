@@ -25,8 +25,13 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
-import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentCatalog;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
@@ -68,7 +73,12 @@ import com.helger.pdflayout.base.IPLVisitable;
 import com.helger.pdflayout.base.IPLVisitor;
 import com.helger.pdflayout.base.PLPageSet;
 import com.helger.pdflayout.base.PLPageSetPrepareResult;
+import com.helger.pdflayout.base.PLPageSetRenderSettings;
+import com.helger.pdflayout.render.PLImageXObjectCache;
 import com.helger.pdflayout.render.PreparationContextGlobal;
+import com.helger.pdflayout.spec.FontSubsetCache;
+import com.helger.pdflayout.spec.LoadedFont;
+import com.helger.pdflayout.spec.PreloadFont;
 
 /**
  * Main class for creating layouted PDFs. This class contains the meta data as well as a list of
@@ -106,6 +116,9 @@ public class PageLayoutPDF implements IPLVisitable
   private int m_nCustomTotalPageCount = -1;
   private IPDDocumentCustomizer m_aDocumentCustomizer;
   private IXMPMetadataCustomizer m_aMetadataCustomizer;
+  private StreamCacheCreateFunction m_aStreamCacheCreateFunction;
+  private Executor m_aPrepareExecutor;
+  private Executor m_aRenderExecutor;
 
   /**
    * Constructor. Initializes Author, CreationDate and Creator from class {@link VendorInfo}.
@@ -529,6 +542,130 @@ public class PageLayoutPDF implements IPLVisitable
     return this;
   }
 
+  /**
+   * @return The stream cache creation function to be used for the created {@link PDDocument}. May
+   *         be <code>null</code> in which case the PDFBox default (all in memory) is used.
+   * @since 8.3.4
+   */
+  @Nullable
+  public final StreamCacheCreateFunction getStreamCacheCreateFunction ()
+  {
+    return m_aStreamCacheCreateFunction;
+  }
+
+  /**
+   * Set the stream cache creation function to be used for the created {@link PDDocument}. All
+   * stream data (like the content streams of the pages, images and fonts) is kept in this cache
+   * until the document is saved. By default everything is kept in memory, which means the heap
+   * usage grows linearly with the number of pages. For very large documents use e.g.
+   * {@link IOUtils#createTempFileOnlyStreamCache()} so that the content of each finished page is
+   * written to a scratch file instead and only the object structure stays on the heap.
+   *
+   * @param aStreamCacheCreateFunction
+   *        The function to use. May be <code>null</code> to use the PDFBox default.
+   * @return this for chaining
+   * @see #setStreamingMode(boolean)
+   * @since 8.3.4
+   */
+  @NonNull
+  public final PageLayoutPDF setStreamCacheCreateFunction (@Nullable final StreamCacheCreateFunction aStreamCacheCreateFunction)
+  {
+    m_aStreamCacheCreateFunction = aStreamCacheCreateFunction;
+    return this;
+  }
+
+  /**
+   * Shortcut to enable or disable the streaming mode for very large documents. In streaming mode
+   * the stream data of all finished pages is written to a temporary scratch file instead of being
+   * kept on the heap.
+   *
+   * @param bStreamingMode
+   *        <code>true</code> to use a temporary file based stream cache, <code>false</code> to use
+   *        the in-memory default.
+   * @return this for chaining
+   * @see #setStreamCacheCreateFunction(StreamCacheCreateFunction)
+   * @since 8.3.4
+   */
+  @NonNull
+  public final PageLayoutPDF setStreamingMode (final boolean bStreamingMode)
+  {
+    return setStreamCacheCreateFunction (bStreamingMode ? IOUtils.createTempFileOnlyStreamCache () : null);
+  }
+
+  /**
+   * @return The executor to be used to prepare the page sets in parallel. May be <code>null</code>
+   *         in which case all page sets are prepared sequentially.
+   * @since 8.3.4
+   */
+  @Nullable
+  public final Executor getPrepareExecutor ()
+  {
+    return m_aPrepareExecutor;
+  }
+
+  /**
+   * Set the executor to be used to prepare the page sets in parallel. Page sets are independent of
+   * each other during preparation (the total page count is only needed when rendering), so e.g. a
+   * {@link java.util.concurrent.ForkJoinPool} can be used to lay out many page sets on multiple
+   * cores. Rendering always happens sequentially in the order of the page sets.<br>
+   * Note: elements are modified during preparation, so the same element instance (including page
+   * headers and footers) must not be contained in more than one page set if a prepare executor is
+   * used. If the preparation of a page set fails, the original exception is thrown.
+   *
+   * @param aPrepareExecutor
+   *        The executor to use. May be <code>null</code> to prepare all page sets sequentially
+   *        (which is the default).
+   * @return this for chaining
+   * @since 8.3.4
+   */
+  @NonNull
+  public final PageLayoutPDF setPrepareExecutor (@Nullable final Executor aPrepareExecutor)
+  {
+    m_aPrepareExecutor = aPrepareExecutor;
+    return this;
+  }
+
+  /**
+   * @return The executor to be used to render the page contents in parallel. May be
+   *         <code>null</code> in which case all pages are rendered sequentially.
+   * @since 8.3.4
+   */
+  @Nullable
+  public final Executor getRenderExecutor ()
+  {
+    return m_aRenderExecutor;
+  }
+
+  /**
+   * Set the executor to be used to render the content elements of the pages in parallel. The
+   * rendered content is attached to the pages in page order, so the resulting document is
+   * deterministic. Page headers and footers are still rendered sequentially. Page sets with content
+   * elements that are shared between pages or that replace placeholders are rendered sequentially
+   * as well. See
+   * {@link PLPageSet#renderAllPages(PLPageSetPrepareResult, PDDocument, PLPageSetRenderSettings)}
+   * for details.
+   *
+   * @param aRenderExecutor
+   *        The executor to use. May be <code>null</code> to render all pages sequentially (which
+   *        is the default).
+   * @return this for chaining
+   * @since 8.3.4
+   */
+  @NonNull
+  public final PageLayoutPDF setRenderExecutor (@Nullable final Executor aRenderExecutor)
+  {
+    m_aRenderExecutor = aRenderExecutor;
+    return this;
+  }
+
+  @NonNull
+  private PDDocument _createPDDocument ()
+  {
+    if (m_aStreamCacheCreateFunction != null)
+      return new PDDocument (m_aStreamCacheCreateFunction);
+    return new PDDocument ();
+  }
+
   @NonNull
   public EChange visit (@NonNull final IPLVisitor aVisitor) throws IOException
   {
@@ -552,14 +689,186 @@ public class PageLayoutPDF implements IPLVisitable
       // Global context
       final PreparationContextGlobal aGlobalPrepareCtx = new PreparationContextGlobal (aDoc);
       // Through all page sets
+      _prepareAllPageSets (aGlobalPrepareCtx, false);
+    }
+    catch (final IOException ex)
+    {
+      LOGGER.error ("Failed to prepare page sets", ex);
+    }
+  }
+
+  /**
+   * Prepare all page sets - either sequentially or in parallel, depending on the configured
+   * prepare executor. In parallel mode the page sets must not share any element.
+   *
+   * @param aGlobalPrepareCtx
+   *        The global preparation context. May not be <code>null</code>.
+   * @param bReusePrepared
+   *        <code>true</code> to reuse the results of page sets that are already prepared,
+   *        <code>false</code> to prepare all page sets.
+   * @return An array with the prepare results in the order of the page sets. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  private PLPageSetPrepareResult [] _prepareAllPageSets (@NonNull final PreparationContextGlobal aGlobalPrepareCtx,
+                                                         final boolean bReusePrepared)
+  {
+    final int nPageSetCount = m_aPageSets.size ();
+    final PLPageSetPrepareResult [] ret = new PLPageSetPrepareResult [nPageSetCount];
+    final Executor aExecutor = m_aPrepareExecutor;
+    if (aExecutor == null || nPageSetCount < 2)
+    {
+      // Sequential version
+      for (int i = 0; i < nPageSetCount; ++i)
+      {
+        final PLPageSet aPageSet = m_aPageSets.get (i);
+        // Handle pre prepared page sets
+        if (bReusePrepared && aPageSet.isPrepared ())
+          ret[i] = aPageSet.internalGetPrepareResult ();
+        else
+          ret[i] = aPageSet.prepareAllPages (aGlobalPrepareCtx);
+      }
+    }
+    else
+    {
+      // Parallel version
+      final ICommonsList <CompletableFuture <PLPageSetPrepareResult>> aFutures = new CommonsArrayList <> (nPageSetCount);
       for (final PLPageSet aPageSet : m_aPageSets)
       {
-        aPageSet.prepareAllPages (aGlobalPrepareCtx);
+        // Handle pre prepared page sets
+        if (bReusePrepared && aPageSet.isPrepared ())
+          aFutures.add (CompletableFuture.completedFuture (aPageSet.internalGetPrepareResult ()));
+        else
+          aFutures.add (CompletableFuture.supplyAsync ( () -> aPageSet.prepareAllPages (aGlobalPrepareCtx), aExecutor));
+      }
+
+      // Collect the results in the order of the page sets
+      for (int i = 0; i < nPageSetCount; ++i)
+      {
+        try
+        {
+          ret[i] = aFutures.get (i).join ();
+        }
+        catch (final CompletionException ex)
+        {
+          // Propagate the original exception, as in the sequential version
+          final Throwable aCause = ex.getCause ();
+          if (aCause instanceof final RuntimeException aRT)
+            throw aRT;
+          if (aCause instanceof final Error aError)
+            throw aError;
+          // Preparation doesn't throw checked exceptions
+          throw new IllegalStateException ("Failed to prepare page set " + i, aCause);
+        }
       }
     }
-    catch (final IOException ex)
+    return ret;
+  }
+
+  /**
+   * Add all the PDF/A specific information (XMP metadata, output intent, mark info and structure
+   * tree root) to the provided document. This is done on the live document before it is saved, so
+   * no save-reload-save cycle is needed.
+   *
+   * @param aDoc
+   *        The document to be modified. May not be <code>null</code>.
+   * @throws IOException
+   *         In case of an error
+   */
+  private void _addPDF_AInformation (@NonNull final PDDocument aDoc) throws IOException
+  {
+    final Calendar aCreationDate = m_aDocumentCreationDate == null ? PDTFactory.createCalendar ()
+                                                                   : GregorianCalendar.from (m_aDocumentCreationDate);
+    final String sProducer = PLConfig.PROJECT_NAME + " " + PLConfig.PROJECT_VERSION;
+
+    final XMPMetadata aXmpMetadata = XMPMetadata.createXMPMetadata ();
+    final AdobePDFSchema aPDFSchema = aXmpMetadata.createAndAddAdobePDFSchema ();
+    aPDFSchema.setProducer (sProducer);
+
+    final XMPBasicSchema aXmpBasicSchema = aXmpMetadata.createAndAddXMPBasicSchema ();
+    aXmpBasicSchema.setCreatorTool (sProducer);
+    aXmpBasicSchema.setCreateDate (aCreationDate);
+    aXmpBasicSchema.setModifyDate (aCreationDate);
+
+    final PDDocumentCatalog aDocCatalogue = aDoc.getDocumentCatalog ();
+
+    final PDMarkInfo aMarkInfo = new PDMarkInfo ();
+    final PDStructureTreeRoot aTreeRoot = new PDStructureTreeRoot ();
+    aDocCatalogue.setMarkInfo (aMarkInfo);
+    aDocCatalogue.setStructureTreeRoot (aTreeRoot);
+    aDocCatalogue.getMarkInfo ().setMarked (true);
+
+    final PDDocumentInformation aDocInfo = aDoc.getDocumentInformation ();
+    aDocInfo.setCreationDate (aCreationDate);
+    aDocInfo.setModificationDate (aCreationDate);
+    if (StringHelper.isNotEmpty (m_sDocumentAuthor))
+      aDocInfo.setAuthor (m_sDocumentAuthor);
+    aDocInfo.setProducer (sProducer);
+    if (StringHelper.isNotEmpty (m_sDocumentCreator))
+      aDocInfo.setCreator (m_sDocumentCreator);
+    if (StringHelper.isNotEmpty (m_sDocumentTitle))
+      aDocInfo.setTitle (m_sDocumentTitle);
+    if (StringHelper.isNotEmpty (m_sDocumentSubject))
+      aDocInfo.setSubject (m_sDocumentSubject);
+
+    try
     {
-      LOGGER.error ("Failed to prepare page sets", ex);
+      final DublinCoreSchema aDCSchema = aXmpMetadata.createAndAddDublinCoreSchema ();
+      if (StringHelper.isNotEmpty (m_sDocumentTitle))
+        aDCSchema.setTitle (m_sDocumentTitle);
+      if (StringHelper.isNotEmpty (m_sDocumentCreator))
+        aDCSchema.addCreator (m_sDocumentCreator);
+      if (StringHelper.isNotEmpty (m_sDocumentKeywords))
+        aDCSchema.addDescription ("", m_sDocumentKeywords);
+      if (StringHelper.isNotEmpty (m_sDocumentSubject))
+        aDCSchema.addSubject (m_sDocumentSubject);
+      aDCSchema.addDate (aCreationDate);
+
+      final PDFAIdentificationSchema aIdentificationSchema = aXmpMetadata.createAndAddPDFAIdentificationSchema ();
+      aIdentificationSchema.setPart (Integer.valueOf (3));
+      aIdentificationSchema.setConformance ("A");
+
+      if (m_aMetadataCustomizer != null)
+        m_aMetadataCustomizer.customizeMetadata (aXmpMetadata);
+
+      try (final NonBlockingByteArrayOutputStream aXmpOS = new NonBlockingByteArrayOutputStream ())
+      {
+        final XmpSerializer aSerializer = new XmpSerializer ();
+        aSerializer.serialize (aXmpMetadata, aXmpOS, true);
+
+        final PDMetadata aMetadata = new PDMetadata (aDoc);
+        aMetadata.importXMPMetadata (aXmpOS.toByteArray ());
+        aDocCatalogue.setMetadata (aMetadata);
+      }
+    }
+    catch (final BadFieldValueException ex)
+    {
+      throw new IllegalArgumentException ("Failed to set PDF Metadata", ex);
+    }
+
+    // Set color profile (needed by PDF/A)
+    final ICC_Profile aRgbProfile = ICC_Profile.getInstance (ColorSpace.CS_sRGB);
+    final byte [] aRgbBytes = aRgbProfile.getData ();
+
+    try (final NonBlockingByteArrayInputStream aColorProfile = new NonBlockingByteArrayInputStream (aRgbBytes))
+    {
+      final PDOutputIntent aIntent = new PDOutputIntent (aDoc, aColorProfile);
+      aIntent.setInfo ("sRGB IEC61966-2.1");
+      aIntent.setOutputCondition ("sRGB IEC61966-2.1");
+      aIntent.setOutputConditionIdentifier ("sRGB IEC61966-2.1");
+      aIntent.setRegistryName ("http://www.color.org");
+
+      aDocCatalogue.addOutputIntent (aIntent);
+    }
+
+    if (StringHelper.isNotEmpty (m_sDocumentLanguage))
+      aDocCatalogue.setLanguage (m_sDocumentLanguage);
+
+    for (final PDPage aPage : aDoc.getPages ())
+    {
+      final PDViewerPreferences aViewerPrefs = new PDViewerPreferences (aPage.getCOSObject ());
+      aViewerPrefs.setDisplayDocTitle (true);
+      aDocCatalogue.setViewerPreferences (aViewerPrefs);
     }
   }
 
@@ -579,12 +888,11 @@ public class PageLayoutPDF implements IPLVisitable
   {
     ValueEnforcer.notNull (aOS, "OutputStream");
 
-    try (final NonBlockingByteArrayOutputStream aTmpOS = new NonBlockingByteArrayOutputStream ())
+    try
     {
       // create a new document
       // Use a buffered OS - approx 30% faster!
-      try (final PDDocument aDoc = new PDDocument ();
-           final OutputStream aBufferedOS = StreamHelper.getBuffered (m_bCreatePDF_A ? aTmpOS : aOS))
+      try (final PDDocument aDoc = _createPDDocument (); final OutputStream aBufferedOS = StreamHelper.getBuffered (aOS))
       {
         // Small consistency check to avoid creating empty, invalid PDFs
         int nTotalElements = 0;
@@ -620,23 +928,11 @@ public class PageLayoutPDF implements IPLVisitable
 
         // Prepare all page sets
         final PreparationContextGlobal aGlobalPrepareCtx = new PreparationContextGlobal (aDoc);
-        final PLPageSetPrepareResult [] aPRs = new PLPageSetPrepareResult [m_aPageSets.size ()];
-        int nPageSetIndex = 0;
+        final PLPageSetPrepareResult [] aPRs = _prepareAllPageSets (aGlobalPrepareCtx, true);
         // Eventually start at the custom offset
         int nTotalPageCount = m_nCustomLeadingPageCount > 0 ? m_nCustomLeadingPageCount : 0;
-        for (final PLPageSet aPageSet : m_aPageSets)
-        {
-          final PLPageSetPrepareResult aPR;
-
-          // Handle pre prepared page sets
-          if (aPageSet.isPrepared ())
-            aPR = aPageSet.internalGetPrepareResult ();
-          else
-            aPR = aPageSet.prepareAllPages (aGlobalPrepareCtx);
-          aPRs[nPageSetIndex] = aPR;
+        for (final PLPageSetPrepareResult aPR : aPRs)
           nTotalPageCount += aPR.getPageCount ();
-          nPageSetIndex++;
-        }
         // Add the custom trailing page count to the total pages
         if (m_nCustomTrailingPageCount > 0)
           nTotalPageCount += m_nCustomTrailingPageCount;
@@ -645,21 +941,21 @@ public class PageLayoutPDF implements IPLVisitable
         if (m_nCustomTotalPageCount > 0)
           nTotalPageCount = m_nCustomTotalPageCount;
 
-        // Render all page sets
-        nPageSetIndex = 0;
+        // Render all page sets - images are shared between all page sets
+        final PLImageXObjectCache aImageCache = new PLImageXObjectCache ();
+        int nPageSetIndex = 0;
         final int nPageSetCount = m_aPageSets.size ();
         // Eventually start at the custom offset
         int nTotalPageIndex = m_nCustomLeadingPageCount > 0 ? m_nCustomLeadingPageCount : 0;
         for (final PLPageSet aPageSet : m_aPageSets)
         {
           final PLPageSetPrepareResult aPR = aPRs[nPageSetIndex];
-          aPageSet.renderAllPages (aPR,
-                                   aDoc,
-                                   m_bCompressPDF,
-                                   nPageSetIndex,
-                                   nPageSetCount,
-                                   nTotalPageIndex,
-                                   nTotalPageCount);
+          final PLPageSetRenderSettings aRenderSettings = new PLPageSetRenderSettings (nPageSetIndex,
+                                                                                       nPageSetCount,
+                                                                                       nTotalPageIndex,
+                                                                                       nTotalPageCount);
+          aRenderSettings.setCompressPDF (m_bCompressPDF).setRenderExecutor (m_aRenderExecutor).setImageCache (aImageCache);
+          aPageSet.renderAllPages (aPR, aDoc, aRenderSettings);
           // Increment afterwards
           nTotalPageIndex += aPR.getPageCount ();
           nPageSetIndex++;
@@ -669,11 +965,29 @@ public class PageLayoutPDF implements IPLVisitable
         if (m_aDocumentCustomizer != null)
           m_aDocumentCustomizer.customizeDocument (aDoc);
 
+        // Do specific PDF/A stuff if needed - directly on the live document, so that only a single
+        // serialization is needed
+        if (m_bCreatePDF_A)
+        {
+          if (LOGGER.isDebugEnabled ())
+            LOGGER.debug ("Start adding PDF/A information");
+
+          _addPDF_AInformation (aDoc);
+        }
+
+        // Subset the used fonts from the cross-document cache if possible. A document customizer
+        // may have added glyphs to the subsets that are unknown to the cache, so the regular PDFBox
+        // subsetting is used in that case
+        final FontSubsetCache aSubsetCache = FontSubsetCache.getGlobalInstance ();
+        if (aSubsetCache != null && m_aDocumentCustomizer == null)
+          for (final Map.Entry <PreloadFont, LoadedFont> aEntry : aGlobalPrepareCtx.getAllLoadedFonts ().entrySet ())
+            aSubsetCache.subsetFont (aDoc, aEntry.getKey (), aEntry.getValue ());
+
         // save document to output stream
         aDoc.save (aBufferedOS);
 
         if (LOGGER.isDebugEnabled ())
-          LOGGER.debug ("PDF successfully created");
+          LOGGER.debug (m_bCreatePDF_A ? "PDF with PDF/A successfully created" : "PDF successfully created");
       }
       catch (final IOException ex)
       {
@@ -683,128 +997,7 @@ public class PageLayoutPDF implements IPLVisitable
       {
         throw new PDFCreationException ("Internal error rendering PDF", ex);
       }
-
-      // Do specific PDF/A stuff if needed
-      if (m_bCreatePDF_A)
-      {
-        if (LOGGER.isDebugEnabled ())
-          LOGGER.debug ("Start adding PDF/A information");
-
-        // Add metadata (needed by PDF/A)
-        try (final PDDocument aDoc = Loader.loadPDF (aTmpOS.getBufferOrCopy ());
-             final OutputStream aBufferedOS = StreamHelper.getBuffered (aOS))
-        {
-
-          final Calendar aCreationDate = m_aDocumentCreationDate == null ? PDTFactory.createCalendar ()
-                                                                         : GregorianCalendar.from (m_aDocumentCreationDate);
-          final String sProducer = PLConfig.PROJECT_NAME + " " + PLConfig.PROJECT_VERSION;
-
-          final XMPMetadata aXmpMetadata = XMPMetadata.createXMPMetadata ();
-          final AdobePDFSchema aPDFSchema = aXmpMetadata.createAndAddAdobePDFSchema ();
-          aPDFSchema.setProducer (sProducer);
-
-          final XMPBasicSchema aXmpBasicSchema = aXmpMetadata.createAndAddXMPBasicSchema ();
-          aXmpBasicSchema.setCreatorTool (sProducer);
-          aXmpBasicSchema.setCreateDate (aCreationDate);
-          aXmpBasicSchema.setModifyDate (aCreationDate);
-
-          final PDDocumentCatalog aDocCatalogue = aDoc.getDocumentCatalog ();
-
-          final PDMarkInfo aMarkInfo = new PDMarkInfo ();
-          final PDStructureTreeRoot aTreeRoot = new PDStructureTreeRoot ();
-          aDocCatalogue.setMarkInfo (aMarkInfo);
-          aDocCatalogue.setStructureTreeRoot (aTreeRoot);
-          aDocCatalogue.getMarkInfo ().setMarked (true);
-
-          final PDDocumentInformation aDocInfo = aDoc.getDocumentInformation ();
-          aDocInfo.setCreationDate (aCreationDate);
-          aDocInfo.setModificationDate (aCreationDate);
-          if (StringHelper.isNotEmpty (m_sDocumentAuthor))
-            aDocInfo.setAuthor (m_sDocumentAuthor);
-          aDocInfo.setProducer (sProducer);
-          if (StringHelper.isNotEmpty (m_sDocumentCreator))
-            aDocInfo.setCreator (m_sDocumentCreator);
-          if (StringHelper.isNotEmpty (m_sDocumentTitle))
-            aDocInfo.setTitle (m_sDocumentTitle);
-          if (StringHelper.isNotEmpty (m_sDocumentSubject))
-            aDocInfo.setSubject (m_sDocumentSubject);
-
-          try
-          {
-            final DublinCoreSchema aDCSchema = aXmpMetadata.createAndAddDublinCoreSchema ();
-            if (StringHelper.isNotEmpty (m_sDocumentTitle))
-              aDCSchema.setTitle (m_sDocumentTitle);
-            if (StringHelper.isNotEmpty (m_sDocumentCreator))
-              aDCSchema.addCreator (m_sDocumentCreator);
-            if (StringHelper.isNotEmpty (m_sDocumentKeywords))
-              aDCSchema.addDescription ("", m_sDocumentKeywords);
-            if (StringHelper.isNotEmpty (m_sDocumentSubject))
-              aDCSchema.addSubject (m_sDocumentSubject);
-            aDCSchema.addDate (aCreationDate);
-
-            final PDFAIdentificationSchema aIdentificationSchema = aXmpMetadata.createAndAddPDFAIdentificationSchema ();
-            aIdentificationSchema.setPart (Integer.valueOf (3));
-            aIdentificationSchema.setConformance ("A");
-
-            if (m_aMetadataCustomizer != null)
-              m_aMetadataCustomizer.customizeMetadata (aXmpMetadata);
-
-            try (final NonBlockingByteArrayOutputStream aXmpOS = new NonBlockingByteArrayOutputStream ())
-            {
-              final XmpSerializer aSerializer = new XmpSerializer ();
-              aSerializer.serialize (aXmpMetadata, aXmpOS, true);
-
-              final PDMetadata aMetadata = new PDMetadata (aDoc);
-              aMetadata.importXMPMetadata (aXmpOS.toByteArray ());
-              aDocCatalogue.setMetadata (aMetadata);
-            }
-          }
-          catch (final BadFieldValueException ex)
-          {
-            throw new IllegalArgumentException ("Failed to set PDF Metadata", ex);
-          }
-
-          // Set color profile (needed by PDF/A)
-          final ICC_Profile aRgbProfile = ICC_Profile.getInstance (ColorSpace.CS_sRGB);
-          final byte [] aRgbBytes = aRgbProfile.getData ();
-
-          try (final NonBlockingByteArrayInputStream aColorProfile = new NonBlockingByteArrayInputStream (aRgbBytes))
-          {
-            final PDOutputIntent aIntent = new PDOutputIntent (aDoc, aColorProfile);
-            aIntent.setInfo ("sRGB IEC61966-2.1");
-            aIntent.setOutputCondition ("sRGB IEC61966-2.1");
-            aIntent.setOutputConditionIdentifier ("sRGB IEC61966-2.1");
-            aIntent.setRegistryName ("http://www.color.org");
-
-            aDocCatalogue.addOutputIntent (aIntent);
-          }
-
-          if (StringHelper.isNotEmpty (m_sDocumentLanguage))
-            aDocCatalogue.setLanguage (m_sDocumentLanguage);
-
-          for (final PDPage aPage : aDoc.getPages ())
-          {
-            final PDViewerPreferences aViewerPrefs = new PDViewerPreferences (aPage.getCOSObject ());
-            aViewerPrefs.setDisplayDocTitle (true);
-            aDocCatalogue.setViewerPreferences (aViewerPrefs);
-          }
-
-          // save document to final output stream
-          aDoc.save (aBufferedOS);
-
-          if (LOGGER.isDebugEnabled ())
-            LOGGER.debug ("PDF with PDF/A successfully created");
-        }
-        catch (final IOException ex)
-        {
-          throw new PDFCreationException ("IO Error", ex);
-        }
-        catch (final Exception ex)
-        {
-          throw new PDFCreationException ("Internal error", ex);
-        }
-      }
-    } // close aTmpOS
+    }
     finally
     {
       // Make sure the source is closed as well
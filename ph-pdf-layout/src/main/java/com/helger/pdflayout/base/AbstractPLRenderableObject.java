@@ -29,7 +29,6 @@ import com.helger.base.state.EChange;
 import com.helger.base.tostring.ToStringGenerator;
 import com.helger.pdflayout.debug.PLDebugLog;
 import com.helger.pdflayout.render.IPLRenderListener;
-import com.helger.pdflayout.render.PLAnchorRegistry;
 import com.helger.pdflayout.render.PageRenderContext;
 import com.helger.pdflayout.render.PreparationContext;
 import com.helger.pdflayout.spec.SizeSpec;
@@ -359,11 +358,10 @@ public abstract class AbstractPLRenderableObject <IMPLTYPE extends AbstractPLRen
     // up on multiple pages.
     if (m_sAnchorName != null && isFirstFragment ())
     {
-      PLAnchorRegistry.registerNamedDestination (aCtx.getDocument (),
-                                                 m_sAnchorName,
-                                                 aCtx.getContentStream ().getPage (),
-                                                 aCtx.getStartLeft (),
-                                                 aCtx.getStartTop ());
+      aCtx.registerNamedDestination (m_sAnchorName,
+                                     aCtx.getContentStream ().getPage (),
+                                     aCtx.getStartLeft (),
+                                     aCtx.getStartTop ());
     }
   }
 
@@ -106,6 +106,22 @@ public interface IPLRenderableObject <IMPLTYPE extends IPLRenderableObject <IMPL
   @NonNull
   SizeSpec prepare (@NonNull final PreparationContext aCtx);
 
+  /**
+   * Check if rendering this object creates objects that belong to the current page, like link
+   * annotations or named destinations. The output of such an object cannot be rendered once and
+   * shared between pages (e.g. as a form XObject). Only this object itself is considered - child
+   * elements need to be checked separately. By default this is the case, if an anchor name is set.
+   *
+   * @return <code>true</code> if page specific objects are created while rendering,
+   *         <code>false</code> if not.
+   * @see #hasAnchorName()
+   * @since 8.3.4
+   */
+  default boolean isRenderingPageSpecificObjects ()
+  {
+    return hasAnchorName ();
+  }
+
   /**
    * Called after the page was created but before the content stream is created.
    * This is e.g. used for images to create their XObjects upfront.
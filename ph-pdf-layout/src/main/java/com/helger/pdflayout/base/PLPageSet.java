@@ -17,12 +17,24 @@
 package com.helger.pdflayout.base;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
@@ -32,6 +44,8 @@ import com.helger.annotation.Nonnegative;
 import com.helger.annotation.concurrent.NotThreadSafe;
 import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.functional.IThrowingConsumer;
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
 import com.helger.base.state.EChange;
 import com.helger.base.string.StringImplode;
 import com.helger.base.tostring.ToStringGenerator;
@@ -39,11 +53,13 @@ import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
 import com.helger.pdflayout.debug.PLDebugLog;
 import com.helger.pdflayout.element.special.PLPageBreak;
+import com.helger.pdflayout.element.text.AbstractPLText;
 import com.helger.pdflayout.pdfbox.PDPageContentStreamWithCache;
 import com.helger.pdflayout.render.ERenderingElementType;
 import com.helger.pdflayout.render.IPLRenderListener;
 import com.helger.pdflayout.render.IPreRenderContextCustomizer;
 import com.helger.pdflayout.render.IRenderContextCustomizer;
+import com.helger.pdflayout.render.PLAnchorCollector;
 import com.helger.pdflayout.render.PLRenderHelper;
 import com.helger.pdflayout.render.PagePreRenderContext;
 import com.helger.pdflayout.render.PageRenderContext;
@@ -67,6 +83,7 @@ public class PLPageSet extends AbstractPLObject <PLPageSet> implements
 {
   public static final boolean DEFAULT_DIFFERENT_FIRST_PAGE_HEADER = false;
   public static final boolean DEFAULT_DIFFERENT_FIRST_PAGE_FOOTER = false;
+  public static final boolean DEFAULT_RENDER_HEADER_FOOTER_AS_FORM = false;
   private static final Logger LOGGER = LoggerFactory.getLogger (PLPageSet.class);
 
   private final SizeSpec m_aPageSize;
@@ -91,6 +108,7 @@ public class PLPageSet extends AbstractPLObject <PLPageSet> implements
   private IPreRenderContextCustomizer m_aPRCCustomizer;
   private IRenderContextCustomizer m_aRCCustomizer;
   private IPLRenderListener m_aRenderListener;
+  private boolean m_bRenderHeaderFooterAsForm = DEFAULT_RENDER_HEADER_FOOTER_AS_FORM;
 
   public PLPageSet (@NonNull final PDRectangle aPageRect)
   {
@@ -263,6 +281,39 @@ public class PLPageSet extends AbstractPLObject <PLPageSet> implements
     return this;
   }
 
+  /**
+   * @return <code>true</code> if the page header and footer should be rendered only once as a form
+   *         XObject, <code>false</code> if they are rendered on each page. The default is
+   *         {@link #DEFAULT_RENDER_HEADER_FOOTER_AS_FORM}.
+   * @since 8.3.4
+   */
+  public final boolean isRenderHeaderFooterAsForm ()
+  {
+    return m_bRenderHeaderFooterAsForm;
+  }
+
+  /**
+   * Enable or disable rendering the page header and footer only once as a form XObject, that is
+   * referenced from each page. This reduces the size of the page content streams and the rendering
+   * time for documents with many pages. This only applies to the page header and footer of all
+   * pages except the first one. Headers and footers that contain placeholders or elements that
+   * create page specific objects like links or anchors (see
+   * {@link IPLRenderableObject#isRenderingPageSpecificObjects()}) are always rendered on each page.
+   * If a render listener or a render context customizer is set, this setting is ignored.
+   *
+   * @param bRenderHeaderFooterAsForm
+   *        <code>true</code> to render header and footer as form XObjects, <code>false</code> to
+   *        render them on each page.
+   * @return this for chaining
+   * @since 8.3.4
+   */
+  @NonNull
+  public final PLPageSet setRenderHeaderFooterAsForm (final boolean bRenderHeaderFooterAsForm)
+  {
+    m_bRenderHeaderFooterAsForm = bRenderHeaderFooterAsForm;
+    return this;
+  }
+
   /**
    * @param aObj
    *        The object of which the outline should be subtracted.
@@ -974,14 +1025,69 @@ public class PLPageSet extends AbstractPLObject <PLPageSet> implements
                               @Nonnegative final int nTotalPageStartIndex,
                               @Nonnegative final int nTotalPageCount) throws IOException
   {
+    renderAllPages (aPrepareResult,
+                    aDoc,
+                    new PLPageSetRenderSettings (nPageSetIndex,
+                                                 nPageSetCount,
+                                                 nTotalPageStartIndex,
+                                                 nTotalPageCount).setCompressPDF (bCompressPDF));
+  }
+
+  /**
+   * Render all pages of this layout to the specified PDDocument.<br>
+   * If a render executor is provided in the settings, the content elements of all pages are
+   * rendered concurrently into per-page buffers. Afterwards the pages are assembled sequentially in
+   * page order: the page rectangle and the page header, followed by the buffered content and the
+   * page footer. Page headers and footers are always rendered sequentially, because they are shared
+   * between all pages. If a content element is contained on more than one page (like the header rows
+   * of a split table) or if it replaces placeholders, all pages are rendered sequentially. In
+   * parallel mode each part is wrapped in its own graphics state, so the content elements of a page
+   * don't inherit the state of the page header. Named destinations of the content elements are
+   * collected per page and registered in page order, so that the same anchor wins for duplicate
+   * names as in sequential mode. Note: an {@link IPLRenderListener} must be thread-safe if a render
+   * executor is used.
+   *
+   * @param aPrepareResult
+   *        The preparation result. May not be <code>null</code>.
+   * @param aDoc
+   *        The PDDocument. May not be <code>null</code>.
+   * @param aSettings
+   *        The render settings to use. May not be <code>null</code>.
+   * @throws IOException
+   *         In case of render errors
+   * @since 8.3.4
+   */
+  public void renderAllPages (@NonNull final PLPageSetPrepareResult aPrepareResult,
+                              @NonNull final PDDocument aDoc,
+                              @NonNull final PLPageSetRenderSettings aSettings) throws IOException
+  {
+    ValueEnforcer.notNull (aPrepareResult, "PrepareResult");
+    ValueEnforcer.notNull (aDoc, "Doc");
+    ValueEnforcer.notNull (aSettings, "Settings");
     if (!m_bPrepared)
       throw new IllegalStateException ("Cannot render PageSet that is not prepared");
 
-    // Start at the left top
-    final float fXLeft = getOutlineLeft ();
+    final int nPageCount = aPrepareResult.getPageCount ();
+    final Executor aRenderExecutor = aSettings.getRenderExecutor ();
+    // Elements shared between pages (like repeated table header rows) are modified in
+    // "beforeRender", so they must be rendered in page order
+    final boolean bParallel = aRenderExecutor != null &&
+                              nPageCount > 1 &&
+                              _canRenderContentInParallel (aPrepareResult);
+    // The page header and footer of all pages but the first one may be rendered once as a form
+    // XObject. Customizers and listeners expect a callback for each page.
+    final boolean bFormsAllowed = m_bRenderHeaderFooterAsForm && m_aRenderListener == null && m_aRCCustomizer == null;
+    final boolean bHeaderAsForm = bFormsAllowed && m_aPageHeader != null && _canBeRenderedAsForm (m_aPageHeader);
+    final boolean bFooterAsForm = bFormsAllowed && m_aPageFooter != null && _canBeRenderedAsForm (m_aPageFooter);
+    // The forms for [page header, page footer] - lazily created
+    final PDFormXObject [] aForms = new PDFormXObject [2];
+    final PageToRender [] aPages = new PageToRender [nPageCount];
+    // The pre-render context of each page, so that header and footer use the same one in parallel
+    // mode
+    final PagePreRenderContext [] aPreRenderCtxs = new PagePreRenderContext [nPageCount];
+    final ICommonsList <CompletableFuture <byte []>> aContentFutures = new CommonsArrayList <> (nPageCount);
 
     int nPageIndex = 0;
-    final int nPageCount = aPrepareResult.getPageCount ();
     for (final ICommonsList <PLElementWithSize> aPerPage : aPrepareResult.directGetPerPageElements ())
     {
       final boolean bFirstPage = nPageIndex == 0;
@@ -991,7 +1097,7 @@ public class PLPageSet extends AbstractPLObject <PLPageSet> implements
                                 "Start rendering page index " +
                                       nPageIndex +
                                       " (total " +
-                                      (nTotalPageStartIndex + nPageIndex) +
+                                      (aSettings.getTotalPageStartIndex () + nPageIndex) +
                                       ") with page size " +
                                       PLDebugLog.getWH (getPageWidth (), getPageHeight ()) +
                                       " and available size " +
@@ -1000,141 +1106,515 @@ public class PLPageSet extends AbstractPLObject <PLPageSet> implements
       // Layout in memory
       final PDPage aPage = new PDPage (m_aPageSize.getAsRectangle ());
       aDoc.addPage (aPage);
+      // In parallel mode the named destinations of the content are registered in page order
+      final PageToRender aPTR = new PageToRender (aDoc,
+                                                  aPage,
+                                                  aMBP,
+                                                  aPerPage,
+                                                  nPageIndex,
+                                                  nPageCount,
+                                                  aSettings,
+                                                  bParallel ? new PLAnchorCollector () : null);
+      aPages[nPageIndex] = aPTR;
+
+      final IPLRenderableObject <?> aPageHeader = _getPageHeader (bFirstPage);
+      final IPLRenderableObject <?> aPageFooter = _getPageFooter (bFirstPage);
+      final PagePreRenderContext aPreRenderCtx = new PagePreRenderContext (this,
+                                                                           aDoc,
+                                                                           aPage,
+                                                                           aSettings.getPageSetIndex (),
+                                                                           aSettings.getPageSetCount (),
+                                                                           nPageIndex,
+                                                                           nPageCount,
+                                                                           aSettings.getTotalPageStartIndex () +
+                                                                                       nPageIndex,
+                                                                           aSettings.getTotalPageCount (),
+                                                                           aSettings.getImageCache ());
+      if (m_aPRCCustomizer != null)
+        m_aPRCCustomizer.customizePreRenderContext (aPreRenderCtx);
+      aPreRenderCtxs[nPageIndex] = aPreRenderCtx;
+
+      // Call "beforeRender" on all elements
+      final IPLVisitor aVisitor = IPLVisitor.createElementVisitor (x -> x.beforeRender (aPreRenderCtx));
+
+      if (!bParallel)
+      {
+        // Header and footer are shared between all pages - in parallel mode they are handled below
+        if (aPageHeader != null && !_isRenderedAsForm (aForms, nPageIndex, 0))
+          aPageHeader.visit (aVisitor);
+
+        if (aPageFooter != null && !_isRenderedAsForm (aForms, nPageIndex, 1))
+          aPageFooter.visit (aVisitor);
+      }
+
+      for (final PLElementWithSize aElementWithHeight : aPerPage)
+        aElementWithHeight.getElement ().visit (aVisitor);
 
-      final IPLRenderableObject <?> aPageHeader = bFirstPage && m_bDifferentFirstPageHeader ? m_aFirstPageHeader
-                                                                                            : m_aPageHeader;
-      final IPLRenderableObject <?> aPageFooter = bFirstPage && m_bDifferentFirstPageFooter ? m_aFirstPageFooter
-                                                                                            : m_aPageFooter;
+      if (bParallel)
       {
-        final PagePreRenderContext aPreRenderCtx = new PagePreRenderContext (this,
-                                                                             aDoc,
-                                                                             aPage,
-                                                                             nPageSetIndex,
-                                                                             nPageSetCount,
-                                                                             nPageIndex,
-                                                                             nPageCount,
-                                                                             nTotalPageStartIndex + nPageIndex,
-                                                                             nTotalPageCount);
-        if (m_aPRCCustomizer != null)
-          m_aPRCCustomizer.customizePreRenderContext (aPreRenderCtx);
-
-        // Call "beforeRender" on all elements
-        final IPLVisitor aVisitor = IPLVisitor.createElementVisitor (x -> x.beforeRender (aPreRenderCtx));
+        // The content elements are unique per page and don't replace placeholders (see
+        // _canRenderContentInParallel), so they can be rendered concurrently
+        // Make sure the page resources are present, before rendering starts
+        if (aPage.getResources () == null)
+          aPage.setResources (new PDResources ());
+
+        aContentFutures.add (CompletableFuture.supplyAsync ( () -> {
+          try
+          {
+            return _renderContentToBuffer (aPTR);
+          }
+          catch (final IOException ex)
+          {
+            throw new UncheckedIOException (ex);
+          }
+        }, aRenderExecutor));
+      }
+      else
+      {
+        _renderPage (aPrepareResult,
+                     aPTR,
+                     aPageHeader,
+                     null,
+                     aPageFooter,
+                     bHeaderAsForm && !bFirstPage,
+                     bFooterAsForm && !bFirstPage,
+                     aForms);
+      }
+      ++nPageIndex;
+    }
 
-        if (aPageHeader != null)
-          aPageHeader.visit (aVisitor);
+    if (bParallel)
+    {
+      // Assemble all pages in page order. Header and footer are shared objects, so they need to be
+      // rendered sequentially.
+      for (nPageIndex = 0; nPageIndex < nPageCount; ++nPageIndex)
+      {
+        final boolean bFirstPage = nPageIndex == 0;
+        final IPLRenderableObject <?> aPageHeader = _getPageHeader (bFirstPage);
+        final IPLRenderableObject <?> aPageFooter = _getPageFooter (bFirstPage);
 
-        if (aPageFooter != null)
+        final byte [] aContent;
+        try
+        {
+          aContent = aContentFutures.get (nPageIndex).join ();
+        }
+        catch (final CompletionException ex)
+        {
+          // Propagate the original exception
+          if (ex.getCause () instanceof final UncheckedIOException aIOEx)
+            throw aIOEx.getCause ();
+          if (ex.getCause () instanceof final RuntimeException aRT)
+            throw aRT;
+          throw ex;
+        }
+
+        // Call "beforeRender" on header and footer with the same context as the content
+        final PagePreRenderContext aPreRenderCtx = aPreRenderCtxs[nPageIndex];
+        final IPLVisitor aVisitor = IPLVisitor.createElementVisitor (x -> x.beforeRender (aPreRenderCtx));
+        if (aPageHeader != null && !_isRenderedAsForm (aForms, nPageIndex, 0))
+          aPageHeader.visit (aVisitor);
+        if (aPageFooter != null && !_isRenderedAsForm (aForms, nPageIndex, 1))
           aPageFooter.visit (aVisitor);
 
-        for (final PLElementWithSize aElementWithHeight : aPerPage)
-          aElementWithHeight.getElement ().visit (aVisitor);
+        _renderPage (aPrepareResult,
+                     aPages[nPageIndex],
+                     aPageHeader,
+                     aContent,
+                     aPageFooter,
+                     bHeaderAsForm && !bFirstPage,
+                     bFooterAsForm && !bFirstPage,
+                     aForms);
       }
-      final PDPageContentStreamWithCache aContentStream = new PDPageContentStreamWithCache (aDoc,
-                                                                                            aPage,
-                                                                                            PDPageContentStream.AppendMode.OVERWRITE,
-                                                                                            bCompressPDF);
+    }
+
+    if (PLDebugLog.isDebugRender ())
+      PLDebugLog.debugRender (this, "Finished rendering");
+  }
+
+  @Nullable
+  private IPLRenderableObject <?> _getPageHeader (final boolean bFirstPage)
+  {
+    return bFirstPage && m_bDifferentFirstPageHeader ? m_aFirstPageHeader : m_aPageHeader;
+  }
+
+  @Nullable
+  private IPLRenderableObject <?> _getPageFooter (final boolean bFirstPage)
+  {
+    return bFirstPage && m_bDifferentFirstPageFooter ? m_aFirstPageFooter : m_aPageFooter;
+  }
+
+  /**
+   * Check if the provided page header or footer can be rendered once as a form XObject. This is
+   * not possible, if the output differs from page to page, or if page specific objects (like
+   * annotations or named destinations) are created while rendering by the object or any of its
+   * children.
+   *
+   * @param aObj
+   *        The page header or footer to check. May not be <code>null</code>.
+   * @return <code>true</code> if the object can be rendered as a form XObject
+   * @throws IOException
+   *         on PDFBox error
+   */
+  private static boolean _canBeRenderedAsForm (@NonNull final IPLRenderableObject <?> aObj) throws IOException
+  {
+    final AtomicBoolean aCanBeForm = new AtomicBoolean (true);
+    aObj.visit (IPLVisitor.createElementVisitor (x -> {
+      if (x instanceof final AbstractPLText <?> aText && aText.isReplacePlaceholder ())
+        aCanBeForm.set (false);
+      else
+        if (x.isRenderingPageSpecificObjects ())
+          aCanBeForm.set (false);
+      return EChange.UNCHANGED;
+    }));
+    return aCanBeForm.get ();
+  }
+
+  /**
+   * Check if the content elements of the provided prepare result can be rendered concurrently. This
+   * is not possible, if an element is contained on more than one page (e.g. the header rows of a
+   * split table), or if an element replaces placeholders in "beforeRender", because in parallel
+   * mode "beforeRender" of the next page may run while the previous page is still rendered.
+   *
+   * @param aPrepareResult
+   *        The preparation result to check. May not be <code>null</code>.
+   * @return <code>true</code> if the page content can be rendered concurrently
+   * @throws IOException
+   *         on PDFBox error
+   */
+  private static boolean _canRenderContentInParallel (@NonNull final PLPageSetPrepareResult aPrepareResult) throws IOException
+  {
+    final Set <IPLRenderableObject <?>> aAllElements = Collections.newSetFromMap (new IdentityHashMap <> ());
+    final AtomicBoolean aCanBeParallel = new AtomicBoolean (true);
+    for (final ICommonsList <PLElementWithSize> aPerPage : aPrepareResult.directGetPerPageElements ())
+    {
+      final Set <IPLRenderableObject <?>> aPageElements = Collections.newSetFromMap (new IdentityHashMap <> ());
+      final IPLVisitor aVisitor = IPLVisitor.createElementVisitor (x -> {
+        if (x instanceof final AbstractPLText <?> aText && aText.isReplacePlaceholder ())
+          aCanBeParallel.set (false);
+        else
+          if (!aAllElements.contains (x))
+            aPageElements.add (x);
+          else
+            aCanBeParallel.set (false);
+        return EChange.UNCHANGED;
+      });
+      for (final PLElementWithSize aElementWithSize : aPerPage)
+      {
+        aElementWithSize.getElement ().visit (aVisitor);
+        if (!aCanBeParallel.get ())
+          return false;
+      }
+      aAllElements.addAll (aPageElements);
+    }
+    return true;
+  }
+
+  private static boolean _isRenderedAsForm (final PDFormXObject @NonNull [] aForms,
+                                            final int nPageIndex,
+                                            final int nFormIndex)
+  {
+    // The first page always renders header and footer directly
+    return nPageIndex > 0 && aForms[nFormIndex] != null;
+  }
+
+  @NonNull
+  private PDFormXObject _createForm (@NonNull final PDDocument aDoc,
+                                     @NonNull final PDPage aPage,
+                                     final boolean bCompressPDF,
+                                     @NonNull final IThrowingConsumer <PDPageContentStreamWithCache, IOException> aRenderer) throws IOException
+  {
+    final PDFormXObject ret = new PDFormXObject (aDoc);
+    // Same coordinate system as the page
+    ret.setBBox (m_aPageSize.getAsRectangle ());
+    ret.setResources (new PDResources ());
+    try (final OutputStream aOS = ret.getContentStream ().createOutputStream (bCompressPDF ? COSName.FLATE_DECODE
+                                                                                          : null))
+    {
+      final PDPageContentStreamWithCache aFormCS = new PDPageContentStreamWithCache (aDoc,
+                                                                                     aPage,
+                                                                                     ret.getResources (),
+                                                                                     aOS);
       try
       {
-        // Page rect before content - debug: red
-        {
-          final float fLeft = 0 + aMBP.getMarginLeft ();
-          final float fTop = m_aPageSize.getHeight () - aMBP.getMarginTop ();
-          final float fWidth = m_aPageSize.getWidth () - aMBP.getMarginXSum ();
-          final float fHeight = m_aPageSize.getHeight () - aMBP.getMarginYSum ();
+        aRenderer.accept (aFormCS);
+      }
+      finally
+      {
+        aFormCS.close ();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * The data of a single page that is rendered.
+   *
+   * @param doc
+   *        The document the page belongs to.
+   * @param page
+   *        The page to render to.
+   * @param mbp
+   *        The margin, border and padding of the page.
+   * @param perPage
+   *        The content elements of the page.
+   * @param pageIndex
+   *        The 0-based index of the page within the page set.
+   * @param pageCount
+   *        The number of pages of the page set.
+   * @param settings
+   *        The render settings of the page set.
+   * @param anchorCollector
+   *        The collector for the named destinations of the content elements. Only present if the
+   *        content is rendered concurrently.
+   */
+  private record PageToRender (@NonNull PDDocument doc,
+                               @NonNull PDPage page,
+                               @NonNull IPLHasMarginBorderPadding <?> mbp,
+                               @NonNull ICommonsList <PLElementWithSize> perPage,
+                               int pageIndex,
+                               int pageCount,
+                               @NonNull PLPageSetRenderSettings settings,
+                               @Nullable PLAnchorCollector anchorCollector)
+  {}
 
-          PLRenderHelper.fillAndRenderBorder (this, fLeft, fTop, fWidth, fHeight, aContentStream);
+  @NonNull
+  private PageRenderContext _createRenderContext (@NonNull final ERenderingElementType eElementType,
+                                                  @NonNull final PDPageContentStreamWithCache aContentStream,
+                                                  final float fStartLeft,
+                                                  final float fStartTop,
+                                                  final float fWidth,
+                                                  final float fHeight,
+                                                  @NonNull final PageToRender aPTR)
+  {
+    final PLPageSetRenderSettings aSettings = aPTR.settings ();
+    final PageRenderContext aRCtx = new PageRenderContext (eElementType,
+                                                           aContentStream,
+                                                           fStartLeft,
+                                                           fStartTop,
+                                                           fWidth,
+                                                           fHeight,
+                                                           aSettings.getPageSetIndex (),
+                                                           aSettings.getPageSetCount (),
+                                                           aPTR.pageIndex (),
+                                                           aPTR.pageCount (),
+                                                           aSettings.getTotalPageStartIndex () + aPTR.pageIndex (),
+                                                           aSettings.getTotalPageCount (),
+                                                           m_aRenderListener);
+    if (m_aRCCustomizer != null)
+      m_aRCCustomizer.customizeRenderContext (aRCtx);
+    return aRCtx;
+  }
+
+  private void _renderPage (@NonNull final PLPageSetPrepareResult aPrepareResult,
+                            @NonNull final PageToRender aPTR,
+                            @Nullable final IPLRenderableObject <?> aPageHeader,
+                            final byte @Nullable [] aPreRenderedContent,
+                            @Nullable final IPLRenderableObject <?> aPageFooter,
+                            final boolean bHeaderAsForm,
+                            final boolean bFooterAsForm,
+                            final PDFormXObject @NonNull [] aForms) throws IOException
+  {
+    final PDDocument aDoc = aPTR.doc ();
+    final PDPage aPage = aPTR.page ();
+    final boolean bCompressPDF = aPTR.settings ().isCompressPDF ();
+    // If parts are rendered independently, each part must start with the default graphics state
+    final boolean bIsolateParts = bHeaderAsForm || bFooterAsForm || aPreRenderedContent != null;
+
+    final PDPageContentStreamWithCache aContentStream = new PDPageContentStreamWithCache (aDoc,
+                                                                                          aPage,
+                                                                                          PDPageContentStream.AppendMode.OVERWRITE,
+                                                                                          bCompressPDF);
+    try
+    {
+      if (bIsolateParts)
+        aContentStream.saveGraphicsState ();
+      _renderPageRect (aPTR.mbp (), aContentStream);
+      if (bIsolateParts)
+      {
+        aContentStream.restoreGraphicsState ();
+        aContentStream.resetStatus ();
+      }
+
+      if (aPageHeader != null)
+      {
+        if (bHeaderAsForm)
+        {
+          if (aForms[0] == null)
+          {
+            // Render once
+            aForms[0] = _createForm (aDoc,
+                                     aPage,
+                                     bCompressPDF,
+                                     aFormCS -> _renderPageHeader (aPrepareResult, aPageHeader, aFormCS, aPTR));
+          }
+          aContentStream.drawForm (aForms[0]);
+        }
+        else
+        {
+          if (bIsolateParts)
+            aContentStream.saveGraphicsState ();
+          _renderPageHeader (aPrepareResult, aPageHeader, aContentStream, aPTR);
+          if (bIsolateParts)
+          {
+            aContentStream.restoreGraphicsState ();
+            aContentStream.resetStatus ();
+          }
         }
-        // Start with the page rectangle
-        if (aPageHeader != null)
+      }
+
+      if (aPreRenderedContent != null)
+      {
+        // The pre-rendered content restores the default graphics state itself
+        aContentStream.appendRawContent (aPreRenderedContent);
+        // Register the named destinations in the same order as in sequential mode
+        if (aPTR.anchorCollector () != null)
+          aPTR.anchorCollector ().registerAll (aDoc);
+      }
+      else
+      {
+        if (bIsolateParts)
+          aContentStream.saveGraphicsState ();
+        _renderContent (aContentStream, aPTR);
+        if (bIsolateParts)
         {
-          // Page header does not care about page padding
-          // header top-left
-          final float fStartLeft = aMBP.getMarginLeft ();
-          final float fStartTop = m_aPageSize.getHeight ();
-          final float fWidth = m_aPageSize.getWidth () - aMBP.getMarginXSum ();
-          final float fHeight = aPrepareResult.getHeaderHeight (nPageIndex);
-          final PageRenderContext aRCtx = new PageRenderContext (ERenderingElementType.PAGE_HEADER,
-                                                                 aContentStream,
-                                                                 fStartLeft,
-                                                                 fStartTop,
-                                                                 fWidth,
-                                                                 fHeight,
-                                                                 nPageSetIndex,
-                                                                 nPageSetCount,
-                                                                 nPageIndex,
-                                                                 nPageCount,
-                                                                 nTotalPageStartIndex + nPageIndex,
-                                                                 nTotalPageCount,
-                                                                 m_aRenderListener);
-          if (m_aRCCustomizer != null)
-            m_aRCCustomizer.customizeRenderContext (aRCtx);
-          aPageHeader.render (aRCtx);
+          aContentStream.restoreGraphicsState ();
+          aContentStream.resetStatus ();
         }
-        float fCurY = _getYTop (aMBP);
-        for (final PLElementWithSize aElementWithHeight : aPerPage)
+      }
+
+      if (aPageFooter != null)
+      {
+        if (bFooterAsForm)
         {
-          final IPLRenderableObject <?> aElement = aElementWithHeight.getElement ();
-          // Get element extent
-          final float fStartLeft = fXLeft;
-          final float fStartTop = fCurY;
-          final float fWidth = _getAvailableWidth (aMBP);
-          final float fHeight = aElementWithHeight.getHeightFull ();
-
-          final PageRenderContext aRCtx = new PageRenderContext (ERenderingElementType.CONTENT_ELEMENT,
-                                                                 aContentStream,
-                                                                 fStartLeft,
-                                                                 fStartTop,
-                                                                 fWidth,
-                                                                 fHeight,
-                                                                 nPageSetIndex,
-                                                                 nPageSetCount,
-                                                                 nPageIndex,
-                                                                 nPageCount,
-                                                                 nTotalPageStartIndex + nPageIndex,
-                                                                 nTotalPageCount,
-                                                                 m_aRenderListener);
-          if (m_aRCCustomizer != null)
-            m_aRCCustomizer.customizeRenderContext (aRCtx);
-          aElement.render (aRCtx);
-
-          // In
-          fCurY -= aElementWithHeight.getHeightFull ();
+          if (aForms[1] == null)
+          {
+            // Render once
+            aForms[1] = _createForm (aDoc,
+                                     aPage,
+                                     bCompressPDF,
+                                     aFormCS -> _renderPageFooter (aPrepareResult, aPageFooter, aFormCS, aPTR));
+          }
+          aContentStream.drawForm (aForms[1]);
         }
-        if (aPageFooter != null)
+        else
         {
-          // Page footer does not care about page padding
-          // footer top-left
-          final float fStartLeft = aMBP.getMarginLeft ();
-          final float fStartTop = aMBP.getMarginBottom ();
-          final float fWidth = m_aPageSize.getWidth () - aMBP.getMarginXSum ();
-          final float fHeight = aPrepareResult.getFooterHeight (nPageIndex);
-          final PageRenderContext aRCtx = new PageRenderContext (ERenderingElementType.PAGE_FOOTER,
-                                                                 aContentStream,
-                                                                 fStartLeft,
-                                                                 fStartTop,
-                                                                 fWidth,
-                                                                 fHeight,
-                                                                 nPageSetIndex,
-                                                                 nPageSetCount,
-                                                                 nPageIndex,
-                                                                 nPageCount,
-                                                                 nTotalPageStartIndex + nPageIndex,
-                                                                 nTotalPageCount,
-                                                                 m_aRenderListener);
-          if (m_aRCCustomizer != null)
-            m_aRCCustomizer.customizeRenderContext (aRCtx);
-          aPageFooter.render (aRCtx);
+          _renderPageFooter (aPrepareResult, aPageFooter, aContentStream, aPTR);
         }
       }
+    }
+    finally
+    {
+      aContentStream.close ();
+    }
+  }
+
+  private void _renderPageRect (@NonNull final IPLHasMarginBorderPadding <?> aMBP,
+                                @NonNull final PDPageContentStreamWithCache aContentStream) throws IOException
+  {
+    // Page rect before content - debug: red
+    final float fLeft = 0 + aMBP.getMarginLeft ();
+    final float fTop = m_aPageSize.getHeight () - aMBP.getMarginTop ();
+    final float fWidth = m_aPageSize.getWidth () - aMBP.getMarginXSum ();
+    final float fHeight = m_aPageSize.getHeight () - aMBP.getMarginYSum ();
+
+    PLRenderHelper.fillAndRenderBorder (this, fLeft, fTop, fWidth, fHeight, aContentStream);
+  }
+
+  private void _renderPageHeader (@NonNull final PLPageSetPrepareResult aPrepareResult,
+                                  @NonNull final IPLRenderableObject <?> aPageHeader,
+                                  @NonNull final PDPageContentStreamWithCache aContentStream,
+                                  @NonNull final PageToRender aPTR) throws IOException
+  {
+    final IPLHasMarginBorderPadding <?> aMBP = aPTR.mbp ();
+    // Page header does not care about page padding
+    // header top-left
+    final float fStartLeft = aMBP.getMarginLeft ();
+    final float fStartTop = m_aPageSize.getHeight ();
+    final float fWidth = m_aPageSize.getWidth () - aMBP.getMarginXSum ();
+    final float fHeight = aPrepareResult.getHeaderHeight (aPTR.pageIndex ());
+    final PageRenderContext aRCtx = _createRenderContext (ERenderingElementType.PAGE_HEADER,
+                                                          aContentStream,
+                                                          fStartLeft,
+                                                          fStartTop,
+                                                          fWidth,
+                                                          fHeight,
+                                                          aPTR);
+    aPageHeader.render (aRCtx);
+  }
+
+  private void _renderContent (@NonNull final PDPageContentStreamWithCache aContentStream,
+                               @NonNull final PageToRender aPTR) throws IOException
+  {
+    final IPLHasMarginBorderPadding <?> aMBP = aPTR.mbp ();
+    // Start at the left top
+    final float fXLeft = getOutlineLeft ();
+    float fCurY = _getYTop (aMBP);
+    for (final PLElementWithSize aElementWithHeight : aPTR.perPage ())
+    {
+      final IPLRenderableObject <?> aElement = aElementWithHeight.getElement ();
+      // Get element extent
+      final float fStartLeft = fXLeft;
+      final float fStartTop = fCurY;
+      final float fWidth = _getAvailableWidth (aMBP);
+      final float fHeight = aElementWithHeight.getHeightFull ();
+
+      final PageRenderContext aRCtx = _createRenderContext (ERenderingElementType.CONTENT_ELEMENT,
+                                                            aContentStream,
+                                                            fStartLeft,
+                                                            fStartTop,
+                                                            fWidth,
+                                                            fHeight,
+                                                            aPTR);
+      aRCtx.internalSetAnchorCollector (aPTR.anchorCollector ());
+      aElement.render (aRCtx);
+
+      // In
+      fCurY -= aElementWithHeight.getHeightFull ();
+    }
+  }
+
+  private byte @NonNull [] _renderContentToBuffer (@NonNull final PageToRender aPTR) throws IOException
+  {
+    try (final NonBlockingByteArrayOutputStream aBAOS = new NonBlockingByteArrayOutputStream ())
+    {
+      final PDPageContentStreamWithCache aContentStream = new PDPageContentStreamWithCache (aPTR.doc (),
+                                                                                            aPTR.page (),
+                                                                                            aBAOS);
+      try
+      {
+        // Start and end with the default graphics state
+        aContentStream.saveGraphicsState ();
+        _renderContent (aContentStream, aPTR);
+        aContentStream.restoreGraphicsState ();
+      }
       finally
       {
         aContentStream.close ();
       }
-      ++nPageIndex;
+      return aBAOS.toByteArray ();
     }
-    if (PLDebugLog.isDebugRender ())
-      PLDebugLog.debugRender (this, "Finished rendering");
+  }
+
+  private void _renderPageFooter (@NonNull final PLPageSetPrepareResult aPrepareResult,
+                                  @NonNull final IPLRenderableObject <?> aPageFooter,
+                                  @NonNull final PDPageContentStreamWithCache aContentStream,
+                                  @NonNull final PageToRender aPTR) throws IOException
+  {
+    final IPLHasMarginBorderPadding <?> aMBP = aPTR.mbp ();
+    // Page footer does not care about page padding
+    // footer top-left
+    final float fStartLeft = aMBP.getMarginLeft ();
+    final float fStartTop = aMBP.getMarginBottom ();
+    final float fWidth = m_aPageSize.getWidth () - aMBP.getMarginXSum ();
+    final float fHeight = aPrepareResult.getFooterHeight (aPTR.pageIndex ());
+    final PageRenderContext aRCtx = _createRenderContext (ERenderingElementType.PAGE_FOOTER,
+                                                          aContentStream,
+                                                          fStartLeft,
+                                                          fStartTop,
+                                                          fWidth,
+                                                          fHeight,
+                                                          aPTR);
+    aPageFooter.render (aRCtx);
   }
 
   @Override
@@ -1153,6 +1633,7 @@ public class PLPageSet extends AbstractPLObject <PLPageSet> implements
                             .appendIfNotNull ("PageFooter", m_aPageFooter)
                             .appendIfNotNull ("PRCCustomizer", m_aPRCCustomizer)
                             .appendIfNotNull ("RCCustomizer", m_aRCCustomizer)
+                            .append ("RenderHeaderFooterAsForm", m_bRenderHeaderFooterAsForm)
                             .append ("Prepared", m_bPrepared)
                             .appendIfNotNull ("PrepareResult", m_aPrepareResult)
                             .getToString ();
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.base;
+
+import java.util.concurrent.Executor;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.pdflayout.render.PLImageXObjectCache;
+
+/**
+ * The settings for rendering all pages of a single {@link PLPageSet}: the position of the page set
+ * within the document, whether the content is compressed, the optional executor for concurrent
+ * rendering and the image cache shared between the page sets of a document.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ * @see PLPageSet#renderAllPages(PLPageSetPrepareResult, org.apache.pdfbox.pdmodel.PDDocument,
+ *      PLPageSetRenderSettings)
+ */
+@NotThreadSafe
+public final class PLPageSetRenderSettings
+{
+  /** By default the PDF content is compressed */
+  public static final boolean DEFAULT_COMPRESS_PDF = true;
+
+  private final int m_nPageSetIndex;
+  private final int m_nPageSetCount;
+  private final int m_nTotalPageStartIndex;
+  private final int m_nTotalPageCount;
+  private boolean m_bCompressPDF = DEFAULT_COMPRESS_PDF;
+  private Executor m_aRenderExecutor;
+  private PLImageXObjectCache m_aImageCache = new PLImageXObjectCache ();
+
+  /**
+   * Constructor
+   *
+   * @param nPageSetIndex
+   *        Page set index. Must be &ge; 0.
+   * @param nPageSetCount
+   *        Page set count. Must be &ge; 1.
+   * @param nTotalPageStartIndex
+   *        Total index of the first page of the page set. Must be &ge; 0.
+   * @param nTotalPageCount
+   *        Total page count. Must be &ge; 1.
+   */
+  public PLPageSetRenderSettings (@Nonnegative final int nPageSetIndex,
+                                  @Nonnegative final int nPageSetCount,
+                                  @Nonnegative final int nTotalPageStartIndex,
+                                  @Nonnegative final int nTotalPageCount)
+  {
+    ValueEnforcer.isGE0 (nPageSetIndex, "PageSetIndex");
+    ValueEnforcer.isGT0 (nPageSetCount, "PageSetCount");
+    ValueEnforcer.isGE0 (nTotalPageStartIndex, "TotalPageStartIndex");
+    ValueEnforcer.isGT0 (nTotalPageCount, "TotalPageCount");
+    m_nPageSetIndex = nPageSetIndex;
+    m_nPageSetCount = nPageSetCount;
+    m_nTotalPageStartIndex = nTotalPageStartIndex;
+    m_nTotalPageCount = nTotalPageCount;
+  }
+
+  /**
+   * @return The page set index. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getPageSetIndex ()
+  {
+    return m_nPageSetIndex;
+  }
+
+  /**
+   * @return The page set count. Always &ge; 1.
+   */
+  @Nonnegative
+  public int getPageSetCount ()
+  {
+    return m_nPageSetCount;
+  }
+
+  /**
+   * @return The total index of the first page of the page set. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getTotalPageStartIndex ()
+  {
+    return m_nTotalPageStartIndex;
+  }
+
+  /**
+   * @return The total page count. Always &ge; 1.
+   */
+  @Nonnegative
+  public int getTotalPageCount ()
+  {
+    return m_nTotalPageCount;
+  }
+
+  /**
+   * @return <code>true</code> if the PDF content is compressed. Default is
+   *         {@link #DEFAULT_COMPRESS_PDF}.
+   */
+  public boolean isCompressPDF ()
+  {
+    return m_bCompressPDF;
+  }
+
+  /**
+   * @param bCompressPDF
+   *        <code>true</code> to create deflated PDF content.
+   * @return this for chaining
+   */
+  @NonNull
+  public PLPageSetRenderSettings setCompressPDF (final boolean bCompressPDF)
+  {
+    m_bCompressPDF = bCompressPDF;
+    return this;
+  }
+
+  /**
+   * @return The executor to render the page content in parallel. May be <code>null</code>, which is
+   *         the default.
+   */
+  @Nullable
+  public Executor getRenderExecutor ()
+  {
+    return m_aRenderExecutor;
+  }
+
+  /**
+   * @param aRenderExecutor
+   *        The executor to be used to render the page content in parallel. May be
+   *        <code>null</code> to render all pages sequentially.
+   * @return this for chaining
+   */
+  @NonNull
+  public PLPageSetRenderSettings setRenderExecutor (@Nullable final Executor aRenderExecutor)
+  {
+    m_aRenderExecutor = aRenderExecutor;
+    return this;
+  }
+
+  /**
+   * @return The image cache to be used. Never <code>null</code>.
+   */
+  @NonNull
+  public PLImageXObjectCache getImageCache ()
+  {
+    return m_aImageCache;
+  }
+
+  /**
+   * @param aImageCache
+   *        The image cache to be used. Should be the same for all page sets of a document, so that
+   *        each image is only embedded once. May not be <code>null</code>.
+   * @return this for chaining
+   */
+  @NonNull
+  public PLPageSetRenderSettings setImageCache (@NonNull final PLImageXObjectCache aImageCache)
+  {
+    ValueEnforcer.notNull (aImageCache, "ImageCache");
+    m_aImageCache = aImageCache;
+    return this;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("PageSetIndex", m_nPageSetIndex)
+                                       .append ("PageSetCount", m_nPageSetCount)
+                                       .append ("TotalPageStartIndex", m_nTotalPageStartIndex)
+                                       .append ("TotalPageCount", m_nTotalPageCount)
+                                       .append ("CompressPDF", m_bCompressPDF)
+                                       .appendIfNotNull ("RenderExecutor", m_aRenderExecutor)
+                                       .append ("ImageCache", m_aImageCache)
+                                       .getToString ();
+  }
+}
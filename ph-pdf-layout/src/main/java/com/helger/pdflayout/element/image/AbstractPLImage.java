@@ -18,18 +18,22 @@ package com.helger.pdflayout.element.image;
 
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.Nonnegative;
 import com.helger.annotation.OverridingMethodsMustInvokeSuper;
 import com.helger.annotation.style.OverrideOnDemand;
 import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.functional.IThrowingSupplier;
 import com.helger.base.state.EChange;
 import com.helger.base.tostring.ToStringGenerator;
 import com.helger.pdflayout.base.AbstractPLInlineElement;
 import com.helger.pdflayout.pdfbox.PDPageContentStreamWithCache;
+import com.helger.pdflayout.render.PLImageXObjectCache;
 import com.helger.pdflayout.render.PLRenderHelper;
 import com.helger.pdflayout.render.PagePreRenderContext;
 import com.helger.pdflayout.render.PageRenderContext;
@@ -139,6 +143,53 @@ public abstract class AbstractPLImage <IMPLTYPE extends AbstractPLImage <IMPLTYP
   @NonNull
   protected abstract PDImageXObject getXObject (@NonNull final PagePreRenderContext aCtx) throws IOException;
 
+  /**
+   * Get the key used to share the {@link PDImageXObject} between all elements and pages of a
+   * document that reference the same image. Together with {@link #getImageType()} it is used as the
+   * key in the {@link PLImageXObjectCache}. As this cache only lives as long as the document, the
+   * key may be based on object identity.
+   *
+   * @return The cache key of the image source. May be <code>null</code> to indicate that the image
+   *         should not be cached, in which case {@link #getXObject(PagePreRenderContext)} is called
+   *         for every page.
+   * @since 8.3.4
+   */
+  @Nullable
+  @OverrideOnDemand
+  protected Object getXObjectCacheKey ()
+  {
+    return null;
+  }
+
+  /**
+   * Get the image object from the global {@link PLEncodedImageCache} (if any) or create it. The
+   * global cache is shared between documents, so it must be keyed by the content of the image and
+   * not by object identity. The content key is only determined if a global cache is present.
+   *
+   * @param aCtx
+   *        The pre-render context. May not be <code>null</code>.
+   * @param aContentKeyProvider
+   *        The provider for the content based key, e.g. a hash of the image data. The key should be
+   *        small, because it is kept as long as the image is cached. May not be <code>null</code>.
+   * @param aFactory
+   *        The factory to create the image object if it is not cached. May not be
+   *        <code>null</code>.
+   * @return The image object. Never <code>null</code>.
+   * @throws IOException
+   *         If the factory fails
+   * @since 8.3.4
+   */
+  @NonNull
+  protected final PDImageXObject getXObjectFromEncodedImageCache (@NonNull final PagePreRenderContext aCtx,
+                                                                  @NonNull final Supplier <?> aContentKeyProvider,
+                                                                  @NonNull final IThrowingSupplier <? extends PDImageXObject, IOException> aFactory) throws IOException
+  {
+    final PLEncodedImageCache aGlobalCache = PLEncodedImageCache.getGlobalInstance ();
+    if (aGlobalCache != null)
+      return aGlobalCache.getOrCreate (aCtx.getDocument (), aContentKeyProvider.get (), m_eImageType, aFactory);
+    return aFactory.get ();
+  }
+
   @Override
   @NonNull
   public EChange beforeRender (@NonNull final PagePreRenderContext aCtx)
@@ -148,7 +199,11 @@ public abstract class AbstractPLImage <IMPLTYPE extends AbstractPLImage <IMPLTYP
     // http://stackoverflow.com/questions/8521290/cant-add-an-image-to-a-pdf-using-pdfbox
     try
     {
-      m_aXObject = getXObject (aCtx);
+      final Object aCacheKey = getXObjectCacheKey ();
+      if (aCacheKey != null)
+        m_aXObject = aCtx.getImageCache ().getOrCreate (aCacheKey, m_eImageType, () -> getXObject (aCtx));
+      else
+        m_aXObject = getXObject (aCtx);
       if (m_aXObject == null)
         throw new IllegalStateException ("Failed to create PDImageXObject");
     }
@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.element.image;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.CGlobal;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.functional.IThrowingSupplier;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.pdflayout.pdfbox.COSSnapshot;
+
+/**
+ * A size bounded cache for encoded image data that can be shared between documents. The encoded
+ * (e.g. Flate compressed) pixel stream, the soft mask and the color space information of a
+ * {@link PDImageXObject} are stored as plain bytes, so that the image object can be rebuilt in
+ * another {@link PDDocument} without decoding and compressing the image again. This is e.g. useful
+ * for services that render many documents containing the same logo.<br>
+ * The cache is bounded by the number of bytes of the encoded streams plus a fixed overhead per
+ * entry for the key. If the limit is exceeded, the least recently used entries are evicted.<br>
+ * The cache is only used if a global instance is set via {@link #setGlobalInstance(PLEncodedImageCache)}.
+ * Because the cache outlives documents, keys must identify the image content (e.g. a hash of the
+ * image data as used by {@link PLImage} and {@link PLStreamImage}) and must be small value objects.
+ * Keys must never reference the image source itself, as this would keep it alive as long as the
+ * entry is cached.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@ThreadSafe
+public final class PLEncodedImageCache
+{
+  /** The default maximum number of bytes of all cached images: 32 MiB */
+  public static final long DEFAULT_MAX_BYTES = 32L * CGlobal.BYTES_PER_MEGABYTE;
+  /** The number of bytes accounted for the key and the bookkeeping of each entry */
+  public static final long ENTRY_OVERHEAD_BYTES = 256;
+
+  private static volatile PLEncodedImageCache s_aGlobalInstance;
+
+  private record Key (@NonNull Object aImageKey, @NonNull EPLImageType eImageType)
+  {}
+
+  private record Entry (@NonNull COSSnapshot aSnapshot, @Nonnegative long nBytes)
+  {}
+
+  private final long m_nMaxBytes;
+  private final Lock m_aLock = new ReentrantLock ();
+  // Access order for LRU
+  @GuardedBy ("m_aLock")
+  private final LinkedHashMap <Key, Entry> m_aMap = new LinkedHashMap <> (16, 0.75f, true);
+  @GuardedBy ("m_aLock")
+  private long m_nCurrentBytes = 0;
+  @GuardedBy ("m_aLock")
+  private long m_nHitCount = 0;
+  @GuardedBy ("m_aLock")
+  private long m_nMissCount = 0;
+
+  public PLEncodedImageCache ()
+  {
+    this (DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param nMaxBytes
+   *        The maximum number of encoded bytes to keep in the cache. Must be &gt; 0.
+   */
+  public PLEncodedImageCache (@Nonnegative final long nMaxBytes)
+  {
+    ValueEnforcer.isGT0 (nMaxBytes, "MaxBytes");
+    m_nMaxBytes = nMaxBytes;
+  }
+
+  /**
+   * @return The global instance to be used by {@link PLImage} and {@link PLStreamImage}. May be
+   *         <code>null</code>, which is the default.
+   */
+  @Nullable
+  public static PLEncodedImageCache getGlobalInstance ()
+  {
+    return s_aGlobalInstance;
+  }
+
+  /**
+   * Set the global instance to be used by {@link PLImage} and {@link PLStreamImage}.
+   *
+   * @param aGlobalInstance
+   *        The global instance to use. May be <code>null</code> to disable the cross-document cache.
+   */
+  public static void setGlobalInstance (@Nullable final PLEncodedImageCache aGlobalInstance)
+  {
+    s_aGlobalInstance = aGlobalInstance;
+  }
+
+  /**
+   * @return The maximum number of encoded bytes to keep. Always &gt; 0.
+   */
+  @Nonnegative
+  public long getMaxBytes ()
+  {
+    return m_nMaxBytes;
+  }
+
+  /**
+   * Get the image object for the provided key in the provided document. If the encoded image data
+   * is cached, a new image object is created in the document from the cached data. Otherwise the
+   * factory is invoked and the result is added to the cache.
+   *
+   * @param aDoc
+   *        The document to create the image object in. May not be <code>null</code>.
+   * @param aImageKey
+   *        The key identifying the image content, e.g. a hash of the image data. It must implement
+   *        value based equality and should be small. May not be <code>null</code>.
+   * @param eImageType
+   *        The image type used to encode the image. May not be <code>null</code>.
+   * @param aFactory
+   *        The factory to create the image object if it is not yet cached. May not be
+   *        <code>null</code>.
+   * @return The image object in the provided document. Never <code>null</code>.
+   * @throws IOException
+   *         If the factory throws an exception or the cached data cannot be written
+   */
+  @NonNull
+  public PDImageXObject getOrCreate (@NonNull final PDDocument aDoc,
+                                     @NonNull final Object aImageKey,
+                                     @NonNull final EPLImageType eImageType,
+                                     @NonNull final IThrowingSupplier <? extends PDImageXObject, IOException> aFactory) throws IOException
+  {
+    ValueEnforcer.notNull (aDoc, "Doc");
+    ValueEnforcer.notNull (aImageKey, "ImageKey");
+    ValueEnforcer.notNull (eImageType, "ImageType");
+    ValueEnforcer.notNull (aFactory, "Factory");
+
+    final Key aKey = new Key (aImageKey, eImageType);
+    final Entry aCached;
+    m_aLock.lock ();
+    try
+    {
+      aCached = m_aMap.get (aKey);
+      if (aCached != null)
+        m_nHitCount++;
+      else
+        m_nMissCount++;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+
+    if (aCached != null)
+    {
+      // Rebuild the image in the new document
+      return new PDImageXObject (new PDStream ((COSStream) aCached.aSnapshot ().restore (aDoc)), null);
+    }
+
+    // Encode outside of the lock, so that different images can be encoded concurrently
+    final PDImageXObject ret = aFactory.get ();
+    if (ret == null)
+      throw new IllegalStateException ("Failed to create PDImageXObject");
+
+    final COSSnapshot aSnapshot = COSSnapshot.create (ret.getCOSObject ());
+    final long nBytes = aSnapshot.getByteCount () + ENTRY_OVERHEAD_BYTES;
+    if (nBytes <= m_nMaxBytes)
+    {
+      m_aLock.lock ();
+      try
+      {
+        final Entry aOld = m_aMap.put (aKey, new Entry (aSnapshot, nBytes));
+        if (aOld != null)
+          m_nCurrentBytes -= aOld.nBytes ();
+        m_nCurrentBytes += nBytes;
+
+        // Evict the least recently used entries
+        final Iterator <Entry> it = m_aMap.values ().iterator ();
+        while (m_nCurrentBytes > m_nMaxBytes && it.hasNext ())
+        {
+          m_nCurrentBytes -= it.next ().nBytes ();
+          it.remove ();
+        }
+      }
+      finally
+      {
+        m_aLock.unlock ();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * @return The number of cached images. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_aMap.size ();
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of encoded bytes currently cached, including the overhead per entry. Always
+   *         &ge; 0.
+   */
+  @Nonnegative
+  public long getCurrentBytes ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nCurrentBytes;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cache hits. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getHitCount ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nHitCount;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cache misses. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getMissCount ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nMissCount;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * Remove all cached images and reset the hit and miss counts.
+   */
+  public void clear ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      m_aMap.clear ();
+      m_nCurrentBytes = 0;
+      m_nHitCount = 0;
+      m_nMissCount = 0;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return new ToStringGenerator (this).append ("MaxBytes", m_nMaxBytes)
+                                         .append ("Size", m_aMap.size ())
+                                         .append ("CurrentBytes", m_nCurrentBytes)
+                                         .append ("HitCount", m_nHitCount)
+                                         .append ("MissCount", m_nMissCount)
+                                         .getToString ();
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+}
@@ -17,7 +17,18 @@
 package com.helger.pdflayout.element.image;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.pdfbox.pdmodel.graphics.image.CCITTFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
@@ -28,20 +39,35 @@ import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.Nonnegative;
 import com.helger.annotation.OverridingMethodsMustInvokeSuper;
+import com.helger.annotation.concurrent.GuardedBy;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.tostring.ToStringGenerator;
 import com.helger.pdflayout.render.PagePreRenderContext;
 
 /**
  * Represent a static image based on {@link BufferedImage}. This image type is
- * supported for all {@link EPLImageType}s!
+ * supported for all {@link EPLImageType}s!<br>
+ * Note: if a global {@link PLEncodedImageCache} is used, the content hash of a
+ * {@link BufferedImage} is only calculated on its first use. If the same
+ * {@link BufferedImage} object is modified afterwards, the previously encoded
+ * image is used. Call {@link #setImageModifiable(boolean)} with
+ * <code>true</code> for such images.
  *
  * @see PLStreamImage
  * @author Philip Helger
  */
 public class PLImage extends AbstractPLImage <PLImage>
 {
+  public static final boolean DEFAULT_IMAGE_MODIFIABLE = false;
+
+  // The content hash per image object for the encoded image cache, so that an image used in multiple
+  // documents is only hashed once. BufferedImage uses identity equality.
+  private static final Lock CONTENT_HASH_LOCK = new ReentrantLock ();
+  @GuardedBy ("CONTENT_HASH_LOCK")
+  private static final Map <BufferedImage, ByteBuffer> CONTENT_HASHES = new WeakHashMap <> ();
+
   private final BufferedImage m_aImage;
+  private boolean m_bImageModifiable = DEFAULT_IMAGE_MODIFIABLE;
 
   public PLImage (@NonNull final BufferedImage aImage)
   {
@@ -62,6 +88,7 @@ public class PLImage extends AbstractPLImage <PLImage>
   public PLImage setBasicDataFrom (@NonNull final PLImage aSource)
   {
     super.setBasicDataFrom (aSource);
+    setImageModifiable (aSource.m_bImageModifiable);
     return this;
   }
 
@@ -71,9 +98,137 @@ public class PLImage extends AbstractPLImage <PLImage>
     return m_aImage;
   }
 
+  /**
+   * @return <code>true</code> if the content hash of the image is calculated on each use,
+   *         <code>false</code> if it is only calculated on the first use of the image object. The
+   *         default is {@link #DEFAULT_IMAGE_MODIFIABLE}.
+   * @since 8.3.4
+   */
+  public final boolean isImageModifiable ()
+  {
+    return m_bImageModifiable;
+  }
+
+  /**
+   * Define whether the {@link BufferedImage} may be modified between the creation of documents. This
+   * is only relevant if a global {@link PLEncodedImageCache} is used. If enabled, the content hash of
+   * the image is calculated on each use, so that a modified image is not served from the cache.
+   *
+   * @param bImageModifiable
+   *        <code>true</code> to calculate the content hash on each use, <code>false</code> to
+   *        calculate it only once per image object.
+   * @return this for chaining
+   * @since 8.3.4
+   */
+  @NonNull
+  public final PLImage setImageModifiable (final boolean bImageModifiable)
+  {
+    m_bImageModifiable = bImageModifiable;
+    return this;
+  }
+
+  /**
+   * The image is shared by identity. So if the same {@link BufferedImage} object is used by
+   * multiple elements, it is only embedded once into the document.
+   */
   @Override
   @NonNull
-  protected PDImageXObject getXObject (@NonNull final PagePreRenderContext aCtx) throws IOException
+  protected Object getXObjectCacheKey ()
+  {
+    return m_aImage;
+  }
+
+  /**
+   * Get the SHA-256 hash of the image content, consisting of the dimensions, the color model and the
+   * raster data. Images decoded separately from the same source have the same hash.
+   */
+  @NonNull
+  private static ByteBuffer _getContentHash (@NonNull final BufferedImage aImage)
+  {
+    final MessageDigest aMD;
+    try
+    {
+      aMD = MessageDigest.getInstance ("SHA-256");
+    }
+    catch (final NoSuchAlgorithmException ex)
+    {
+      throw new IllegalStateException ("SHA-256 is not supported", ex);
+    }
+
+    final int nWidth = aImage.getWidth ();
+    final int nHeight = aImage.getHeight ();
+    final Raster aRaster = aImage.getRaster ();
+    final int nBands = aRaster.getNumBands ();
+    final ColorModel aCM = aImage.getColorModel ();
+    aMD.update (aCM.getClass ().getName ().getBytes (StandardCharsets.ISO_8859_1));
+    aMD.update (ByteBuffer.allocate (7 * Integer.BYTES)
+                          .putInt (nWidth)
+                          .putInt (nHeight)
+                          .putInt (nBands)
+                          .putInt (aCM.getPixelSize ())
+                          .putInt (aCM.getTransparency ())
+                          .putInt (aCM.getColorSpace ().getType ())
+                          .putInt (aCM.isAlphaPremultiplied () ? 1 : 0)
+                          .array ());
+    if (aCM instanceof final IndexColorModel aICM)
+    {
+      // The palette is not part of the raster
+      final int [] aPalette = new int [aICM.getMapSize ()];
+      aICM.getRGBs (aPalette);
+      final ByteBuffer aPaletteBytes = ByteBuffer.allocate (aPalette.length * Integer.BYTES);
+      aPaletteBytes.asIntBuffer ().put (aPalette);
+      aMD.update (aPaletteBytes.array ());
+    }
+
+    // Row by row, to limit the memory usage
+    final int [] aRow = new int [nWidth * nBands];
+    final ByteBuffer aRowBytes = ByteBuffer.allocate (aRow.length * Integer.BYTES);
+    for (int y = 0; y < nHeight; ++y)
+    {
+      aRaster.getPixels (0, y, nWidth, 1, aRow);
+      aRowBytes.asIntBuffer ().put (aRow);
+      aMD.update (aRowBytes.array ());
+    }
+    return ByteBuffer.wrap (aMD.digest ());
+  }
+
+  @NonNull
+  private ByteBuffer _getOrCreateContentHash ()
+  {
+    ByteBuffer ret = null;
+    if (!m_bImageModifiable)
+    {
+      CONTENT_HASH_LOCK.lock ();
+      try
+      {
+        ret = CONTENT_HASHES.get (m_aImage);
+      }
+      finally
+      {
+        CONTENT_HASH_LOCK.unlock ();
+      }
+    }
+
+    if (ret == null)
+    {
+      // Hash outside of the lock - worst case it is calculated twice
+      ret = _getContentHash (m_aImage);
+      // A modifiable image updates the remembered hash, so other elements using it are updated too
+      CONTENT_HASH_LOCK.lock ();
+      try
+      {
+        CONTENT_HASHES.put (m_aImage, ret);
+      }
+      finally
+      {
+        CONTENT_HASH_LOCK.unlock ();
+      }
+    }
+    return ret;
+  }
+
+  @NonNull
+  private PDImageXObject _createXObject (@NonNull final PagePreRenderContext aCtx) throws IOException
   {
     switch (getImageType ())
     {
@@ -88,9 +243,26 @@ public class PLImage extends AbstractPLImage <PLImage>
     }
   }
 
+  /**
+   * The global {@link PLEncodedImageCache} (if any) is keyed by a hash of the image content, so that
+   * the same image decoded again for a later document is found as well. The hash is calculated only
+   * once per {@link BufferedImage} object, so an image object that is reused for later documents is
+   * not hashed again. If the image is modifiable (see {@link #setImageModifiable(boolean)}), the
+   * hash is calculated on each use instead.
+   */
+  @Override
+  @NonNull
+  protected PDImageXObject getXObject (@NonNull final PagePreRenderContext aCtx) throws IOException
+  {
+    return getXObjectFromEncodedImageCache (aCtx, this::_getOrCreateContentHash, () -> _createXObject (aCtx));
+  }
+
   @Override
   public String toString ()
   {
-    return ToStringGenerator.getDerived (super.toString ()).append ("Image", m_aImage).getToString ();
+    return ToStringGenerator.getDerived (super.toString ())
+                            .append ("Image", m_aImage)
+                            .append ("ImageModifiable", m_bImageModifiable)
+                            .getToString ();
   }
 }
@@ -19,6 +19,9 @@ package com.helger.pdflayout.element.image;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 import org.apache.pdfbox.pdmodel.graphics.image.CCITTFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
@@ -152,6 +155,46 @@ public class PLStreamImage extends AbstractPLImage <PLStreamImage>
     return m_aIIS;
   }
 
+  @NonNull
+  private static ByteBuffer _getContentHash (final byte @NonNull [] aBytes)
+  {
+    try
+    {
+      return ByteBuffer.wrap (MessageDigest.getInstance ("SHA-256").digest (aBytes));
+    }
+    catch (final NoSuchAlgorithmException ex)
+    {
+      throw new IllegalStateException ("SHA-256 is not supported", ex);
+    }
+  }
+
+  /**
+   * The image is shared by the equality of the input stream provider. So if e.g. the same class
+   * path resource is used by multiple elements, it is only read and embedded once into the
+   * document. Additionally images with the same content read from different sources are embedded
+   * only once.
+   */
+  @Override
+  @NonNull
+  protected Object getXObjectCacheKey ()
+  {
+    return m_aIIS;
+  }
+
+  @NonNull
+  private PDImageXObject _createXObject (@NonNull final PagePreRenderContext aCtx, final byte @NonNull [] aBytes)
+                                                                                                               throws IOException
+  {
+    return switch (getImageType ())
+    {
+      case CCITT -> CCITTFactory.createFromByteArray (aCtx.getDocument (), aBytes);
+      case JPEG -> JPEGFactory.createFromByteArray (aCtx.getDocument (), aBytes);
+      // API does not support it
+      case LOSSLESS -> throw new IllegalStateException ("Lossless images cannot be read from Stream - use the version with BufferedImage!");
+      default -> throw new IllegalStateException ("Unsupported image type: " + toString ());
+    };
+  }
+
   @Override
   @NonNull
   protected PDImageXObject getXObject (@NonNull final PagePreRenderContext aCtx) throws IOException
@@ -164,14 +207,14 @@ public class PLStreamImage extends AbstractPLImage <PLStreamImage>
     try (final InputStream aRealIS = aIS)
     {
       final byte [] aBytes = _readBounded (aRealIS, m_nMaxImageSize);
-      return switch (getImageType ())
-      {
-        case CCITT -> CCITTFactory.createFromByteArray (aCtx.getDocument (), aBytes);
-        case JPEG -> JPEGFactory.createFromByteArray (aCtx.getDocument (), aBytes);
-        // API does not support it
-        case LOSSLESS -> throw new IllegalStateException ("Lossless images cannot be read from Stream - use the version with BufferedImage!");
-        default -> throw new IllegalStateException ("Unsupported image type: " + toString ());
-      };
+      // Share identical image data read from different sources
+      final ByteBuffer aContentHash = _getContentHash (aBytes);
+      return aCtx.getImageCache ()
+                 .getOrCreate (aContentHash,
+                               getImageType (),
+                               () -> getXObjectFromEncodedImageCache (aCtx,
+                                                                      () -> aContentHash,
+                                                                      () -> _createXObject (aCtx, aBytes)));
     }
   }
 
@@ -174,6 +174,13 @@ public abstract class AbstractPLLinkBase <IMPLTYPE extends AbstractPLLinkBase <I
   @NonNull
   protected abstract String getMissingActionDebugReason ();
 
+  @Override
+  public boolean isRenderingPageSpecificObjects ()
+  {
+    // The link annotation is added to the current page
+    return true;
+  }
+
   @Override
   protected void onRender (@NonNull final PageRenderContext aCtx) throws IOException
   {
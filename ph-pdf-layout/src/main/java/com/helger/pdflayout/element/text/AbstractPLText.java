@@ -39,7 +39,9 @@ import com.helger.base.string.StringReplace;
 import com.helger.base.tostring.ToStringGenerator;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.CommonsHashSet;
 import com.helger.collection.commons.ICommonsMap;
+import com.helger.collection.commons.ICommonsSet;
 import com.helger.pdflayout.base.AbstractPLInlineElement;
 import com.helger.pdflayout.base.EPLPlaceholder;
 import com.helger.pdflayout.base.IPLHasHorizontalAlignment;
@@ -53,10 +55,12 @@ import com.helger.pdflayout.render.PagePreRenderContext;
 import com.helger.pdflayout.render.PageRenderContext;
 import com.helger.pdflayout.render.PreparationContext;
 import com.helger.pdflayout.spec.EHorzAlignment;
+import com.helger.pdflayout.spec.FittedTextLines;
 import com.helger.pdflayout.spec.FontSpec;
 import com.helger.pdflayout.spec.LoadedFont;
 import com.helger.pdflayout.spec.SizeSpec;
 import com.helger.pdflayout.spec.TextAndWidthSpec;
+import com.helger.pdflayout.spec.TextFitSpec;
 
 /**
  * Render text
@@ -74,6 +78,15 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
   public static final int DEFAULT_MAX_ROWS = CGlobal.ILLEGAL_UINT;
   public static final boolean DEFAULT_REPLACE_PLACEHOLDERS = false;
   public static final float DEFAULT_BORDER_RADIUS = 0f;
+  public static final boolean DEFAULT_LAZY_LAYOUT = false;
+  /**
+   * In lazy layout mode the lines for this many times the available height are fitted in advance.
+   * This must be more than 1, because the first page may offer more space than the height used for
+   * preparation, and an element that is not fitted completely must always be higher than a page.
+   */
+  public static final float LAZY_LAYOUT_WINDOW_FACTOR = 2f;
+  public static final boolean DEFAULT_TOTAL_FIT_LINE_BREAKING = false;
+  public static final boolean DEFAULT_UNICODE_LINE_BREAKING = false;
 
   private String m_sOriginalText;
   private String m_sTextWithPlaceholdersReplaced;
@@ -85,6 +98,9 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
   private boolean m_bVertSplittable = DEFAULT_VERT_SPLITTABLE;
   private boolean m_bReplacePlaceholder = DEFAULT_REPLACE_PLACEHOLDERS;
   private float m_fBorderRadius = DEFAULT_BORDER_RADIUS;
+  private boolean m_bLazyLayout = DEFAULT_LAZY_LAYOUT;
+  private boolean m_bTotalFitLineBreaking = DEFAULT_TOTAL_FIT_LINE_BREAKING;
+  private boolean m_bUnicodeLineBreaking = DEFAULT_UNICODE_LINE_BREAKING;
 
   // prepare result
   private transient LoadedFont m_aLoadedFont;
@@ -94,6 +110,42 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
   protected int m_nPreparedLineCountUnmodified = CGlobal.ILLEGAL_UINT;
   protected ICommonsList <TextAndWidthSpec> m_aPreparedLinesUnmodified;
   protected ICommonsList <TextAndWidthSpec> m_aPreparedLines;
+  // Only present if placeholders are replaced
+  private transient ICommonsList <PreparedParagraph> m_aPreparedParagraphs;
+  private transient ICommonsSet <String> m_aPreparedParagraphPlaceholders;
+  // Only present in lazy layout mode: the complete text that is fitted and the offset of the first
+  // line that was not fitted yet (or -1 if everything was fitted)
+  private transient String m_sLazySource;
+  private transient int m_nLazySourceStart;
+  private transient int m_nLazyNextOffset = -1;
+  private transient float m_fLazyAvailableWidth;
+  private transient int m_nLazyWindowLineCount;
+
+  /**
+   * The prepared lines of a single paragraph of the original text, so that only the paragraphs
+   * containing placeholders need to be fitted again when the placeholders are replaced.
+   */
+  private static final class PreparedParagraph
+  {
+    private final String m_sOriginalText;
+    // true if the estimation replacements changed the text
+    private final boolean m_bEstimated;
+    private ICommonsList <TextAndWidthSpec> m_aEstimatedLines;
+    private boolean m_bEstimatedLinesEncoded;
+    private boolean m_bHasPlaceholder;
+    // The result of the last replacement
+    private String m_sLastText;
+    private ICommonsList <TextAndWidthSpec> m_aLastLines;
+
+    PreparedParagraph (@NonNull final String sOriginalText,
+                       final boolean bEstimated,
+                       @NonNull final ICommonsList <TextAndWidthSpec> aEstimatedLines)
+    {
+      m_sOriginalText = sOriginalText;
+      m_bEstimated = bEstimated;
+      m_aEstimatedLines = aEstimatedLines;
+    }
+  }
 
   @NonNull
   public static String getCleanedPLText (@Nullable final String sText)
@@ -142,6 +194,9 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
     setReplacePlaceholder (aSource.isReplacePlaceholder ());
     setBorderRadius (aSource.getBorderRadius ());
     setCustomAscentFirstLine (aSource.getCustomAscentFirstLine ());
+    setLazyLayout (aSource.isLazyLayout ());
+    setTotalFitLineBreaking (aSource.isTotalFitLineBreaking ());
+    setUnicodeLineBreaking (aSource.isUnicodeLineBreaking ());
     return thisAsT ();
   }
 
@@ -152,7 +207,23 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
   @NonNull
   public final String getText ()
   {
-    return m_sOriginalText;
+    String ret = m_sOriginalText;
+    if (ret == null)
+    {
+      // Lazily laid out fragment - create the text only on demand
+      ret = m_sLazySource.substring (m_nLazySourceStart);
+      m_sOriginalText = ret;
+      m_sTextWithPlaceholdersReplaced = ret;
+    }
+    return ret;
+  }
+
+  @Nonnegative
+  private int _getTextLength ()
+  {
+    if (m_sOriginalText == null)
+      return m_sLazySource.length () - m_nLazySourceStart;
+    return m_sOriginalText.length ();
   }
 
   /**
@@ -161,7 +232,7 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
    */
   public final boolean hasText ()
   {
-    return m_sOriginalText.length () > 0;
+    return _getTextLength () > 0;
   }
 
   /**
@@ -170,7 +241,7 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
    */
   public final boolean hasNoText ()
   {
-    return m_sOriginalText.length () == 0;
+    return _getTextLength () == 0;
   }
 
   /**
@@ -302,6 +373,112 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
     return thisAsT ();
   }
 
+  /**
+   * @return <code>true</code> if lazy layout is enabled, <code>false</code> if not. The default
+   *         value is {@link #DEFAULT_LAZY_LAYOUT}.
+   * @since 8.3.4
+   */
+  public final boolean isLazyLayout ()
+  {
+    return m_bLazyLayout;
+  }
+
+  /**
+   * Enable or disable the lazy layout for very long texts. When enabled, only the lines for
+   * {@link #LAZY_LAYOUT_WINDOW_FACTOR} times the available height are fitted when the text is
+   * prepared. The remaining lines are fitted on demand, when the text is split vertically. This
+   * keeps the memory usage bounded by a page window and avoids copying the remaining text for
+   * every page. The prepared width is the available width, as long as not all lines are fitted.
+   * <br>
+   * Lazy layout is only used for vertically splittable texts without placeholder replacement and
+   * without a maximum number of rows. It should only be used for texts that are split by the page
+   * set or by splittable containers, because the height is only known once the text is split. If
+   * the text is rendered without being split, all remaining lines are fitted before rendering.
+   *
+   * @param bLazyLayout
+   *        <code>true</code> to enable lazy layout, <code>false</code> to disable it.
+   * @return this for chaining
+   * @since 8.3.4
+   */
+  @NonNull
+  public final IMPLTYPE setLazyLayout (final boolean bLazyLayout)
+  {
+    m_bLazyLayout = bLazyLayout;
+    return thisAsT ();
+  }
+
+  private boolean _isLazyLayoutApplicable ()
+  {
+    return m_bLazyLayout &&
+           m_bVertSplittable &&
+           !m_bReplacePlaceholder &&
+           m_nMaxRows <= 0 &&
+           !m_bTotalFitLineBreaking;
+  }
+
+  /**
+   * @return <code>true</code> if the lines are broken with a total fit per paragraph,
+   *         <code>false</code> if they are fitted greedily. The default value is
+   *         {@link #DEFAULT_TOTAL_FIT_LINE_BREAKING}.
+   * @since 8.3.4
+   */
+  public final boolean isTotalFitLineBreaking ()
+  {
+    return m_bTotalFitLineBreaking;
+  }
+
+  /**
+   * Enable or disable the total fit line breaking. By default each line is filled with as much text
+   * as possible. With total fit, all break opportunities of a paragraph are considered together (in
+   * the style of Knuth and Plass), so that the lines have a similar width. This is mainly useful
+   * for {@link EHorzAlignment#BLOCK} and {@link EHorzAlignment#JUSTIFY}, where the space left on a
+   * line is distributed via the character spacing. It is more expensive than greedy fitting, so it
+   * is disabled by default. When enabled, the lazy layout is not used.
+   *
+   * @param bTotalFitLineBreaking
+   *        <code>true</code> to enable total fit line breaking, <code>false</code> to use greedy
+   *        fitting.
+   * @return this for chaining
+   * @see com.helger.pdflayout.spec.TotalFitLineBreaker
+   * @since 8.3.4
+   */
+  @NonNull
+  public final IMPLTYPE setTotalFitLineBreaking (final boolean bTotalFitLineBreaking)
+  {
+    m_bTotalFitLineBreaking = bTotalFitLineBreaking;
+    return thisAsT ();
+  }
+
+  /**
+   * @return <code>true</code> if break opportunities within words are found according to the
+   *         Unicode line breaking algorithm, <code>false</code> if lines are only broken at
+   *         whitespaces. The default value is {@link #DEFAULT_UNICODE_LINE_BREAKING}.
+   * @since 8.3.4
+   */
+  public final boolean isUnicodeLineBreaking ()
+  {
+    return m_bUnicodeLineBreaking;
+  }
+
+  /**
+   * Enable or disable the Unicode line breaking. By default lines are only broken at whitespaces.
+   * If enabled, the break opportunities within words (e.g. after hyphens and slashes and between
+   * ideographs) are found as well. This must be set before the element is prepared.
+   *
+   * @param bUnicodeLineBreaking
+   *        <code>true</code> to enable Unicode line breaking, <code>false</code> to break at
+   *        whitespaces only.
+   * @return this for chaining
+   * @see com.helger.pdflayout.spec.UnicodeLineBreaker
+   * @since 8.3.4
+   */
+  @NonNull
+  public final IMPLTYPE setUnicodeLineBreaking (final boolean bUnicodeLineBreaking)
+  {
+    m_bUnicodeLineBreaking = bUnicodeLineBreaking;
+    return thisAsT ();
+  }
+
   /**
    * @return The border radius to use. Only values &gt; 0 will draw a radius.
    * @since v7.4.1
@@ -436,8 +613,213 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
       // Use the approximations from the placeholders
       sTextToFit = StringReplace.replaceMultiple (m_sOriginalText, ESTIMATION_REPLACEMENTS);
     }
-    internalSetPreparedLines (m_aLoadedFont.getFitToWidth (sTextToFit, fFontSize, fAvailableWidth));
+    internalSetPreparedLines (_getFitToWidth (sTextToFit, fAvailableWidth));
+
+    if (!bAlreadyReplaced)
+      _rememberParagraphs (sTextToFit);
+
+    // Estimated placeholder values are replaced before rendering anyway
+    if (!m_bReplacePlaceholder || bAlreadyReplaced)
+      _encodePreparedLines ();
+
+    return _getPreparedSize (fAvailableWidth);
+  }
+
+  /**
+   * Prepare the text in lazy layout mode, so that only the lines of the page window are fitted.
+   *
+   * @param fAvailableWidth
+   *        Available width
+   * @param fAvailableHeight
+   *        Available height, to determine the number of lines to fit in advance
+   * @return The new preparation size
+   * @throws IOException
+   *         On PDFBox error
+   */
+  @NonNull
+  private SizeSpec _prepareTextLazy (final float fAvailableWidth, final float fAvailableHeight) throws IOException
+  {
+    final float fFontSize = m_aFontSpec.getFontSize ();
+    m_fTextHeight = m_aLoadedFont.getTextHeight (fFontSize);
+    m_fDescent = m_aLoadedFont.getDescent (fFontSize);
+
+    if (hasNoText ())
+    {
+      // Nothing to do - empty
+      // But keep the height distance!
+      return new SizeSpec (0, m_fTextHeight);
+    }
+
+    m_sLazySource = getText ();
+    m_nLazySourceStart = 0;
+    m_nLazyNextOffset = 0;
+    m_fLazyAvailableWidth = fAvailableWidth;
+    // One more line, so that the window is always higher than the available height
+    m_nLazyWindowLineCount = Math.max (1,
+                                       (int) (LAZY_LAYOUT_WINDOW_FACTOR *
+                                              fAvailableHeight /
+                                              (m_fTextHeight * m_fLineSpacing))) + 1;
+    internalSetPreparedLines (new CommonsArrayList <> ());
+    _fitLazyLines (m_nLazyWindowLineCount);
+    return _getLazyPreparedSize ();
+  }
+
+  /**
+   * Fit more lines of a lazily laid out text, until at least the provided number of lines is
+   * prepared or the end of the text is reached.
+   *
+   * @param nMinLineCount
+   *        The minimum number of prepared lines.
+   * @throws IOException
+   *         On PDFBox error
+   */
+  private void _fitLazyLines (@Nonnegative final int nMinLineCount) throws IOException
+  {
+    final int nMissingLineCount = nMinLineCount - m_aPreparedLines.size ();
+    if (m_nLazyNextOffset < 0 || nMissingLineCount <= 0)
+      return;
+
+    // Lazy layout is never used with total fit
+    final TextFitSpec aSpec = _getTextFitSpec ().getCloneWithLineRange (m_nLazyNextOffset, nMissingLineCount);
+    final FittedTextLines aFitted = m_aLoadedFont.getFitToWidthOffsets (m_sLazySource,
+                                                                        m_aFontSpec.getFontSize (),
+                                                                        m_fLazyAvailableWidth,
+                                                                        aSpec);
+    m_nLazyNextOffset = aFitted.getNextOffset ();
+
+    final ICommonsList <TextAndWidthSpec> aLines = new CommonsArrayList <> (m_aPreparedLines.size () +
+                                                                            aFitted.getLineCount ());
+    aLines.addAll (m_aPreparedLines);
+    aLines.addAll (aFitted.getAsTextAndWidthSpecList ());
+    internalSetPreparedLines (aLines);
+    _encodePreparedLines ();
+  }
+
+  /**
+   * Fit all remaining lines of a lazily laid out text. This is required, if the text is rendered
+   * without being split before - e.g. because it is contained in a container that is not vertically
+   * splittable or in a page header or footer - because otherwise the lines after the page window
+   * would be lost.
+   *
+   * @return {@link EChange#CHANGED} if lines were fitted and the prepared size changed.
+   * @throws IOException
+   *         On PDFBox error
+   */
+  @NonNull
+  private EChange _fitAllRemainingLazyLines () throws IOException
+  {
+    if (m_nLazyNextOffset < 0)
+      return EChange.UNCHANGED;
+
+    _fitLazyLines (Integer.MAX_VALUE);
+    internalMarkAsNotPreparedDontPropagate ();
+    internalMarkAsPrepared (_getLazyPreparedSize ());
+    return EChange.CHANGED;
+  }
+
+  @NonNull
+  private SizeSpec _getLazyPreparedSize ()
+  {
+    final SizeSpec aSize = _getPreparedSize (m_fLazyAvailableWidth);
+    if (m_nLazyNextOffset < 0)
+      return aSize;
+    // The widest line is unknown as long as not all lines are fitted
+    return new SizeSpec (m_fLazyAvailableWidth, aSize.getHeight ());
+  }
+
+  @NonNull
+  private TextFitSpec _getTextFitSpec ()
+  {
+    return TextFitSpec.DEFAULT.getCloneWithTotalFit (m_bTotalFitLineBreaking)
+                              .getCloneWithUnicodeLineBreaking (m_bUnicodeLineBreaking);
+  }
+
+  @NonNull
+  private ICommonsList <TextAndWidthSpec> _getFitToWidth (@NonNull final String sText, final float fAvailableWidth)
+                                                                                                                  throws IOException
+  {
+    final TextFitSpec aSpec = _getTextFitSpec ();
+    final PLTextFitCache aFitCache = PLTextFitCache.getGlobalInstance ();
+    if (aFitCache != null)
+      return aFitCache.getFitToWidth (m_aLoadedFont, m_aFontSpec, sText, fAvailableWidth, aSpec);
+    return m_aLoadedFont.getFitToWidth (sText, m_aFontSpec.getFontSize (), fAvailableWidth, aSpec);
+  }
+
+  @NonNull
+  private ICommonsList <TextAndWidthSpec> _getEncodedLines (@NonNull final ICommonsList <TextAndWidthSpec> aLines)
+                                                                                                                   throws IOException
+  {
+    final ICommonsList <TextAndWidthSpec> ret = new CommonsArrayList <> (aLines.size ());
+    for (final TextAndWidthSpec aLine : aLines)
+      ret.add (m_aLoadedFont.getWithEncodedText (aLine));
+    return ret;
+  }
+
+  /**
+   * Encode all lines that are displayed for the loaded font, so that they don't need to be encoded
+   * when rendering. Lines that are already encoded are not touched, so that vertically split
+   * fragments reuse the encoded text of the original element.
+   *
+   * @throws IOException
+   *         On PDFBox error
+   */
+  private void _encodePreparedLines () throws IOException
+  {
+    final ICommonsList <TextAndWidthSpec> aLines = m_aPreparedLines;
+    for (int i = 0; i < aLines.size (); ++i)
+    {
+      final TextAndWidthSpec aLine = aLines.get (i);
+      if (!aLine.hasEncodedText ())
+        aLines.set (i, m_aLoadedFont.getWithEncodedText (aLine));
+    }
+  }
+
+  /**
+   * Remember the prepared lines per paragraph, so that placeholders can be replaced incrementally
+   * in {@link #beforeRender(PagePreRenderContext)}.
+   *
+   * @param sEstimatedText
+   *        The text with the estimated placeholder values, that was fitted.
+   */
+  private void _rememberParagraphs (@NonNull final String sEstimatedText)
+  {
+    m_aPreparedParagraphs = null;
+    m_aPreparedParagraphPlaceholders = null;
+    if (!m_bReplacePlaceholder)
+      return;
+
+    final String [] aOriginalParagraphs = StringHelper.getExplodedArray ('\n', m_sOriginalText);
+    final String [] aEstimatedParagraphs = StringHelper.getExplodedArray ('\n', sEstimatedText);
+    if (aOriginalParagraphs.length != aEstimatedParagraphs.length)
+    {
+      // A replacement contained a newline - always fit the whole text
+      return;
+    }
+
+    // Each paragraph ends with a line that is displayed as newline
+    final ICommonsList <PreparedParagraph> aParagraphs = new CommonsArrayList <> (aOriginalParagraphs.length);
+    ICommonsList <TextAndWidthSpec> aCurLines = new CommonsArrayList <> ();
+    for (final TextAndWidthSpec aLine : m_aPreparedLinesUnmodified)
+    {
+      aCurLines.add (aLine);
+      if (aLine.isDisplayAsNewline ())
+      {
+        final int nIndex = aParagraphs.size ();
+        if (nIndex >= aOriginalParagraphs.length)
+          return;
+        aParagraphs.add (new PreparedParagraph (aOriginalParagraphs[nIndex],
+                                                !aOriginalParagraphs[nIndex].equals (aEstimatedParagraphs[nIndex]),
+                                                aCurLines));
+        aCurLines = new CommonsArrayList <> ();
+      }
+    }
+    if (aCurLines.isEmpty () && aParagraphs.size () == aOriginalParagraphs.length)
+      m_aPreparedParagraphs = aParagraphs;
+  }
 
+  @NonNull
+  private SizeSpec _getPreparedSize (final float fAvailableWidth)
+  {
     // Determine max width of all prepared lines
     float fMaxWidth = Float.MIN_VALUE;
     boolean bHasBlockJustifiedLine = false;
@@ -484,6 +866,8 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
     try
     {
       m_aLoadedFont = aCtx.getGlobalContext ().getLoadedFont (m_aFontSpec);
+      if (_isLazyLayoutApplicable ())
+        return _prepareTextLazy (fElementWidth, aCtx.getAvailableHeight () - getOutlineYSum ());
       return _prepareText (fElementWidth, false);
     }
     catch (final IOException ex)
@@ -498,6 +882,7 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
     m_nPreparedLineCountUnmodified = CGlobal.ILLEGAL_UINT;
     m_aPreparedLinesUnmodified = null;
     m_aPreparedLines = null;
+    m_nLazyNextOffset = -1;
   }
 
   private void _setDisplayTextAfterPrepare (@NonNull final String sNewTextWithPlaceholdersReplaced,
@@ -582,20 +967,82 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
     return new PLElementWithSize (aNewText, aSize);
   }
 
+  /**
+   * Create the second fragment of a lazily laid out text, that is not completely fitted yet. It
+   * references the complete text and fits the lines of the next page window on its own, so that the
+   * remaining text is neither copied nor fitted more than once.
+   */
+  @NonNull
+  private PLElementWithSize _splitGetLazyCopy (final float fElementWidth,
+                                               @NonNull @Nonempty final List <TextAndWidthSpec> aLines)
+  {
+    ValueEnforcer.notEmpty (aLines, "Lines");
+
+    final AbstractPLText <?> aNewText = internalCreateNewVertSplitObject (thisAsT ()).internalMarkAsSplitFragment (this,
+                                                                                                                   false,
+                                                                                                                   "-2");
+    // The text is only created when it is queried
+    aNewText.m_sOriginalText = null;
+    aNewText.m_sTextWithPlaceholdersReplaced = null;
+    aNewText.m_sLazySource = m_sLazySource;
+    aNewText.m_nLazySourceStart = aLines.get (0).getStartOffset ();
+    aNewText.m_nLazyNextOffset = m_nLazyNextOffset;
+    aNewText.m_fLazyAvailableWidth = m_fLazyAvailableWidth;
+    aNewText.m_nLazyWindowLineCount = m_nLazyWindowLineCount;
+    // Set this explicitly after setBasicDataFrom!
+    aNewText.setVertSplittable (true);
+
+    // Set min width/max width from source
+    aNewText.setMinWidth (getMinWidth ());
+    aNewText.setMaxWidth (getMaxWidth ());
+
+    aNewText.internalSetPreparedFontData (m_aLoadedFont, m_fTextHeight, m_fDescent);
+    aNewText.internalSetPreparedLines (new CommonsArrayList <> (aLines));
+    try
+    {
+      // Fit the lines of the next page window
+      aNewText._fitLazyLines (m_nLazyWindowLineCount);
+    }
+    catch (final IOException ex)
+    {
+      throw new IllegalStateException ("Failed to fit text element: " + aNewText.toString (), ex);
+    }
+
+    // Excluding padding/margin
+    final SizeSpec aSize = new SizeSpec (aNewText.m_nLazyNextOffset >= 0 ? m_fLazyAvailableWidth : fElementWidth,
+                                         getDisplayHeightOfLineCount (aNewText.m_aPreparedLines.size (), true));
+    aNewText.internalMarkAsPrepared (aSize);
+
+    return new PLElementWithSize (aNewText, aSize);
+  }
+
   @NonNull
   public final PLSplitResult splitElementVert (final float fElementWidth, final float fAvailableHeight)
   {
     if (fAvailableHeight <= 0)
       return PLSplitResult.allOnSecond ();
 
-    // Get the lines in the correct order from top to bottom
-    final ICommonsList <TextAndWidthSpec> aLines = m_aPreparedLines;
-
     int nSplitLineCount = (int) ((fAvailableHeight + (m_fLineSpacing - 1f) * m_fTextHeight) /
                                  (m_fTextHeight * m_fLineSpacing));
     if (false)
       nSplitLineCount = (int) (fAvailableHeight / (m_fTextHeight * m_fLineSpacing));
 
+    if (m_nLazyNextOffset >= 0)
+    {
+      // Lazy layout: make sure the lines of this page and the first line of the next page are fitted
+      try
+      {
+        _fitLazyLines (nSplitLineCount + 1);
+      }
+      catch (final IOException ex)
+      {
+        throw new IllegalStateException ("Failed to fit text element: " + toString (), ex);
+      }
+    }
+
+    // Get the lines in the correct order from top to bottom
+    final ICommonsList <TextAndWidthSpec> aLines = m_aPreparedLines;
+
     if (nSplitLineCount <= 0)
     {
       // Splitting makes no sense because the resulting text 1 would be empty
@@ -655,21 +1102,103 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
                                                     true,
                                                     "-1");
     // Second element may need additional splitting
-    final PLElementWithSize aText2 = _splitGetCopy (fElementWidth,
-                                                    aLines.subList (nSplitLineCount, aLines.size ()),
-                                                    true,
-                                                    false,
-                                                    "-2");
+    final List <TextAndWidthSpec> aLines2 = aLines.subList (nSplitLineCount, aLines.size ());
+    final PLElementWithSize aText2 = m_nLazyNextOffset >= 0 ? _splitGetLazyCopy (fElementWidth, aLines2)
+                                                            : _splitGetCopy (fElementWidth,
+                                                                             aLines2,
+                                                                             true,
+                                                                             false,
+                                                                             "-2");
 
     return PLSplitResult.createSplit (aText1, aText2);
   }
 
+  @NonNull
+  private EChange _replacePlaceholdersIncrementally (@NonNull final ICommonsMap <String, String> aPlaceholders,
+                                                     final float fAvailableWidth) throws IOException
+  {
+    // Determine which paragraphs contain a placeholder only once per set of placeholders
+    if (m_aPreparedParagraphPlaceholders == null || !m_aPreparedParagraphPlaceholders.equals (aPlaceholders.keySet ()))
+    {
+      m_aPreparedParagraphPlaceholders = new CommonsHashSet <> (aPlaceholders.keySet ());
+      for (final PreparedParagraph aParagraph : m_aPreparedParagraphs)
+      {
+        aParagraph.m_bHasPlaceholder = false;
+        for (final String sPlaceholder : m_aPreparedParagraphPlaceholders)
+          if (aParagraph.m_sOriginalText.contains (sPlaceholder))
+          {
+            aParagraph.m_bHasPlaceholder = true;
+            break;
+          }
+      }
+    }
+
+    // With a maximum number of rows, only the displayed lines are encoded
+    final boolean bEncodeParagraphs = m_nMaxRows <= 0;
+    boolean bChanged = false;
+    final ICommonsList <TextAndWidthSpec> aLines = new CommonsArrayList <> ();
+    final StringBuilder aSB = new StringBuilder (m_sOriginalText.length ());
+    for (final PreparedParagraph aParagraph : m_aPreparedParagraphs)
+    {
+      final String sOrigText = aParagraph.m_sOriginalText;
+      final String sText = aParagraph.m_bHasPlaceholder ? StringReplace.replaceMultiple (sOrigText, aPlaceholders)
+                                                        : sOrigText;
+      // Each paragraph has at least one line
+      if (aLines.isNotEmpty ())
+        aSB.append ('\n');
+      aSB.append (sText);
+
+      if (sText.equals (sOrigText) && !aParagraph.m_bEstimated)
+      {
+        // Paragraph was already fitted with the final text
+        if (bEncodeParagraphs && !aParagraph.m_bEstimatedLinesEncoded)
+        {
+          aParagraph.m_aEstimatedLines = _getEncodedLines (aParagraph.m_aEstimatedLines);
+          aParagraph.m_bEstimatedLinesEncoded = true;
+        }
+        aLines.addAll (aParagraph.m_aEstimatedLines);
+      }
+      else
+      {
+        bChanged |= !sText.equals (sOrigText);
+        if (!sText.equals (aParagraph.m_sLastText))
+        {
+          // Fit only this paragraph again
+          final ICommonsList <TextAndWidthSpec> aFitted = _getFitToWidth (sText, fAvailableWidth);
+          aParagraph.m_aLastLines = bEncodeParagraphs ? _getEncodedLines (aFitted) : aFitted;
+          aParagraph.m_sLastText = sText;
+        }
+        aLines.addAll (aParagraph.m_aLastLines);
+      }
+    }
+
+    if (!bChanged)
+      return EChange.UNCHANGED;
+
+    internalMarkAsNotPrepared ();
+    m_sTextWithPlaceholdersReplaced = aSB.toString ();
+    internalSetPreparedLines (aLines);
+    _encodePreparedLines ();
+    internalMarkAsPrepared (_getPreparedSize (fAvailableWidth));
+    return EChange.CHANGED;
+  }
+
   @Override
   @NonNull
   public EChange beforeRender (@NonNull final PagePreRenderContext aCtx) throws IOException
   {
+    // A lazily laid out text that was not split needs all lines
+    if (_fitAllRemainingLazyLines ().isChanged ())
+      return EChange.CHANGED;
+
     if (m_bReplacePlaceholder)
     {
+      if (m_aPreparedParagraphs != null)
+      {
+        // Only the paragraphs containing placeholders are fitted again
+        return _replacePlaceholdersIncrementally (aCtx.getAllPlaceholders (), getPrepareAvailableSize ().getWidth ());
+      }
+
       final String sOrigText = m_sOriginalText;
       final String sDisplayText = StringReplace.replaceMultiple (sOrigText, aCtx.getAllPlaceholders ());
       if (!sOrigText.equals (sDisplayText))
@@ -710,6 +1239,9 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
       return;
     }
 
+    // In case "beforeRender" was not called
+    _fitAllRemainingLazyLines ();
+
     renderShape (aCtx);
 
     final float fRenderLeft = aCtx.getStartLeft () + getOutlineLeft ();
@@ -746,7 +1278,7 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
 
       // Replace text (if any)
       final float fTextWidth = aTW.getWidth ();
-      final String sDrawText = aTW.getText ();
+      final int nTextLength = aTW.getTextLength ();
 
       // Align text line by overall block width
       final float fIndentX = getIndentX (fPreparedWidth, fTextWidth);
@@ -768,10 +1300,10 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
         // Justify the content of this line
         // Avoid division by zero
         float fCharSpacing = 0;
-        if (sDrawText.length () > 1)
+        if (nTextLength > 1)
         {
           // Calculate width of space between each character (therefore -1)
-          fCharSpacing = (fPreparedWidth - fTextWidth) / (sDrawText.length () - 1);
+          fCharSpacing = (fPreparedWidth - fTextWidth) / (nTextLength - 1);
         }
 
         // Set for each line separately,
@@ -786,8 +1318,11 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
             aContentStream.setCharacterSpacing (0);
         }
 
-      // Main draw string
-      aContentStream.drawString (sDrawText);
+      // Main draw string - use the text encoded at prepare time if present
+      if (aTW.hasEncodedText ())
+        aContentStream.drawEncodedString (aTW.getEncodedText ());
+      else
+        aContentStream.drawString (aTW.getText ());
       ++nIndex;
 
       // Goto next line
@@ -817,6 +1352,9 @@ public abstract class AbstractPLText <IMPLTYPE extends AbstractPLText <IMPLTYPE>
                             .append ("ReplacePlaceholder", m_bReplacePlaceholder)
                             .append ("BorderRadius", m_fBorderRadius)
                             .append ("CustomAscentFirstLine", m_fCustomAscentFirstLine)
+                            .append ("LazyLayout", m_bLazyLayout)
+                            .append ("TotalFitLineBreaking", m_bTotalFitLineBreaking)
+                            .append ("UnicodeLineBreaking", m_bUnicodeLineBreaking)
                             .getToString ();
   }
 }
@@ -0,0 +1,388 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.element.text;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.pdflayout.spec.FontSpec;
+import com.helger.pdflayout.spec.LoadedFont;
+import com.helger.pdflayout.spec.PreloadFont;
+import com.helger.pdflayout.spec.TextAndWidthSpec;
+import com.helger.pdflayout.spec.TextFitSpec;
+
+/**
+ * A bounded cache for the result of fitting short texts into a certain width, as used by
+ * {@link AbstractPLText}. Large tables often contain many cells with the same text, font and
+ * width (like "N/A" or "0.00"), and each of them is only measured once.<br>
+ * The fitted lines only depend on the text, the fonts, the font size and the available width. As
+ * the widths of a font are the same in all documents, a cached entry is shared between documents.
+ * Fonts are identified by their {@link com.helger.pdflayout.spec.PreloadFont} ID and the digest of
+ * their font program (see {@link PreloadFont#getFontDirectoryDigest()}), so the cache does not keep
+ * any font alive and different fonts with the same ID don't share entries. The horizontal alignment
+ * and the maximum number of rows are applied to the cached lines afterwards.<br>
+ * The cache keeps at most {@link #getMaxEntries()} entries and evicts the least recently used ones.
+ * Texts longer than {@link #getMaxTextLength()} are not cached, as long paragraphs are usually
+ * unique.<br>
+ * The cache is only used if a global instance is set via {@link #setGlobalInstance(PLTextFitCache)}.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@ThreadSafe
+public final class PLTextFitCache
+{
+  /** The default maximum number of cached texts */
+  public static final int DEFAULT_MAX_ENTRIES = 2000;
+  /** The default maximum length of a text to be cached */
+  public static final int DEFAULT_MAX_TEXT_LENGTH = 256;
+
+  /**
+   * A font is identified by its ID and the digest of its font program, as different fonts may use
+   * the same ID. The digest is <code>null</code> for the Standard 14 fonts.
+   */
+  private record FontKey (String fontID, String fontDirectoryDigest)
+  {}
+
+  private record Key (String text,
+                      FontKey font,
+                      int fallbackCodePoint,
+                      List <FontKey> fallbackFonts,
+                      float fontSize,
+                      float maxWidth,
+                      boolean totalFit,
+                      boolean unicodeLineBreaking)
+  {}
+
+  private static volatile PLTextFitCache s_aGlobalInstance;
+
+  private final int m_nMaxEntries;
+  private final int m_nMaxTextLength;
+  private final Lock m_aLock = new ReentrantLock ();
+  @GuardedBy ("m_aLock")
+  private final LinkedHashMap <Key, ICommonsList <TextAndWidthSpec>> m_aMap;
+  @GuardedBy ("m_aLock")
+  private long m_nHitCount = 0;
+  @GuardedBy ("m_aLock")
+  private long m_nMissCount = 0;
+
+  /** Creates a cache using the default limits. */
+  public PLTextFitCache ()
+  {
+    this (DEFAULT_MAX_ENTRIES, DEFAULT_MAX_TEXT_LENGTH);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param nMaxEntries
+   *        The maximum number of cached texts. Must be &gt; 0.
+   * @param nMaxTextLength
+   *        The maximum length of a text to be cached. Must be &gt; 0.
+   */
+  public PLTextFitCache (@Nonnegative final int nMaxEntries, @Nonnegative final int nMaxTextLength)
+  {
+    ValueEnforcer.isGT0 (nMaxEntries, "MaxEntries");
+    ValueEnforcer.isGT0 (nMaxTextLength, "MaxTextLength");
+    m_nMaxEntries = nMaxEntries;
+    m_nMaxTextLength = nMaxTextLength;
+    // Access order for LRU
+    m_aMap = new LinkedHashMap <> (16, 0.75f, true)
+    {
+      @Override
+      protected boolean removeEldestEntry (final Map.Entry <Key, ICommonsList <TextAndWidthSpec>> aEldest)
+      {
+        return size () > m_nMaxEntries;
+      }
+    };
+  }
+
+  /**
+   * @return The global instance used by {@link AbstractPLText}. May be <code>null</code>, which is
+   *         the default.
+   */
+  @Nullable
+  public static PLTextFitCache getGlobalInstance ()
+  {
+    return s_aGlobalInstance;
+  }
+
+  /**
+   * Set the global instance used by {@link AbstractPLText}.
+   *
+   * @param aGlobalInstance
+   *        The new global instance. May be <code>null</code> to disable the cross-document cache.
+   */
+  public static void setGlobalInstance (@Nullable final PLTextFitCache aGlobalInstance)
+  {
+    s_aGlobalInstance = aGlobalInstance;
+  }
+
+  /**
+   * @return The maximum number of cached texts. Always &gt; 0.
+   */
+  @Nonnegative
+  public int getMaxEntries ()
+  {
+    return m_nMaxEntries;
+  }
+
+  /**
+   * @return The maximum length of a text to be cached. Always &gt; 0.
+   */
+  @Nonnegative
+  public int getMaxTextLength ()
+  {
+    return m_nMaxTextLength;
+  }
+
+  private void _countMiss ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      m_nMissCount++;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * Get the identity of the provided font for the cache key.
+   */
+  @NonNull
+  private static FontKey _getFontKey (@NonNull final PreloadFont aFont) throws IOException
+  {
+    return new FontKey (aFont.getID (), aFont.getFontDirectoryDigest ());
+  }
+
+  /**
+   * Get the lines of the provided text fitted into the provided width, either from the cache or by
+   * calling {@link LoadedFont#getFitToWidth(String, float, float, TextFitSpec)}. Specs with
+   * explicit fallback fonts or a limited line range are not cached.
+   *
+   * @param aLoadedFont
+   *        The loaded font matching the font spec. May not be <code>null</code>.
+   * @param aFontSpec
+   *        The font spec to use. May not be <code>null</code>.
+   * @param sText
+   *        The text to fit. May not be <code>null</code>.
+   * @param fMaxWidth
+   *        The maximum width of a line. Must be &gt; 0.
+   * @param aSpec
+   *        The line breaking mode to use. May not be <code>null</code>.
+   * @return A copy of the fitted lines. Never <code>null</code>.
+   * @throws IOException
+   *         In case measuring fails
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <TextAndWidthSpec> getFitToWidth (@NonNull final LoadedFont aLoadedFont,
+                                                        @NonNull final FontSpec aFontSpec,
+                                                        @NonNull final String sText,
+                                                        @Nonnegative final float fMaxWidth,
+                                                        @NonNull final TextFitSpec aSpec) throws IOException
+  {
+    ValueEnforcer.notNull (aLoadedFont, "LoadedFont");
+    ValueEnforcer.notNull (aFontSpec, "FontSpec");
+    ValueEnforcer.notNull (sText, "Text");
+    ValueEnforcer.notNull (aSpec, "Spec");
+
+    if (sText.length () > m_nMaxTextLength ||
+        aSpec.hasFallbackFonts () ||
+        aSpec.getStartOffset () != TextFitSpec.DEFAULT_START_OFFSET ||
+        aSpec.getMaxLineCount () != TextFitSpec.DEFAULT_MAX_LINE_COUNT)
+    {
+      _countMiss ();
+      return aLoadedFont.getFitToWidth (sText, aFontSpec.getFontSize (), fMaxWidth, aSpec);
+    }
+
+    final PreloadFont aPreloadFont = aFontSpec.getPreloadFont ();
+    // Only the IDs and digests are kept, so that the cache does not keep custom fonts alive
+    final List <FontKey> aFallbackFontKeys;
+    if (aFontSpec.hasFallbackFonts ())
+    {
+      aFallbackFontKeys = new CommonsArrayList <> ();
+      for (final PreloadFont aFallbackFont : aFontSpec.getAllFallbackFonts ())
+        aFallbackFontKeys.add (_getFontKey (aFallbackFont));
+    }
+    else
+      aFallbackFontKeys = Collections.emptyList ();
+    final Key aKey = new Key (sText,
+                              _getFontKey (aPreloadFont),
+                              aPreloadFont.getFallbackCodePoint (),
+                              aFallbackFontKeys,
+                              aFontSpec.getFontSize (),
+                              fMaxWidth,
+                              aSpec.isTotalFit (),
+                              aSpec.isUnicodeLineBreaking ());
+    ICommonsList <TextAndWidthSpec> aLines;
+    m_aLock.lock ();
+    try
+    {
+      aLines = m_aMap.get (aKey);
+      if (aLines != null)
+        m_nHitCount++;
+      else
+        m_nMissCount++;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+
+    if (aLines == null)
+    {
+      // Measure outside of the lock - the lines are immutable
+      aLines = aLoadedFont.getFitToWidth (sText, aFontSpec.getFontSize (), fMaxWidth, aSpec);
+      m_aLock.lock ();
+      try
+      {
+        m_aMap.put (aKey, aLines);
+      }
+      finally
+      {
+        m_aLock.unlock ();
+      }
+    }
+    return aLines.getClone ();
+  }
+
+  /**
+   * @return The number of cached texts. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_aMap.size ();
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cache hits. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getHitCount ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nHitCount;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cache misses, including texts that are too long to be cached. Always
+   *         &ge; 0.
+   */
+  @Nonnegative
+  public long getMissCount ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nMissCount;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The ratio of hits to all lookups in the range 0 to 1. 0 if there was no lookup yet.
+   */
+  public double getHitRatio ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      final long nTotal = m_nHitCount + m_nMissCount;
+      return nTotal == 0 ? 0 : (double) m_nHitCount / nTotal;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * Remove all cached entries and reset the hit and miss counts.
+   */
+  public void clear ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      m_aMap.clear ();
+      m_nHitCount = 0;
+      m_nMissCount = 0;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return new ToStringGenerator (this).append ("MaxEntries", m_nMaxEntries)
+                                         .append ("MaxTextLength", m_nMaxTextLength)
+                                         .append ("Size", m_aMap.size ())
+                                         .append ("HitCount", m_nHitCount)
+                                         .append ("MissCount", m_nMissCount)
+                                         .getToString ();
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+}
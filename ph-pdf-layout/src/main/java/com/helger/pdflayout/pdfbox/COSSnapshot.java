@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.pdfbox;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSNull;
+import org.apache.pdfbox.cos.COSNumber;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedMap;
+
+/**
+ * A deep copy of a COS object tree that is detached from any {@link PDDocument}. Streams are kept
+ * in their encoded form, so that they don't need to be decoded and encoded again. This is the basis
+ * for caches that share PDF objects between documents.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@Immutable
+public final class COSSnapshot
+{
+  /**
+   * An encoded stream, detached from any document.
+   */
+  private record EncodedStream (byte @NonNull [] aRawData, @NonNull ICommonsOrderedMap <COSName, Object> aEntries)
+  {}
+
+  private final Object m_aRoot;
+  private final long m_nByteCount;
+
+  private COSSnapshot (@NonNull final Object aRoot)
+  {
+    m_aRoot = aRoot;
+    m_nByteCount = _getByteCount (aRoot);
+  }
+
+  @NonNull
+  private static Object _snapshot (@Nullable final COSBase aBase) throws IOException
+  {
+    final COSBase aRealBase = aBase instanceof final COSObject aObj ? aObj.getObject () : aBase;
+    if (aRealBase == null || aRealBase instanceof COSNull)
+      return COSNull.NULL;
+    if (aRealBase instanceof final COSStream aStream)
+    {
+      final byte [] aRawData;
+      try (final InputStream aIS = aStream.createRawInputStream ())
+      {
+        aRawData = aIS.readAllBytes ();
+      }
+      final ICommonsOrderedMap <COSName, Object> aEntries = new CommonsLinkedHashMap <> ();
+      for (final Map.Entry <COSName, COSBase> aEntry : aStream.entrySet ())
+        if (!COSName.LENGTH.equals (aEntry.getKey ()))
+          aEntries.put (aEntry.getKey (), _snapshot (aEntry.getValue ()));
+      return new EncodedStream (aRawData, aEntries);
+    }
+    if (aRealBase instanceof final COSDictionary aDict)
+    {
+      final ICommonsOrderedMap <COSName, Object> ret = new CommonsLinkedHashMap <> ();
+      for (final Map.Entry <COSName, COSBase> aEntry : aDict.entrySet ())
+        ret.put (aEntry.getKey (), _snapshot (aEntry.getValue ()));
+      return ret;
+    }
+    if (aRealBase instanceof final COSArray aArray)
+    {
+      final ICommonsList <Object> ret = new CommonsArrayList <> (aArray.size ());
+      for (final COSBase aItem : aArray)
+        ret.add (_snapshot (aItem));
+      return ret;
+    }
+    if (aRealBase instanceof final COSString aString)
+      return aString.getBytes ().clone ();
+    // Immutable values
+    if (aRealBase instanceof COSName || aRealBase instanceof COSNumber || aRealBase instanceof COSBoolean)
+      return aRealBase;
+    throw new IOException ("Unsupported COS value " + aRealBase);
+  }
+
+  @SuppressWarnings ("unchecked")
+  @NonNull
+  private static COSBase _restore (@NonNull final PDDocument aDoc, @NonNull final Object aObj) throws IOException
+  {
+    if (aObj instanceof final EncodedStream aEncoded)
+    {
+      final COSStream ret = aDoc.getDocument ().createCOSStream ();
+      for (final Map.Entry <COSName, Object> aEntry : aEncoded.aEntries ().entrySet ())
+        ret.setItem (aEntry.getKey (), _restore (aDoc, aEntry.getValue ()));
+      // The data is already encoded with the filters from the dictionary
+      try (final OutputStream aOS = ret.createRawOutputStream ())
+      {
+        aOS.write (aEncoded.aRawData ());
+      }
+      return ret;
+    }
+    if (aObj instanceof final ICommonsOrderedMap <?, ?> aMap)
+    {
+      final COSDictionary ret = new COSDictionary ();
+      for (final Map.Entry <COSName, Object> aEntry : ((ICommonsOrderedMap <COSName, Object>) aMap).entrySet ())
+        ret.setItem (aEntry.getKey (), _restore (aDoc, aEntry.getValue ()));
+      return ret;
+    }
+    if (aObj instanceof final ICommonsList <?> aList)
+    {
+      final COSArray ret = new COSArray ();
+      for (final Object aItem : aList)
+        ret.add (_restore (aDoc, aItem));
+      return ret;
+    }
+    if (aObj instanceof final byte [] aBytes)
+      return new COSString (aBytes);
+    return (COSBase) aObj;
+  }
+
+  private static long _getByteCount (@NonNull final Object aObj)
+  {
+    if (aObj instanceof final EncodedStream aEncoded)
+    {
+      long ret = aEncoded.aRawData ().length;
+      for (final Object aValue : aEncoded.aEntries ().values ())
+        ret += _getByteCount (aValue);
+      return ret;
+    }
+    if (aObj instanceof final ICommonsOrderedMap <?, ?> aMap)
+    {
+      long ret = 0;
+      for (final Object aValue : aMap.values ())
+        ret += _getByteCount (aValue);
+      return ret;
+    }
+    if (aObj instanceof final ICommonsList <?> aList)
+    {
+      long ret = 0;
+      for (final Object aValue : aList)
+        ret += _getByteCount (aValue);
+      return ret;
+    }
+    if (aObj instanceof final byte [] aBytes)
+      return aBytes.length;
+    return 0;
+  }
+
+  /**
+   * @return The number of bytes of all contained streams and strings. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getByteCount ()
+  {
+    return m_nByteCount;
+  }
+
+  /**
+   * Create a new COS object tree from this snapshot.
+   *
+   * @param aDoc
+   *        The document to create the streams in. May not be <code>null</code>.
+   * @return A new COS object that is not shared with any other document. Never <code>null</code>.
+   * @throws IOException
+   *         In case writing a stream fails
+   */
+  @NonNull
+  public COSBase restore (@NonNull final PDDocument aDoc) throws IOException
+  {
+    ValueEnforcer.notNull (aDoc, "Doc");
+    return _restore (aDoc, m_aRoot);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("ByteCount", m_nByteCount).getToString ();
+  }
+
+  /**
+   * Create a snapshot of the provided COS object and everything it references. The object tree must
+   * not contain cycles (like parent references).
+   *
+   * @param aBase
+   *        The COS object to snapshot. May be <code>null</code>.
+   * @return The detached snapshot. Never <code>null</code>.
+   * @throws IOException
+   *         In case reading a stream fails or an unsupported COS object is contained
+   */
+  @NonNull
+  public static COSSnapshot create (@Nullable final COSBase aBase) throws IOException
+  {
+    return new COSSnapshot (_snapshot (aBase));
+  }
+}
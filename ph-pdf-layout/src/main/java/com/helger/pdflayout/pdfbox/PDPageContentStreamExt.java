@@ -64,6 +64,7 @@ import com.helger.collection.stack.NonBlockingStack;
 import com.helger.pdflayout.base.PLColor;
 import com.helger.pdflayout.spec.ELineCapStyle;
 import com.helger.pdflayout.spec.ELineJoinStyle;
+import com.helger.pdflayout.spec.FontSubsetCache;
 
 /**
  * Provides the ability to write to a page content stream.<br>
@@ -274,6 +275,29 @@ public class PDPageContentStreamExt implements Closeable
     m_aFormatDecimal.setGroupingUsed (false);
   }
 
+  /**
+   * Create a new content stream that writes to an arbitrary output stream and registers all
+   * resources in the provided resources dictionary.
+   *
+   * @param aDoc
+   *        The document the content is part of.
+   * @param aResources
+   *        The resources to add fonts, images etc. to.
+   * @param aOS
+   *        The output stream to write to.
+   * @since 8.3.4
+   */
+  public PDPageContentStreamExt (final PDDocument aDoc, final PDResources aResources, final OutputStream aOS)
+  {
+    m_aDoc = aDoc;
+
+    m_aOS = aOS;
+    m_aResources = aResources;
+
+    m_aFormatDecimal.setMaximumFractionDigits (5);
+    m_aFormatDecimal.setGroupingUsed (false);
+  }
+
   @NonNull
   OutputStream getOutput ()
   {
@@ -379,7 +403,8 @@ public class PDPageContentStreamExt implements Closeable
       for (int offset = 0; offset < text.length ();)
       {
         final int codePoint = text.codePointAt (offset);
-        font.addToSubset (codePoint);
+        // Remember the code point, so that the subset cache key is complete
+        FontSubsetCache.addToSubset (font, codePoint);
         offset += Character.charCount (codePoint);
       }
     }
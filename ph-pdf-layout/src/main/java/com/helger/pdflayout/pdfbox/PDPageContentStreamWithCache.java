@@ -17,11 +17,14 @@
 package com.helger.pdflayout.pdfbox;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import org.apache.pdfbox.pdfwriter.COSWriter;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.jspecify.annotations.NonNull;
 
@@ -74,6 +77,52 @@ public class PDPageContentStreamWithCache
     m_aStream = new PDPageContentStreamExt (aDocument, aSourcePage, aAppendContent, bCompress);
   }
 
+  /**
+   * Constructor for a content stream that is not directly attached to the page, but writes into
+   * the provided output stream. Resources are still registered in the resources of the page. This
+   * is e.g. used to render the content of multiple pages concurrently.
+   *
+   * @param aDocument
+   *        The document to work on. May not be <code>null</code>.
+   * @param aSourcePage
+   *        The page the content belongs to. The page must already have resources. May not be
+   *        <code>null</code>.
+   * @param aOS
+   *        The output stream to write to. May not be <code>null</code>.
+   * @since 8.3.4
+   */
+  public PDPageContentStreamWithCache (@NonNull final PDDocument aDocument,
+                                       @NonNull final PDPage aSourcePage,
+                                       @NonNull final OutputStream aOS)
+  {
+    this (aDocument, aSourcePage, aSourcePage.getResources (), aOS);
+  }
+
+  /**
+   * Constructor for a content stream that writes into the provided output stream and registers all
+   * resources in the provided resources. This is e.g. used to render form XObjects.
+   *
+   * @param aDocument
+   *        The document to work on. May not be <code>null</code>.
+   * @param aSourcePage
+   *        The page the content is rendered for. May not be <code>null</code>.
+   * @param aResources
+   *        The resources to register fonts, images etc. in. May not be <code>null</code>.
+   * @param aOS
+   *        The output stream to write to. May not be <code>null</code>.
+   * @since 8.3.4
+   */
+  public PDPageContentStreamWithCache (@NonNull final PDDocument aDocument,
+                                       @NonNull final PDPage aSourcePage,
+                                       @NonNull final PDResources aResources,
+                                       @NonNull final OutputStream aOS)
+  {
+    ValueEnforcer.notNull (aResources, "Resources");
+    m_aDocument = aDocument;
+    m_aPage = aSourcePage;
+    m_aStream = new PDPageContentStreamExt (aDocument, aResources, aOS);
+  }
+
   /**
    * @return The {@link PDDocument} this stream is working on. Never <code>null</code>.
    */
@@ -289,17 +338,75 @@ public class PDPageContentStreamWithCache
     m_aStream.setCharacterSpacing (fSpacing);
   }
 
+  private void _showEncodedText (final byte @NonNull [] aEncoded) throws IOException
+  {
+    COSWriter.writeString (aEncoded, m_aStream.getOutput ());
+    m_aStream.write ((byte) ' ');
+    m_aStream.writeOperator ((byte) 'T', (byte) 'j');
+  }
+
+  private void _showText (@NonNull final LoadedFont aLoadedFont, @NonNull final String sText) throws IOException
+  {
+    _showEncodedText (aLoadedFont.getEncodedForPageContentStream (sText));
+  }
+
+  private void _drawStringWithFallbackFonts (@NonNull final String sDrawText) throws IOException
+  {
+    final LoadedFont aPrimaryFont = m_aLastUsedLoadedFont;
+    LoadedFont aCurrentFont = aPrimaryFont.getFontForCodePoint (sDrawText.codePointAt (0));
+    if (aCurrentFont != aPrimaryFont)
+      m_aStream.setFont (aCurrentFont.getFont (), m_fLastUsedFontSize);
+
+    // Split the text into runs of the same font
+    int nRunStart = 0;
+    int nIndex = 0;
+    final int nLength = sDrawText.length ();
+    while (nIndex < nLength)
+    {
+      final int nCodePoint = sDrawText.codePointAt (nIndex);
+      final LoadedFont aFont = aPrimaryFont.getFontForCodePoint (nCodePoint);
+      if (aFont != aCurrentFont)
+      {
+        _showText (aCurrentFont, sDrawText.substring (nRunStart, nIndex));
+        m_aStream.setFont (aFont.getFont (), m_fLastUsedFontSize);
+        aCurrentFont = aFont;
+        nRunStart = nIndex;
+      }
+      nIndex += Character.charCount (nCodePoint);
+    }
+    _showText (aCurrentFont, sDrawText.substring (nRunStart));
+
+    // Restore the primary font so that the status cache stays valid
+    if (aCurrentFont != aPrimaryFont)
+      m_aStream.setFont (aPrimaryFont.getFont (), m_fLastUsedFontSize);
+  }
+
   public void drawString (final String sDrawText) throws IOException
   {
     if (false)
       m_aStream.showText (sDrawText);
     else
-    {
-      final byte [] aEncoded = m_aLastUsedLoadedFont.getEncodedForPageContentStream (sDrawText);
-      COSWriter.writeString (aEncoded, m_aStream.getOutput ());
-      m_aStream.write ((byte) ' ');
-      m_aStream.writeOperator ((byte) 'T', (byte) 'j');
-    }
+      if (m_aLastUsedLoadedFont.hasFallbackFonts () && !sDrawText.isEmpty ())
+        _drawStringWithFallbackFonts (sDrawText);
+      else
+        _showText (m_aLastUsedLoadedFont, sDrawText);
+  }
+
+  /**
+   * Draw text that was already encoded for the current font, e.g. with
+   * {@link LoadedFont#getWithEncodedText(com.helger.pdflayout.spec.TextAndWidthSpec)}. The current
+   * font must not have fallback fonts.
+   *
+   * @param aEncoded
+   *        The encoded text. May not be <code>null</code>.
+   * @throws IOException
+   *         In case of a write error
+   * @since 8.3.4
+   */
+  public void drawEncodedString (final byte @NonNull [] aEncoded) throws IOException
+  {
+    ValueEnforcer.notNull (aEncoded, "Encoded");
+    _showEncodedText (aEncoded);
   }
 
   public void drawXObject (final PDImageXObject aImage,
@@ -332,4 +439,50 @@ public class PDPageContentStreamWithCache
   {
     m_aStream.restoreGraphicsState ();
   }
+
+  /**
+   * Append content that was created by another {@link PDPageContentStreamWithCache} for the same
+   * page. The content must start and end with the default graphics state (e.g. by wrapping it with
+   * {@link #saveGraphicsState()} and {@link #restoreGraphicsState()}).
+   *
+   * @param aContent
+   *        The raw content stream bytes to append. May not be <code>null</code>.
+   * @throws IOException
+   *         In case of a write error
+   * @since 8.3.4
+   */
+  public void appendRawContent (final byte @NonNull [] aContent) throws IOException
+  {
+    ValueEnforcer.notNull (aContent, "Content");
+    m_aStream.getOutput ().write (aContent);
+    // Make sure, that all status elements are emitted again
+    _resetStatus ();
+  }
+
+  /**
+   * Draw a form XObject. The form is painted in the current coordinate system, and the graphics
+   * state is not modified by this operation.
+   *
+   * @param aForm
+   *        The form to draw. May not be <code>null</code>.
+   * @throws IOException
+   *         In case of a write error
+   * @since 8.3.4
+   */
+  public void drawForm (@NonNull final PDFormXObject aForm) throws IOException
+  {
+    ValueEnforcer.notNull (aForm, "Form");
+    m_aStream.drawForm (aForm);
+  }
+
+  /**
+   * Reset all cached status elements, so that they are emitted again. This must be called after a
+   * graphics state was restored, that was saved in the default graphics state.
+   *
+   * @since 8.3.4
+   */
+  public void resetStatus ()
+  {
+    _resetStatus ();
+  }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.render;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Collects the named destinations of a single page instead of registering them directly. This is
+ * used for pages that are rendered concurrently: each page collects its own anchors, and they are
+ * registered via {@link PLAnchorRegistry} in page order afterwards. That way the first registration
+ * of a duplicate anchor name is the same as in sequential rendering and does not depend on timing.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@NotThreadSafe
+public final class PLAnchorCollector
+{
+  private record Anchor (String name, PDPage page, float left, float top)
+  {}
+
+  private final ICommonsList <Anchor> m_aAnchors = new CommonsArrayList <> ();
+
+  public PLAnchorCollector ()
+  {}
+
+  /**
+   * Remember a named destination pointing at the given (page, left, top) location.
+   *
+   * @param sName
+   *        The anchor name. May not be empty.
+   * @param aPage
+   *        The page the destination points at. May not be <code>null</code>.
+   * @param fLeft
+   *        Absolute page x coordinate in PDF user space.
+   * @param fTop
+   *        Absolute page y coordinate in PDF user space (origin at page lower-left).
+   */
+  public void addNamedDestination (@NonNull @Nonempty final String sName,
+                                   @NonNull final PDPage aPage,
+                                   final float fLeft,
+                                   final float fTop)
+  {
+    ValueEnforcer.notEmpty (sName, "Name");
+    ValueEnforcer.notNull (aPage, "Page");
+    m_aAnchors.add (new Anchor (sName, aPage, fLeft, fTop));
+  }
+
+  /**
+   * @return The number of collected named destinations. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getCount ()
+  {
+    return m_aAnchors.size ();
+  }
+
+  /**
+   * Register all collected named destinations in the order they were collected, and remove them
+   * from this collector.
+   *
+   * @param aDoc
+   *        The document to attach the destinations to. May not be <code>null</code>.
+   * @throws IOException
+   *         If the name tree could not be read or written.
+   */
+  public void registerAll (@NonNull final PDDocument aDoc) throws IOException
+  {
+    for (final Anchor aAnchor : m_aAnchors)
+      PLAnchorRegistry.registerNamedDestination (aDoc, aAnchor.name (), aAnchor.page (), aAnchor.left (), aAnchor.top ());
+    m_aAnchors.clear ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("Anchors", m_aAnchors).getToString ();
+  }
+}
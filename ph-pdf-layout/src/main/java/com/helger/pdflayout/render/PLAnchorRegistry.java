@@ -80,45 +80,49 @@ public final class PLAnchorRegistry
     ValueEnforcer.notEmpty (sName, "Name");
     ValueEnforcer.notNull (aPage, "Page");
 
-    final PDDocumentCatalog aCatalog = aDoc.getDocumentCatalog ();
-
-    PDDocumentNameDictionary aNameDict = aCatalog.getNames ();
-    if (aNameDict == null)
+    // Pages may be rendered concurrently
+    synchronized (aDoc)
     {
-      aNameDict = new PDDocumentNameDictionary (aCatalog);
-      aCatalog.setNames (aNameDict);
-    }
+      final PDDocumentCatalog aCatalog = aDoc.getDocumentCatalog ();
 
-    PDDestinationNameTreeNode aDestsTree = aNameDict.getDests ();
-    final ICommonsMap <String, PDPageDestination> aExisting = new CommonsHashMap <> ();
-    if (aDestsTree != null)
-    {
-      final Map <String, PDPageDestination> aCurrent = aDestsTree.getNames ();
-      if (aCurrent != null)
-        aExisting.putAll (aCurrent);
-    }
-    else
-    {
-      aDestsTree = new PDDestinationNameTreeNode ();
-    }
+      PDDocumentNameDictionary aNameDict = aCatalog.getNames ();
+      if (aNameDict == null)
+      {
+        aNameDict = new PDDocumentNameDictionary (aCatalog);
+        aCatalog.setNames (aNameDict);
+      }
 
-    if (aExisting.containsKey (sName))
-    {
-      // Warn-and-keep-first style. Matches AbstractPLObject.setID's tolerance
-      // for repeated IDs (see AbstractPLObject.java:89).
-      LOGGER.warn ("Anchor name '" + sName + "' is already registered; keeping the first registration");
-    }
-    else
-    {
-      final PDPageXYZDestination aDest = new PDPageXYZDestination ();
-      aDest.setPage (aPage);
-      aDest.setLeft ((int) fLeft);
-      aDest.setTop ((int) fTop);
-      // Leave zoom unset (null) = preserve reader's current zoom level when followed.
+      PDDestinationNameTreeNode aDestsTree = aNameDict.getDests ();
+      final ICommonsMap <String, PDPageDestination> aExisting = new CommonsHashMap <> ();
+      if (aDestsTree != null)
+      {
+        final Map <String, PDPageDestination> aCurrent = aDestsTree.getNames ();
+        if (aCurrent != null)
+          aExisting.putAll (aCurrent);
+      }
+      else
+      {
+        aDestsTree = new PDDestinationNameTreeNode ();
+      }
+
+      if (aExisting.containsKey (sName))
+      {
+        // Warn-and-keep-first style. Matches AbstractPLObject.setID's tolerance
+        // for repeated IDs (see AbstractPLObject.java:89).
+        LOGGER.warn ("Anchor name '" + sName + "' is already registered; keeping the first registration");
+      }
+      else
+      {
+        final PDPageXYZDestination aDest = new PDPageXYZDestination ();
+        aDest.setPage (aPage);
+        aDest.setLeft ((int) fLeft);
+        aDest.setTop ((int) fTop);
+        // Leave zoom unset (null) = preserve reader's current zoom level when followed.
 
-      aExisting.put (sName, aDest);
-      aDestsTree.setNames (aExisting);
-      aNameDict.setDests (aDestsTree);
+        aExisting.put (sName, aDest);
+        aDestsTree.setNames (aExisting);
+        aNameDict.setDests (aDestsTree);
+      }
     }
   }
 }
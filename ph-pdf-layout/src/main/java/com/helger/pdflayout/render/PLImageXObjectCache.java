@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.render;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.functional.IThrowingSupplier;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsMap;
+import com.helger.pdflayout.element.image.EPLImageType;
+
+/**
+ * A per-document cache for {@link PDImageXObject} objects. If the same image is referenced from
+ * multiple elements or on multiple pages, it is encoded and embedded into the PDF only once. The
+ * cache key is the image source (e.g. a <code>BufferedImage</code> by identity or an input stream
+ * provider by equality) together with the {@link EPLImageType}.<br>
+ * An instance of this class must never be shared between different documents, because the image
+ * objects belong to the document they were created for.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@ThreadSafe
+public final class PLImageXObjectCache
+{
+  private record Key (@NonNull Object aImageKey, @NonNull EPLImageType eImageType)
+  {}
+
+  private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+  @GuardedBy ("m_aRWLock")
+  private final ICommonsMap <Key, PDImageXObject> m_aMap = new CommonsHashMap <> ();
+
+  public PLImageXObjectCache ()
+  {}
+
+  /**
+   * Get the cached image object or create and cache a new one.
+   *
+   * @param aImageKey
+   *        The key identifying the image source. Must implement <code>equals</code> and
+   *        <code>hashCode</code> in a way that two keys are equal only if the image data is equal.
+   *        May not be <code>null</code>.
+   * @param eImageType
+   *        The image type used to encode the image. May not be <code>null</code>.
+   * @param aFactory
+   *        The factory to create the image object if it is not yet cached. May not be
+   *        <code>null</code>.
+   * @return The cached or newly created image object. Never <code>null</code>.
+   * @throws IOException
+   *         If the factory throws an exception
+   */
+  @NonNull
+  public PDImageXObject getOrCreate (@NonNull final Object aImageKey,
+                                     @NonNull final EPLImageType eImageType,
+                                     @NonNull final IThrowingSupplier <? extends PDImageXObject, IOException> aFactory) throws IOException
+  {
+    ValueEnforcer.notNull (aImageKey, "ImageKey");
+    ValueEnforcer.notNull (eImageType, "ImageType");
+    ValueEnforcer.notNull (aFactory, "Factory");
+
+    final Key aKey = new Key (aImageKey, eImageType);
+    PDImageXObject ret;
+    m_aRWLock.readLock ().lock ();
+    try
+    {
+      ret = m_aMap.get (aKey);
+    }
+    finally
+    {
+      m_aRWLock.readLock ().unlock ();
+    }
+
+    if (ret == null)
+    {
+      // Creating the image modifies the PDDocument, so this must happen in the write lock
+      m_aRWLock.writeLock ().lock ();
+      try
+      {
+        // Try again in write lock
+        ret = m_aMap.get (aKey);
+        if (ret == null)
+        {
+          ret = aFactory.get ();
+          if (ret == null)
+            throw new IllegalStateException ("Failed to create PDImageXObject");
+          m_aMap.put (aKey, ret);
+        }
+      }
+      finally
+      {
+        m_aRWLock.writeLock ().unlock ();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * @return The number of cached image objects. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    m_aRWLock.readLock ().lock ();
+    try
+    {
+      return m_aMap.size ();
+    }
+    finally
+    {
+      m_aRWLock.readLock ().unlock ();
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (this).append ("Size", size ()).getToString ();
+  }
+}
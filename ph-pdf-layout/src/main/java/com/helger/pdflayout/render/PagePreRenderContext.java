@@ -50,6 +50,7 @@ public class PagePreRenderContext
   private final int m_nPageSetPageCount;
   private final int m_nTotalPageIndex;
   private final int m_nTotalPageCount;
+  private final PLImageXObjectCache m_aImageCache;
   private final ICommonsOrderedMap <String, String> m_aPlaceholders = new CommonsLinkedHashMap <> ();
 
   public PagePreRenderContext (@NonNull final PLPageSet aPageSet,
@@ -62,6 +63,54 @@ public class PagePreRenderContext
                                @Nonnegative final int nTotalPageIndex,
                                @Nonnegative final int nTotalPageCount)
 
+  {
+    this (aPageSet,
+          aDoc,
+          aPage,
+          nPageSetIndex,
+          nPageSetCount,
+          nPageSetPageIndex,
+          nPageSetPageCount,
+          nTotalPageIndex,
+          nTotalPageCount,
+          new PLImageXObjectCache ());
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aPageSet
+   *        The page set to be rendered. May not be <code>null</code>.
+   * @param aDoc
+   *        The PDFBox document. May not be <code>null</code>.
+   * @param aPage
+   *        The PDFBox page. May not be <code>null</code>.
+   * @param nPageSetIndex
+   *        Page set index. Always &ge; 0.
+   * @param nPageSetCount
+   *        Page set count. Always &ge; 0.
+   * @param nPageSetPageIndex
+   *        Page index in the page set. Always &ge; 0.
+   * @param nPageSetPageCount
+   *        Page count in the page set. Always &ge; 0.
+   * @param nTotalPageIndex
+   *        Total page index. Always &ge; 0.
+   * @param nTotalPageCount
+   *        Total page count. Always &ge; 0.
+   * @param aImageCache
+   *        The image cache of the document. May not be <code>null</code>.
+   * @since 8.3.4
+   */
+  public PagePreRenderContext (@NonNull final PLPageSet aPageSet,
+                               @NonNull final PDDocument aDoc,
+                               @NonNull final PDPage aPage,
+                               @Nonnegative final int nPageSetIndex,
+                               @Nonnegative final int nPageSetCount,
+                               @Nonnegative final int nPageSetPageIndex,
+                               @Nonnegative final int nPageSetPageCount,
+                               @Nonnegative final int nTotalPageIndex,
+                               @Nonnegative final int nTotalPageCount,
+                               @NonNull final PLImageXObjectCache aImageCache)
   {
     ValueEnforcer.notNull (aPageSet, "PageSet");
     ValueEnforcer.notNull (aDoc, "Document");
@@ -72,6 +121,7 @@ public class PagePreRenderContext
     ValueEnforcer.isGE0 (nPageSetPageCount, "PageSetPageCount");
     ValueEnforcer.isGE0 (nTotalPageIndex, "TotalPageIndex");
     ValueEnforcer.isGE0 (nTotalPageCount, "TotalPageCount");
+    ValueEnforcer.notNull (aImageCache, "ImageCache");
 
     m_aPageSet = aPageSet;
     m_aDoc = aDoc;
@@ -82,6 +132,7 @@ public class PagePreRenderContext
     m_nPageSetPageCount = nPageSetPageCount;
     m_nTotalPageIndex = nTotalPageIndex;
     m_nTotalPageCount = nTotalPageCount;
+    m_aImageCache = aImageCache;
 
     // Add default placeholders
     m_aPlaceholders.put (EPLPlaceholder.PAGESET_INDEX.getVariable (), Integer.toString (getPageSetIndex ()));
@@ -203,6 +254,17 @@ public class PagePreRenderContext
     return m_nTotalPageCount;
   }
 
+  /**
+   * @return The image cache of the document, so that the same image is only embedded once. Never
+   *         <code>null</code>.
+   * @since 8.3.4
+   */
+  @NonNull
+  public PLImageXObjectCache getImageCache ()
+  {
+    return m_aImageCache;
+  }
+
   @NonNull
   @ReturnsMutableCopy
   public ICommonsOrderedMap <String, String> getAllPlaceholders ()
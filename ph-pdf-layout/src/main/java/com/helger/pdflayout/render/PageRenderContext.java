@@ -16,10 +16,14 @@
  */
 package com.helger.pdflayout.render;
 
+import java.io.IOException;
+
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
+import com.helger.annotation.Nonempty;
 import com.helger.annotation.Nonnegative;
 import com.helger.annotation.concurrent.NotThreadSafe;
 import com.helger.base.enforce.ValueEnforcer;
@@ -47,11 +51,12 @@ public final class PageRenderContext
   private final int m_nTotalPageIndex;
   private final int m_nTotalPageCount;
   private final IPLRenderListener m_aRenderListener;
+  private PLAnchorCollector m_aAnchorCollector;
 
   /**
    * @param aCtx
-   *        Context to copy settings from (element type, content stream, page indices and render
-   *        listener). May not be <code>null</code>.
+   *        Context to copy settings from (element type, content stream, page indices, render
+   *        listener and anchor collector). May not be <code>null</code>.
    * @param fStartLeft
    *        Absolute page x-start position of the element. Does not contain margin, padding or
    *        border of the element to be rendered.
@@ -82,6 +87,7 @@ public final class PageRenderContext
           aCtx.getTotalPageIndex (),
           aCtx.getTotalPageCount (),
           aCtx.getRenderListener ());
+    m_aAnchorCollector = aCtx.m_aAnchorCollector;
   }
 
   /**
@@ -293,6 +299,61 @@ public final class PageRenderContext
     return m_aRenderListener;
   }
 
+  /**
+   * @return The collector for the named destinations of the current page, or <code>null</code> if
+   *         named destinations are registered directly.
+   * @since 8.3.4
+   */
+  @Nullable
+  public PLAnchorCollector getAnchorCollector ()
+  {
+    return m_aAnchorCollector;
+  }
+
+  /**
+   * Set the collector for the named destinations of the current page. Only used internally for
+   * pages that are rendered concurrently.
+   *
+   * @param aAnchorCollector
+   *        The collector to use. May be <code>null</code> to register named destinations directly.
+   * @return this for chaining
+   * @since 8.3.4
+   */
+  @NonNull
+  public PageRenderContext internalSetAnchorCollector (@Nullable final PLAnchorCollector aAnchorCollector)
+  {
+    m_aAnchorCollector = aAnchorCollector;
+    return this;
+  }
+
+  /**
+   * Register a named destination pointing at the given (page, left, top) location. If an anchor
+   * collector is present, the destination is only collected and registered later on, otherwise it
+   * is registered directly via {@link PLAnchorRegistry}.
+   *
+   * @param sName
+   *        The anchor name. May not be empty.
+   * @param aPage
+   *        The page the destination points at. May not be <code>null</code>.
+   * @param fLeft
+   *        Absolute page x coordinate in PDF user space.
+   * @param fTop
+   *        Absolute page y coordinate in PDF user space (origin at page lower-left).
+   * @throws IOException
+   *         If the name tree could not be read or written.
+   * @since 8.3.4
+   */
+  public void registerNamedDestination (@NonNull @Nonempty final String sName,
+                                        @NonNull final PDPage aPage,
+                                        final float fLeft,
+                                        final float fTop) throws IOException
+  {
+    if (m_aAnchorCollector != null)
+      m_aAnchorCollector.addNamedDestination (sName, aPage, fLeft, fTop);
+    else
+      PLAnchorRegistry.registerNamedDestination (getDocument (), sName, aPage, fLeft, fTop);
+  }
+
   @Override
   public String toString ()
   {
@@ -309,6 +370,7 @@ public final class PageRenderContext
                                        .append ("TotalPageIndex", m_nTotalPageIndex)
                                        .append ("TotalPageCount", m_nTotalPageCount)
                                        .appendIfNotNull ("RenderListener", m_aRenderListener)
+                                       .appendIfNotNull ("AnchorCollector", m_aAnchorCollector)
                                        .getToString ();
   }
 }
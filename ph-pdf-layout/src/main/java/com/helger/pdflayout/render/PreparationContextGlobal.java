@@ -21,9 +21,14 @@ import java.io.IOException;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.jspecify.annotations.NonNull;
 
-import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.concurrent.SimpleReadWriteLock;
 import com.helger.base.enforce.ValueEnforcer;
+import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.collection.commons.ICommonsMap;
 import com.helger.pdflayout.debug.PLDebugLog;
 import com.helger.pdflayout.spec.FontSpec;
@@ -32,14 +37,18 @@ import com.helger.pdflayout.spec.PreloadFont;
 
 /**
  * The current global context for preparing an element. This object must be the same for all
- * prepared elements. It keeps all loaded fonts so that they are not included more than once.
+ * prepared elements. It keeps all loaded fonts so that they are not included more than once.<br>
+ * Since v8.3.4 this class is thread-safe, so that it can be shared by page sets that are prepared
+ * in parallel.
  *
  * @author Philip Helger
  */
-@NotThreadSafe
+@ThreadSafe
 public final class PreparationContextGlobal
 {
   private final PDDocument m_aDoc;
+  private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+  @GuardedBy ("m_aRWLock")
   private final ICommonsMap <PreloadFont, LoadedFont> m_aFontCache = new CommonsHashMap <> ();
 
   /**
@@ -64,20 +73,62 @@ public final class PreparationContextGlobal
   }
 
   @NonNull
-  public LoadedFont getLoadedFont (@NonNull final FontSpec aFontSpec) throws IOException
+  private LoadedFont _getLoadedFont (@NonNull final PreloadFont aPreloadFont) throws IOException
   {
-    final PreloadFont aPreloadFont = aFontSpec.getPreloadFont ();
-    LoadedFont aLoadedFont = m_aFontCache.get (aPreloadFont);
+    LoadedFont aLoadedFont = m_aRWLock.readLockedGet ( () -> m_aFontCache.get (aPreloadFont));
     if (aLoadedFont == null)
     {
-      if (PLDebugLog.isDebugFont ())
-        PLDebugLog.debugFont (aPreloadFont.toString (), "Loading into current document");
+      // Loading modifies the PDDocument, so this must happen in the write lock
+      m_aRWLock.writeLock ().lock ();
+      try
+      {
+        // Try again in write lock
+        aLoadedFont = m_aFontCache.get (aPreloadFont);
+        if (aLoadedFont == null)
+        {
+          if (PLDebugLog.isDebugFont ())
+            PLDebugLog.debugFont (aPreloadFont.toString (), "Loading into current document");
 
-      aLoadedFont = new LoadedFont (aPreloadFont.loadPDFont (m_aDoc),
-                                    aPreloadFont.getFallbackCodePoint (),
-                                    aPreloadFont.getFontLineHeight ());
-      m_aFontCache.put (aPreloadFont, aLoadedFont);
+          aLoadedFont = new LoadedFont (aPreloadFont.loadPDFont (m_aDoc),
+                                        aPreloadFont.getFallbackCodePoint (),
+                                        aPreloadFont.getFontLineHeight (),
+                                        aPreloadFont.getCodePointWidthCache (),
+                                        aPreloadFont.getStandard14Metrics (),
+                                        aPreloadFont.getCodePointCoverage ());
+          m_aFontCache.put (aPreloadFont, aLoadedFont);
+        }
+      }
+      finally
+      {
+        m_aRWLock.writeLock ().unlock ();
+      }
     }
     return aLoadedFont;
   }
+
+  @NonNull
+  public LoadedFont getLoadedFont (@NonNull final FontSpec aFontSpec) throws IOException
+  {
+    final LoadedFont aLoadedFont = _getLoadedFont (aFontSpec.getPreloadFont ());
+    if (!aFontSpec.hasFallbackFonts ())
+      return aLoadedFont;
+
+    // Each fallback font is loaded into the document only once as well
+    final ICommonsList <LoadedFont> aFallbackFonts = new CommonsArrayList <> ();
+    for (final PreloadFont aFallbackFont : aFontSpec.getAllFallbackFonts ())
+      aFallbackFonts.add (_getLoadedFont (aFallbackFont));
+    return aLoadedFont.getWithFallbackFonts (aFallbackFonts);
+  }
+
+  /**
+   * @return A copy of all fonts loaded into the document so far, keyed by the font they were
+   *         created from. Never <code>null</code>.
+   * @since 8.3.4
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsMap <PreloadFont, LoadedFont> getAllLoadedFonts ()
+  {
+    return m_aRWLock.readLockedGet (m_aFontCache::getClone);
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import java.util.BitSet;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * The set of code points contained in a font, backed by a bit set. It is created once per
+ * {@link PreloadFont} and allows to check in constant time whether a font can render a certain code
+ * point.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@Immutable
+public final class CodePointCoverage
+{
+  private final BitSet m_aCodePoints;
+  private final int m_nCount;
+
+  /**
+   * Constructor
+   *
+   * @param aCodePoints
+   *        The contained code points. May not be <code>null</code>. The bit set is copied.
+   */
+  public CodePointCoverage (@NonNull final BitSet aCodePoints)
+  {
+    ValueEnforcer.notNull (aCodePoints, "CodePoints");
+    m_aCodePoints = (BitSet) aCodePoints.clone ();
+    m_nCount = m_aCodePoints.cardinality ();
+  }
+
+  /**
+   * @param nCodePoint
+   *        The code point to check.
+   * @return <code>true</code> if the code point is contained.
+   */
+  public boolean contains (final int nCodePoint)
+  {
+    return nCodePoint >= 0 && m_aCodePoints.get (nCodePoint);
+  }
+
+  /**
+   * @param nFromCodePoint
+   *        The code point to start searching at, inclusive. Must be &ge; 0.
+   * @return The first contained code point &ge; the provided one, or -1 if there is none.
+   */
+  public int getNextCodePoint (@Nonnegative final int nFromCodePoint)
+  {
+    return m_aCodePoints.nextSetBit (nFromCodePoint);
+  }
+
+  /**
+   * @return The number of contained code points. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getCount ()
+  {
+    return m_nCount;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("Count", m_nCount).getToString ();
+  }
+}
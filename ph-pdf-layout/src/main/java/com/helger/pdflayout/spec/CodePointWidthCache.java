@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.concurrent.SimpleReadWriteLock;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.map.IntFloatMap;
+
+/**
+ * A thread-safe cache from code point to glyph width in 1000 units of text space. The width of a
+ * code point only depends on the font file and the fallback code point, but not on the
+ * {@link org.apache.pdfbox.pdmodel.PDDocument} the font is loaded into. Therefore each
+ * {@link PreloadFont} owns one instance that is shared by all {@link LoadedFont} objects created
+ * from it, so that new documents start with already measured glyphs.
+ * <p>
+ * Since code points of the Basic Multilingual Plane are by far the most common ones, their widths
+ * are stored in lazily allocated dense pages of {@value #PAGE_SIZE} entries, so that a cache hit is
+ * a lock free array access. All other code points are stored in a map.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@ThreadSafe
+public final class CodePointWidthCache
+{
+  /** The value returned by {@link #getWidth(int)} if a code point is not cached */
+  public static final float NOT_CACHED = -1f;
+
+  /** The number of code points per dense page */
+  public static final int PAGE_SIZE = 256;
+  private static final int PAGE_SHIFT = 8;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+  private static final int BMP_PAGE_COUNT = (Character.MAX_VALUE + 1) / PAGE_SIZE;
+
+  private final SimpleReadWriteLock m_aRWLock = new SimpleReadWriteLock ();
+  /**
+   * Dense pages for the BMP. Each entry holds the bitwise complement of the raw float bits, so
+   * that the default value 0 of a newly allocated page means "not cached" (widths are never
+   * negative, so the complement is never 0). Pages and entries are written in the write lock but
+   * read without a lock: a reader that does not yet see a write just falls back to the slow path,
+   * and int writes are atomic.
+   */
+  private final int [] [] m_aBMPPages = new int [BMP_PAGE_COUNT] [];
+  @GuardedBy ("m_aRWLock")
+  private int m_nBMPCount = 0;
+  @GuardedBy ("m_aRWLock")
+  private IntFloatMap m_aMap = new IntFloatMap ();
+
+  public CodePointWidthCache ()
+  {}
+
+  /**
+   * Get the cached width of the provided code point.
+   *
+   * @param nCodePoint
+   *        The code point to query.
+   * @return The width in 1000 units of text space or {@link #NOT_CACHED} if the code point was not
+   *         yet measured.
+   */
+  public float getWidth (final int nCodePoint)
+  {
+    if (nCodePoint >= 0 && nCodePoint <= Character.MAX_VALUE)
+    {
+      // Lock free fast path
+      final int [] aPage = m_aBMPPages[nCodePoint >>> PAGE_SHIFT];
+      if (aPage != null)
+      {
+        final int nBits = aPage[nCodePoint & PAGE_MASK];
+        if (nBits != 0)
+          return Float.intBitsToFloat (~nBits);
+      }
+      return NOT_CACHED;
+    }
+
+    m_aRWLock.readLock ().lock ();
+    try
+    {
+      return m_aMap.get (nCodePoint, NOT_CACHED);
+    }
+    finally
+    {
+      m_aRWLock.readLock ().unlock ();
+    }
+  }
+
+  /**
+   * Remember the width of the provided code point.
+   *
+   * @param nCodePoint
+   *        The code point that was measured.
+   * @param fWidth
+   *        The width in 1000 units of text space. Must be &ge; 0.
+   */
+  public void putWidth (final int nCodePoint, @Nonnegative final float fWidth)
+  {
+    m_aRWLock.writeLock ().lock ();
+    try
+    {
+      if (nCodePoint >= 0 && nCodePoint <= Character.MAX_VALUE)
+      {
+        final int nPageIndex = nCodePoint >>> PAGE_SHIFT;
+        int [] aPage = m_aBMPPages[nPageIndex];
+        if (aPage == null)
+        {
+          aPage = new int [PAGE_SIZE];
+          m_aBMPPages[nPageIndex] = aPage;
+        }
+        final int nIndex = nCodePoint & PAGE_MASK;
+        if (aPage[nIndex] == 0)
+          m_nBMPCount++;
+        aPage[nIndex] = ~Float.floatToRawIntBits (fWidth);
+      }
+      else
+        m_aMap.put (nCodePoint, fWidth);
+    }
+    finally
+    {
+      m_aRWLock.writeLock ().unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cached code points. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    m_aRWLock.readLock ().lock ();
+    try
+    {
+      return m_nBMPCount + m_aMap.size ();
+    }
+    finally
+    {
+      m_aRWLock.readLock ().unlock ();
+    }
+  }
+
+  /**
+   * Remove all cached widths.
+   */
+  public void clear ()
+  {
+    m_aRWLock.writeLock ().lock ();
+    try
+    {
+      // Readers holding an old page still see correct widths
+      for (int i = 0; i < BMP_PAGE_COUNT; ++i)
+        m_aBMPPages[i] = null;
+      m_nBMPCount = 0;
+      m_aMap = new IntFloatMap ();
+    }
+    finally
+    {
+      m_aRWLock.writeLock ().unlock ();
+    }
+  }
+
+  @Override
+  @NonNull
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("Size", size ()).getToString ();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonempty;
+import com.helger.base.id.IHasID;
+import com.helger.base.lang.EnumHelper;
+
+/**
+ * The line breaking classes of Unicode Standard Annex #14 that are used by
+ * {@link UnicodeLineBreaker}. Classes that are not listed are resolved to the closest supported
+ * class: HL, SA, AI, XX and CB are treated as {@link #AL}; H2, H3, JL, JV, JT, EB and CJ are treated
+ * as {@link #ID} or {@link #NS}; ZWJ and EM are treated as {@link #CM}; BK, CR, LF, NL and all space
+ * separators are treated as {@link #SP}.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+public enum ELineBreakClass implements IHasID <String>
+{
+  /** Open punctuation */
+  OP ("OP"),
+  /** Close punctuation */
+  CL ("CL"),
+  /** Close parenthesis */
+  CP ("CP"),
+  /** Quotation */
+  QU ("QU"),
+  /** Non-breaking ("glue") */
+  GL ("GL"),
+  /** Non-starter */
+  NS ("NS"),
+  /** Exclamation/interrogation */
+  EX ("EX"),
+  /** Symbols allowing break after */
+  SY ("SY"),
+  /** Infix numeric separator */
+  IS ("IS"),
+  /** Prefix numeric */
+  PR ("PR"),
+  /** Postfix numeric */
+  PO ("PO"),
+  /** Numeric */
+  NU ("NU"),
+  /** Alphabetic */
+  AL ("AL"),
+  /** Ideographic */
+  ID ("ID"),
+  /** Inseparable */
+  IN ("IN"),
+  /** Hyphen */
+  HY ("HY"),
+  /** Break after */
+  BA ("BA"),
+  /** Break before */
+  BB ("BB"),
+  /** Break opportunity before and after */
+  B2 ("B2"),
+  /** Zero width space */
+  ZW ("ZW"),
+  /** Combining mark */
+  CM ("CM"),
+  /** Word joiner */
+  WJ ("WJ"),
+  /** Space */
+  SP ("SP");
+
+  private final String m_sID;
+
+  ELineBreakClass (@NonNull @Nonempty final String sID)
+  {
+    m_sID = sID;
+  }
+
+  @NonNull
+  @Nonempty
+  public String getID ()
+  {
+    return m_sID;
+  }
+
+  @Nullable
+  public static ELineBreakClass getFromIDOrNull (@Nullable final String sID)
+  {
+    return EnumHelper.getFromIDOrNull (ELineBreakClass.class, sID);
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.CheckForSigned;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * The result of fitting a text into a certain width. Each line is only described by its start and
+ * end offset into the source text, its width and whether it ends a paragraph. No substrings are
+ * created until {@link #getLineText(int)} or {@link #getAsTextAndWidthSpecList()} is called.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ * @see LoadedFont#getFitToWidthOffsets(String, float, float, TextFitSpec)
+ */
+@NotThreadSafe
+public final class FittedTextLines
+{
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private final String m_sText;
+  private int [] m_aStartOffsets = new int [DEFAULT_CAPACITY];
+  private int [] m_aEndOffsets = new int [DEFAULT_CAPACITY];
+  private float [] m_aWidths = new float [DEFAULT_CAPACITY];
+  private final BitSet m_aDisplayAsNewline = new BitSet ();
+  private int m_nCount = 0;
+  private int m_nNextOffset = -1;
+
+  FittedTextLines (@NonNull final String sText)
+  {
+    ValueEnforcer.notNull (sText, "Text");
+    m_sText = sText;
+  }
+
+  void addLine (final int nStartOffset, final int nEndOffset, final float fWidth, final boolean bDisplayAsNewline)
+  {
+    if (m_nCount == m_aWidths.length)
+    {
+      final int nNewCapacity = m_nCount * 2;
+      m_aStartOffsets = Arrays.copyOf (m_aStartOffsets, nNewCapacity);
+      m_aEndOffsets = Arrays.copyOf (m_aEndOffsets, nNewCapacity);
+      m_aWidths = Arrays.copyOf (m_aWidths, nNewCapacity);
+    }
+    m_aStartOffsets[m_nCount] = nStartOffset;
+    m_aEndOffsets[m_nCount] = nEndOffset;
+    m_aWidths[m_nCount] = fWidth;
+    if (bDisplayAsNewline)
+      m_aDisplayAsNewline.set (m_nCount);
+    m_nCount++;
+  }
+
+  void setNextOffset (@Nonnegative final int nNextOffset)
+  {
+    m_nNextOffset = nNextOffset;
+  }
+
+  /**
+   * @return The source text the offsets refer to. Never <code>null</code>.
+   */
+  @NonNull
+  public String getText ()
+  {
+    return m_sText;
+  }
+
+  /**
+   * @return The number of lines. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getLineCount ()
+  {
+    return m_nCount;
+  }
+
+  /**
+   * @param nIndex
+   *        The 0-based line index.
+   * @return The start offset of the line into the source text, inclusive.
+   */
+  @Nonnegative
+  public int getLineStartOffset (@Nonnegative final int nIndex)
+  {
+    ValueEnforcer.isBetweenInclusive (nIndex, "Index", 0, m_nCount - 1);
+    return m_aStartOffsets[nIndex];
+  }
+
+  /**
+   * @param nIndex
+   *        The 0-based line index.
+   * @return The end offset of the line into the source text, exclusive.
+   */
+  @Nonnegative
+  public int getLineEndOffset (@Nonnegative final int nIndex)
+  {
+    ValueEnforcer.isBetweenInclusive (nIndex, "Index", 0, m_nCount - 1);
+    return m_aEndOffsets[nIndex];
+  }
+
+  /**
+   * @param nIndex
+   *        The 0-based line index.
+   * @return The width of the line in the font size used for fitting.
+   */
+  @Nonnegative
+  public float getLineWidth (@Nonnegative final int nIndex)
+  {
+    ValueEnforcer.isBetweenInclusive (nIndex, "Index", 0, m_nCount - 1);
+    return m_aWidths[nIndex];
+  }
+
+  /**
+   * @param nIndex
+   *        The 0-based line index.
+   * @return <code>true</code> if the line is the last line of a paragraph.
+   */
+  public boolean isLineDisplayAsNewline (@Nonnegative final int nIndex)
+  {
+    ValueEnforcer.isBetweenInclusive (nIndex, "Index", 0, m_nCount - 1);
+    return m_aDisplayAsNewline.get (nIndex);
+  }
+
+  /**
+   * @return <code>true</code> if the text was fitted until its end, <code>false</code> if fitting
+   *         stopped because the maximum number of lines was reached.
+   * @see #getNextOffset()
+   */
+  public boolean isComplete ()
+  {
+    return m_nNextOffset < 0;
+  }
+
+  /**
+   * @return The offset into the source text where the first line that was not fitted starts. This
+   *         can be used as the start offset to continue fitting with
+   *         {@link TextFitSpec#getCloneWithLineRange(int, int)}. Only &ge; 0 if the fitting is not
+   *         {@link #isComplete() complete}.
+   */
+  @CheckForSigned
+  public int getNextOffset ()
+  {
+    return m_nNextOffset;
+  }
+
+  /**
+   * Materialize the text of a single line.
+   *
+   * @param nIndex
+   *        The 0-based line index.
+   * @return The text of the line. Never <code>null</code>.
+   */
+  @NonNull
+  public String getLineText (@Nonnegative final int nIndex)
+  {
+    ValueEnforcer.isBetweenInclusive (nIndex, "Index", 0, m_nCount - 1);
+    return m_sText.substring (m_aStartOffsets[nIndex], m_aEndOffsets[nIndex]);
+  }
+
+  /**
+   * @return The lines as {@link TextAndWidthSpec} objects. The text of each line is only
+   *         materialized when it is accessed. Never <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <TextAndWidthSpec> getAsTextAndWidthSpecList ()
+  {
+    final ICommonsList <TextAndWidthSpec> ret = new CommonsArrayList <> (m_nCount);
+    for (int i = 0; i < m_nCount; ++i)
+      ret.add (new TextAndWidthSpec (m_sText,
+                                     m_aStartOffsets[i],
+                                     m_aEndOffsets[i],
+                                     m_aWidths[i],
+                                     m_aDisplayAsNewline.get (i)));
+    return ret;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("TextLength", m_sText.length ())
+                                       .append ("LineCount", m_nCount)
+                                       .append ("NextOffset", m_nNextOffset)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HexFormat;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.annotation.Nonempty;
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.CommonsLinkedHashMap;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.commons.ICommonsOrderedMap;
+import com.helger.pdflayout.debug.PLDebugLog;
+
+/**
+ * A compact snapshot of the metrics of custom {@link PreloadFont}s, that can be written to a binary
+ * file once (e.g. at build time) and loaded at application startup. Applying a snapshot to the
+ * matching {@link PreloadFont}s fills their {@link CodePointWidthCache} and
+ * {@link CodePointCoverage} and provides the line heights, so that the preparation of the first
+ * document does not need to measure every glyph again, and
+ * {@link PreloadFont#setUseFontLineHeightFromHHEA()} and
+ * {@link PreloadFont#setUseFontLineHeightFromOS2()} don't need to parse the font program. The font
+ * program is still parsed when the font is loaded into a document, because PDFBox requires it to
+ * create the PDF font.<br>
+ * Each entry contains the SHA-256 hash of the table directory of the font program it was created
+ * from (see {@link PreloadFont#getFontDirectoryDigest()}). The table directory is located at the beginning of the font program and contains the
+ * checksum of each table, so only a few hundred bytes need to be read to identify the font program.
+ * Metrics are only applied to fonts with the same ID and the same table directory, so an outdated
+ * snapshot cannot lead to wrong measurements.<br>
+ * Standard 14 fonts are never part of a snapshot, as they use precomputed metrics anyway (see
+ * {@link Standard14FontMetrics}).
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@Immutable
+public final class FontMetricsSnapshot
+{
+  /** The magic bytes at the beginning of each snapshot: "PLFM" */
+  public static final int MAGIC = 0x504c464d;
+  /** The current binary format version */
+  public static final int VERSION = 3;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger (FontMetricsSnapshot.class);
+  private static final int DIGEST_LENGTH = 32;
+
+  /**
+   * The metrics of a single font. All widths and heights are in the 1000 units glyph space used by
+   * PDF.
+   *
+   * @author Philip Helger
+   */
+  @Immutable
+  public static final class FontMetrics
+  {
+    private final String m_sID;
+    private final byte [] m_aFontDirectoryDigest;
+    private final float m_fLineHeightHHEA;
+    private final float m_fLineHeightOS2;
+    // Sorted ascending
+    private final int [] m_aCodePoints;
+    // Same length as the code points
+    private final float [] m_aAdvanceWidths;
+
+    FontMetrics (@NonNull @Nonempty final String sID,
+                 final byte @NonNull [] aFontDirectoryDigest,
+                 final float fLineHeightHHEA,
+                 final float fLineHeightOS2,
+                 final int @NonNull [] aCodePoints,
+                 final float @NonNull [] aAdvanceWidths)
+    {
+      ValueEnforcer.notEmpty (sID, "ID");
+      ValueEnforcer.isTrue (aFontDirectoryDigest.length == DIGEST_LENGTH, "FontDirectoryDigest has an invalid length");
+      ValueEnforcer.isTrue (aCodePoints.length == aAdvanceWidths.length,
+                            "CodePoints and AdvanceWidths must have the same length");
+      m_sID = sID;
+      m_aFontDirectoryDigest = aFontDirectoryDigest;
+      m_fLineHeightHHEA = fLineHeightHHEA;
+      m_fLineHeightOS2 = fLineHeightOS2;
+      m_aCodePoints = aCodePoints;
+      m_aAdvanceWidths = aAdvanceWidths;
+    }
+
+    /**
+     * @return The ID of the {@link PreloadFont} the metrics belong to. Neither <code>null</code>
+     *         nor empty.
+     */
+    @NonNull
+    @Nonempty
+    public String getID ()
+    {
+      return m_sID;
+    }
+
+    /**
+     * @return A copy of the SHA-256 hash of the table directory of the font program the metrics were
+     *         created from. Never <code>null</code>.
+     */
+    @ReturnsMutableCopy
+    public byte @NonNull [] getFontDirectoryDigest ()
+    {
+      return m_aFontDirectoryDigest.clone ();
+    }
+
+    boolean isSameFontDirectory (final byte @NonNull [] aFontDirectoryDigest)
+    {
+      return Arrays.equals (m_aFontDirectoryDigest, aFontDirectoryDigest);
+    }
+
+    /**
+     * @return The line height based on the <code>hhea</code> table or a value &le; 0 if the font
+     *         has no such table.
+     */
+    public float getLineHeightHHEA ()
+    {
+      return m_fLineHeightHHEA;
+    }
+
+    /**
+     * @return The line height based on the <code>OS/2</code> table or a value &le; 0 if the font
+     *         has no such table.
+     */
+    public float getLineHeightOS2 ()
+    {
+      return m_fLineHeightOS2;
+    }
+
+    /**
+     * @return The number of code points contained in the font.
+     */
+    @Nonnegative
+    public int getCodePointCount ()
+    {
+      return m_aCodePoints.length;
+    }
+
+    /**
+     * @param nCodePoint
+     *        The code point to look up.
+     * @return The advance width of the code point or -1 if the code point is not contained.
+     */
+    public float getAdvanceWidth (final int nCodePoint)
+    {
+      final int nIndex = Arrays.binarySearch (m_aCodePoints, nCodePoint);
+      return nIndex < 0 ? -1 : m_aAdvanceWidths[nIndex];
+    }
+
+    @NonNull
+    CodePointCoverage createCoverage ()
+    {
+      final BitSet aCodePoints = new BitSet ();
+      for (final int nCodePoint : m_aCodePoints)
+        aCodePoints.set (nCodePoint);
+      return new CodePointCoverage (aCodePoints);
+    }
+
+    void fillWidthCache (@NonNull final CodePointWidthCache aCache)
+    {
+      for (int i = 0; i < m_aCodePoints.length; ++i)
+        aCache.putWidth (m_aCodePoints[i], m_aAdvanceWidths[i]);
+    }
+
+    void writeTo (@NonNull final DataOutputStream aDOS) throws IOException
+    {
+      aDOS.writeUTF (m_sID);
+      aDOS.write (m_aFontDirectoryDigest);
+      aDOS.writeFloat (m_fLineHeightHHEA);
+      aDOS.writeFloat (m_fLineHeightOS2);
+      aDOS.writeInt (m_aCodePoints.length);
+      int nLastCodePoint = 0;
+      for (int i = 0; i < m_aCodePoints.length; ++i)
+      {
+        // Code points are sorted, so the deltas are small and mostly fit into a single byte
+        _writeVarInt (aDOS, m_aCodePoints[i] - nLastCodePoint);
+        aDOS.writeFloat (m_aAdvanceWidths[i]);
+        nLastCodePoint = m_aCodePoints[i];
+      }
+    }
+
+    @NonNull
+    static FontMetrics readFrom (@NonNull final DataInputStream aDIS) throws IOException
+    {
+      final String sID = aDIS.readUTF ();
+      final byte [] aFontDirectoryDigest = new byte [DIGEST_LENGTH];
+      aDIS.readFully (aFontDirectoryDigest);
+      final float fLineHeightHHEA = aDIS.readFloat ();
+      final float fLineHeightOS2 = aDIS.readFloat ();
+      final int nCodePoints = aDIS.readInt ();
+      if (nCodePoints < 0)
+        throw new IOException ("Invalid code point count " + nCodePoints);
+      final int [] aCodePoints = new int [nCodePoints];
+      final float [] aAdvanceWidths = new float [nCodePoints];
+      int nLastCodePoint = 0;
+      for (int i = 0; i < nCodePoints; ++i)
+      {
+        nLastCodePoint += _readVarInt (aDIS);
+        aCodePoints[i] = nLastCodePoint;
+        aAdvanceWidths[i] = aDIS.readFloat ();
+      }
+      return new FontMetrics (sID,
+                              aFontDirectoryDigest,
+                              fLineHeightHHEA,
+                              fLineHeightOS2,
+                              aCodePoints,
+                              aAdvanceWidths);
+    }
+
+    @Override
+    public String toString ()
+    {
+      return new ToStringGenerator (null).append ("ID", m_sID)
+                                         .append ("LineHeightHHEA", m_fLineHeightHHEA)
+                                         .append ("LineHeightOS2", m_fLineHeightOS2)
+                                         .append ("CodePoints", m_aCodePoints.length)
+                                         .getToString ();
+    }
+  }
+
+  private final ICommonsOrderedMap <String, FontMetrics> m_aFonts;
+
+  private FontMetricsSnapshot (@NonNull final ICommonsOrderedMap <String, FontMetrics> aFonts)
+  {
+    m_aFonts = aFonts;
+  }
+
+  /**
+   * @return The number of fonts contained in this snapshot. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    return m_aFonts.size ();
+  }
+
+  /**
+   * @return A copy of the IDs of all contained fonts in the order they were added. Never
+   *         <code>null</code>.
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <String> getAllFontIDs ()
+  {
+    return new CommonsArrayList <> (m_aFonts.keySet ());
+  }
+
+  /**
+   * @param sID
+   *        The {@link PreloadFont} ID to look up. May be <code>null</code>.
+   * @return <code>null</code> if no metrics for the provided ID are contained.
+   */
+  @Nullable
+  public FontMetrics getFontMetrics (@Nullable final String sID)
+  {
+    return m_aFonts.get (sID);
+  }
+
+  /**
+   * Apply the contained metrics to all fonts with the same ID and the same font program. Metrics
+   * that were created from a different font program are ignored. Only the table directory of each
+   * font program is read, the font program is not parsed.
+   *
+   * @param aPreloadFonts
+   *        The fonts to apply the metrics to. Fonts without metrics in this snapshot are ignored.
+   *        May not be <code>null</code>.
+   * @return The number of fonts the metrics were applied to. Always &ge; 0.
+   * @throws IOException
+   *         In case the table directory of a font program cannot be read
+   */
+  @Nonnegative
+  public int applyTo (@NonNull final Iterable <PreloadFont> aPreloadFonts) throws IOException
+  {
+    ValueEnforcer.notNull (aPreloadFonts, "PreloadFonts");
+    int ret = 0;
+    for (final PreloadFont aPreloadFont : aPreloadFonts)
+    {
+      final FontMetrics aMetrics = m_aFonts.get (aPreloadFont.getID ());
+      if (aMetrics != null)
+      {
+        // Make sure the metrics were created from the same font program
+        final String sFontDirectoryDigest = aPreloadFont.getFontDirectoryDigest ();
+        if (sFontDirectoryDigest != null &&
+            aMetrics.isSameFontDirectory (HexFormat.of ().parseHex (sFontDirectoryDigest)))
+        {
+          aPreloadFont.applyFontMetrics (aMetrics);
+          ret++;
+        }
+        else
+          LOGGER.warn ("The font metrics snapshot for font '" +
+                       aPreloadFont.getID () +
+                       "' was created from a different font program and is ignored");
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Write this snapshot in the binary format.
+   *
+   * @param aOS
+   *        The output stream to write to. May not be <code>null</code>. It is flushed but not
+   *        closed.
+   * @throws IOException
+   *         In case writing fails
+   */
+  public void writeTo (@NonNull final OutputStream aOS) throws IOException
+  {
+    ValueEnforcer.notNull (aOS, "OutputStream");
+    final DataOutputStream aDOS = new DataOutputStream (aOS);
+    aDOS.writeInt (MAGIC);
+    aDOS.writeInt (VERSION);
+    aDOS.writeInt (m_aFonts.size ());
+    for (final FontMetrics aMetrics : m_aFonts.values ())
+      aMetrics.writeTo (aDOS);
+    aDOS.flush ();
+  }
+
+  /**
+   * Read a snapshot previously written with {@link #writeTo(OutputStream)}.
+   *
+   * @param aIS
+   *        The input stream to read from. May not be <code>null</code>. It is not closed.
+   * @return The read snapshot. Never <code>null</code>.
+   * @throws IOException
+   *         In case reading fails or the data is not a valid snapshot
+   */
+  @NonNull
+  public static FontMetricsSnapshot readFrom (@NonNull final InputStream aIS) throws IOException
+  {
+    ValueEnforcer.notNull (aIS, "InputStream");
+    final DataInputStream aDIS = new DataInputStream (aIS);
+    if (aDIS.readInt () != MAGIC)
+      throw new IOException ("The provided data is not a font metrics snapshot");
+    final int nVersion = aDIS.readInt ();
+    if (nVersion != VERSION)
+      throw new IOException ("Unsupported font metrics snapshot version " + nVersion);
+    final int nFonts = aDIS.readInt ();
+    if (nFonts < 0)
+      throw new IOException ("Invalid font count " + nFonts);
+
+    final ICommonsOrderedMap <String, FontMetrics> aFonts = new CommonsLinkedHashMap <> ();
+    for (int i = 0; i < nFonts; ++i)
+    {
+      final FontMetrics aMetrics = FontMetrics.readFrom (aDIS);
+      aFonts.put (aMetrics.getID (), aMetrics);
+    }
+    return new FontMetricsSnapshot (aFonts);
+  }
+
+  private static void _writeVarInt (@NonNull final DataOutputStream aDOS, final int nValue) throws IOException
+  {
+    // 7 bits per byte, the highest bit indicates that more bytes follow
+    int nRest = nValue;
+    while ((nRest & ~0x7f) != 0)
+    {
+      aDOS.writeByte ((nRest & 0x7f) | 0x80);
+      nRest >>>= 7;
+    }
+    aDOS.writeByte (nRest);
+  }
+
+  private static int _readVarInt (@NonNull final DataInputStream aDIS) throws IOException
+  {
+    int ret = 0;
+    for (int nShift = 0; nShift < Integer.SIZE; nShift += 7)
+    {
+      final int nByte = aDIS.readUnsignedByte ();
+      ret |= (nByte & 0x7f) << nShift;
+      if ((nByte & 0x80) == 0)
+        return ret;
+    }
+    throw new IOException ("Invalid variable length integer");
+  }
+
+  @NonNull
+  private static FontMetrics _createFontMetrics (@NonNull final PreloadFont aPreloadFont,
+                                                 final float fLineHeightHHEA,
+                                                 final float fLineHeightOS2) throws IOException
+  {
+    if (PLDebugLog.isDebugFont ())
+      PLDebugLog.debugFont (aPreloadFont.getID (), "Creating font metrics snapshot");
+
+    final byte [] aFontDirectoryDigest = HexFormat.of ().parseHex (aPreloadFont.getFontDirectoryDigest ());
+
+    final CodePointCoverage aCoverage = aPreloadFont.getCodePointCoverage ();
+    final int nCodePoints = aCoverage.getCount ();
+    final int [] aCodePoints = new int [nCodePoints];
+    final float [] aAdvanceWidths = new float [nCodePoints];
+
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      // Measure exactly like the prepare phase does
+      final LoadedFont aLoadedFont = new LoadedFont (aPreloadFont.loadPDFont (aDoc),
+                                                     aPreloadFont.getFallbackCodePoint (),
+                                                     aPreloadFont.getFontLineHeight ());
+      int nIndex = 0;
+      int nCodePoint = aCoverage.getNextCodePoint (0);
+      while (nCodePoint >= 0)
+      {
+        aCodePoints[nIndex] = nCodePoint;
+        aAdvanceWidths[nIndex] = aLoadedFont.getRawCodePointWidth (nCodePoint);
+        nIndex++;
+        nCodePoint = aCoverage.getNextCodePoint (nCodePoint + 1);
+      }
+    }
+
+    return new FontMetrics (aPreloadFont.getID (),
+                            aFontDirectoryDigest,
+                            fLineHeightHHEA,
+                            fLineHeightOS2,
+                            aCodePoints,
+                            aAdvanceWidths);
+  }
+
+  /**
+   * Create a new snapshot by parsing and measuring the provided fonts. This is meant to be done
+   * once, e.g. at build time, and the result should be stored with {@link #writeTo(OutputStream)}.
+   *
+   * @param aPreloadFonts
+   *        The fonts to include. Standard 14 fonts are ignored. May not be <code>null</code>.
+   * @return The new snapshot. Never <code>null</code>.
+   * @throws IOException
+   *         In case a font cannot be parsed
+   */
+  @NonNull
+  public static FontMetricsSnapshot create (@NonNull final Iterable <PreloadFont> aPreloadFonts) throws IOException
+  {
+    ValueEnforcer.notNull (aPreloadFonts, "PreloadFonts");
+    final ICommonsOrderedMap <String, FontMetrics> aFonts = new CommonsLinkedHashMap <> ();
+    for (final PreloadFont aPreloadFont : aPreloadFonts)
+    {
+      if (!aFonts.containsKey (aPreloadFont.getID ()))
+      {
+        // The parsed font may only be accessed while holding its lock
+        final float [] aLineHeights = aPreloadFont.withParsedFont (aTTF -> aTTF == null ? null
+                                                                                         : new float [] { PreloadFont.getLineHeightHHEA (aTTF),
+                                                                                                          PreloadFont.getLineHeightOS2 (aTTF) });
+        if (aLineHeights != null)
+          aFonts.put (aPreloadFont.getID (), _createFontMetrics (aPreloadFont, aLineHeights[0], aLineHeights[1]));
+      }
+    }
+    return new FontMetricsSnapshot (aFonts);
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("Fonts", m_aFonts.values ()).getToString ();
+  }
+}
@@ -24,10 +24,13 @@ import com.helger.annotation.Nonempty;
 import com.helger.annotation.Nonnegative;
 import com.helger.annotation.concurrent.NotThreadSafe;
 import com.helger.annotation.style.MustImplementEqualsAndHashcode;
+import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.equals.EqualsHelper;
 import com.helger.base.hashcode.HashCodeGenerator;
 import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.pdflayout.base.PLColor;
 
 /**
@@ -46,6 +49,7 @@ public class FontSpec implements Serializable
   private final PreloadFont m_aPreloadFont;
   private final float m_fFontSize;
   private final PLColor m_aColor;
+  private final ICommonsList <PreloadFont> m_aFallbackFonts;
 
   /**
    * Constructor with a {@link PreloadFont} and a font size, using the default
@@ -75,6 +79,14 @@ public class FontSpec implements Serializable
   public FontSpec (@NonNull final PreloadFont aPreloadFont,
                    @Nonnegative final float fFontSize,
                    @NonNull final PLColor aColor)
+  {
+    this (aPreloadFont, fFontSize, aColor, new CommonsArrayList <> ());
+  }
+
+  private FontSpec (@NonNull final PreloadFont aPreloadFont,
+                    @Nonnegative final float fFontSize,
+                    @NonNull final PLColor aColor,
+                    @NonNull final ICommonsList <PreloadFont> aFallbackFonts)
   {
     ValueEnforcer.notNull (aPreloadFont, "Font");
     ValueEnforcer.isFalse (Float.isNaN (fFontSize), "FontSize may not be NaN");
@@ -83,6 +95,7 @@ public class FontSpec implements Serializable
     m_aPreloadFont = aPreloadFont;
     m_fFontSize = fFontSize;
     m_aColor = aColor;
+    m_aFallbackFonts = aFallbackFonts;
   }
 
   /**
@@ -122,6 +135,27 @@ public class FontSpec implements Serializable
     return m_aColor;
   }
 
+  /**
+   * @return <code>true</code> if at least one fallback font is defined, <code>false</code> if not.
+   * @since 8.3.4
+   */
+  public final boolean hasFallbackFonts ()
+  {
+    return m_aFallbackFonts.isNotEmpty ();
+  }
+
+  /**
+   * @return A copy of all fallback fonts in the order they are tried. Never <code>null</code> but
+   *         maybe empty.
+   * @since 8.3.4
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public final ICommonsList <PreloadFont> getAllFallbackFonts ()
+  {
+    return m_aFallbackFonts.getClone ();
+  }
+
   /**
    * Return a clone of this object but with a different font.
    *
@@ -136,7 +170,7 @@ public class FontSpec implements Serializable
     if (aNewFont.equals (m_aPreloadFont))
       return this;
     // Don't copy loaded font!
-    return new FontSpec (aNewFont, m_fFontSize, m_aColor);
+    return new FontSpec (aNewFont, m_fFontSize, m_aColor, m_aFallbackFonts);
   }
 
   /**
@@ -152,7 +186,7 @@ public class FontSpec implements Serializable
     ValueEnforcer.isGT0 (fNewFontSize, "FontSize");
     if (EqualsHelper.equals (fNewFontSize, m_fFontSize))
       return this;
-    return new FontSpec (m_aPreloadFont, fNewFontSize, m_aColor);
+    return new FontSpec (m_aPreloadFont, fNewFontSize, m_aColor, m_aFallbackFonts);
   }
 
   /**
@@ -169,7 +203,28 @@ public class FontSpec implements Serializable
     ValueEnforcer.notNull (aNewColor, "NewColor");
     if (aNewColor.equals (m_aColor))
       return this;
-    return new FontSpec (m_aPreloadFont, m_fFontSize, aNewColor);
+    return new FontSpec (m_aPreloadFont, m_fFontSize, aNewColor, m_aFallbackFonts);
+  }
+
+  /**
+   * Return a clone of this object but with a different font fallback chain. Every character that
+   * is not contained in the main font is rendered with the first fallback font that contains it.
+   * Characters contained in none of the fonts are rendered with the main font.
+   *
+   * @param aNewFallbackFonts
+   *        The fallback fonts in the order they should be tried. May not be <code>null</code> and
+   *        may not contain <code>null</code> elements. May be empty to remove all fallbacks.
+   * @return this if the fallback fonts are equal - a new object otherwise.
+   * @since 8.3.4
+   */
+  @NonNull
+  public FontSpec getCloneWithFallbackFonts (@NonNull final PreloadFont... aNewFallbackFonts)
+  {
+    ValueEnforcer.noNullValue (aNewFallbackFonts, "NewFallbackFonts");
+    final ICommonsList <PreloadFont> aList = new CommonsArrayList <> (aNewFallbackFonts);
+    if (aList.equals (m_aFallbackFonts))
+      return this;
+    return new FontSpec (m_aPreloadFont, m_fFontSize, m_aColor, aList);
   }
 
   @Override
@@ -182,13 +237,18 @@ public class FontSpec implements Serializable
     final FontSpec rhs = (FontSpec) o;
     return m_aPreloadFont.equals (rhs.m_aPreloadFont) &&
            EqualsHelper.equals (m_fFontSize, rhs.m_fFontSize) &&
-           m_aColor.equals (rhs.m_aColor);
+           m_aColor.equals (rhs.m_aColor) &&
+           m_aFallbackFonts.equals (rhs.m_aFallbackFonts);
   }
 
   @Override
   public int hashCode ()
   {
-    return new HashCodeGenerator (this).append (m_aPreloadFont).append (m_fFontSize).append (m_aColor).getHashCode ();
+    return new HashCodeGenerator (this).append (m_aPreloadFont)
+                                       .append (m_fFontSize)
+                                       .append (m_aColor)
+                                       .append (m_aFallbackFonts)
+                                       .getHashCode ();
   }
 
   @Override
@@ -197,6 +257,7 @@ public class FontSpec implements Serializable
     return new ToStringGenerator (null).append ("PreloadFont", m_aPreloadFont)
                                        .append ("FontSize", m_fFontSize)
                                        .append ("Color", m_aColor)
+                                       .appendIf ("FallbackFonts", m_aFallbackFonts, ICommonsList::isNotEmpty)
                                        .getToString ();
   }
 }
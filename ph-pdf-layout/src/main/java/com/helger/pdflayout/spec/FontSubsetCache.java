@@ -0,0 +1,393 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentHelper;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
+import com.helger.base.CGlobal;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.pdflayout.pdfbox.COSSnapshot;
+
+/**
+ * A size bounded cache for subset fonts that can be shared between documents. When a document is
+ * saved, PDFBox subsets every embedded font that was used, which is expensive for large fonts. If
+ * the same font is used with the same set of code points again (which is the common case for fixed
+ * form documents), the complete font dictionary tree including the subset font program, the
+ * <code>CIDToGIDMap</code>, the widths and the <code>ToUnicode</code> CMap is restored from this
+ * cache instead.<br>
+ * The cache is bounded by the number of bytes of the contained streams. If the limit is exceeded,
+ * the least recently used entries are evicted.<br>
+ * The cache is only used if a global instance is set via {@link #setGlobalInstance(FontSubsetCache)}.
+ * The cache key consists of the font ID, the hash of the font program (see
+ * {@link PreloadFont#getFontDirectoryDigest()}), the fallback code point and the code points
+ * written via {@link LoadedFont#getEncodedForPageContentStream(String)} and the code points added
+ * via {@link #addToSubset(PDFont, int)} (which is what
+ * {@link com.helger.pdflayout.pdfbox.PDPageContentStreamExt#showText(String)} uses). Custom code that
+ * adds glyphs to the subset of a font of a {@link LoadedFont} must use
+ * {@link #addToSubset(PDFont, int)} instead of {@link PDFont#addToSubset(int)}. As a document
+ * customizer may modify the document arbitrarily, the cache is not used by
+ * {@link com.helger.pdflayout.PageLayoutPDF} if a document customizer is present.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@ThreadSafe
+public final class FontSubsetCache
+{
+  /** The default maximum number of bytes of all cached subsets: 16 MiB */
+  public static final long DEFAULT_MAX_BYTES = 16L * CGlobal.BYTES_PER_MEGABYTE;
+
+  private static volatile FontSubsetCache s_aGlobalInstance;
+
+  // Code points added to the subset outside of LoadedFont. The fonts belong to a single document, so
+  // the font dictionaries are only weakly referenced
+  private static final Lock s_aAdditionalLock = new ReentrantLock ();
+  @GuardedBy ("s_aAdditionalLock")
+  private static final Map <COSDictionary, BitSet> s_aAdditionalCodePoints = new WeakHashMap <> ();
+
+  // The preload font itself is not part of the key, so that the parsed font program and the width
+  // cache are not kept alive by the cache. The ID alone is chosen by the caller, so different font
+  // programs registered with the same ID are distinguished by the hash of the font program
+  private record Key (@NonNull String fontID,
+                      @NonNull String fontDirectoryDigest,
+                      int fallbackCodePoint,
+                      @NonNull BitSet codePoints)
+  {}
+
+  private final long m_nMaxBytes;
+  private final Lock m_aLock = new ReentrantLock ();
+  // Access order for LRU
+  @GuardedBy ("m_aLock")
+  private final LinkedHashMap <Key, COSSnapshot> m_aMap = new LinkedHashMap <> (16, 0.75f, true);
+  @GuardedBy ("m_aLock")
+  private long m_nCurrentBytes = 0;
+  @GuardedBy ("m_aLock")
+  private long m_nHitCount = 0;
+  @GuardedBy ("m_aLock")
+  private long m_nMissCount = 0;
+
+  public FontSubsetCache ()
+  {
+    this (DEFAULT_MAX_BYTES);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param nMaxBytes
+   *        The maximum number of bytes to keep in the cache. Must be &gt; 0.
+   */
+  public FontSubsetCache (@Nonnegative final long nMaxBytes)
+  {
+    ValueEnforcer.isGT0 (nMaxBytes, "MaxBytes");
+    m_nMaxBytes = nMaxBytes;
+  }
+
+  /**
+   * @return The global instance to be used when saving documents. May be <code>null</code>, which
+   *         is the default.
+   */
+  @Nullable
+  public static FontSubsetCache getGlobalInstance ()
+  {
+    return s_aGlobalInstance;
+  }
+
+  /**
+   * Set the global instance to be used when saving documents.
+   *
+   * @param aGlobalInstance
+   *        The global instance to use. May be <code>null</code> to disable the cross-document cache.
+   */
+  public static void setGlobalInstance (@Nullable final FontSubsetCache aGlobalInstance)
+  {
+    s_aGlobalInstance = aGlobalInstance;
+  }
+
+  /**
+   * Add the provided code point to the subset of the provided font and remember it for the cache
+   * key. This must be used for all code points that are added to the subset of a font of a
+   * {@link LoadedFont} other than via {@link LoadedFont#getEncodedForPageContentStream(String)}.
+   *
+   * @param aFont
+   *        The font to add the code point to. May not be <code>null</code>.
+   * @param nCodePoint
+   *        The Unicode code point to add.
+   */
+  public static void addToSubset (@NonNull final PDFont aFont, final int nCodePoint)
+  {
+    ValueEnforcer.notNull (aFont, "Font");
+
+    aFont.addToSubset (nCodePoint);
+    s_aAdditionalLock.lock ();
+    try
+    {
+      s_aAdditionalCodePoints.computeIfAbsent (aFont.getCOSObject (), k -> new BitSet ()).set (nCodePoint);
+    }
+    finally
+    {
+      s_aAdditionalLock.unlock ();
+    }
+  }
+
+  @Nullable
+  private static BitSet _removeAdditionalCodePoints (@NonNull final PDFont aFont)
+  {
+    s_aAdditionalLock.lock ();
+    try
+    {
+      return s_aAdditionalCodePoints.remove (aFont.getCOSObject ());
+    }
+    finally
+    {
+      s_aAdditionalLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The maximum number of bytes to keep. Always &gt; 0.
+   */
+  @Nonnegative
+  public long getMaxBytes ()
+  {
+    return m_nMaxBytes;
+  }
+
+  /**
+   * Subset the provided font now, either from the cache or by running the PDFBox subsetter, and
+   * make sure PDFBox does not subset it again when the document is saved. Fonts that are not
+   * scheduled for subsetting in the provided document are not touched.
+   *
+   * @param aDoc
+   *        The document the font belongs to. May not be <code>null</code>.
+   * @param aPreloadFont
+   *        The font the loaded font was created from. May not be <code>null</code>.
+   * @param aLoadedFont
+   *        The loaded font of the document. May not be <code>null</code>.
+   * @return <code>true</code> if the font was subset, <code>false</code> if not.
+   * @throws IOException
+   *         In case subsetting fails
+   */
+  public boolean subsetFont (@NonNull final PDDocument aDoc,
+                             @NonNull final PreloadFont aPreloadFont,
+                             @NonNull final LoadedFont aLoadedFont) throws IOException
+  {
+    ValueEnforcer.notNull (aDoc, "Doc");
+    ValueEnforcer.notNull (aPreloadFont, "PreloadFont");
+    ValueEnforcer.notNull (aLoadedFont, "LoadedFont");
+
+    final PDFont aFont = aLoadedFont.getFont ();
+    if (!aLoadedFont.isFontWillBeSubset () || !PDDocumentHelper.isFontToSubset (aDoc, aFont))
+      return false;
+
+    // All code points that PDFBox would put into the subset
+    final BitSet aCodePoints = aLoadedFont.getSubsetCodePoints ();
+    final BitSet aAdditionalCodePoints = _removeAdditionalCodePoints (aFont);
+    if (aAdditionalCodePoints != null)
+      aCodePoints.or (aAdditionalCodePoints);
+
+    // Only custom fonts are subset, so the digest is present
+    final Key aKey = new Key (aPreloadFont.getID (),
+                              aPreloadFont.getFontDirectoryDigest (),
+                              aPreloadFont.getFallbackCodePoint (),
+                              aCodePoints);
+    final COSSnapshot aCached;
+    m_aLock.lock ();
+    try
+    {
+      aCached = m_aMap.get (aKey);
+      if (aCached != null)
+        m_nHitCount++;
+      else
+        m_nMissCount++;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+
+    // Must happen before the font dictionary is modified
+    PDDocumentHelper.removeFontToSubset (aDoc, aFont);
+
+    final COSDictionary aFontDict = aFont.getCOSObject ();
+    if (aCached != null)
+    {
+      // Replace the content of the font dictionary, as it is already referenced from the pages
+      final COSDictionary aRestored = (COSDictionary) aCached.restore (aDoc);
+      aFontDict.clear ();
+      for (final Map.Entry <COSName, COSBase> aEntry : aRestored.entrySet ())
+        aFontDict.setItem (aEntry.getKey (), aEntry.getValue ());
+      return true;
+    }
+
+    // Subset outside of the lock, so that different fonts can be subset concurrently
+    aFont.subset ();
+
+    final COSSnapshot aSnapshot = COSSnapshot.create (aFontDict);
+    final long nBytes = aSnapshot.getByteCount ();
+    if (nBytes <= m_nMaxBytes)
+    {
+      m_aLock.lock ();
+      try
+      {
+        final COSSnapshot aOld = m_aMap.put (aKey, aSnapshot);
+        if (aOld != null)
+          m_nCurrentBytes -= aOld.getByteCount ();
+        m_nCurrentBytes += nBytes;
+
+        // Evict the least recently used entries
+        final Iterator <COSSnapshot> it = m_aMap.values ().iterator ();
+        while (m_nCurrentBytes > m_nMaxBytes && it.hasNext ())
+        {
+          m_nCurrentBytes -= it.next ().getByteCount ();
+          it.remove ();
+        }
+      }
+      finally
+      {
+        m_aLock.unlock ();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return The number of cached subsets. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_aMap.size ();
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of bytes currently cached. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getCurrentBytes ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nCurrentBytes;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cache hits. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getHitCount ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nHitCount;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * @return The number of cache misses. Always &ge; 0.
+   */
+  @Nonnegative
+  public long getMissCount ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return m_nMissCount;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  /**
+   * Remove all cached subsets and reset the hit and miss counts.
+   */
+  public void clear ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      m_aMap.clear ();
+      m_nCurrentBytes = 0;
+      m_nHitCount = 0;
+      m_nMissCount = 0;
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+
+  @Override
+  public String toString ()
+  {
+    m_aLock.lock ();
+    try
+    {
+      return new ToStringGenerator (this).append ("MaxBytes", m_nMaxBytes)
+                                         .append ("Size", m_aMap.size ())
+                                         .append ("CurrentBytes", m_nCurrentBytes)
+                                         .append ("HitCount", m_nHitCount)
+                                         .append ("MissCount", m_nMissCount)
+                                         .getToString ();
+    }
+    finally
+    {
+      m_aLock.unlock ();
+    }
+  }
+}
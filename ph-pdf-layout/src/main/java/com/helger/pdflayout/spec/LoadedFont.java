@@ -18,6 +18,7 @@ package com.helger.pdflayout.spec;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.BitSet;
 import java.util.List;
 
 import org.apache.pdfbox.pdmodel.font.PDCIDFont;
@@ -33,17 +34,17 @@ import org.slf4j.LoggerFactory;
 import com.helger.annotation.CheckForSigned;
 import com.helger.annotation.Nonnegative;
 import com.helger.annotation.WillNotClose;
-import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
 import com.helger.annotation.style.MustImplementEqualsAndHashcode;
 import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.concurrent.SimpleReadWriteLock;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.hashcode.HashCodeGenerator;
 import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
-import com.helger.base.string.StringHelper;
 import com.helger.base.tostring.ToStringGenerator;
 import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
-import com.helger.collection.map.IntFloatMap;
 import com.helger.collection.map.IntObjectMap;
 import com.helger.pdflayout.PLConvert;
 import com.helger.pdflayout.debug.PLDebugLog;
@@ -51,22 +52,23 @@ import com.helger.pdflayout.debug.PLDebugLog;
 /**
  * This class represents a wrapper around a {@link PDFont} that is uniquely assigned to a
  * PDDocument. Instances hold lazily populated per-codepoint caches. Note that the underlying
- * {@link PDFont} is also not thread-safe in PDFBox.
+ * {@link PDFont} is not thread-safe in PDFBox, so all accesses to it are serialized internally.
+ * Since v8.3.4 this class is thread-safe, so that multiple page sets can be prepared in parallel.
  *
  * @author Philip Helger
  */
-@NotThreadSafe
+@ThreadSafe
 @MustImplementEqualsAndHashcode
 public class LoadedFont
 {
-  private static final class EncodedCodePoint
+  static final class EncodedCodePoint
   {
     private final int m_nCodePoint;
     private final byte [] m_aEncoded;
     // Lazy inited
     private volatile Integer m_aEncodedValue;
 
-    private EncodedCodePoint (final int nCodePoint, final byte @NonNull [] aEncoded)
+    EncodedCodePoint (final int nCodePoint, final byte @NonNull [] aEncoded)
     {
       m_nCodePoint = nCodePoint;
       m_aEncoded = aEncoded;
@@ -120,16 +122,71 @@ public class LoadedFont
   private final float m_fLineHeight;
   private final float m_fDescent;
   private final boolean m_bFontWillBeSubset;
-  private final IntObjectMap <EncodedCodePoint> m_aEncodedCodePointCache = new IntObjectMap <> ();
-  private final IntFloatMap m_aCodePointWidthCache = new IntFloatMap ();
+  // The following three are shared with the views created by getWithFallbackFonts
+  private final SimpleReadWriteLock m_aRWLock;
+  @GuardedBy ("m_aRWLock")
+  private final IntObjectMap <EncodedCodePoint> m_aEncodedCodePointCache;
+  @GuardedBy ("m_aRWLock")
+  private final BitSet m_aSubsetCodePoints;
+  // Thread-safe on its own and potentially shared with other documents
+  private final CodePointWidthCache m_aCodePointWidthCache;
+  // Read-only and potentially shared with other documents
+  private final Standard14FontMetrics m_aStandard14Metrics;
+  // Read-only and potentially shared with other documents
+  private final CodePointCoverage m_aCoverage;
+  // Other fonts for code points not covered by this font
+  private final ICommonsList <LoadedFont> m_aFallbackFonts;
 
   public LoadedFont (@NonNull final PDFont aFont,
                      final int nFallbackCodePoint,
                      @CheckForSigned final float fCustomLineHeight)
+  {
+    this (aFont, nFallbackCodePoint, fCustomLineHeight, new CodePointWidthCache (), null, null);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param aFont
+   *        The PDFBox font to use. May not be <code>null</code>.
+   * @param nFallbackCodePoint
+   *        The fallback code point to be used if a character is not contained in the font.
+   * @param fCustomLineHeight
+   *        The custom line height. Values &le; 0 mean that the font bounding box is used.
+   * @param aCodePointWidthCache
+   *        The code point width cache to use. May be shared between multiple documents, as long as
+   *        all fonts using it were created from the same font file with the same fallback code
+   *        point. May not be <code>null</code>.
+   * @param aStandard14Metrics
+   *        The precomputed metrics of the Standard 14 font that is passed in. May be
+   *        <code>null</code> for all other fonts.
+   * @param aCoverage
+   *        The code points contained in the font. Only used to select the font for a code point if
+   *        fallback fonts are used. May be <code>null</code> in which case all code points are
+   *        considered to be contained.
+   * @since 8.3.4
+   * @see PreloadFont#getCodePointWidthCache()
+   * @see PreloadFont#getStandard14Metrics()
+   * @see PreloadFont#getCodePointCoverage()
+   */
+  public LoadedFont (@NonNull final PDFont aFont,
+                     final int nFallbackCodePoint,
+                     @CheckForSigned final float fCustomLineHeight,
+                     @NonNull final CodePointWidthCache aCodePointWidthCache,
+                     @Nullable final Standard14FontMetrics aStandard14Metrics,
+                     @Nullable final CodePointCoverage aCoverage)
   {
     ValueEnforcer.notNull (aFont, "Font");
+    ValueEnforcer.notNull (aCodePointWidthCache, "CodePointWidthCache");
     m_aFont = aFont;
     m_nFallbackCodePoint = nFallbackCodePoint;
+    m_aRWLock = new SimpleReadWriteLock ();
+    m_aEncodedCodePointCache = new IntObjectMap <> ();
+    m_aSubsetCodePoints = new BitSet ();
+    m_aCodePointWidthCache = aCodePointWidthCache;
+    m_aStandard14Metrics = aStandard14Metrics;
+    m_aCoverage = aCoverage;
+    m_aFallbackFonts = new CommonsArrayList <> ();
 
     PDFontDescriptor aFD = aFont.getFontDescriptor ();
     if (aFD == null)
@@ -159,6 +216,83 @@ public class LoadedFont
     m_bFontWillBeSubset = m_aFont.willBeSubset ();
   }
 
+  /**
+   * Constructor for a view on an existing font with fallback fonts. All state is shared with the
+   * original font.
+   *
+   * @param aPrimary
+   *        The original font. May not be <code>null</code>.
+   * @param aFallbackFonts
+   *        The fallback fonts to use. May not be <code>null</code>.
+   */
+  private LoadedFont (@NonNull final LoadedFont aPrimary, @NonNull final ICommonsList <LoadedFont> aFallbackFonts)
+  {
+    m_aFont = aPrimary.m_aFont;
+    m_nFallbackCodePoint = aPrimary.m_nFallbackCodePoint;
+    m_fLineHeight = aPrimary.m_fLineHeight;
+    m_fDescent = aPrimary.m_fDescent;
+    m_bFontWillBeSubset = aPrimary.m_bFontWillBeSubset;
+    m_aRWLock = aPrimary.m_aRWLock;
+    m_aEncodedCodePointCache = aPrimary.m_aEncodedCodePointCache;
+    m_aSubsetCodePoints = aPrimary.m_aSubsetCodePoints;
+    m_aCodePointWidthCache = aPrimary.m_aCodePointWidthCache;
+    m_aStandard14Metrics = aPrimary.m_aStandard14Metrics;
+    m_aCoverage = aPrimary.m_aCoverage;
+    m_aFallbackFonts = aFallbackFonts;
+  }
+
+  /**
+   * Get a view on this font that uses the provided fallback fonts for all code points that are not
+   * contained in this font. Widths are measured with the font that contains the code point, and
+   * {@link #getFontForCodePoint(int)} can be used to split text into runs per font when rendering.
+   *
+   * @param aFallbackFonts
+   *        The ordered fallback fonts. The first font containing a code point is used. May not be
+   *        <code>null</code>. The fonts may not have fallback fonts themselves.
+   * @return this if no fallback fonts are provided, a new view otherwise. Never <code>null</code>.
+   * @since 8.3.4
+   */
+  @NonNull
+  public LoadedFont getWithFallbackFonts (@NonNull final List <LoadedFont> aFallbackFonts)
+  {
+    ValueEnforcer.notNull (aFallbackFonts, "FallbackFonts");
+    if (aFallbackFonts.isEmpty () && m_aFallbackFonts.isEmpty ())
+      return this;
+    for (final LoadedFont aFallbackFont : aFallbackFonts)
+      ValueEnforcer.isTrue (aFallbackFont.m_aFallbackFonts.isEmpty (), "Fallback fonts may not be nested");
+    return new LoadedFont (this, new CommonsArrayList <> (aFallbackFonts));
+  }
+
+  /**
+   * @return <code>true</code> if this font has at least one fallback font.
+   * @since 8.3.4
+   */
+  public final boolean hasFallbackFonts ()
+  {
+    return m_aFallbackFonts.isNotEmpty ();
+  }
+
+  /**
+   * Determine the font to be used to render the provided code point. That is this font if it
+   * contains the code point, otherwise the first fallback font that contains it. If no font
+   * contains the code point, this font is used and it will emit its fallback code point.
+   *
+   * @param nCodePoint
+   *        The code point to check.
+   * @return The font to use. Never <code>null</code>.
+   * @since 8.3.4
+   */
+  @NonNull
+  public final LoadedFont getFontForCodePoint (final int nCodePoint)
+  {
+    if (m_aFallbackFonts.isEmpty () || m_aCoverage == null || m_aCoverage.contains (nCodePoint))
+      return this;
+    for (final LoadedFont aFallbackFont : m_aFallbackFonts)
+      if (aFallbackFont.m_aCoverage == null || aFallbackFont.m_aCoverage.contains (nCodePoint))
+        return aFallbackFont;
+    return this;
+  }
+
   /**
    * @return The underlying font. Never <code>null</code>.
    */
@@ -217,29 +351,107 @@ public class LoadedFont
   @NonNull
   private EncodedCodePoint _getEncodedCodePoint (final int nCodePoint) throws IOException
   {
+    // Fastest path: precomputed and immutable
+    EncodedCodePoint aECP;
+    if (m_aStandard14Metrics != null)
+    {
+      aECP = m_aStandard14Metrics.getEncodedCodePoint (nCodePoint);
+      if (aECP != null)
+        return aECP;
+    }
+
     // Fast path: shared read lock
-    EncodedCodePoint aECP = m_aEncodedCodePointCache.get (nCodePoint);
+    m_aRWLock.readLock ().lock ();
+    try
+    {
+      aECP = m_aEncodedCodePointCache.get (nCodePoint);
+    }
+    finally
+    {
+      m_aRWLock.readLock ().unlock ();
+    }
     if (aECP == null)
     {
-      aECP = encodeCodepointWithFallback (m_aFont, nCodePoint, m_nFallbackCodePoint);
-      m_aEncodedCodePointCache.put (nCodePoint, aECP);
+      // The PDFont is not thread-safe, so all accesses need to be serialized
+      m_aRWLock.writeLock ().lock ();
+      try
+      {
+        // Try again in write lock
+        aECP = m_aEncodedCodePointCache.get (nCodePoint);
+        if (aECP == null)
+        {
+          aECP = encodeCodepointWithFallback (m_aFont, nCodePoint, m_nFallbackCodePoint);
+          m_aEncodedCodePointCache.put (nCodePoint, aECP);
+        }
+      }
+      finally
+      {
+        m_aRWLock.writeLock ().unlock ();
+      }
     }
     return aECP;
   }
 
   private float _getCodePointWidth (final int nCodePoint) throws IOException
   {
-    // Fast path: shared read lock
-    float fWidth = m_aCodePointWidthCache.get (nCodePoint, -1f);
+    if (m_aFallbackFonts.isNotEmpty ())
+    {
+      final LoadedFont aFont = getFontForCodePoint (nCodePoint);
+      if (aFont != this)
+        return aFont._getCodePointWidth (nCodePoint);
+    }
+
+    // Fast path: the width cache has its own lock
+    float fWidth = m_aCodePointWidthCache.getWidth (nCodePoint);
     if (fWidth < 0)
     {
       final EncodedCodePoint aECP = _getEncodedCodePoint (nCodePoint);
-      fWidth = m_aFont.getWidth (aECP.getEncodedIntValue ());
-      m_aCodePointWidthCache.put (nCodePoint, fWidth);
+      m_aRWLock.writeLock ().lock ();
+      try
+      {
+        fWidth = m_aFont.getWidth (aECP.getEncodedIntValue ());
+        m_aCodePointWidthCache.putWidth (nCodePoint, fWidth);
+      }
+      finally
+      {
+        m_aRWLock.writeLock ().unlock ();
+      }
     }
     return fWidth;
   }
 
+  /**
+   * @param nCodePoint
+   *        The code point to measure.
+   * @return The width of the code point in the 1000 units glyph space.
+   * @throws IOException
+   *         In case the code point cannot be encoded
+   */
+  float getRawCodePointWidth (final int nCodePoint) throws IOException
+  {
+    return _getCodePointWidth (nCodePoint);
+  }
+
+  /**
+   * Get the width of a single code point. This is the same as calling
+   * {@link #getStringWidth(String, float)} with a string consisting only of this code point, but
+   * without creating a string.
+   *
+   * @param nCodePoint
+   *        The code point to measure.
+   * @param fFontSize
+   *        The font size to use.
+   * @return The width of the code point in the provided font size.
+   * @throws IOException
+   *         In case the code point cannot be encoded
+   * @since 8.3.4
+   */
+  @Nonnegative
+  public float getCodePointWidth (final int nCodePoint, @Nonnegative final float fFontSize) throws IOException
+  {
+    return PLConvert.getForFontSize (_getCodePointWidth (nCodePoint), fFontSize);
+  }
+
   @Nonnegative
   public float getStringWidth (@NonNull final String sText, @Nonnegative final float fFontSize) throws IOException
   {
@@ -268,7 +480,8 @@ public class LoadedFont
 
   /**
    * A quick version to encode the passed text so that it can be written with
-   * <code>COSWriter.writeString</code>
+   * <code>COSWriter.writeString</code>. Only this font is used, so if fallback fonts are present,
+   * the text must be split into runs with {@link #getFontForCodePoint(int)} before.
    *
    * @param sText
    *        Text to be written.
@@ -277,63 +490,182 @@ public class LoadedFont
    *         In case something goes wrong
    */
   public byte @NonNull [] getEncodedForPageContentStream (@NonNull final String sText) throws IOException
+  {
+    return getEncodedForPageContentStream (sText, 0, sText.length ());
+  }
+
+  /**
+   * Encode a part of the passed text so that it can be written with
+   * <code>COSWriter.writeString</code>, without creating a substring.
+   *
+   * @param sText
+   *        Text to be written. May not be <code>null</code>.
+   * @param nStartOffset
+   *        The start offset, inclusive.
+   * @param nEndOffset
+   *        The end offset, exclusive.
+   * @return The byte array that can be written with the COSWrite. Never <code>null</code>.
+   * @throws IOException
+   *         In case something goes wrong
+   * @since 8.3.4
+   * @see #getEncodedForPageContentStream(String)
+   */
+  public byte @NonNull [] getEncodedForPageContentStream (@NonNull final String sText,
+                                                          @Nonnegative final int nStartOffset,
+                                                          @Nonnegative final int nEndOffset) throws IOException
   {
     // Minimum is 1*string length
     // Maximum is 4*string length
-    try (final NonBlockingByteArrayOutputStream aBAOS = new NonBlockingByteArrayOutputStream (sText.length () * 2))
+    try (final NonBlockingByteArrayOutputStream aBAOS = new NonBlockingByteArrayOutputStream ((nEndOffset - nStartOffset) *
+                                                                                              2))
     {
-      int nCPOfs = 0;
-      while (nCPOfs < sText.length ())
+      int nCPOfs = nStartOffset;
+      while (nCPOfs < nEndOffset)
       {
         final int nCP = sText.codePointAt (nCPOfs);
         nCPOfs += Character.charCount (nCP);
 
         final EncodedCodePoint aECP = _getEncodedCodePoint (nCP);
         if (m_bFontWillBeSubset)
-          m_aFont.addToSubset (aECP.getCodePoint ());
+        {
+          m_aRWLock.writeLock ().lock ();
+          try
+          {
+            m_aFont.addToSubset (aECP.getCodePoint ());
+            m_aSubsetCodePoints.set (aECP.getCodePoint ());
+          }
+          finally
+          {
+            m_aRWLock.writeLock ().unlock ();
+          }
+        }
         aECP.writeEncodedBytes (aBAOS);
       }
       return aBAOS.toByteArray ();
     }
   }
 
-  private void _getLineFitToWidthForward (@NonNull final String sLine,
-                                          @Nonnegative final float fFontSize,
-                                          @Nonnegative final float fMaxWidth,
-                                          @NonNull final List <TextAndWidthSpec> ret) throws IOException
+  /**
+   * Encode the text of the provided line for this font, so that it can be written to the content
+   * stream without encoding it again. This also adds the contained code points to the font subset.
+   *
+   * @param aLine
+   *        The line to encode. May not be <code>null</code>.
+   * @return The line itself if it is already encoded or if this font has fallback fonts (in which
+   *         case the text is split into runs when it is drawn), a copy with the encoded text
+   *         otherwise. Never <code>null</code>.
+   * @throws IOException
+   *         In case something goes wrong
+   * @since 8.3.4
+   */
+  @NonNull
+  public TextAndWidthSpec getWithEncodedText (@NonNull final TextAndWidthSpec aLine) throws IOException
+  {
+    ValueEnforcer.notNull (aLine, "Line");
+    if (aLine.hasEncodedText () || m_aFallbackFonts.isNotEmpty ())
+      return aLine;
+    return aLine.getCloneWithEncodedText (getEncodedForPageContentStream (aLine.getSource (),
+                                                                          aLine.getStartOffset (),
+                                                                          aLine.getEndOffset ()));
+  }
+
+  /**
+   * @return <code>true</code> if the underlying font will be subset when the document is saved.
+   * @since 8.3.4
+   */
+  public final boolean isFontWillBeSubset ()
+  {
+    return m_bFontWillBeSubset;
+  }
+
+  /**
+   * @return A copy of all code points that were added to the font subset via
+   *         {@link #getEncodedForPageContentStream(String)}. Never <code>null</code> but maybe
+   *         empty.
+   * @since 8.3.4
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public BitSet getSubsetCodePoints ()
+  {
+    m_aRWLock.readLock ().lock ();
+    try
+    {
+      return (BitSet) m_aSubsetCodePoints.clone ();
+    }
+    finally
+    {
+      m_aRWLock.readLock ().unlock ();
+    }
+  }
+
+  /**
+   * Fit a single paragraph (without line breaks) into lines.
+   *
+   * @return The start offset of the first line that was not fitted because the maximum number of
+   *         lines was reached, or -1 if the paragraph was fitted completely.
+   */
+  private int _getLineFitToWidthForward (@NonNull final String sText,
+                                         @Nonnegative final int nStartOffset,
+                                         @Nonnegative final int nEndOffset,
+                                         @Nonnegative final float fFontSize,
+                                         @Nonnegative final float fMaxWidth,
+                                         @Nonnegative final int nMaxLineCount,
+                                         final boolean bUnicodeLineBreaking,
+                                         @NonNull final FittedTextLines ret) throws IOException
   {
-    String sCurLine = sLine;
+    // All offsets are absolute offsets into the text
+    int nLineStart = nStartOffset;
     float fSumWidth = 0f;
-    int nCodePointOffset = 0;
-    int nCodePointOffsetOfLastWhitespace = 0;
-    float fSumWidthOfLastWhitespace = 0f;
-    boolean bLastWhitespaceWasNewline = false;
+    int nCodePointOffset = nStartOffset;
+    // The last break opportunity: the end of the line and the number of whitespace chars to skip
+    int nCodePointOffsetOfLastBreak = nStartOffset;
+    int nSkipCharsOfLastBreak = 0;
+    float fSumWidthOfLastBreak = 0f;
+    boolean bLastBreakWasNewline = false;
     boolean bWarnedOnTooSmallMaxWidth = false;
+    // Only present if break opportunities within words should be found as well
+    final UnicodeLineBreaker aLineBreaker = bUnicodeLineBreaking ? new UnicodeLineBreaker () : null;
+    boolean bLastCodePointWasWhitespace = false;
 
     // For each code point
-    while (nCodePointOffset < sCurLine.length ())
+    while (nCodePointOffset < nEndOffset)
     {
-      final int nCodePoint = sCurLine.codePointAt (nCodePointOffset);
+      final int nCodePoint = sText.codePointAt (nCodePointOffset);
       final float fCodePointWidth = PLConvert.getForFontSize (_getCodePointWidth (nCodePoint), fFontSize);
-      if (Character.isWhitespace (nCodePoint))
+      final boolean bIsWhitespace = Character.isWhitespace (nCodePoint);
+      if (aLineBreaker != null &&
+          aLineBreaker.isBreakOpportunityBefore (nCodePoint) &&
+          !bIsWhitespace &&
+          !bLastCodePointWasWhitespace &&
+          nCodePointOffset > nLineStart)
+      {
+        // Break opportunity within a word (e.g. after a hyphen or between ideographs)
+        nCodePointOffsetOfLastBreak = nCodePointOffset;
+        nSkipCharsOfLastBreak = 0;
+        fSumWidthOfLastBreak = fSumWidth;
+        bLastBreakWasNewline = false;
+      }
+      if (bIsWhitespace)
       {
         // Whitespace is considered a word break and allows us to break the line
         // here, so remember it before the increment
-        nCodePointOffsetOfLastWhitespace = nCodePointOffset;
-        fSumWidthOfLastWhitespace = fSumWidth;
-        bLastWhitespaceWasNewline = nCodePoint == '\r' || nCodePoint == '\n';
+        nCodePointOffsetOfLastBreak = nCodePointOffset;
+        nSkipCharsOfLastBreak = 1;
+        fSumWidthOfLastBreak = fSumWidth;
+        bLastBreakWasNewline = nCodePoint == '\r' || nCodePoint == '\n';
       }
       final float fNewWidth = fSumWidth + fCodePointWidth;
 
       boolean bSplitNow = fNewWidth > fMaxWidth;
-      if (bSplitNow && nCodePointOffset == 0)
+      if (bSplitNow && nCodePointOffset == nLineStart)
       {
         if (!bWarnedOnTooSmallMaxWidth)
         {
           LOGGER.warn ("The provided max width (" +
                        fMaxWidth +
                        ") is too small to hold a single character! Will create an overlap! Problem string=<" +
-                       sLine +
+                       sText.substring (nStartOffset, nEndOffset) +
                        ">");
           bWarnedOnTooSmallMaxWidth = true;
         }
@@ -342,57 +674,274 @@ public class LoadedFont
       if (bSplitNow)
       {
         // Maximum width reached
-        if (nCodePointOffsetOfLastWhitespace > 0)
+        if (nCodePointOffsetOfLastBreak > nLineStart)
         {
-          // Use everything up to but excluding the last whitespace
-          final String sPart = sCurLine.substring (0, nCodePointOffsetOfLastWhitespace);
-          // Skip whitespace char in this case
-          sCurLine = sCurLine.substring (nCodePointOffsetOfLastWhitespace + 1);
-          ret.add (new TextAndWidthSpec (sPart, fSumWidthOfLastWhitespace, bLastWhitespaceWasNewline));
+          // Use everything up to but excluding the last break opportunity
+          ret.addLine (nLineStart, nCodePointOffsetOfLastBreak, fSumWidthOfLastBreak, bLastBreakWasNewline);
+          // Skip the whitespace char (if any)
+          nLineStart = nCodePointOffsetOfLastBreak + nSkipCharsOfLastBreak;
         }
         else
         {
           // No whitespace - use up to but excluding last char
-          final String sPart = sCurLine.substring (0, nCodePointOffset);
-          sCurLine = sCurLine.substring (nCodePointOffset);
-          ret.add (new TextAndWidthSpec (sPart, fSumWidth, false));
+          ret.addLine (nLineStart, nCodePointOffset, fSumWidth, false);
+          nLineStart = nCodePointOffset;
+        }
+        if (ret.getLineCount () >= nMaxLineCount)
+        {
+          // Continue with the next line later on
+          return nLineStart;
         }
+
         // Reset counter for the rest of the line
         fSumWidth = 0f;
-        nCodePointOffset = 0;
-        fSumWidthOfLastWhitespace = 0f;
-        nCodePointOffsetOfLastWhitespace = 0;
+        nCodePointOffset = nLineStart;
+        fSumWidthOfLastBreak = 0f;
+        nCodePointOffsetOfLastBreak = nLineStart;
+        if (aLineBreaker != null)
+          aLineBreaker.reset ();
+        bLastCodePointWasWhitespace = false;
       }
       else
       {
         // Add current char
         nCodePointOffset += Character.charCount (nCodePoint);
         fSumWidth = fNewWidth;
+        bLastCodePointWasWhitespace = bIsWhitespace;
       }
     }
     // Add the rest (even if it is empty, otherwise empty lines won't get
     // printed)
-    ret.add (new TextAndWidthSpec (sCurLine, fSumWidth, true));
+    ret.addLine (nLineStart, nEndOffset, fSumWidth, true);
+    return -1;
   }
 
+  /**
+   * Fit a single paragraph (without line breaks) into lines, using a total fit over all break
+   * opportunities of the paragraph.
+   *
+   * @return <code>true</code> if the paragraph was fitted, <code>false</code> if it cannot be
+   *         fitted without splitting a word, in which case nothing was added.
+   */
+  private boolean _getLineFitToWidthTotalFit (@NonNull final String sText,
+                                              @Nonnegative final int nStartOffset,
+                                              @Nonnegative final int nEndOffset,
+                                              @Nonnegative final float fFontSize,
+                                              @Nonnegative final float fMaxWidth,
+                                              final boolean bUnicodeLineBreaking,
+                                              @NonNull final FittedTextLines ret) throws IOException
+  {
+    final int nLength = nEndOffset - nStartOffset;
+    // Cumulative width of all chars before the offset, relative to the start offset
+    final float [] aCumWidth = new float [nLength + 1];
+    // The absolute offsets of the break candidates
+    final int [] aCandidateOffsets = new int [nLength];
+    final TotalFitLineBreaker aBreaker = new TotalFitLineBreaker (fMaxWidth);
+    final UnicodeLineBreaker aLineBreaker = bUnicodeLineBreaking ? new UnicodeLineBreaker () : null;
+    boolean bLastCodePointWasWhitespace = false;
+
+    int nCodePointOffset = nStartOffset;
+    while (nCodePointOffset < nEndOffset)
+    {
+      final int nCodePoint = sText.codePointAt (nCodePointOffset);
+      final int nCharCount = Character.charCount (nCodePoint);
+      final int nRel = nCodePointOffset - nStartOffset;
+      final boolean bIsWhitespace = Character.isWhitespace (nCodePoint);
+      if (aLineBreaker != null &&
+          aLineBreaker.isBreakOpportunityBefore (nCodePoint) &&
+          !bIsWhitespace &&
+          !bLastCodePointWasWhitespace &&
+          nCodePointOffset > nStartOffset)
+      {
+        // Break opportunity within a word
+        aCandidateOffsets[aBreaker.getBreakCandidateCount ()] = nCodePointOffset;
+        aBreaker.addBreakCandidate (aCumWidth[nRel], aCumWidth[nRel], true);
+      }
+
+      final float fCodePointWidth = PLConvert.getForFontSize (_getCodePointWidth (nCodePoint), fFontSize);
+      for (int i = 1; i < nCharCount; ++i)
+        aCumWidth[nRel + i] = aCumWidth[nRel];
+      aCumWidth[nRel + nCharCount] = aCumWidth[nRel] + fCodePointWidth;
+
+      if (bIsWhitespace && nCodePointOffset > nStartOffset)
+      {
+        // Break at the whitespace and skip it
+        aCandidateOffsets[aBreaker.getBreakCandidateCount ()] = nCodePointOffset;
+        aBreaker.addBreakCandidate (aCumWidth[nRel], aCumWidth[nRel + nCharCount], false);
+      }
+      bLastCodePointWasWhitespace = bIsWhitespace;
+      nCodePointOffset += nCharCount;
+    }
+
+    final int [] aBreaks = aBreaker.getBreaks (aCumWidth[nLength]);
+    if (aBreaks == null)
+      return false;
+
+    int nLineStart = nStartOffset;
+    for (final int nBreak : aBreaks)
+    {
+      final int nBreakOffset = aCandidateOffsets[nBreak];
+      final char cBreak = sText.charAt (nBreakOffset);
+      final boolean bIsWhitespace = Character.isWhitespace (cBreak);
+      ret.addLine (nLineStart,
+                   nBreakOffset,
+                   aCumWidth[nBreakOffset - nStartOffset] - aCumWidth[nLineStart - nStartOffset],
+                   cBreak == '\r' || cBreak == '\n');
+      // Skip the whitespace char (if any)
+      nLineStart = bIsWhitespace ? nBreakOffset + 1 : nBreakOffset;
+    }
+    ret.addLine (nLineStart, nEndOffset, aCumWidth[nLength] - aCumWidth[nLineStart - nStartOffset], true);
+    return true;
+  }
+
+  /**
+   * Fit the provided text into the provided width. Contrary to
+   * {@link #getFitToWidth(String, float, float, TextFitSpec)} the resulting lines only consist of
+   * offsets into the original text, so no substrings are created while fitting.
+   * <p>
+   * Greedy fitting puts as much text as possible on each line. Total fit considers all break
+   * opportunities of a paragraph together (see {@link TotalFitLineBreaker}), so that the lines are
+   * of similar width. This is more expensive but looks better for justified text. Paragraphs that
+   * cannot be broken without splitting a word are fitted greedily.
+   * <p>
+   * Greedy fitting can be limited to a part of the text via {@link TextFitSpec#getStartOffset()}
+   * and {@link TextFitSpec#getMaxLineCount()}. The remaining text can be fitted later on with
+   * {@link FittedTextLines#getNextOffset()} as the start offset, and the result is identical to
+   * fitting the whole text at once.
+   *
+   * @param sText
+   *        The text to fit. May be <code>null</code>. Only "\n" is considered a line break.
+   * @param fFontSize
+   *        The font size to use. Must be &gt; 0.
+   * @param fMaxWidth
+   *        The maximum width of a line. Must be &gt; 0.
+   * @param aSpec
+   *        The fallback fonts, line breaking mode and part of the text to use. May not be
+   *        <code>null</code>.
+   * @return The fitted lines with offsets into the complete text. Never <code>null</code> but
+   *         empty for an empty text.
+   * @throws IOException
+   *         In case a code point cannot be measured
+   * @since 8.3.4
+   */
+  @NonNull
+  public FittedTextLines getFitToWidthOffsets (@Nullable final String sText,
+                                               @Nonnegative final float fFontSize,
+                                               @Nonnegative final float fMaxWidth,
+                                               @NonNull final TextFitSpec aSpec) throws IOException
+  {
+    ValueEnforcer.isGT0 (fFontSize, "FontSize");
+    ValueEnforcer.isGT0 (fMaxWidth, "MaxWidth");
+    ValueEnforcer.notNull (aSpec, "Spec");
+
+    // Measure with the explicitly provided fallback fonts, if any
+    final LoadedFont aFont = aSpec.hasFallbackFonts () ? getWithFallbackFonts (aSpec.getAllFallbackFonts ()) : this;
+    final String sRealText = sText == null ? "" : sText;
+    final int nStartOffset = aSpec.getStartOffset ();
+    final int nMaxLineCount = aSpec.getMaxLineCount ();
+    final boolean bUnicodeLineBreaking = aSpec.isUnicodeLineBreaking ();
+    ValueEnforcer.isBetweenInclusive (nStartOffset, "StartOffset", 0, sRealText.length ());
+
+    final FittedTextLines ret = new FittedTextLines (sRealText);
+    if (!sRealText.isEmpty ())
+    {
+      // First split by the contained line breaks
+      // In the constructor we ensured that only "\n" is used
+      int nLineStart = nStartOffset;
+      while (true)
+      {
+        final int nLineEnd = sRealText.indexOf ('\n', nLineStart);
+        final boolean bLastParagraph = nLineEnd < 0;
+        final int nParagraphEnd = bLastParagraph ? sRealText.length () : nLineEnd;
+        final boolean bFitted = aSpec.isTotalFit () &&
+                                aFont._getLineFitToWidthTotalFit (sRealText,
+                                                                  nLineStart,
+                                                                  nParagraphEnd,
+                                                                  fFontSize,
+                                                                  fMaxWidth,
+                                                                  bUnicodeLineBreaking,
+                                                                  ret);
+        if (!bFitted)
+        {
+          // Greedy fitting - also the fallback for paragraphs that cannot be fitted in total
+          final int nNextOffset = aFont._getLineFitToWidthForward (sRealText,
+                                                                   nLineStart,
+                                                                   nParagraphEnd,
+                                                                   fFontSize,
+                                                                   fMaxWidth,
+                                                                   nMaxLineCount,
+                                                                   bUnicodeLineBreaking,
+                                                                   ret);
+          if (nNextOffset >= 0)
+          {
+            // Stopped within the paragraph
+            ret.setNextOffset (nNextOffset);
+            break;
+          }
+        }
+        if (bLastParagraph)
+          break;
+        nLineStart = nLineEnd + 1;
+        if (ret.getLineCount () >= nMaxLineCount)
+        {
+          // Stopped at the start of the next paragraph
+          ret.setNextOffset (nLineStart);
+          break;
+        }
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Fit the provided text greedily into the provided width, breaking lines at whitespaces only.
+   *
+   * @param sText
+   *        The text to fit. May be <code>null</code>. Only "\n" is considered a line break.
+   * @param fFontSize
+   *        The font size to use. Must be &gt; 0.
+   * @param fMaxWidth
+   *        The maximum width of a line. Must be &gt; 0.
+   * @return The fitted lines. Never <code>null</code>.
+   * @throws IOException
+   *         In case a code point cannot be measured
+   */
   @NonNull
   @ReturnsMutableCopy
   public ICommonsList <TextAndWidthSpec> getFitToWidth (@Nullable final String sText,
                                                         @Nonnegative final float fFontSize,
                                                         @Nonnegative final float fMaxWidth) throws IOException
   {
-    ValueEnforcer.isGT0 (fFontSize, "FontSize");
-    ValueEnforcer.isGT0 (fMaxWidth, "MaxWidth");
-
-    // First split by the contained line breaks
-    // In the constructor we ensured that only "\n" is used
-    final String [] aLines = StringHelper.getExplodedArray ('\n', sText);
-
-    final ICommonsList <TextAndWidthSpec> ret = new CommonsArrayList <> ();
-    for (final String sLine : aLines)
-      _getLineFitToWidthForward (sLine, fFontSize, fMaxWidth, ret);
+    return getFitToWidth (sText, fFontSize, fMaxWidth, TextFitSpec.DEFAULT);
+  }
 
-    return ret;
+  /**
+   * Fit the provided text into the provided width.
+   *
+   * @param sText
+   *        The text to fit. May be <code>null</code>. Only "\n" is considered a line break.
+   * @param fFontSize
+   *        The font size to use. Must be &gt; 0.
+   * @param fMaxWidth
+   *        The maximum width of a line. Must be &gt; 0.
+   * @param aSpec
+   *        The fallback fonts, line breaking mode and part of the text to use. May not be
+   *        <code>null</code>.
+   * @return The fitted lines. Never <code>null</code>.
+   * @throws IOException
+   *         In case a code point cannot be measured
+   * @see #getFitToWidthOffsets(String, float, float, TextFitSpec)
+   * @since 8.3.4
+   */
+  @NonNull
+  @ReturnsMutableCopy
+  public ICommonsList <TextAndWidthSpec> getFitToWidth (@Nullable final String sText,
+                                                        @Nonnegative final float fFontSize,
+                                                        @Nonnegative final float fMaxWidth,
+                                                        @NonNull final TextFitSpec aSpec) throws IOException
+  {
+    // The line texts are only materialized when they are accessed
+    return getFitToWidthOffsets (sText, fFontSize, fMaxWidth, aSpec).getAsTextAndWidthSpecList ();
   }
 
   @Override
@@ -403,13 +952,13 @@ public class LoadedFont
     if (o == null || !getClass ().equals (o.getClass ()))
       return false;
     final LoadedFont rhs = (LoadedFont) o;
-    return m_aFont.equals (rhs.m_aFont);
+    return m_aFont.equals (rhs.m_aFont) && m_aFallbackFonts.equals (rhs.m_aFallbackFonts);
   }
 
   @Override
   public int hashCode ()
   {
-    return new HashCodeGenerator (this).append (m_aFont).getHashCode ();
+    return new HashCodeGenerator (this).append (m_aFont).append (m_aFallbackFonts).getHashCode ();
   }
 
   @Override
@@ -420,6 +969,7 @@ public class LoadedFont
                                        .append ("BBHeight", m_fLineHeight)
                                        .append ("Descent", m_fDescent)
                                        .append ("FontWillBeSubset", m_bFontWillBeSubset)
+                                       .append ("FallbackFonts", m_aFallbackFonts)
                                        .getToString ();
   }
 }
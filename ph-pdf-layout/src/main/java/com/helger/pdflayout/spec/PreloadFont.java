@@ -16,8 +16,18 @@
  */
 package com.helger.pdflayout.spec;
 
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
 
+import org.apache.fontbox.ttf.CmapLookup;
 import org.apache.fontbox.ttf.HeaderTable;
 import org.apache.fontbox.ttf.HorizontalHeaderTable;
 import org.apache.fontbox.ttf.OS2WindowsMetricsTable;
@@ -25,20 +35,25 @@ import org.apache.fontbox.ttf.OTFParser;
 import org.apache.fontbox.ttf.OpenTypeFont;
 import org.apache.fontbox.ttf.TTFParser;
 import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.io.RandomAccessRead;
 import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessReadMemoryMappedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType0Font;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.CheckForSigned;
 import com.helger.annotation.Nonempty;
-import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.concurrent.GuardedBy;
+import com.helger.annotation.concurrent.ThreadSafe;
 import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.equals.EqualsHelper;
+import com.helger.base.functional.IThrowingFunction;
 import com.helger.base.hashcode.HashCodeGenerator;
 import com.helger.base.id.IHasID;
 import com.helger.base.state.ESuccess;
@@ -50,11 +65,17 @@ import com.helger.pdflayout.debug.PLDebugLog;
 
 /**
  * Represents an abstract font that is potentially not yet loaded and can be used in multiple
- * documents.
+ * documents.<br>
+ * Instances may be shared between threads (e.g. via {@link PreloadFontManager}). The font resource
+ * of a custom font is read and parsed lazily upon first use. The parsed font is used for the
+ * document independent metrics only and is only accessed while holding the lock of this object.
+ * As FontBox fonts are not thread-safe, each call to {@link #loadPDFont(PDDocument)} parses a new
+ * instance from the (shared) font data, that is only used by the respective document. All other
+ * lazily determined fields are volatile.
  *
  * @author Philip Helger
  */
-@NotThreadSafe
+@ThreadSafe
 public final class PreloadFont implements IHasID <String>
 {
   private static final int DEFAULT_FALLBACK_CODE_POINT = '?';
@@ -115,15 +136,75 @@ public final class PreloadFont implements IHasID <String>
   private final String m_sID;
   private final Standard14Fonts.FontName m_eFontName;
   private final IFontResource m_aFontRes;
+  private final File m_aMemoryMappedFile;
   private final boolean m_bEmbed;
   private final int m_nFallbackCodePoint;
-  private float m_fFontLineHeight;
-  // Status vars
+  private volatile float m_fFontLineHeight;
+  private final CodePointWidthCache m_aCodePointWidthCache = new CodePointWidthCache ();
+  // Lazily created for Standard 14 fonts only
+  private volatile Standard14FontMetrics m_aStandard14Metrics;
+  // Lazily created
+  private volatile CodePointCoverage m_aCodePointCoverage;
+  // Lazily created - only for custom fonts
+  private volatile String m_sFontDirectoryDigest;
+  // Optionally applied from a snapshot
+  private volatile FontMetricsSnapshot.FontMetrics m_aFontMetrics;
+  // Status vars - lazily parsed on first use
+  private volatile boolean m_bParsed;
+  // The font data read from the font resource - only if no memory mapped file is used
+  @GuardedBy ("this")
+  private byte [] m_aFontBytes;
+  @GuardedBy ("this")
   private TrueTypeFont m_aTTF;
+  @GuardedBy ("this")
   private OpenTypeFont m_aOTF;
 
-  private void _parseFontRes () throws IOException
+  @NonNull
+  private synchronized RandomAccessRead _openFontData () throws IOException
+  {
+    if (m_aMemoryMappedFile != null)
+    {
+      // Let the OS page in the font tables
+      return new RandomAccessReadMemoryMappedFile (m_aMemoryMappedFile);
+    }
+
+    if (m_aFontBytes == null)
+      try (final InputStream aIS = m_aFontRes.getInputStream ())
+      {
+        if (aIS == null)
+          throw new IOException ("Failed to open font resource " + m_aFontRes);
+        m_aFontBytes = aIS.readAllBytes ();
+      }
+    // Each reader has its own position on the shared data
+    return new RandomAccessReadBuffer (m_aFontBytes);
+  }
+
+  /**
+   * Parse a new font instance from the font data. The returned object is not shared.
+   *
+   * @return The parsed TTF or OTF font. Never <code>null</code>.
+   * @throws IOException
+   *         In case parsing fails
+   */
+  @NonNull
+  private TrueTypeFont _parseFontData () throws IOException
   {
+    switch (m_aFontRes.getFontType ())
+    {
+      case TTF:
+        return new TTFParser ().parse (_openFontData ());
+      case OTF:
+        return new OTFParser ().parse (_openFontData ());
+      default:
+        throw new IllegalArgumentException ("Cannot parse font resources of type " + m_aFontRes.getFontType ());
+    }
+  }
+
+  private synchronized void _parseFontRes () throws IOException
+  {
+    if (m_bParsed)
+      return;
+
     if (m_aFontRes != null)
       switch (m_aFontRes.getFontType ())
       {
@@ -132,7 +213,7 @@ public final class PreloadFont implements IHasID <String>
           if (PLDebugLog.isDebugFont ())
             PLDebugLog.debugFont (m_aFontRes.toString (), "Loading TTF font");
           m_aOTF = null;
-          m_aTTF = new TTFParser ().parse (new RandomAccessReadBuffer (m_aFontRes.getInputStream ()));
+          m_aTTF = new TTFParser ().parse (_openFontData ());
 
           if (false)
           {
@@ -154,12 +235,13 @@ public final class PreloadFont implements IHasID <String>
           if (PLDebugLog.isDebugFont ())
             PLDebugLog.debugFont (m_aFontRes.toString (), "Loading OTF font");
           m_aTTF = null;
-          m_aOTF = new OTFParser ().parse (new RandomAccessReadBuffer (m_aFontRes.getInputStream ()));
+          m_aOTF = new OTFParser ().parse (_openFontData ());
           break;
         }
         default:
           throw new IllegalArgumentException ("Cannot parse font resources of type " + m_aFontRes.getFontType ());
       }
+    m_bParsed = true;
   }
 
   /**
@@ -176,6 +258,7 @@ public final class PreloadFont implements IHasID <String>
     m_sID = eFontName.getName ();
     m_eFontName = eFontName;
     m_aFontRes = null;
+    m_aMemoryMappedFile = null;
     m_bEmbed = false;
     m_nFallbackCodePoint = nFallbackCodePoint;
     // Font height needs to be determined by the bounding box
@@ -191,20 +274,32 @@ public final class PreloadFont implements IHasID <String>
    *        <code>true</code> to embed the font, <code>false</code> to not embed it.
    * @param nFallbackCodePoint
    *        The fallback code point to be used if a character is not contained in the font.
-   * @throws IOException
-   *         in case loading the font fails
+   * @param aMemoryMappedFile
+   *        An optional file with the same content as the font resource, that is memory mapped
+   *        instead of reading the font resource into the heap. May be <code>null</code>.
    */
-  private PreloadFont (@NonNull final IFontResource aFontRes, final boolean bEmbed, final int nFallbackCodePoint)
-                                                                                                                  throws IOException
+  private PreloadFont (@NonNull final IFontResource aFontRes,
+                       final boolean bEmbed,
+                       final int nFallbackCodePoint,
+                       @Nullable final File aMemoryMappedFile)
   {
     ValueEnforcer.notNull (aFontRes, "FontResource");
+    switch (aFontRes.getFontType ())
+    {
+      case TTF:
+      case OTF:
+        break;
+      default:
+        throw new IllegalArgumentException ("Cannot parse font resources of type " + aFontRes.getFontType ());
+    }
     m_sID = aFontRes.getID ();
     m_eFontName = null;
     m_aFontRes = aFontRes;
+    m_aMemoryMappedFile = aMemoryMappedFile;
     m_bEmbed = bEmbed;
     m_nFallbackCodePoint = nFallbackCodePoint;
-    // Not loaded custom font
-    _parseFontRes ();
+    // Custom fonts are parsed on first use only
+    m_bParsed = false;
   }
 
   @NonNull
@@ -215,7 +310,20 @@ public final class PreloadFont implements IHasID <String>
   }
 
   /**
-   * Load the {@link PDFont} associated to this preload font. This class uses no caching!
+   * @return <code>true</code> if this is a custom font whose font resource was already parsed, or
+   *         if this is a Standard 14 font.
+   * @since 8.3.4
+   */
+  public boolean isParsed ()
+  {
+    return m_eFontName != null || m_bParsed;
+  }
+
+  /**
+   * Load the {@link PDFont} associated to this preload font. This class uses no caching! Custom
+   * fonts are parsed upon the first call of this method. As the returned font keeps using the parsed
+   * font program until the document is closed, each call parses a separate instance of the font
+   * program from the shared font data.
    *
    * @param aDoc
    *        The {@link PDDocument} to which the font should be attached to. May not be
@@ -234,18 +342,14 @@ public final class PreloadFont implements IHasID <String>
       return new PDType1Font (m_eFontName);
     }
 
-    final PDFont ret;
-    if (m_aTTF != null)
-      ret = PDType0Font.load (aDoc, m_aTTF, m_bEmbed);
-    else
-      if (m_aOTF != null)
-        ret = PDType0Font.load (aDoc, m_aOTF, m_bEmbed);
-      else
-        ret = null;
+    // Make sure the font resource is valid and the shared metrics are available
+    _parseFontRes ();
 
-    if (ret == null)
-      throw new IllegalArgumentException ("Cannot load font resources of type " + m_aFontRes.getFontType ());
-    return ret;
+    // The font program is used by PDFBox until the document is closed, so it must not be shared
+    // with other documents
+    final TrueTypeFont aTTF = _parseFontData ();
+    aDoc.registerTrueTypeFontForClosing (aTTF);
+    return PDType0Font.load (aDoc, aTTF, m_bEmbed);
   }
 
   /**
@@ -257,30 +361,274 @@ public final class PreloadFont implements IHasID <String>
     return m_nFallbackCodePoint;
   }
 
+  /**
+   * @return The code point width cache that is shared by all {@link LoadedFont} instances created
+   *         from this font, independent of the document they belong to. Never <code>null</code>.
+   * @since 8.3.4
+   */
+  @NonNull
+  public CodePointWidthCache getCodePointWidthCache ()
+  {
+    return m_aCodePointWidthCache;
+  }
+
+  /**
+   * Get the precomputed metrics of a Standard 14 font. They are created on first use and are shared
+   * by all documents using this font. Creating them also fills the
+   * {@link #getCodePointWidthCache() code point width cache}.
+   *
+   * @return <code>null</code> if this is not a Standard 14 font.
+   * @throws IOException
+   *         In case reading the font metrics fails
+   * @since 8.3.4
+   */
+  @Nullable
+  public Standard14FontMetrics getStandard14Metrics () throws IOException
+  {
+    if (m_eFontName == null)
+      return null;
+
+    Standard14FontMetrics ret = m_aStandard14Metrics;
+    if (ret == null)
+    {
+      synchronized (this)
+      {
+        ret = m_aStandard14Metrics;
+        if (ret == null)
+        {
+          ret = Standard14FontMetrics.create (m_eFontName);
+          ret.fillWidthCache (m_aCodePointWidthCache);
+          m_aStandard14Metrics = ret;
+        }
+      }
+    }
+    return ret;
+  }
+
+  @NonNull
+  private CodePointCoverage _createCodePointCoverage () throws IOException
+  {
+    final Standard14FontMetrics aStandard14Metrics = getStandard14Metrics ();
+    if (aStandard14Metrics != null)
+      return aStandard14Metrics.getCoverage ();
+
+    return withParsedFont (aTTF -> {
+      final BitSet aCodePoints = new BitSet ();
+      if (aTTF != null)
+      {
+        // Iterate all glyphs instead of all code points; GID 0 is ".notdef"
+        final CmapLookup aCmap = aTTF.getUnicodeCmapLookup (false);
+        if (aCmap != null)
+        {
+          final int nGlyphs = aTTF.getNumberOfGlyphs ();
+          for (int nGID = 1; nGID < nGlyphs; ++nGID)
+          {
+            final List <Integer> aCodes = aCmap.getCharCodes (nGID);
+            if (aCodes != null)
+              for (final Integer aCode : aCodes)
+                aCodePoints.set (aCode.intValue ());
+          }
+        }
+      }
+      return new CodePointCoverage (aCodePoints);
+    });
+  }
+
+  /**
+   * Get the code points contained in this font. This is determined once from the <code>cmap</code>
+   * table of custom fonts, or from the precomputed metrics of the Standard 14 fonts. It is used to
+   * select the font from a fallback chain (see {@link FontSpec#getAllFallbackFonts()}).
+   *
+   * @return The coverage of this font. Never <code>null</code>.
+   * @throws IOException
+   *         In case reading the font fails
+   * @since 8.3.4
+   */
+  @NonNull
+  public CodePointCoverage getCodePointCoverage () throws IOException
+  {
+    CodePointCoverage ret = m_aCodePointCoverage;
+    if (ret == null)
+    {
+      // Worst case it is computed twice
+      ret = _createCodePointCoverage ();
+      m_aCodePointCoverage = ret;
+    }
+    return ret;
+  }
+
+  /**
+   * Get the line height based on the <code>hhea</code> table.
+   *
+   * @param aTTF
+   *        The parsed font. May not be <code>null</code>.
+   * @return The line height in the 1000 units glyph space or -1 if the required tables are missing.
+   * @throws IOException
+   *         In case reading a table fails
+   */
+  static float getLineHeightHHEA (@NonNull final TrueTypeFont aTTF) throws IOException
+  {
+    final HeaderTable aHeaderTable = aTTF.getHeader ();
+    final HorizontalHeaderTable aHorzHeaderTable = aTTF.getHorizontalHeader ();
+    if (aHeaderTable == null || aHorzHeaderTable == null)
+      return -1;
+    return (aHorzHeaderTable.getAscender () - aHorzHeaderTable.getDescender () + aHorzHeaderTable.getLineGap ()) *
+           (1000.0f / aHeaderTable.getUnitsPerEm ());
+  }
+
+  /**
+   * Get the line height based on the <code>os/2</code> table.
+   *
+   * @param aTTF
+   *        The parsed font. May not be <code>null</code>.
+   * @return The line height in the 1000 units glyph space or -1 if the required tables are missing.
+   * @throws IOException
+   *         In case reading a table fails
+   */
+  static float getLineHeightOS2 (@NonNull final TrueTypeFont aTTF) throws IOException
+  {
+    final HeaderTable aHeaderTable = aTTF.getHeader ();
+    final OS2WindowsMetricsTable aOS2Table = aTTF.getOS2Windows ();
+    if (aHeaderTable == null || aOS2Table == null)
+      return -1;
+    return (aOS2Table.getTypoAscender () - aOS2Table.getTypoDescender () + aOS2Table.getTypoLineGap ()) *
+           (1000.0f / aHeaderTable.getUnitsPerEm ());
+  }
+
+  /**
+   * Invoke the provided function with the shared parsed font while holding the lock of this object.
+   * The parsed font must not be used outside of the function.
+   *
+   * @param <T>
+   *        The return type
+   * @param aFunction
+   *        The function to invoke with the parsed TTF or OTF font, or with <code>null</code> if
+   *        this is a Standard 14 font. May not be <code>null</code>.
+   * @return The result of the function.
+   * @throws IOException
+   *         In case parsing or reading the font fails
+   */
+  synchronized <T> T withParsedFont (@NonNull final IThrowingFunction <? super TrueTypeFont, T, IOException> aFunction) throws IOException
+  {
+    _parseFontRes ();
+    return aFunction.apply (m_aTTF != null ? m_aTTF : m_aOTF);
+  }
+
+  @NonNull
+  private byte [] _createFontDirectoryDigest () throws IOException
+  {
+    try (final InputStream aIS = m_aFontRes.getInputStream ())
+    {
+      if (aIS == null)
+        throw new IOException ("Failed to open font resource of font '" + m_sID + "'");
+
+      final DataInputStream aDIS = new DataInputStream (aIS);
+      // sfnt version, number of tables, search range, entry selector, range shift
+      final byte [] aOffsetTable = new byte [12];
+      aDIS.readFully (aOffsetTable);
+      final int nTables = ((aOffsetTable[4] & 0xff) << 8) | (aOffsetTable[5] & 0xff);
+      // Tag, checksum, offset and length per table
+      final byte [] aTableDirectory = new byte [nTables * 16];
+      aDIS.readFully (aTableDirectory);
+
+      final MessageDigest aMD = MessageDigest.getInstance ("SHA-256");
+      aMD.update (aOffsetTable);
+      aMD.update (aTableDirectory);
+      return aMD.digest ();
+    }
+    catch (final EOFException ex)
+    {
+      throw new IOException ("The font resource of font '" + m_sID + "' is too short", ex);
+    }
+    catch (final NoSuchAlgorithmException ex)
+    {
+      throw new IllegalStateException ("SHA-256 is not supported", ex);
+    }
+  }
+
+  /**
+   * Get the hex encoded SHA-256 hash of the offset table and the table directory of the font
+   * program. The table directory contains the checksum of every table, so it identifies the font
+   * program without reading it completely. Contrary to the ID, it can be used to distinguish
+   * different font programs that are registered with the same ID. It is calculated only once.
+   *
+   * @return The hex encoded hash or <code>null</code> if this is a Standard 14 font, which is
+   *         sufficiently identified by its ID.
+   * @throws IOException
+   *         In case the font resource cannot be read
+   * @since 8.3.4
+   */
+  @Nullable
+  public String getFontDirectoryDigest () throws IOException
+  {
+    if (m_eFontName != null)
+      return null;
+
+    String ret = m_sFontDirectoryDigest;
+    if (ret == null)
+    {
+      // Worst case it is computed twice
+      ret = HexFormat.of ().formatHex (_createFontDirectoryDigest ());
+      m_sFontDirectoryDigest = ret;
+    }
+    return ret;
+  }
+
+  /**
+   * Apply metrics from a snapshot. This fills the code point width cache and the code point
+   * coverage, so that the font program does not need to be parsed for measuring.
+   *
+   * @param aFontMetrics
+   *        The metrics to apply. May not be <code>null</code>.
+   * @see FontMetricsSnapshot#applyTo(Iterable)
+   */
+  void applyFontMetrics (final FontMetricsSnapshot.@NonNull FontMetrics aFontMetrics)
+  {
+    ValueEnforcer.notNull (aFontMetrics, "FontMetrics");
+    ValueEnforcer.isTrue (aFontMetrics.getID ().equals (m_sID), "The font metrics belong to a different font");
+    ValueEnforcer.isTrue (m_eFontName == null, "Font metrics cannot be applied to Standard 14 fonts");
+
+    aFontMetrics.fillWidthCache (m_aCodePointWidthCache);
+    if (m_aCodePointCoverage == null)
+      m_aCodePointCoverage = aFontMetrics.createCoverage ();
+    m_aFontMetrics = aFontMetrics;
+  }
+
+  /**
+   * @return <code>true</code> if metrics from a {@link FontMetricsSnapshot} were applied to this
+   *         font.
+   * @since 8.3.4
+   */
+  public boolean hasFontMetricsApplied ()
+  {
+    return m_aFontMetrics != null;
+  }
+
   /**
    * Set the font line height based on the TTF/OTF font resource <code>hhea</code> table. This
    * method is especially helpful for the "Noto" or the "Kurinto" font family. See issue #46 for
-   * details.
+   * details.<br>
+   * Since v8.3.4 the value is taken from an applied {@link FontMetricsSnapshot} if the font was not
+   * yet parsed.
    *
    * @return ESuccess.SUCCESS if the line height was set, ESuccess.FAILURE if not.
    * @since 7.3.7
    */
   @NonNull
-  public ESuccess setUseFontLineHeightFromHHEA ()
+  public synchronized ESuccess setUseFontLineHeightFromHHEA ()
   {
     try
     {
-      final HeaderTable aHeaderTable = m_aTTF != null ? m_aTTF.getHeader () : m_aOTF != null ? m_aOTF.getHeader ()
-                                                                                             : null;
-      final HorizontalHeaderTable aHorzHeaderTable = m_aTTF != null ? m_aTTF.getHorizontalHeader () : m_aOTF != null
-                                                                                                                     ? m_aOTF.getHorizontalHeader ()
-                                                                                                                     : null;
-      if (aHeaderTable == null || aHorzHeaderTable == null)
+      final FontMetricsSnapshot.FontMetrics aFontMetrics = m_aFontMetrics;
+      final float fLineHeight;
+      if (aFontMetrics != null && !m_bParsed)
+        fLineHeight = aFontMetrics.getLineHeightHHEA ();
+      else
+        fLineHeight = withParsedFont (aTTF -> aTTF == null ? -1 : getLineHeightHHEA (aTTF));
+      if (fLineHeight <= 0)
         return ESuccess.FAILURE;
 
-      m_fFontLineHeight = (aHorzHeaderTable.getAscender () -
-                           aHorzHeaderTable.getDescender () +
-                           aHorzHeaderTable.getLineGap ()) * (1000.0f / aHeaderTable.getUnitsPerEm ());
+      m_fFontLineHeight = fLineHeight;
       if (PLDebugLog.isDebugFont ())
         PLDebugLog.debugFont (m_aFontRes.toString (), "Loaded font has 'hhea' line height " + m_fFontLineHeight);
       return ESuccess.SUCCESS;
@@ -293,26 +641,28 @@ public final class PreloadFont implements IHasID <String>
 
   /**
    * Set the font line height based on the TTF/OTF font resource <code>os/2</code> table. See issue
-   * #46 for details.
+   * #46 for details.<br>
+   * Since v8.3.4 the value is taken from an applied {@link FontMetricsSnapshot} if the font was not
+   * yet parsed.
    *
    * @return ESuccess.SUCCESS if the line height was set, ESuccess.FAILURE if not.
    * @since 7.3.7
    */
   @NonNull
-  public ESuccess setUseFontLineHeightFromOS2 ()
+  public synchronized ESuccess setUseFontLineHeightFromOS2 ()
   {
     try
     {
-      final HeaderTable aHeaderTable = m_aTTF != null ? m_aTTF.getHeader () : m_aOTF != null ? m_aOTF.getHeader ()
-                                                                                             : null;
-      final OS2WindowsMetricsTable aOS2Table = m_aTTF != null ? m_aTTF.getOS2Windows () : m_aOTF != null ? m_aOTF
-                                                                                                                 .getOS2Windows ()
-                                                                                                         : null;
-      if (aHeaderTable == null || aOS2Table == null)
+      final FontMetricsSnapshot.FontMetrics aFontMetrics = m_aFontMetrics;
+      final float fLineHeight;
+      if (aFontMetrics != null && !m_bParsed)
+        fLineHeight = aFontMetrics.getLineHeightOS2 ();
+      else
+        fLineHeight = withParsedFont (aTTF -> aTTF == null ? -1 : getLineHeightOS2 (aTTF));
+      if (fLineHeight <= 0)
         return ESuccess.FAILURE;
 
-      m_fFontLineHeight = (aOS2Table.getTypoAscender () - aOS2Table.getTypoDescender () + aOS2Table.getTypoLineGap ()) *
-                          (1000.0f / aHeaderTable.getUnitsPerEm ());
+      m_fFontLineHeight = fLineHeight;
       if (PLDebugLog.isDebugFont ())
         PLDebugLog.debugFont (m_aFontRes.toString (), "Loaded font has 'os/2' line height " + m_fFontLineHeight);
       return ESuccess.SUCCESS;
@@ -364,6 +714,7 @@ public final class PreloadFont implements IHasID <String>
     return new ToStringGenerator (null).append ("ID", m_sID)
                                        .appendIfNotNull ("FontName", m_eFontName)
                                        .appendIfNotNull ("FontResource", m_aFontRes)
+                                       .appendIfNotNull ("MemoryMappedFile", m_aMemoryMappedFile)
                                        .append ("Embed", m_bEmbed)
                                        .append ("FallbackCodePoint", m_nFallbackCodePoint)
                                        .getToString ();
@@ -377,20 +728,37 @@ public final class PreloadFont implements IHasID <String>
    *        The font resource to include. May not be <code>null</code>.
    * @return Never <code>null</code>.
    * @throws IllegalArgumentException
-   *         If the font could not be loaded.
+   *         If the font type is not supported. Since v8.3.4 the font is only parsed on first use, so
+   *         that errors reading the font are reported by {@link #loadPDFont(PDDocument)}.
    */
   @NonNull
   public static PreloadFont createNonEmbedding (@NonNull final IFontResource aFontRes)
+  {
+    return createNonEmbedding (aFontRes, null);
+  }
+
+  /**
+   * Create a new {@link PreloadFont} from an existing {@link IFontResource} where the subset cannot
+   * be embedded into the resulting PDF. The font data is read from the provided memory mapped file
+   * instead of from the font resource.
+   *
+   * @param aFontRes
+   *        The font resource to include. It is used for identification only. May not be
+   *        <code>null</code>.
+   * @param aMemoryMappedFile
+   *        The file containing the same font data as the font resource. May be <code>null</code>
+   *        in which case the font resource is read into memory.
+   * @return Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the font type is not supported.
+   * @since 8.3.4
+   */
+  @NonNull
+  public static PreloadFont createNonEmbedding (@NonNull final IFontResource aFontRes,
+                                                @Nullable final File aMemoryMappedFile)
   {
     ValueEnforcer.notNull (aFontRes, "FontRes");
-    try
-    {
-      return new PreloadFont (aFontRes, false, DEFAULT_FALLBACK_CODE_POINT);
-    }
-    catch (final IOException ex)
-    {
-      throw new IllegalArgumentException ("Cannot use the passed font resource " + aFontRes, ex);
-    }
+    return new PreloadFont (aFontRes, false, DEFAULT_FALLBACK_CODE_POINT, aMemoryMappedFile);
   }
 
   /**
@@ -401,20 +769,37 @@ public final class PreloadFont implements IHasID <String>
    *        The font resource to include. May not be <code>null</code>.
    * @return Never <code>null</code>.
    * @throws IllegalArgumentException
-   *         If the font could not be loaded.
+   *         If the font type is not supported. Since v8.3.4 the font is only parsed on first use, so
+   *         that errors reading the font are reported by {@link #loadPDFont(PDDocument)}.
    */
   @NonNull
   public static PreloadFont createEmbedding (@NonNull final IFontResource aFontRes)
+  {
+    return createEmbedding (aFontRes, null);
+  }
+
+  /**
+   * Create a new {@link PreloadFont} from an existing {@link IFontResource} where the subset can be
+   * embedded into the resulting PDF. The font data is read from the provided memory mapped file
+   * instead of from the font resource.
+   *
+   * @param aFontRes
+   *        The font resource to include. It is used for identification only. May not be
+   *        <code>null</code>.
+   * @param aMemoryMappedFile
+   *        The file containing the same font data as the font resource. May be <code>null</code>
+   *        in which case the font resource is read into memory.
+   * @return Never <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If the font type is not supported.
+   * @since 8.3.4
+   */
+  @NonNull
+  public static PreloadFont createEmbedding (@NonNull final IFontResource aFontRes,
+                                             @Nullable final File aMemoryMappedFile)
   {
     ValueEnforcer.notNull (aFontRes, "FontRes");
-    try
-    {
-      return new PreloadFont (aFontRes, true, DEFAULT_FALLBACK_CODE_POINT);
-    }
-    catch (final IOException ex)
-    {
-      throw new IllegalArgumentException ("Cannot use the passed font resource " + aFontRes, ex);
-    }
+    return new PreloadFont (aFontRes, true, DEFAULT_FALLBACK_CODE_POINT, aMemoryMappedFile);
   }
 
   @NonNull
@@ -16,30 +16,42 @@
  */
 package com.helger.pdflayout.spec;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 
 import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 
-import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.annotation.concurrent.ThreadSafe;
 import com.helger.annotation.style.ReturnsMutableCopy;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.tostring.ToStringGenerator;
-import com.helger.collection.commons.CommonsHashMap;
+import com.helger.collection.commons.CommonsArrayList;
 import com.helger.collection.commons.ICommonsList;
-import com.helger.collection.commons.ICommonsMap;
 import com.helger.font.api.IFontResource;
 import com.helger.font.api.IHasFontResource;
 
 /**
- * A manager for maintaining {@link PreloadFont}s.
+ * A manager for maintaining {@link PreloadFont}s.<br>
+ * Since v8.3.4 this class is thread-safe: lookups are lock free and
+ * {@link #getOrAddEmbeddingPreloadFont(IFontResource)} creates at most one {@link PreloadFont} per
+ * ID, even if called concurrently. As custom fonts are parsed lazily and exactly once by
+ * {@link PreloadFont#loadPDFont(org.apache.pdfbox.pdmodel.PDDocument)}, concurrent requests using
+ * the same font share the parsing result. Use {@link #getGlobalInstance()} to share a manager
+ * between all request threads.
  *
  * @author Philip Helger
  */
-@NotThreadSafe
+@ThreadSafe
 public class PreloadFontManager implements IPreloadFontResolver
 {
-  private final ICommonsMap <String, PreloadFont> m_aMap = new CommonsHashMap <> ();
+  private static final class SingletonHolder
+  {
+    static final PreloadFontManager INSTANCE = new PreloadFontManager ();
+  }
+
+  private final ConcurrentMap <String, PreloadFont> m_aMap = new ConcurrentHashMap <> ();
 
   /**
    * Default constructor which registers the standard 14 fonts.
@@ -77,20 +89,33 @@ public class PreloadFontManager implements IPreloadFontResolver
     }
   }
 
+  /**
+   * @return The JVM wide shared instance that has the standard 14 fonts registered. Never
+   *         <code>null</code>.
+   * @since 8.3.4
+   */
+  @NonNull
+  public static PreloadFontManager getGlobalInstance ()
+  {
+    return SingletonHolder.INSTANCE;
+  }
+
   /**
    * Add a pre-created {@link PreloadFont}.
    *
    * @param aPreloadFont
    *        The font to be added. May not be <code>null</code>.
+   * @throws IllegalArgumentException
+   *         If a font with the same ID is already contained
    */
   public void addPreloadFont (@NonNull final PreloadFont aPreloadFont)
   {
     ValueEnforcer.notNull (aPreloadFont, "PreloadFont");
     final String sKey = aPreloadFont.getID ();
 
-    if (m_aMap.containsKey (sKey))
+    // Atomic check and add
+    if (m_aMap.putIfAbsent (sKey, aPreloadFont) != null)
       throw new IllegalArgumentException ("The PreloadFont  " + aPreloadFont + " is already contained!");
-    m_aMap.put (sKey, aPreloadFont);
   }
 
   /**
@@ -118,13 +143,14 @@ public class PreloadFontManager implements IPreloadFontResolver
   public PreloadFont getOrAddEmbeddingPreloadFont (@NonNull final IFontResource aFontRes)
   {
     ValueEnforcer.notNull (aFontRes, "FontRes");
-    PreloadFont aPreloadFont = getPreloadFontOfID (aFontRes);
-    if (aPreloadFont == null)
-    {
-      aPreloadFont = PreloadFont.createEmbedding (aFontRes);
-      addPreloadFont (aPreloadFont);
-    }
-    return aPreloadFont;
+
+    // Lock free fast path
+    final PreloadFont aPreloadFont = m_aMap.get (aFontRes.getID ());
+    if (aPreloadFont != null)
+      return aPreloadFont;
+
+    // Atomic - only a single instance is ever created per ID
+    return m_aMap.computeIfAbsent (aFontRes.getID (), k -> PreloadFont.createEmbedding (aFontRes));
   }
 
   @Nullable
@@ -139,14 +165,21 @@ public class PreloadFontManager implements IPreloadFontResolver
   @ReturnsMutableCopy
   public ICommonsList <PreloadFont> getAllPreloadFonts ()
   {
-    return m_aMap.copyOfValues ();
+    return new CommonsArrayList <> (m_aMap.values ());
   }
 
   @NonNull
   @ReturnsMutableCopy
   public ICommonsList <PreloadFont> getAllPreloadFonts (@Nullable final Predicate <? super PreloadFont> aFilter)
   {
-    return m_aMap.copyOfValues (aFilter);
+    if (aFilter == null)
+      return getAllPreloadFonts ();
+
+    final ICommonsList <PreloadFont> ret = new CommonsArrayList <> ();
+    for (final PreloadFont aPreloadFont : m_aMap.values ())
+      if (aFilter.test (aPreloadFont))
+        ret.add (aPreloadFont);
+    return ret;
   }
 
   @Override
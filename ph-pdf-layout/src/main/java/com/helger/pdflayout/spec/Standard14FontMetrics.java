@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.font.PDFontHelper;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.font.encoding.Encoding;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+import com.helger.collection.map.IntObjectMap;
+import com.helger.pdflayout.spec.LoadedFont.EncodedCodePoint;
+
+/**
+ * Precomputed encoding and width tables of one of the Standard 14 fonts. The tables are built once
+ * from a template {@link PDType1Font} and are afterwards read-only, so that they can be shared by
+ * all documents and threads. Only the code points that are part of the built-in encoding of the
+ * font are contained - for all other code points the per-document {@link PDType1Font} is used as
+ * before.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@Immutable
+public final class Standard14FontMetrics
+{
+  private record CodePointWidth (int codePoint, float width)
+  {}
+
+  private final Standard14Fonts.FontName m_eFontName;
+  // Never modified after the constructor
+  private final IntObjectMap <EncodedCodePoint> m_aEncoded = new IntObjectMap <> ();
+  private final ICommonsList <CodePointWidth> m_aWidths = new CommonsArrayList <> ();
+  private final CodePointCoverage m_aCoverage;
+
+  private void _add (@NonNull final PDType1Font aFont, final int nCodePoint) throws IOException
+  {
+    if (m_aEncoded.get (nCodePoint) != null)
+      return;
+
+    final byte [] aEncoded;
+    try
+    {
+      aEncoded = PDFontHelper.encode (aFont, nCodePoint);
+    }
+    catch (final IllegalArgumentException ex)
+    {
+      // Not encodable in this font
+      return;
+    }
+    final EncodedCodePoint aECP = new EncodedCodePoint (nCodePoint, aEncoded);
+    m_aEncoded.put (nCodePoint, aECP);
+    m_aWidths.add (new CodePointWidth (nCodePoint, aFont.getWidth (aECP.getEncodedIntValue ())));
+  }
+
+  private Standard14FontMetrics (final Standard14Fonts.@NonNull FontName eFontName) throws IOException
+  {
+    m_eFontName = eFontName;
+
+    final PDType1Font aFont = new PDType1Font (eFontName);
+    final GlyphList aGlyphList = eFontName == Standard14Fonts.FontName.ZAPF_DINGBATS ? GlyphList.getZapfDingbats ()
+                                                                                    : GlyphList.getAdobeGlyphList ();
+    final Encoding aEncoding = aFont.getEncoding ();
+    if (aEncoding != null)
+      for (final Map.Entry <Integer, String> aEntry : aEncoding.getCodeToNameMap ().entrySet ())
+      {
+        final String sUnicode = aGlyphList.toUnicode (aEntry.getValue ());
+        if (sUnicode != null && sUnicode.codePointCount (0, sUnicode.length ()) == 1)
+          _add (aFont, sUnicode.codePointAt (0));
+      }
+
+    // Latin-1 range, to also cover characters mapped to an existing glyph (like NBSP)
+    for (int nCodePoint = 0x20; nCodePoint <= 0xff; ++nCodePoint)
+      _add (aFont, nCodePoint);
+
+    final BitSet aCodePoints = new BitSet ();
+    for (final CodePointWidth aItem : m_aWidths)
+      aCodePoints.set (aItem.codePoint ());
+    m_aCoverage = new CodePointCoverage (aCodePoints);
+  }
+
+  /**
+   * @return The font name these metrics belong to. Never <code>null</code>.
+   */
+  public Standard14Fonts.@NonNull FontName getFontName ()
+  {
+    return m_eFontName;
+  }
+
+  /**
+   * @return The number of precomputed code points. Always &ge; 0.
+   */
+  @Nonnegative
+  public int size ()
+  {
+    return m_aWidths.size ();
+  }
+
+  /**
+   * @return All code points contained in the precomputed tables. Never <code>null</code>.
+   */
+  @NonNull
+  public CodePointCoverage getCoverage ()
+  {
+    return m_aCoverage;
+  }
+
+  @Nullable
+  EncodedCodePoint getEncodedCodePoint (final int nCodePoint)
+  {
+    return m_aEncoded.get (nCodePoint);
+  }
+
+  /**
+   * Copy all precomputed widths into the provided cache.
+   *
+   * @param aCache
+   *        The cache to fill. May not be <code>null</code>.
+   */
+  void fillWidthCache (@NonNull final CodePointWidthCache aCache)
+  {
+    for (final CodePointWidth aItem : m_aWidths)
+      aCache.putWidth (aItem.codePoint (), aItem.width ());
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("FontName", m_eFontName).append ("Size", size ()).getToString ();
+  }
+
+  /**
+   * Build the metrics of the provided font.
+   *
+   * @param eFontName
+   *        The Standard 14 font to use. May not be <code>null</code>.
+   * @return The newly created metrics. Never <code>null</code>.
+   * @throws IOException
+   *         In case reading the font metrics fails
+   */
+  @NonNull
+  public static Standard14FontMetrics create (final Standard14Fonts.@NonNull FontName eFontName) throws IOException
+  {
+    ValueEnforcer.notNull (eFontName, "FontName");
+    return new Standard14FontMetrics (eFontName);
+  }
+}
@@ -19,17 +19,21 @@ package com.helger.pdflayout.spec;
 import java.io.Serializable;
 
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import com.helger.annotation.Nonnegative;
 import com.helger.annotation.concurrent.Immutable;
 import com.helger.annotation.style.MustImplementEqualsAndHashcode;
+import com.helger.annotation.style.ReturnsMutableObject;
 import com.helger.base.enforce.ValueEnforcer;
 import com.helger.base.equals.EqualsHelper;
 import com.helger.base.hashcode.HashCodeGenerator;
 import com.helger.base.tostring.ToStringGenerator;
 
 /**
- * This class wraps a text with a specified rendering width.
+ * This class wraps a text with a specified rendering width. Since v8.3.4 the text may also be
+ * defined as a range of a larger source text, in which case it is only materialized when it is
+ * first accessed.
  *
  * @author Philip Helger
  */
@@ -37,25 +41,117 @@ import com.helger.base.tostring.ToStringGenerator;
 @MustImplementEqualsAndHashcode
 public class TextAndWidthSpec implements Serializable
 {
-  private final String m_sText;
+  private final String m_sSource;
+  private final int m_nStartOffset;
+  private final int m_nEndOffset;
   private final float m_fWidth;
   private final boolean m_bDisplayAsNewline;
+  // Optional, pre-encoded for the font it is rendered with
+  private final byte [] m_aEncodedText;
+  // Lazily materialized from the source
+  private transient String m_sText;
 
   public TextAndWidthSpec (@NonNull final String sText,
                            @Nonnegative final float fWidth,
                            final boolean bDisplayAsNewline)
   {
-    ValueEnforcer.notNull (sText, "Text");
-    ValueEnforcer.isGE0 (fWidth, "Width");
+    this (sText, 0, sText.length (), fWidth, bDisplayAsNewline);
     m_sText = sText;
+  }
+
+  /**
+   * Constructor for a part of a larger text.
+   *
+   * @param sSource
+   *        The source text. May not be <code>null</code>.
+   * @param nStartOffset
+   *        The start offset into the source text, inclusive. Must be &ge; 0.
+   * @param nEndOffset
+   *        The end offset into the source text, exclusive. Must be &ge; the start offset.
+   * @param fWidth
+   *        The rendering width. Must be &ge; 0.
+   * @param bDisplayAsNewline
+   *        <code>true</code> if this is the last line of a paragraph.
+   * @since 8.3.4
+   */
+  public TextAndWidthSpec (@NonNull final String sSource,
+                           @Nonnegative final int nStartOffset,
+                           @Nonnegative final int nEndOffset,
+                           @Nonnegative final float fWidth,
+                           final boolean bDisplayAsNewline)
+  {
+    ValueEnforcer.notNull (sSource, "Text");
+    ValueEnforcer.isBetweenInclusive (nStartOffset, "StartOffset", 0, sSource.length ());
+    ValueEnforcer.isBetweenInclusive (nEndOffset, "EndOffset", nStartOffset, sSource.length ());
+    ValueEnforcer.isGE0 (fWidth, "Width");
+    m_sSource = sSource;
+    m_nStartOffset = nStartOffset;
+    m_nEndOffset = nEndOffset;
     m_fWidth = fWidth;
     m_bDisplayAsNewline = bDisplayAsNewline;
+    m_aEncodedText = null;
+  }
+
+  private TextAndWidthSpec (@NonNull final TextAndWidthSpec aOther, final byte @NonNull [] aEncodedText)
+  {
+    ValueEnforcer.notNull (aEncodedText, "EncodedText");
+    m_sSource = aOther.m_sSource;
+    m_nStartOffset = aOther.m_nStartOffset;
+    m_nEndOffset = aOther.m_nEndOffset;
+    m_fWidth = aOther.m_fWidth;
+    m_bDisplayAsNewline = aOther.m_bDisplayAsNewline;
+    m_aEncodedText = aEncodedText;
+    m_sText = aOther.m_sText;
+  }
+
+  @NonNull
+  final String getSource ()
+  {
+    return m_sSource;
+  }
+
+  /**
+   * @return The offset of the first char of this line in the text that was fitted. Always &ge; 0.
+   * @since 8.3.4
+   */
+  @Nonnegative
+  public final int getStartOffset ()
+  {
+    return m_nStartOffset;
+  }
+
+  /**
+   * @return The offset after the last char of this line in the text that was fitted. Always &ge;
+   *         0.
+   * @since 8.3.4
+   */
+  @Nonnegative
+  public final int getEndOffset ()
+  {
+    return m_nEndOffset;
   }
 
   @NonNull
   public final String getText ()
   {
-    return m_sText;
+    String ret = m_sText;
+    if (ret == null)
+    {
+      // Racy but idempotent
+      ret = m_sSource.substring (m_nStartOffset, m_nEndOffset);
+      m_sText = ret;
+    }
+    return ret;
+  }
+
+  /**
+   * @return The length of the text in chars, without materializing it. Always &ge; 0.
+   * @since 8.3.4
+   */
+  @Nonnegative
+  public final int getTextLength ()
+  {
+    return m_nEndOffset - m_nStartOffset;
   }
 
   @Nonnegative
@@ -69,6 +165,41 @@ public class TextAndWidthSpec implements Serializable
     return m_bDisplayAsNewline;
   }
 
+  /**
+   * @return <code>true</code> if the text was already encoded for the font it is rendered with.
+   * @since 8.3.4
+   */
+  public final boolean hasEncodedText ()
+  {
+    return m_aEncodedText != null;
+  }
+
+  /**
+   * @return The text encoded for the font it is rendered with, as created by
+   *         {@link LoadedFont#getWithEncodedText(TextAndWidthSpec)}. May be <code>null</code>.
+   * @since 8.3.4
+   */
+  @ReturnsMutableObject ("speed")
+  public final byte @Nullable [] getEncodedText ()
+  {
+    return m_aEncodedText;
+  }
+
+  /**
+   * Get a copy of this object with the provided pre-encoded text. The encoded text is not
+   * considered in {@link #equals(Object)} and {@link #hashCode()}.
+   *
+   * @param aEncodedText
+   *        The encoded text. May not be <code>null</code>.
+   * @return A new object. Never <code>null</code>.
+   * @since 8.3.4
+   */
+  @NonNull
+  public TextAndWidthSpec getCloneWithEncodedText (final byte @NonNull [] aEncodedText)
+  {
+    return new TextAndWidthSpec (this, aEncodedText);
+  }
+
   @Override
   public boolean equals (final Object o)
   {
@@ -77,7 +208,7 @@ public class TextAndWidthSpec implements Serializable
     if (o == null || !getClass ().equals (o.getClass ()))
       return false;
     final TextAndWidthSpec rhs = (TextAndWidthSpec) o;
-    return m_sText.equals (rhs.m_sText) &&
+    return getText ().equals (rhs.getText ()) &&
            EqualsHelper.equals (m_fWidth, rhs.m_fWidth) &&
            m_bDisplayAsNewline == rhs.m_bDisplayAsNewline;
   }
@@ -85,15 +216,16 @@ public class TextAndWidthSpec implements Serializable
   @Override
   public int hashCode ()
   {
-    return new HashCodeGenerator (this).append (m_sText).append (m_fWidth).append (m_bDisplayAsNewline).getHashCode ();
+    return new HashCodeGenerator (this).append (getText ()).append (m_fWidth).append (m_bDisplayAsNewline).getHashCode ();
   }
 
   @Override
   public String toString ()
   {
-    return new ToStringGenerator (null).append ("Text", m_sText)
+    return new ToStringGenerator (null).append ("Text", getText ())
                                        .append ("Width", m_fWidth)
                                        .append ("DisplayAsNewline", m_bDisplayAsNewline)
+                                       .append ("Encoded", m_aEncodedText != null)
                                        .getToString ();
   }
 }
@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import java.util.List;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.Immutable;
+import com.helger.annotation.style.MustImplementEqualsAndHashcode;
+import com.helger.annotation.style.ReturnsMutableCopy;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.equals.EqualsHelper;
+import com.helger.base.hashcode.HashCodeGenerator;
+import com.helger.base.tostring.ToStringGenerator;
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Defines how a text is fitted into a certain width by
+ * {@link LoadedFont#getFitToWidthOffsets(String, float, float, TextFitSpec)}: the fallback fonts to
+ * measure with, the line breaking mode and the part of the text to fit.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@Immutable
+@MustImplementEqualsAndHashcode
+public final class TextFitSpec
+{
+  /** By default the lines are fitted greedily */
+  public static final boolean DEFAULT_TOTAL_FIT = false;
+  /** By default lines are only broken at whitespaces */
+  public static final boolean DEFAULT_UNICODE_LINE_BREAKING = false;
+  /** By default the whole text is fitted */
+  public static final int DEFAULT_START_OFFSET = 0;
+  /** By default the number of lines is not limited */
+  public static final int DEFAULT_MAX_LINE_COUNT = Integer.MAX_VALUE;
+
+  /** Greedily fit the whole text, breaking at whitespaces only */
+  public static final TextFitSpec DEFAULT = new TextFitSpec (null,
+                                                             DEFAULT_TOTAL_FIT,
+                                                             DEFAULT_UNICODE_LINE_BREAKING,
+                                                             DEFAULT_START_OFFSET,
+                                                             DEFAULT_MAX_LINE_COUNT);
+
+  private final ICommonsList <LoadedFont> m_aFallbackFonts;
+  private final boolean m_bTotalFit;
+  private final boolean m_bUnicodeLineBreaking;
+  private final int m_nStartOffset;
+  private final int m_nMaxLineCount;
+
+  /**
+   * Constructor
+   *
+   * @param aFallbackFonts
+   *        The fallback fonts to measure code points with, that are not covered by the fitted font.
+   *        May be <code>null</code> to use the fallback fonts of the fitted font.
+   * @param bTotalFit
+   *        <code>true</code> to use a total fit per paragraph, <code>false</code> to fit greedily.
+   * @param bUnicodeLineBreaking
+   *        <code>true</code> to use the {@link UnicodeLineBreaker} to find break opportunities
+   *        within words, <code>false</code> to break at whitespaces only.
+   * @param nStartOffset
+   *        The offset to start fitting at. Must be 0 or a value returned by
+   *        {@link FittedTextLines#getNextOffset()} for the same text, font, font size, width and
+   *        line breaking mode.
+   * @param nMaxLineCount
+   *        The maximum number of lines to fit. Must be &gt; 0.
+   */
+  public TextFitSpec (@Nullable final List <LoadedFont> aFallbackFonts,
+                      final boolean bTotalFit,
+                      final boolean bUnicodeLineBreaking,
+                      @Nonnegative final int nStartOffset,
+                      @Nonnegative final int nMaxLineCount)
+  {
+    if (aFallbackFonts != null)
+      ValueEnforcer.noNullValue (aFallbackFonts, "FallbackFonts");
+    ValueEnforcer.isGE0 (nStartOffset, "StartOffset");
+    ValueEnforcer.isGT0 (nMaxLineCount, "MaxLineCount");
+    // Total fit needs to see a whole paragraph, so it cannot be continued later on
+    ValueEnforcer.isTrue (!bTotalFit ||
+                          (nStartOffset == DEFAULT_START_OFFSET && nMaxLineCount == DEFAULT_MAX_LINE_COUNT),
+                          "Total fit can only be used to fit the whole text");
+    m_aFallbackFonts = aFallbackFonts == null ? null : new CommonsArrayList <> (aFallbackFonts);
+    m_bTotalFit = bTotalFit;
+    m_bUnicodeLineBreaking = bUnicodeLineBreaking;
+    m_nStartOffset = nStartOffset;
+    m_nMaxLineCount = nMaxLineCount;
+  }
+
+  /**
+   * @return <code>true</code> if fallback fonts were explicitly provided and replace the fallback
+   *         fonts of the fitted font.
+   */
+  public boolean hasFallbackFonts ()
+  {
+    return m_aFallbackFonts != null;
+  }
+
+  /**
+   * @return A copy of the explicitly provided fallback fonts. May be <code>null</code> if the
+   *         fallback fonts of the fitted font are used.
+   */
+  @Nullable
+  @ReturnsMutableCopy
+  public ICommonsList <LoadedFont> getAllFallbackFonts ()
+  {
+    return m_aFallbackFonts == null ? null : m_aFallbackFonts.getClone ();
+  }
+
+  /**
+   * @return <code>true</code> to use a total fit per paragraph, <code>false</code> to fit greedily.
+   * @see TotalFitLineBreaker
+   */
+  public boolean isTotalFit ()
+  {
+    return m_bTotalFit;
+  }
+
+  /**
+   * @return <code>true</code> to find break opportunities within words as well.
+   * @see UnicodeLineBreaker
+   */
+  public boolean isUnicodeLineBreaking ()
+  {
+    return m_bUnicodeLineBreaking;
+  }
+
+  /**
+   * @return The offset into the text to start fitting at. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getStartOffset ()
+  {
+    return m_nStartOffset;
+  }
+
+  /**
+   * @return The maximum number of lines to fit. Always &gt; 0.
+   */
+  @Nonnegative
+  public int getMaxLineCount ()
+  {
+    return m_nMaxLineCount;
+  }
+
+  /**
+   * @param aFallbackFonts
+   *        The fallback fonts to use. May be <code>null</code> to use the fallback fonts of the
+   *        fitted font.
+   * @return A new object if the fallback fonts differ. Never <code>null</code>.
+   */
+  @NonNull
+  public TextFitSpec getCloneWithFallbackFonts (@Nullable final List <LoadedFont> aFallbackFonts)
+  {
+    if (EqualsHelper.equals (aFallbackFonts, m_aFallbackFonts))
+      return this;
+    return new TextFitSpec (aFallbackFonts, m_bTotalFit, m_bUnicodeLineBreaking, m_nStartOffset, m_nMaxLineCount);
+  }
+
+  /**
+   * @param bTotalFit
+   *        <code>true</code> to use a total fit per paragraph, <code>false</code> to fit greedily.
+   * @return A new object if the value differs. Never <code>null</code>.
+   */
+  @NonNull
+  public TextFitSpec getCloneWithTotalFit (final boolean bTotalFit)
+  {
+    if (bTotalFit == m_bTotalFit)
+      return this;
+    return new TextFitSpec (m_aFallbackFonts, bTotalFit, m_bUnicodeLineBreaking, m_nStartOffset, m_nMaxLineCount);
+  }
+
+  /**
+   * @param bUnicodeLineBreaking
+   *        <code>true</code> to find break opportunities within words as well.
+   * @return A new object if the value differs. Never <code>null</code>.
+   */
+  @NonNull
+  public TextFitSpec getCloneWithUnicodeLineBreaking (final boolean bUnicodeLineBreaking)
+  {
+    if (bUnicodeLineBreaking == m_bUnicodeLineBreaking)
+      return this;
+    return new TextFitSpec (m_aFallbackFonts, m_bTotalFit, bUnicodeLineBreaking, m_nStartOffset, m_nMaxLineCount);
+  }
+
+  /**
+   * @param nStartOffset
+   *        The offset to start fitting at. Must be &ge; 0.
+   * @param nMaxLineCount
+   *        The maximum number of lines to fit. Must be &gt; 0.
+   * @return A new object if the values differ. Never <code>null</code>.
+   */
+  @NonNull
+  public TextFitSpec getCloneWithLineRange (@Nonnegative final int nStartOffset, @Nonnegative final int nMaxLineCount)
+  {
+    if (nStartOffset == m_nStartOffset && nMaxLineCount == m_nMaxLineCount)
+      return this;
+    return new TextFitSpec (m_aFallbackFonts, m_bTotalFit, m_bUnicodeLineBreaking, nStartOffset, nMaxLineCount);
+  }
+
+  @Override
+  public boolean equals (final Object o)
+  {
+    if (o == this)
+      return true;
+    if (o == null || !getClass ().equals (o.getClass ()))
+      return false;
+    final TextFitSpec rhs = (TextFitSpec) o;
+    return EqualsHelper.equals (m_aFallbackFonts, rhs.m_aFallbackFonts) &&
+           m_bTotalFit == rhs.m_bTotalFit &&
+           m_bUnicodeLineBreaking == rhs.m_bUnicodeLineBreaking &&
+           m_nStartOffset == rhs.m_nStartOffset &&
+           m_nMaxLineCount == rhs.m_nMaxLineCount;
+  }
+
+  @Override
+  public int hashCode ()
+  {
+    return new HashCodeGenerator (this).append (m_aFallbackFonts)
+                                       .append (m_bTotalFit)
+                                       .append (m_bUnicodeLineBreaking)
+                                       .append (m_nStartOffset)
+                                       .append (m_nMaxLineCount)
+                                       .getHashCode ();
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).appendIfNotNull ("FallbackFonts", m_aFallbackFonts)
+                                       .append ("TotalFit", m_bTotalFit)
+                                       .append ("UnicodeLineBreaking", m_bUnicodeLineBreaking)
+                                       .append ("StartOffset", m_nStartOffset)
+                                       .append ("MaxLineCount", m_nMaxLineCount)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import java.util.Arrays;
+
+import org.jspecify.annotations.Nullable;
+
+import com.helger.annotation.Nonnegative;
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.enforce.ValueEnforcer;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * A "total fit" paragraph breaker in the style of Knuth and Plass. Contrary to greedy line fitting,
+ * which fills each line as much as possible, all lines of a paragraph are considered together, so
+ * that the space left over on the lines is as even as possible. This looks better for justified
+ * text, because the slack of each line is distributed via the character spacing.<br>
+ * The break candidates of a paragraph must be added in ascending order via
+ * {@link #addBreakCandidate(double, double, boolean)}. All positions are cumulative widths from the
+ * start of the paragraph. The breaks are determined via dynamic programming over the candidates,
+ * where each line may only span at most {@link #getMaxLookBack()} candidates, so that the runtime
+ * is linear in the number of candidates.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@NotThreadSafe
+public final class TotalFitLineBreaker
+{
+  /** The default maximum number of break candidates a single line may span */
+  public static final int DEFAULT_MAX_LOOK_BACK = 128;
+  /** The penalty for breaking within a word, e.g. after a hyphen */
+  public static final double WITHIN_WORD_PENALTY = 50;
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private final double m_dMaxWidth;
+  private final int m_nMaxLookBack;
+  private double [] m_aLineEnd = new double [DEFAULT_CAPACITY];
+  private double [] m_aNextLineStart = new double [DEFAULT_CAPACITY];
+  private boolean [] m_aWithinWord = new boolean [DEFAULT_CAPACITY];
+  private int m_nCount = 0;
+
+  public TotalFitLineBreaker (@Nonnegative final double dMaxWidth)
+  {
+    this (dMaxWidth, DEFAULT_MAX_LOOK_BACK);
+  }
+
+  public TotalFitLineBreaker (@Nonnegative final double dMaxWidth, @Nonnegative final int nMaxLookBack)
+  {
+    ValueEnforcer.isGT0 (dMaxWidth, "MaxWidth");
+    ValueEnforcer.isGT0 (nMaxLookBack, "MaxLookBack");
+    m_dMaxWidth = dMaxWidth;
+    m_nMaxLookBack = nMaxLookBack;
+  }
+
+  /**
+   * @return The maximum width of a line as provided in the constructor.
+   */
+  public double getMaxWidth ()
+  {
+    return m_dMaxWidth;
+  }
+
+  /**
+   * @return The maximum number of break candidates a single line may span. Always &gt; 0.
+   */
+  @Nonnegative
+  public int getMaxLookBack ()
+  {
+    return m_nMaxLookBack;
+  }
+
+  /**
+   * Add a new break candidate. The positions must not be smaller than the ones of the previously
+   * added candidate.
+   *
+   * @param dLineEnd
+   *        The position where a line ends, if it is broken at this candidate.
+   * @param dNextLineStart
+   *        The position where the next line starts, if the line is broken at this candidate. Is
+   *        larger than the line end, if a whitespace is consumed by the break.
+   * @param bWithinWord
+   *        <code>true</code> if this is a break opportunity within a word, which is slightly
+   *        penalized compared to breaking at a whitespace.
+   */
+  public void addBreakCandidate (final double dLineEnd, final double dNextLineStart, final boolean bWithinWord)
+  {
+    if (m_nCount == m_aLineEnd.length)
+    {
+      final int nNewCapacity = m_nCount * 2;
+      m_aLineEnd = Arrays.copyOf (m_aLineEnd, nNewCapacity);
+      m_aNextLineStart = Arrays.copyOf (m_aNextLineStart, nNewCapacity);
+      m_aWithinWord = Arrays.copyOf (m_aWithinWord, nNewCapacity);
+    }
+    m_aLineEnd[m_nCount] = dLineEnd;
+    m_aNextLineStart[m_nCount] = dNextLineStart;
+    m_aWithinWord[m_nCount] = bWithinWord;
+    m_nCount++;
+  }
+
+  /**
+   * @return The number of break candidates added. Always &ge; 0.
+   */
+  @Nonnegative
+  public int getBreakCandidateCount ()
+  {
+    return m_nCount;
+  }
+
+  /**
+   * Remove all break candidates, so that this object can be reused for the next paragraph.
+   */
+  public void reset ()
+  {
+    m_nCount = 0;
+  }
+
+  /**
+   * Get the demerits of a single line. The badness grows with the third power of the relative space
+   * left over, as in TeX. The last line of a paragraph may be as short as it wants.
+   */
+  private double _getDemerits (final double dLineWidth, final boolean bLastLine)
+  {
+    final double dBadness;
+    if (bLastLine)
+      dBadness = 0;
+    else
+    {
+      final double dRatio = (m_dMaxWidth - dLineWidth) / m_dMaxWidth;
+      dBadness = 100 * dRatio * dRatio * dRatio;
+    }
+    return (1 + dBadness) * (1 + dBadness);
+  }
+
+  /**
+   * Determine the break candidates to break the paragraph at, so that the sum of the demerits of all
+   * lines is minimal.
+   *
+   * @param dParagraphWidth
+   *        The position of the end of the paragraph. Must not be smaller than the positions of the
+   *        break candidates.
+   * @return The ascending indices of the break candidates to use, in the order they were added.
+   *         Empty if the whole paragraph fits into a single line. <code>null</code> if the
+   *         paragraph cannot be broken without exceeding the maximum width, e.g. because a single
+   *         word is too long. The caller should fall back to greedy fitting in that case.
+   */
+  @Nullable
+  public int [] getBreaks (final double dParagraphWidth)
+  {
+    // Node 0 is the start of the paragraph, nodes 1 to n are the candidates, node n+1 is the end
+    final int nNodeCount = m_nCount + 2;
+    final double [] aTotalDemerits = new double [nNodeCount];
+    final int [] aPrevNode = new int [nNodeCount];
+    aTotalDemerits[0] = 0;
+    for (int nNode = 1; nNode < nNodeCount; ++nNode)
+    {
+      final boolean bEnd = nNode == nNodeCount - 1;
+      final double dLineEnd = bEnd ? dParagraphWidth : m_aLineEnd[nNode - 1];
+      final double dPenalty = !bEnd && m_aWithinWord[nNode - 1] ? WITHIN_WORD_PENALTY * WITHIN_WORD_PENALTY : 0;
+
+      double dBest = Double.POSITIVE_INFINITY;
+      int nBestPrev = -1;
+      final int nMinPrev = Math.max (0, nNode - m_nMaxLookBack);
+      for (int nPrev = nNode - 1; nPrev >= nMinPrev; --nPrev)
+      {
+        final double dLineWidth = dLineEnd - (nPrev == 0 ? 0 : m_aNextLineStart[nPrev - 1]);
+        if (dLineWidth > m_dMaxWidth)
+        {
+          // Lines starting even earlier are even wider
+          break;
+        }
+        if (aTotalDemerits[nPrev] == Double.POSITIVE_INFINITY)
+          continue;
+        final double dDemerits = aTotalDemerits[nPrev] + _getDemerits (dLineWidth, bEnd) + dPenalty;
+        if (dDemerits < dBest)
+        {
+          dBest = dDemerits;
+          nBestPrev = nPrev;
+        }
+      }
+      aTotalDemerits[nNode] = dBest;
+      aPrevNode[nNode] = nBestPrev;
+    }
+
+    final int nEndNode = nNodeCount - 1;
+    if (aTotalDemerits[nEndNode] == Double.POSITIVE_INFINITY)
+      return null;
+
+    // Walk back from the end
+    int nBreakCount = 0;
+    for (int nNode = aPrevNode[nEndNode]; nNode > 0; nNode = aPrevNode[nNode])
+      nBreakCount++;
+    final int [] ret = new int [nBreakCount];
+    int nIndex = nBreakCount;
+    for (int nNode = aPrevNode[nEndNode]; nNode > 0; nNode = aPrevNode[nNode])
+      ret[--nIndex] = nNode - 1;
+    return ret;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("MaxWidth", m_dMaxWidth)
+                                       .append ("MaxLookBack", m_nMaxLookBack)
+                                       .append ("Count", m_nCount)
+                                       .getToString ();
+  }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import java.util.Arrays;
+
+import org.jspecify.annotations.NonNull;
+
+import com.helger.annotation.concurrent.NotThreadSafe;
+import com.helger.base.tostring.ToStringGenerator;
+
+/**
+ * A line breaker based on the pair table algorithm of Unicode Standard Annex #14 ("Unicode Line
+ * Breaking Algorithm"). The line breaking class of each code point is taken from a lookup table
+ * for the Basic Multilingual Plane, that is built once when the class is initialized: the classes
+ * are derived from the general category ({@link Character#getType(int)}) and overridden for the
+ * code points whose class differs, so no external library is needed. The code points of a line must
+ * be provided one by one via {@link #isBreakOpportunityBefore(int)}.<br>
+ * The following simplifications apply: mandatory breaks are handled by the callers (which split at
+ * "\n" anyway), and complex context dependent scripts (like Thai) are not broken within words,
+ * because that would require a dictionary.<br>
+ * The line fitting of {@link LoadedFont} and of the rich text module only use this class, if it is
+ * enabled for the respective text element (e.g.
+ * {@link com.helger.pdflayout.element.text.AbstractPLText#setUnicodeLineBreaking(boolean)}).
+ * Spaces always stay break opportunities, so that the layout of space separated text does not
+ * change - this class adds the break opportunities within words, e.g. after hyphens and slashes and
+ * between ideographs.
+ *
+ * @author Philip Helger
+ * @since 8.3.4
+ */
+@NotThreadSafe
+public final class UnicodeLineBreaker
+{
+  private static final ELineBreakClass [] CLASSES = ELineBreakClass.values ();
+  private static final int CLASS_COUNT = CLASSES.length;
+  // The ordinals as short names for the rules
+  private static final int OP = ELineBreakClass.OP.ordinal ();
+  private static final int CL = ELineBreakClass.CL.ordinal ();
+  private static final int CP = ELineBreakClass.CP.ordinal ();
+  private static final int QU = ELineBreakClass.QU.ordinal ();
+  private static final int GL = ELineBreakClass.GL.ordinal ();
+  private static final int NS = ELineBreakClass.NS.ordinal ();
+  private static final int EX = ELineBreakClass.EX.ordinal ();
+  private static final int SY = ELineBreakClass.SY.ordinal ();
+  private static final int IS = ELineBreakClass.IS.ordinal ();
+  private static final int PR = ELineBreakClass.PR.ordinal ();
+  private static final int PO = ELineBreakClass.PO.ordinal ();
+  private static final int NU = ELineBreakClass.NU.ordinal ();
+  private static final int AL = ELineBreakClass.AL.ordinal ();
+  private static final int ID = ELineBreakClass.ID.ordinal ();
+  private static final int IN = ELineBreakClass.IN.ordinal ();
+  private static final int HY = ELineBreakClass.HY.ordinal ();
+  private static final int BA = ELineBreakClass.BA.ordinal ();
+  private static final int BB = ELineBreakClass.BB.ordinal ();
+  private static final int B2 = ELineBreakClass.B2.ordinal ();
+  private static final int ZW = ELineBreakClass.ZW.ordinal ();
+  private static final int CM = ELineBreakClass.CM.ordinal ();
+  private static final int WJ = ELineBreakClass.WJ.ordinal ();
+  private static final int SP = ELineBreakClass.SP.ordinal ();
+
+  // The line breaking class ordinal of every BMP code point
+  private static final byte [] BMP_CLASSES = new byte [0x10000];
+  // Per class before the break: bit set of the classes after the break, where a break is allowed if
+  // the two are adjacent or if there are spaces in between
+  private static final int [] BREAK_DIRECT = new int [CLASS_COUNT];
+  private static final int [] BREAK_AFTER_SPACE = new int [CLASS_COUNT];
+
+  static
+  {
+    for (int nCP = 0; nCP < BMP_CLASSES.length; ++nCP)
+      BMP_CLASSES[nCP] = (byte) _getDefaultClass (nCP).ordinal ();
+    _initBMPClasses ();
+    _initPairTable ();
+  }
+
+  @NonNull
+  private static ELineBreakClass _getDefaultClass (final int nCP)
+  {
+    final ELineBreakClass eClass = switch (Character.getType (nCP))
+    {
+      case Character.DECIMAL_DIGIT_NUMBER -> ELineBreakClass.NU;
+      case Character.NON_SPACING_MARK, Character.ENCLOSING_MARK, Character.COMBINING_SPACING_MARK, Character.FORMAT, Character.CONTROL -> ELineBreakClass.CM;
+      case Character.SPACE_SEPARATOR, Character.LINE_SEPARATOR, Character.PARAGRAPH_SEPARATOR -> ELineBreakClass.SP;
+      case Character.START_PUNCTUATION -> ELineBreakClass.OP;
+      case Character.END_PUNCTUATION -> ELineBreakClass.CL;
+      case Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION -> ELineBreakClass.QU;
+      case Character.DASH_PUNCTUATION -> ELineBreakClass.BA;
+      case Character.CURRENCY_SYMBOL -> ELineBreakClass.PR;
+      default -> ELineBreakClass.AL;
+    };
+    if (eClass == ELineBreakClass.AL && _isIdeographic (nCP))
+      return ELineBreakClass.ID;
+    return eClass;
+  }
+
+  private static boolean _isIdeographic (final int nCP)
+  {
+    // CJK radicals, symbols, kana, bopomofo, CJK ideographs, Yi, Hangul, compatibility ideographs,
+    // vertical and fullwidth forms and the supplementary ideographic planes
+    return (nCP >= 0x1100 && nCP <= 0x115F) ||
+           (nCP >= 0x2E80 && nCP <= 0x2FFF) ||
+           (nCP >= 0x3000 && nCP <= 0x9FFF) ||
+           (nCP >= 0xA000 && nCP <= 0xA4CF) ||
+           (nCP >= 0xAC00 && nCP <= 0xD7A3) ||
+           (nCP >= 0xF900 && nCP <= 0xFAFF) ||
+           (nCP >= 0xFE30 && nCP <= 0xFE4F) ||
+           (nCP >= 0xFF00 && nCP <= 0xFF60) ||
+           (nCP >= 0x1F300 && nCP <= 0x1F64F) ||
+           (nCP >= 0x1F900 && nCP <= 0x1F9FF) ||
+           (nCP >= 0x20000 && nCP <= 0x3FFFD);
+  }
+
+  private static void _set (@NonNull final ELineBreakClass eClass, final int... aCodePoints)
+  {
+    for (final int nCP : aCodePoints)
+      BMP_CLASSES[nCP] = (byte) eClass.ordinal ();
+  }
+
+  private static void _setRange (@NonNull final ELineBreakClass eClass, final int nFirst, final int nLast)
+  {
+    Arrays.fill (BMP_CLASSES, nFirst, nLast + 1, (byte) eClass.ordinal ());
+  }
+
+  private static void _initBMPClasses ()
+  {
+    // The classes that differ from the general category based default
+    _set (ELineBreakClass.CP, ')', ']');
+    _set (ELineBreakClass.QU, '"', '\'');
+    _set (ELineBreakClass.GL, 0x00A0, 0x034F, 0x2007, 0x2011, 0x202F);
+    _set (ELineBreakClass.NS, 0x203C, 0x203D, 0x2047, 0x2048, 0x2049, 0x3005, 0x301C, 0x303B, 0x303C, 0x309B);
+    _setRange (ELineBreakClass.NS, 0x309C, 0x309E);
+    _set (ELineBreakClass.NS, 0x30A0, 0x30FB, 0x30FC, 0x30FD, 0x30FE, 0xFF1A, 0xFF1B, 0xFF65, 0xFF70, 0xFF9E, 0xFF9F);
+    // Small kana
+    _set (ELineBreakClass.NS, 0x3041, 0x3043, 0x3045, 0x3047, 0x3049, 0x3063, 0x3083, 0x3085, 0x3087, 0x308E, 0x3095, 0x3096);
+    _set (ELineBreakClass.NS, 0x30A1, 0x30A3, 0x30A5, 0x30A7, 0x30A9, 0x30C3, 0x30E3, 0x30E5, 0x30E7, 0x30EE, 0x30F5, 0x30F6);
+    _setRange (ELineBreakClass.NS, 0x31F0, 0x31FF);
+    _set (ELineBreakClass.EX, '!', '?', 0x05C6, 0x061B, 0x061E, 0x061F, 0x06D4, 0x07F9, 0x0F0D, 0xFF01, 0xFF1F);
+    _set (ELineBreakClass.SY, '/');
+    _set (ELineBreakClass.IS, ',', '.', ':', ';', 0x037E, 0x0589, 0x060C, 0x060D, 0x07F8, 0x2044, 0xFE10, 0xFE13, 0xFE14);
+    _set (ELineBreakClass.PR, '+', '\\', 0x00B1, 0x2116, 0x2212, 0x2213);
+    _set (ELineBreakClass.PO, '%', 0x00A2, 0x00B0, 0x2103, 0x2109, 0xFF05, 0xFFE0);
+    _setRange (ELineBreakClass.PO, 0x2030, 0x2037);
+    _set (ELineBreakClass.OP, 0x00A1, 0x00BF);
+    _set (ELineBreakClass.CL, 0x3001, 0x3002, 0xFE11, 0xFE12, 0xFF0C, 0xFF0E, 0xFF61, 0xFF64);
+    _set (ELineBreakClass.IN, 0x2024, 0x2025, 0x2026, 0xFE19);
+    _set (ELineBreakClass.HY, '-');
+    _set (ELineBreakClass.BA, '\t', '|', 0x00AD, 0x058A, 0x0F0B, 0x1680, 0x2010, 0x2012, 0x2013, 0x205F);
+    _set (ELineBreakClass.BB, 0x00B4, 0x02C8, 0x02CC, 0x02DF, 0x0F01, 0x0F02, 0x0F03, 0x0F04);
+    _set (ELineBreakClass.B2, 0x2014, 0x2E3A, 0x2E3B);
+    _set (ELineBreakClass.ZW, 0x200B);
+    _set (ELineBreakClass.WJ, 0x2060, 0xFEFF);
+    // Mandatory breaks are handled by the caller
+    _set (ELineBreakClass.SP, '\n', '\r', 0x000B, 0x000C, 0x0085);
+  }
+
+  private static void _set (@NonNull final int [] aTable,
+                            @NonNull final boolean [] aDecided,
+                            final int nBefore,
+                            final int nAfter,
+                            final boolean bBreak)
+  {
+    final int nIndex = nBefore * CLASS_COUNT + nAfter;
+    if (!aDecided[nIndex])
+    {
+      // The first rule that applies wins
+      aDecided[nIndex] = true;
+      if (bBreak)
+        aTable[nBefore] |= 1 << nAfter;
+    }
+  }
+
+  private static void _initPairTable ()
+  {
+    // Apply the rules LB8 to LB31 in the order of their priority, separately for adjacent classes
+    // and for classes with spaces in between
+    final boolean [] aDirect = new boolean [CLASS_COUNT * CLASS_COUNT];
+    final boolean [] aSpace = new boolean [CLASS_COUNT * CLASS_COUNT];
+
+    for (int a = 0; a < CLASS_COUNT; ++a)
+      for (int b = 0; b < CLASS_COUNT; ++b)
+      {
+        // LB7: Do not break before spaces or zero width space
+        if (b == SP || b == ZW)
+        {
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+          _set (BREAK_AFTER_SPACE, aSpace, a, b, false);
+        }
+        // LB8: Break before any character following a zero-width space, even if spaces intervene
+        if (a == ZW)
+        {
+          _set (BREAK_DIRECT, aDirect, a, b, true);
+          _set (BREAK_AFTER_SPACE, aSpace, a, b, true);
+        }
+        // LB11: Do not break before or after Word joiner
+        if (b == WJ)
+        {
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+          _set (BREAK_AFTER_SPACE, aSpace, a, b, false);
+        }
+        if (a == WJ)
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+        // LB12: Do not break after NBSP and related characters
+        if (a == GL)
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+        // LB12a: Do not break before NBSP and related characters, except after spaces and hyphens
+        if (b == GL && a != BA && a != HY)
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+        // LB13: Do not break before ']' or '!' or ';' or '/', even after spaces
+        if (b == CL || b == CP || b == EX || b == IS || b == SY)
+        {
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+          _set (BREAK_AFTER_SPACE, aSpace, a, b, false);
+        }
+        // LB14: Do not break after '[', even after spaces
+        // LB15: Do not break within '"[', even with intervening spaces
+        // LB16: Do not break between closing punctuation and a nonstarter, even with intervening
+        // spaces
+        // LB17: Do not break within '--', even with intervening spaces
+        if (a == OP || (a == QU && b == OP) || ((a == CL || a == CP) && b == NS) || (a == B2 && b == B2))
+        {
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+          _set (BREAK_AFTER_SPACE, aSpace, a, b, false);
+        }
+        // LB18: Break after spaces
+        _set (BREAK_AFTER_SPACE, aSpace, a, b, true);
+        // LB19: Do not break before or after quotation marks
+        // LB21: Do not break before hyphen-minus, other hyphens, fixed-width spaces, small kana and
+        // other non-starters, or after acute accents
+        // LB22: Do not break before ellipses
+        if (a == QU || b == QU || b == BA || b == HY || b == NS || a == BB || b == IN)
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+        // LB23: Do not break between digits and letters
+        // LB23a: Do not break between numeric prefixes and ideographs, or between ideographs and
+        // numeric postfixes
+        // LB24: Do not break between numeric prefix/postfix and letters
+        if ((a == AL && b == NU) ||
+            (a == NU && b == AL) ||
+            (a == PR && b == ID) ||
+            (a == ID && b == PO) ||
+            ((a == PR || a == PO) && b == AL) ||
+            (a == AL && (b == PR || b == PO)))
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+        // LB25: Do not break between the following pairs of classes relevant to numbers
+        if (((a == CL || a == CP || a == NU) && (b == PO || b == PR)) ||
+            ((a == PO || a == PR) && (b == OP || b == NU)) ||
+            ((a == HY || a == IS || a == NU || a == SY) && b == NU))
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+        // LB28: Do not break between alphabetics
+        // LB29: Do not break between numeric punctuation and alphabetics
+        // LB30: Do not break between letters, numbers, or ordinary symbols and opening or closing
+        // parentheses
+        if ((a == AL && b == AL) ||
+            (a == IS && b == AL) ||
+            ((a == AL || a == NU) && b == OP) ||
+            (a == CP && (b == AL || b == NU)))
+          _set (BREAK_DIRECT, aDirect, a, b, false);
+        // LB31: Break everywhere else
+        _set (BREAK_DIRECT, aDirect, a, b, true);
+      }
+  }
+
+  private static int _getClassOrdinal (final int nCodePoint)
+  {
+    if (nCodePoint < BMP_CLASSES.length)
+      return BMP_CLASSES[nCodePoint];
+    // Supplementary code points are rare - use the general category
+    if (nCodePoint >= 0x1F3FB && nCodePoint <= 0x1F3FF)
+    {
+      // Emoji modifiers
+      return CM;
+    }
+    return _getDefaultClass (nCodePoint).ordinal ();
+  }
+
+  /**
+   * Get the line breaking class of a code point.
+   *
+   * @param nCodePoint
+   *        The code point to check.
+   * @return The line breaking class. Never <code>null</code>.
+   */
+  @NonNull
+  public static ELineBreakClass getLineBreakClass (final int nCodePoint)
+  {
+    return CLASSES[_getClassOrdinal (nCodePoint)];
+  }
+
+  // The class of the last code point that was not a space, or -1 at the start
+  private int m_nPrevClass = -1;
+  // Were there spaces after the previous class?
+  private boolean m_bSpaceAfterPrev;
+  // Did the previous class follow a space or the start of the line?
+  private boolean m_bPrevAtWordStart;
+
+  public UnicodeLineBreaker ()
+  {}
+
+  /**
+   * Reset to the start of a line.
+   */
+  public void reset ()
+  {
+    m_nPrevClass = -1;
+    m_bSpaceAfterPrev = false;
+    m_bPrevAtWordStart = false;
+  }
+
+  /**
+   * Provide the next code point of the line.
+   *
+   * @param nCodePoint
+   *        The next code point.
+   * @return <code>true</code> if a line break is allowed directly before this code point,
+   *         <code>false</code> if not. Never <code>true</code> for the first code point of a line
+   *         and never for spaces.
+   */
+  public boolean isBreakOpportunityBefore (final int nCodePoint)
+  {
+    int nClass = _getClassOrdinal (nCodePoint);
+    if (nClass == SP)
+    {
+      if (m_nPrevClass >= 0)
+        m_bSpaceAfterPrev = true;
+      return false;
+    }
+
+    if (m_nPrevClass < 0)
+    {
+      // Start of line. LB10: Treat any remaining combining mark as AL
+      m_nPrevClass = nClass == CM ? AL : nClass;
+      m_bSpaceAfterPrev = false;
+      m_bPrevAtWordStart = true;
+      return false;
+    }
+
+    if (nClass == CM)
+    {
+      // LB9: Do not break a combining character sequence
+      if (!m_bSpaceAfterPrev && m_nPrevClass != ZW)
+        return false;
+      // LB10
+      nClass = AL;
+    }
+
+    final boolean bBreak;
+    if (m_bSpaceAfterPrev)
+      bBreak = (BREAK_AFTER_SPACE[m_nPrevClass] & (1 << nClass)) != 0;
+    else
+      if (m_nPrevClass == HY && m_bPrevAtWordStart && nClass == AL)
+      {
+        // LB20a: Do not break after a word-initial hyphen
+        bBreak = false;
+      }
+      else
+        bBreak = (BREAK_DIRECT[m_nPrevClass] & (1 << nClass)) != 0;
+
+    m_bPrevAtWordStart = m_bSpaceAfterPrev;
+    m_nPrevClass = nClass;
+    m_bSpaceAfterPrev = false;
+    return bBreak;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return new ToStringGenerator (null).append ("PrevClass", m_nPrevClass < 0 ? null : CLASSES[m_nPrevClass])
+                                       .append ("SpaceAfterPrev", m_bSpaceAfterPrev)
+                                       .getToString ();
+  }
+}
@@ -16,6 +16,8 @@
  */
 package org.apache.pdfbox.pdmodel;
 
+import java.util.Set;
+
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.jspecify.annotations.NonNull;
 
@@ -34,7 +36,51 @@ public final class PDDocumentHelper
     if (aFont.willBeSubset ())
     {
       // getFontsToSubset is package private
-      aDoc.getFontsToSubset ().add (aFont);
+      final Set <PDFont> aFontsToSubset = aDoc.getFontsToSubset ();
+      // Pages may be rendered concurrently
+      synchronized (aFontsToSubset)
+      {
+        aFontsToSubset.add (aFont);
+      }
+    }
+  }
+
+  /**
+   * Remove the provided font from the fonts to be subset when the document is saved. This is needed
+   * if the font was already subset manually, because subsetting must not happen twice.
+   *
+   * @param aDoc
+   *        The document to use. May not be <code>null</code>.
+   * @param aFont
+   *        The font to remove. May not be <code>null</code>.
+   * @return <code>true</code> if the font was scheduled for subsetting, <code>false</code> if not.
+   * @since 8.3.4
+   */
+  public static boolean removeFontToSubset (@NonNull final PDDocument aDoc, @NonNull final PDFont aFont)
+  {
+    final Set <PDFont> aFontsToSubset = aDoc.getFontsToSubset ();
+    synchronized (aFontsToSubset)
+    {
+      return aFontsToSubset.remove (aFont);
+    }
+  }
+
+  /**
+   * Check if the provided font will be subset when the document is saved.
+   *
+   * @param aDoc
+   *        The document to use. May not be <code>null</code>.
+   * @param aFont
+   *        The font to check. May not be <code>null</code>.
+   * @return <code>true</code> if the font is scheduled for subsetting.
+   * @since 8.3.4
+   */
+  public static boolean isFontToSubset (@NonNull final PDDocument aDoc, @NonNull final PDFont aFont)
+  {
+    final Set <PDFont> aFontsToSubset = aDoc.getFontsToSubset ();
+    synchronized (aFontsToSubset)
+    {
+      return aFontsToSubset.contains (aFont);
     }
   }
 }
@@ -16,17 +16,29 @@
  */
 package com.helger.pdflayout;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 import java.time.ZonedDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.jspecify.annotations.NonNull;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
 
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
 import com.helger.datetime.helper.PDTFactory;
 import com.helger.pdflayout.base.EPLPlaceholder;
 import com.helger.pdflayout.base.PLColor;
@@ -34,6 +46,8 @@ import com.helger.pdflayout.base.PLPageSet;
 import com.helger.pdflayout.element.hbox.PLHBox;
 import com.helger.pdflayout.element.special.PLSpacerX;
 import com.helger.pdflayout.element.special.PLSpacerY;
+import com.helger.pdflayout.element.table.PLTable;
+import com.helger.pdflayout.element.table.PLTableCell;
 import com.helger.pdflayout.element.text.PLText;
 import com.helger.pdflayout.element.vbox.PLVBox;
 import com.helger.pdflayout.spec.BorderStyleSpec;
@@ -298,4 +312,190 @@ public final class PageLayoutPDFTest
     aPageLayout.addPageSet (aPS1);
     PDFTestComparer.renderAndCompare (aPageLayout, new File ("pdf/test-din-letter.pdf"));
   }
+
+  @Test
+  public void testStreamingMode () throws PDFCreationException, IOException
+  {
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+    final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (30);
+    for (int i = 0; i < 200; ++i)
+      aPS1.addElement (new PLText ("Line " + i, r10));
+
+    final PageLayoutPDF aPageLayout = new PageLayoutPDF ().setStreamingMode (true);
+    assertNotNull (aPageLayout.getStreamCacheCreateFunction ());
+    aPageLayout.addPageSet (aPS1);
+
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      aPageLayout.renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        assertTrue (aDoc.getNumberOfPages () > 1);
+      }
+    }
+
+    aPageLayout.setStreamingMode (false);
+    assertNull (aPageLayout.getStreamCacheCreateFunction ());
+  }
+
+  @NonNull
+  private static PageLayoutPDF _createMultiPageSetLayout ()
+  {
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+    final PageLayoutPDF ret = new PageLayoutPDF ();
+    for (int nPS = 0; nPS < 12; ++nPS)
+    {
+      final PLPageSet aPS = new PLPageSet (PDRectangle.A4).setMargin (30);
+      aPS.setPageFooter (new PLText ("Page " + EPLPlaceholder.TOTAL_PAGE_NUMBER.getVariable (), r10).setReplacePlaceholder (true));
+      for (int i = 0; i < 20 + nPS * 10; ++i)
+        aPS.addElement (new PLText ("Account " + nPS + " line " + i + " with some more text to measure", r10));
+      ret.addPageSet (aPS);
+    }
+    return ret;
+  }
+
+  @Test
+  public void testParallelPrepare () throws PDFCreationException, IOException
+  {
+    final int nExpectedPageCount;
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      _createMultiPageSetLayout ().renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        nExpectedPageCount = aDoc.getNumberOfPages ();
+      }
+    }
+
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      final PageLayoutPDF aPageLayout = _createMultiPageSetLayout ().setPrepareExecutor (aES);
+      assertSame (aES, aPageLayout.getPrepareExecutor ());
+      aPageLayout.renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        assertEquals (nExpectedPageCount, aDoc.getNumberOfPages ());
+      }
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test (expected = IllegalStateException.class)
+  public void testParallelPrepareThrowsOriginalException ()
+  {
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try
+    {
+      final PageLayoutPDF aPageLayout = _createMultiPageSetLayout ().setPrepareExecutor (aES);
+      aPageLayout.prepareAllPageSets ();
+      // Page sets cannot be prepared twice - the exception must not be wrapped
+      aPageLayout.prepareAllPageSets ();
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test
+  public void testParallelRender () throws PDFCreationException, IOException
+  {
+    final String sExpectedText;
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      _createMultiPageSetLayout ().renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        sExpectedText = new PDFTextStripper ().getText (aDoc);
+      }
+    }
+
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      final PageLayoutPDF aPageLayout = _createMultiPageSetLayout ().setRenderExecutor (aES);
+      assertSame (aES, aPageLayout.getRenderExecutor ());
+      aPageLayout.renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        // Same text in the same order
+        assertEquals (sExpectedText, new PDFTextStripper ().getText (aDoc));
+      }
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test
+  public void testParallelRenderCustomizerCalledOncePerPage () throws PDFCreationException, IOException
+  {
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      final AtomicInteger aCount = new AtomicInteger (0);
+      final PageLayoutPDF aPageLayout = _createMultiPageSetLayout ().setRenderExecutor (aES);
+      for (final PLPageSet aPS : aPageLayout.getAllPageSets ())
+        aPS.setPreRenderContextCustomizer (aCtx -> aCount.incrementAndGet ());
+      aPageLayout.renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        // Content and header/footer share the same context
+        assertEquals (aDoc.getNumberOfPages (), aCount.get ());
+      }
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @NonNull
+  private static PageLayoutPDF _createRepeatedTableHeaderLayout ()
+  {
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+    final PLPageSet aPS = new PLPageSet (PDRectangle.A4).setMargin (30);
+    final PLTable aTable = PLTable.createWithEvenlySizedColumns (2);
+    aTable.setHeaderRowCount (1);
+    // The header row is the same object on all pages
+    aTable.addRow (new PLTableCell (new PLText ("Header on page " + EPLPlaceholder.TOTAL_PAGE_NUMBER.getVariable (),
+                                                r10).setReplacePlaceholder (true)),
+                   new PLTableCell (new PLText ("Value", r10)));
+    for (int i = 0; i < 300; ++i)
+      aTable.addRow (new PLTableCell (new PLText ("Row " + i, r10)), new PLTableCell (new PLText ("Value " + i, r10)));
+    aPS.addElement (aTable);
+    return new PageLayoutPDF ().addPageSet (aPS);
+  }
+
+  @Test
+  public void testParallelRenderRepeatedTableHeader () throws PDFCreationException, IOException
+  {
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      _createRepeatedTableHeaderLayout ().setRenderExecutor (aES).renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        final int nPageCount = aDoc.getNumberOfPages ();
+        assertTrue (nPageCount > 1);
+        final PDFTextStripper aStripper = new PDFTextStripper ();
+        for (int nPage = 1; nPage <= nPageCount; ++nPage)
+        {
+          // Each page must contain the header with its own page number
+          aStripper.setStartPage (nPage);
+          aStripper.setEndPage (nPage);
+          assertTrue (aStripper.getText (aDoc).contains ("Header on page " + nPage));
+        }
+      }
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
 }
@@ -16,19 +16,33 @@
  */
 package com.helger.pdflayout.base;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
 import java.io.File;
+import java.io.IOException;
 
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.pdfbox.util.Matrix;
+import org.jspecify.annotations.NonNull;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
 
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
 import com.helger.base.string.StringHelper;
 import com.helger.pdflayout.IPDDocumentCustomizer;
 import com.helger.pdflayout.PDFCreationException;
@@ -568,4 +582,67 @@ public final class PLPageSetTest
     aPageLayout.setDocumentCustomizer (aWatermarkCustomizer);
     PDFTestComparer.renderAndCompare (aPageLayout, new File ("pdf/plpageset/watermark.pdf"));
   }
+
+  @NonNull
+  private static PageLayoutPDF _createHeaderFooterLayout (final boolean bAsForm)
+  {
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+    final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (60, 30).setRenderHeaderFooterAsForm (bAsForm);
+    aPS1.setPageHeader (new PLBox (new PLText ("Static page header\nwith two lines", r10).setBorder (PLColor.RED)));
+    aPS1.setPageFooter (new PLText ("Page " +
+                                    EPLPlaceholder.PAGESET_PAGE_NUMBER.getVariable () +
+                                    " of " +
+                                    EPLPlaceholder.PAGESET_PAGE_COUNT.getVariable (),
+                                    r10).setReplacePlaceholder (true));
+    for (int i = 0; i < 250; ++i)
+      aPS1.addElement (new PLText ("Body line " + i, r10));
+    return new PageLayoutPDF ().addPageSet (aPS1);
+  }
+
+  @Test
+  public void testHeaderFooterAsForm () throws PDFCreationException, IOException
+  {
+    final String sExpectedText;
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      _createHeaderFooterLayout (false).renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        sExpectedText = new PDFTextStripper ().getText (aDoc);
+      }
+    }
+
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      _createHeaderFooterLayout (true).renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        assertTrue (aDoc.getNumberOfPages () > 2);
+        // Same text in the same order
+        assertEquals (sExpectedText, new PDFTextStripper ().getText (aDoc));
+
+        // First page has no form
+        assertFalse (aDoc.getPage (0).getResources ().getXObjectNames ().iterator ().hasNext ());
+        // All other pages share the same form for the static header
+        COSBase aHeaderForm = null;
+        for (int i = 1; i < aDoc.getNumberOfPages (); ++i)
+        {
+          final PDResources aRes = aDoc.getPage (i).getResources ();
+          int nForms = 0;
+          for (final COSName aName : aRes.getXObjectNames ())
+          {
+            assertTrue (aRes.isFormXObject (aName));
+            final COSBase aForm = aRes.getXObject (aName).getCOSObject ();
+            if (aHeaderForm == null)
+              aHeaderForm = aForm;
+            else
+              assertSame (aHeaderForm, aForm);
+            nForms++;
+          }
+          // The footer contains placeholders and is therefore not rendered as a form
+          assertEquals (1, nForms);
+        }
+      }
+    }
+  }
 }
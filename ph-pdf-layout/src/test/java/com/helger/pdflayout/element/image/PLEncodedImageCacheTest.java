@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.element.image;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.jspecify.annotations.NonNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
+import com.helger.io.resource.ClassPathResource;
+import com.helger.pdflayout.PDFCreationException;
+import com.helger.pdflayout.PLDebugTestRule;
+import com.helger.pdflayout.PageLayoutPDF;
+import com.helger.pdflayout.base.PLPageSet;
+
+/**
+ * Test class for {@link PLEncodedImageCache}
+ *
+ * @author Philip Helger
+ */
+public final class PLEncodedImageCacheTest
+{
+  @Rule
+  public final TestRule m_aRule = new PLDebugTestRule ();
+
+  private static byte @NonNull [] _render (@NonNull final BufferedImage aImage) throws PDFCreationException,
+                                                                                        IOException
+  {
+    return _render (aImage, PLImage.DEFAULT_IMAGE_MODIFIABLE);
+  }
+
+  private static byte @NonNull [] _render (@NonNull final BufferedImage aImage,
+                                           final boolean bImageModifiable) throws PDFCreationException, IOException
+  {
+    final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (30);
+    aPS1.addElement (new PLImage (aImage, 50, 50).setImageType (EPLImageType.LOSSLESS)
+                                                 .setImageModifiable (bImageModifiable));
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      new PageLayoutPDF ().addPageSet (aPS1).renderTo (aOS);
+      return aOS.toByteArray ();
+    }
+  }
+
+  @NonNull
+  private static BufferedImage _getFirstImage (final byte @NonNull [] aPDF) throws IOException
+  {
+    try (final PDDocument aDoc = Loader.loadPDF (aPDF))
+    {
+      final PDResources aRes = aDoc.getPage (0).getResources ();
+      final COSName aName = aRes.getXObjectNames ().iterator ().next ();
+      return ((PDImageXObject) aRes.getXObject (aName)).getImage ();
+    }
+  }
+
+  @NonNull
+  private static int [] _getPixels (@NonNull final BufferedImage aImage)
+  {
+    return aImage.getRGB (0, 0, aImage.getWidth (), aImage.getHeight (), null, 0, aImage.getWidth ());
+  }
+
+  @Test
+  public void testReuseAcrossDocuments () throws PDFCreationException, IOException
+  {
+    final BufferedImage aImage = ImageIO.read (ClassPathResource.getInputStream ("images/test1.jpg"));
+    final PLEncodedImageCache aCache = new PLEncodedImageCache ();
+    PLEncodedImageCache.setGlobalInstance (aCache);
+    try
+    {
+      final byte [] aPDF1 = _render (aImage);
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (1, aCache.getMissCount ());
+      assertEquals (1, aCache.size ());
+
+      final byte [] aPDF2 = _render (aImage);
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (1, aCache.getMissCount ());
+      assertEquals (1, aCache.size ());
+
+      // The rebuilt image must be identical
+      assertArrayEquals (_getPixels (_getFirstImage (aPDF1)), _getPixels (_getFirstImage (aPDF2)));
+
+      aCache.clear ();
+      assertEquals (0, aCache.size ());
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (0, aCache.getMissCount ());
+    }
+    finally
+    {
+      PLEncodedImageCache.setGlobalInstance (null);
+    }
+  }
+
+  @Test
+  public void testEviction () throws PDFCreationException, IOException
+  {
+    final BufferedImage aImage = ImageIO.read (ClassPathResource.getInputStream ("images/test1.jpg"));
+    // Too small for any image
+    final PLEncodedImageCache aCache = new PLEncodedImageCache (1);
+    PLEncodedImageCache.setGlobalInstance (aCache);
+    try
+    {
+      _render (aImage);
+      _render (aImage);
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (2, aCache.getMissCount ());
+      assertEquals (0, aCache.size ());
+      assertEquals (0, aCache.getCurrentBytes ());
+    }
+    finally
+    {
+      PLEncodedImageCache.setGlobalInstance (null);
+    }
+  }
+
+  @Test
+  public void testReuseOfImageDecodedAgain () throws PDFCreationException, IOException
+  {
+    final PLEncodedImageCache aCache = new PLEncodedImageCache ();
+    PLEncodedImageCache.setGlobalInstance (aCache);
+    try
+    {
+      // Each document decodes the image again
+      _render (ImageIO.read (ClassPathResource.getInputStream ("images/test1.jpg")));
+      _render (ImageIO.read (ClassPathResource.getInputStream ("images/test1.jpg")));
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (1, aCache.getMissCount ());
+      assertEquals (1, aCache.size ());
+      assertTrue (aCache.getCurrentBytes () > PLEncodedImageCache.ENTRY_OVERHEAD_BYTES);
+
+      // Different content
+      final BufferedImage aModified = ImageIO.read (ClassPathResource.getInputStream ("images/test1.jpg"));
+      aModified.setRGB (0, 0, ~aModified.getRGB (0, 0));
+      _render (aModified);
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (2, aCache.getMissCount ());
+      assertEquals (2, aCache.size ());
+    }
+    finally
+    {
+      PLEncodedImageCache.setGlobalInstance (null);
+    }
+  }
+
+  @Test
+  public void testModifiedImage () throws PDFCreationException, IOException
+  {
+    final BufferedImage aImage = ImageIO.read (ClassPathResource.getInputStream ("images/test1.jpg"));
+    final PLEncodedImageCache aCache = new PLEncodedImageCache ();
+    PLEncodedImageCache.setGlobalInstance (aCache);
+    try
+    {
+      final byte [] aPDF1 = _render (aImage);
+      assertEquals (1, aCache.getMissCount ());
+
+      // The hash is remembered per image object, so the modification is not noticed
+      aImage.setRGB (0, 0, ~aImage.getRGB (0, 0));
+      final byte [] aPDF2 = _render (aImage);
+      assertEquals (1, aCache.getHitCount ());
+      assertArrayEquals (_getPixels (_getFirstImage (aPDF1)), _getPixels (_getFirstImage (aPDF2)));
+
+      // A modifiable image is hashed again
+      final byte [] aPDF3 = _render (aImage, true);
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (2, aCache.getMissCount ());
+      assertEquals (2, aCache.size ());
+      assertNotEquals (_getPixels (_getFirstImage (aPDF1))[0], _getPixels (_getFirstImage (aPDF3))[0]);
+
+      // The remembered hash was updated as well
+      _render (aImage);
+      assertEquals (2, aCache.getHitCount ());
+      assertEquals (2, aCache.getMissCount ());
+    }
+    finally
+    {
+      PLEncodedImageCache.setGlobalInstance (null);
+    }
+  }
+}
@@ -16,16 +16,29 @@
  */
 package com.helger.pdflayout.element.image;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 
 import javax.imageio.ImageIO;
 
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
 
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
+import com.helger.collection.commons.CommonsHashSet;
+import com.helger.collection.commons.ICommonsSet;
 import com.helger.io.resource.ClassPathResource;
 import com.helger.pdflayout.PDFCreationException;
 import com.helger.pdflayout.PDFTestComparer;
@@ -34,6 +47,7 @@ import com.helger.pdflayout.PageLayoutPDF;
 import com.helger.pdflayout.base.PLColor;
 import com.helger.pdflayout.base.PLPageSet;
 import com.helger.pdflayout.element.hbox.PLHBox;
+import com.helger.pdflayout.element.special.PLPageBreak;
 import com.helger.pdflayout.element.text.PLText;
 import com.helger.pdflayout.spec.BorderStyleSpec;
 import com.helger.pdflayout.spec.EHorzAlignment;
@@ -101,4 +115,43 @@ public final class PLImageTest
     aPageLayout.addPageSet (aPS1);
     PDFTestComparer.renderAndCompare (aPageLayout, new File ("pdf/plimage/text-over-image.pdf"));
   }
+
+  @Test
+  public void testSameImageIsEmbeddedOnce () throws PDFCreationException, IOException
+  {
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+    final BufferedImage aImage = ImageIO.read (ClassPathResource.getInputStream ("images/test1.jpg"));
+
+    final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (80, 30);
+    aPS1.setPageHeader (new PLImage (aImage, 50, 50));
+    for (int i = 0; i < 5; ++i)
+    {
+      aPS1.addElement (new PLText ("Page " + i, r10));
+      aPS1.addElement (new PLImage (aImage, 20, 20));
+      // Different resource objects with the same content
+      aPS1.addElement (new PLStreamImage (new ClassPathResource ("images/test1.jpg"), 20, 20));
+      aPS1.addElement (new PLPageBreak (false));
+    }
+
+    final PageLayoutPDF aPageLayout = new PageLayoutPDF ();
+    aPageLayout.addPageSet (aPS1);
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      aPageLayout.renderTo (aOS);
+      try (final PDDocument aDoc = Loader.loadPDF (aOS.toByteArray ()))
+      {
+        assertTrue (aDoc.getNumberOfPages () >= 5);
+        final ICommonsSet <COSBase> aImageObjects = new CommonsHashSet <> ();
+        for (final PDPage aPage : aDoc.getPages ())
+        {
+          final PDResources aRes = aPage.getResources ();
+          for (final COSName aName : aRes.getXObjectNames ())
+            aImageObjects.add (aRes.getXObject (aName).getCOSObject ());
+        }
+        // Only one image object for the header and the PLImage elements, and one for the
+        // PLStreamImage elements (JPEG bytes are embedded as is)
+        assertEquals (2, aImageObjects.size ());
+      }
+    }
+  }
 }
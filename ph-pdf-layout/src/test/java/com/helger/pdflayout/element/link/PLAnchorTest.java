@@ -23,6 +23,8 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -180,6 +182,36 @@ public final class PLAnchorTest
     }
   }
 
+  @Test
+  public void testDuplicateAnchorNameKeepsFirstWithParallelRendering () throws PDFCreationException, IOException
+  {
+    final PLPageSet aPS = new PLPageSet (PDRectangle.A4).setMargin (40);
+    for (int i = 0; i < 20; ++i)
+    {
+      if (i > 0)
+        aPS.addElement (new PLPageBreak (true));
+      aPS.addElement (new PLAnchor ("dup"));
+      aPS.addElement (new PLText ("Labelled section " + i, FONT));
+    }
+
+    final ExecutorService aES = Executors.newFixedThreadPool (4);
+    try
+    {
+      final PageLayoutPDF aLayout = new PageLayoutPDF ().addPageSet (aPS).setRenderExecutor (aES);
+      try (final PDDocument aReadDoc = Loader.loadPDF (_renderToBytes (aLayout)))
+      {
+        assertEquals (20, aReadDoc.getNumberOfPages ());
+        final Map <String, PDPageDestination> aDests = _loadNamedDestinations (aReadDoc);
+        assertEquals (1, aDests.size ());
+        assertEquals ("First registration in page order must win", 0, aDests.get ("dup").retrievePageNumber ());
+      }
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
   @Test
   public void testPLInternalLinkProducesGoToAnnotation () throws PDFCreationException, IOException
   {
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.element.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.Test;
+
+import com.helger.collection.commons.ICommonsList;
+import com.helger.font.lato2.EFontResourceLato2;
+import com.helger.pdflayout.PDFCreationException;
+import com.helger.pdflayout.PageLayoutPDF;
+import com.helger.pdflayout.base.PLColor;
+import com.helger.pdflayout.base.PLPageSet;
+import com.helger.pdflayout.element.table.PLTable;
+import com.helger.pdflayout.element.table.PLTableCell;
+import com.helger.pdflayout.spec.FontSpec;
+import com.helger.pdflayout.spec.LoadedFont;
+import com.helger.pdflayout.spec.PreloadFont;
+import com.helger.pdflayout.spec.TextAndWidthSpec;
+import com.helger.pdflayout.spec.TextFitSpec;
+
+/**
+ * Test class for class {@link PLTextFitCache}.
+ *
+ * @author Philip Helger
+ */
+public final class PLTextFitCacheTest
+{
+  @Test
+  public void testBasic () throws IOException
+  {
+    final PLTextFitCache aCache = new PLTextFitCache (2, 10);
+    final FontSpec aFontSpec = new FontSpec (PreloadFont.REGULAR, 10);
+    final TextFitSpec aSpec = TextFitSpec.DEFAULT;
+    final LoadedFont aLoadedFont = new LoadedFont (PreloadFont.REGULAR.loadPDFont (null),
+                                                   PreloadFont.REGULAR.getFallbackCodePoint (),
+                                                   PreloadFont.REGULAR.getFontLineHeight ());
+
+    final ICommonsList <TextAndWidthSpec> aLines = aCache.getFitToWidth (aLoadedFont, aFontSpec, "N/A", 100, aSpec);
+    assertEquals (aLoadedFont.getFitToWidth ("N/A", 10, 100), aLines);
+    assertEquals (0, aCache.getHitCount ());
+    assertEquals (1, aCache.getMissCount ());
+
+    // Hit - but a copy of the list
+    final ICommonsList <TextAndWidthSpec> aLines2 = aCache.getFitToWidth (aLoadedFont, aFontSpec, "N/A", 100, aSpec);
+    assertEquals (aLines, aLines2);
+    assertNotSame (aLines, aLines2);
+    assertSame (aLines.getFirstOrNull (), aLines2.getFirstOrNull ());
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (0.5, aCache.getHitRatio (), 0.0001);
+
+    // Different width and font size are different entries
+    aCache.getFitToWidth (aLoadedFont, aFontSpec, "N/A", 101, aSpec);
+    aCache.getFitToWidth (aLoadedFont, aFontSpec.getCloneWithDifferentFontSize (12), "N/A", 100, aSpec);
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (4, aCache.getMissCount ());
+    // LRU bounded
+    assertEquals (2, aCache.size ());
+
+    // Too long - not cached
+    aCache.getFitToWidth (aLoadedFont, aFontSpec, "This is a long text", 100, aSpec);
+    aCache.getFitToWidth (aLoadedFont, aFontSpec, "This is a long text", 100, aSpec);
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (6, aCache.getMissCount ());
+
+    aCache.clear ();
+    assertEquals (0, aCache.size ());
+    assertEquals (0, aCache.getHitCount ());
+    assertEquals (0, aCache.getMissCount ());
+  }
+
+  @Test
+  public void testKeyedByFont () throws IOException
+  {
+    final PLTextFitCache aCache = new PLTextFitCache ();
+    final FontSpec aFontSpec = new FontSpec (PreloadFont.REGULAR, 10);
+    final TextFitSpec aSpec = TextFitSpec.DEFAULT;
+    final LoadedFont aLoadedFont = new LoadedFont (PreloadFont.REGULAR.loadPDFont (null),
+                                                   PreloadFont.REGULAR.getFallbackCodePoint (),
+                                                   PreloadFont.REGULAR.getFontLineHeight ());
+
+    aCache.getFitToWidth (aLoadedFont, aFontSpec, "N/A", 100, aSpec);
+    // The color has no influence on the lines
+    aCache.getFitToWidth (aLoadedFont, aFontSpec.getCloneWithDifferentColor (PLColor.RED), "N/A", 100, aSpec);
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (1, aCache.getMissCount ());
+
+    // Fallback fonts are part of the key
+    aCache.getFitToWidth (aLoadedFont, aFontSpec.getCloneWithFallbackFonts (PreloadFont.SYMBOL), "N/A", 100, aSpec);
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (2, aCache.getMissCount ());
+    assertEquals (2, aCache.size ());
+
+    // The line breaking mode is part of the key
+    aCache.getFitToWidth (aLoadedFont, aFontSpec, "N/A", 100, aSpec.getCloneWithTotalFit (true));
+    assertEquals (3, aCache.size ());
+
+    // A different font program is a different entry
+    final PreloadFont aLato = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      final LoadedFont aLoadedLato = new LoadedFont (aLato.loadPDFont (aDoc),
+                                                     aLato.getFallbackCodePoint (),
+                                                     aLato.getFontLineHeight ());
+      aCache.getFitToWidth (aLoadedLato, new FontSpec (aLato, 10), "N/A", 100, aSpec);
+    }
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (4, aCache.getMissCount ());
+    assertEquals (4, aCache.size ());
+  }
+
+  @Test
+  public void testGlobalInstanceIsOptIn ()
+  {
+    assertNull (PLTextFitCache.getGlobalInstance ());
+  }
+
+  @Test
+  public void testTableWithRepeatedCells () throws PDFCreationException
+  {
+    final PLTextFitCache aOld = PLTextFitCache.getGlobalInstance ();
+    final PLTextFitCache aCache = new PLTextFitCache ();
+    PLTextFitCache.setGlobalInstance (aCache);
+    try
+    {
+      final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+      final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (40);
+      final PLTable aTable = PLTable.createWithPercentage (25, 25, 50);
+      for (int i = 0; i < 100; ++i)
+        aTable.addRow (new PLTableCell (new PLText ("N/A", r10)),
+                       new PLTableCell (new PLText ("0.00", r10)),
+                       new PLTableCell (new PLText ("Row " + i, r10)));
+      aPS1.addElement (aTable);
+
+      final PageLayoutPDF aPageLayout = new PageLayoutPDF ();
+      aPageLayout.addPageSet (aPS1);
+      aPageLayout.renderTo (new File ("pdf/pltext/fit-cache.pdf"));
+
+      // At least the repeated cells were hits
+      assertTrue (aCache.getHitCount () >= 2 * 99);
+    }
+    finally
+    {
+      PLTextFitCache.setGlobalInstance (aOld);
+    }
+  }
+}
@@ -17,14 +17,19 @@
 package com.helger.pdflayout.element.text;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestRule;
@@ -32,6 +37,7 @@ import org.junit.rules.TestRule;
 import com.helger.base.CGlobal;
 import com.helger.base.string.StringHelper;
 import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.font.alegreya_sans.EFontResourceAlegreyaSans;
 import com.helger.font.anaheim.EFontResourceAnaheim;
 import com.helger.font.api.IHasFontResource;
@@ -50,8 +56,10 @@ import com.helger.pdflayout.PDFCreationException;
 import com.helger.pdflayout.PDFTestComparer;
 import com.helger.pdflayout.PLDebugTestRule;
 import com.helger.pdflayout.PageLayoutPDF;
+import com.helger.pdflayout.base.EPLPlaceholder;
 import com.helger.pdflayout.base.PLColor;
 import com.helger.pdflayout.base.PLPageSet;
+import com.helger.pdflayout.base.PLSplitResult;
 import com.helger.pdflayout.element.box.PLBox;
 import com.helger.pdflayout.element.hbox.PLHBox;
 import com.helger.pdflayout.element.special.PLPageBreak;
@@ -65,6 +73,7 @@ import com.helger.pdflayout.spec.BorderStyleSpec;
 import com.helger.pdflayout.spec.EHorzAlignment;
 import com.helger.pdflayout.spec.FontSpec;
 import com.helger.pdflayout.spec.PreloadFont;
+import com.helger.pdflayout.spec.TextAndWidthSpec;
 import com.helger.pdflayout.spec.WidthSpec;
 
 /**
@@ -763,4 +772,153 @@ public final class PLTextTest
     aPageLayout.addPageSet (aPS1);
     aPageLayout.renderTo (new File ("pdf/pltext/block-alignment-issue69.pdf"));
   }
+
+  @Test
+  public void testFallbackFonts () throws PDFCreationException, IOException
+  {
+    // Helvetica only supports WinAnsi - the rest is taken from Lato and Noto Sans SC
+    final PreloadFont aLato = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    final PreloadFont aNoto = PreloadFont.createEmbedding (EFontResourceNotoSansSC.NOTO_SANS_SC_REGULAR.getFontResource ());
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10).getCloneWithFallbackFonts (aLato, aNoto);
+
+    final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (40);
+    aPS1.addElement (new PLText ("Árvíztűrő tükörfúrógép - Łódź - 中文字体 - Ende", r10));
+    aPS1.addElement (new PLText ("Ein langer Text mit Umlauten wie ő und ű sowie chinesischen Zeichen wie 你好世界, " +
+                                 "der über mehrere Zeilen umbrochen wird. ").repeat (5),
+                                 r10).setHorzAlign (EHorzAlignment.BLOCK));
+
+    final PageLayoutPDF aPageLayout = new PageLayoutPDF ();
+    aPageLayout.addPageSet (aPS1);
+    final File aFile = new File ("pdf/pltext/fallback-fonts.pdf");
+    aPageLayout.renderTo (aFile);
+
+    try (final PDDocument aDoc = Loader.loadPDF (aFile))
+    {
+      // The primary font and both fallback fonts are used
+      final PDResources aResources = aDoc.getPage (0).getResources ();
+      final StringBuilder aFontNames = new StringBuilder ();
+      for (final COSName aFontName : aResources.getFontNames ())
+        aFontNames.append (aResources.getFont (aFontName).getName ()).append (' ');
+      final String sFontNames = aFontNames.toString ();
+      assertTrue (sFontNames, sFontNames.contains ("Helvetica"));
+      assertTrue (sFontNames, sFontNames.contains ("Lato"));
+      assertTrue (sFontNames, sFontNames.contains ("Noto"));
+
+      // The characters missing in Helvetica are taken from the fallback fonts and are not replaced
+      // by the fallback code point. Whitespaces are ignored, as the runs of different fonts may be
+      // separated by the text extraction.
+      final String sText = new PDFTextStripper ().getText (aDoc).replaceAll ("\\s", "");
+      assertTrue (sText, sText.contains ("Árvíztűrőtükörfúrógép"));
+      assertTrue (sText, sText.contains ("Łódź"));
+      assertTrue (sText, sText.contains ("中文字体"));
+      assertTrue (sText, sText.contains ("你好世界"));
+      assertFalse (sText, sText.contains ("?"));
+    }
+  }
+
+  @Test
+  public void testIncrementalPlaceholderReplacement () throws PDFCreationException
+  {
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+    final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (40);
+    for (int i = 0; i < 3; ++i)
+    {
+      if (i > 0)
+        aPS1.addElement (new PLPageBreak (false));
+      aPS1.addElement (new PLText ("Content of page " + (i + 1), r10));
+    }
+
+    final PLText aFooter = new PLText ("This static paragraph is long enough to be wrapped onto more than a single line, " +
+                                       "so that it is fitted only once and reused on every page.\n" +
+                                       "Page " +
+                                       EPLPlaceholder.TOTAL_PAGE_NUMBER.getVariable () +
+                                       " of " +
+                                       EPLPlaceholder.TOTAL_PAGE_COUNT.getVariable (),
+                                       r10).setReplacePlaceholder (true);
+    aPS1.setPageFooter (aFooter);
+
+    final PageLayoutPDF aPageLayout = new PageLayoutPDF ();
+    aPageLayout.addPageSet (aPS1);
+    aPageLayout.renderTo (new File ("pdf/pltext/incremental-placeholders.pdf"));
+
+    // State of the last page
+    final ICommonsList <TextAndWidthSpec> aLines = aFooter.getAllPreparedLinesUnmodified ();
+    assertTrue (aLines.size () > 2);
+    assertEquals ("Page 3 of 3", aLines.getLastOrNull ().getText ());
+    assertTrue (aLines.getLastOrNull ().isDisplayAsNewline ());
+  }
+
+  @Test
+  public void testLazyLayout () throws IOException
+  {
+    final StringBuilder aSB = new StringBuilder ();
+    for (int i = 0; i < 2000; ++i)
+    {
+      aSB.append ("Entry ").append (i).append (" of a very long log file that is wrapped onto multiple lines");
+      aSB.append ((i % 3) == 0 ? '\n' : ' ');
+    }
+    final String sText = aSB.toString ();
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+    final float fWidth = 300;
+    final float fHeight = 500;
+
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      final PreparationContext aCtx = new PreparationContext (new PreparationContextGlobal (aDoc), fWidth, fHeight);
+
+      // Fit everything at once
+      final PLText aEager = new PLText (sText, r10);
+      aEager.prepare (aCtx);
+      final ICommonsList <String> aExpected = new CommonsArrayList <> (aEager.getAllPreparedLinesUnmodified (),
+                                                                       TextAndWidthSpec::getText);
+
+      PLText aLazy = new PLText (sText, r10).setLazyLayout (true);
+      aLazy.prepare (aCtx);
+      assertTrue (aLazy.getPreparedLineCountUnmodified () < aExpected.size ());
+
+      // Split page by page
+      final ICommonsList <String> aActual = new CommonsArrayList <> ();
+      while (true)
+      {
+        final PLSplitResult aResult = aLazy.splitElementVert (fWidth, fHeight);
+        if (!aResult.getSplitResultType ().isSplit ())
+          break;
+        final PLText aFirst = (PLText) aResult.getFirstElement ().getElement ();
+        for (final TextAndWidthSpec aLine : aFirst.getAllPreparedLinesUnmodified ())
+          aActual.add (aLine.getText ());
+        aLazy = (PLText) aResult.getSecondElement ().getElement ();
+        // Only a page window is fitted
+        assertTrue (aLazy.getPreparedLineCountUnmodified () < aExpected.size () / 2);
+      }
+      for (final TextAndWidthSpec aLine : aLazy.getAllPreparedLinesUnmodified ())
+        aActual.add (aLine.getText ());
+      assertTrue (sText.endsWith (aLazy.getText ()));
+
+      assertEquals (aExpected, aActual);
+    }
+  }
+
+  @Test
+  public void testLazyLayoutNotSplit () throws IOException, PDFCreationException
+  {
+    final StringBuilder aSB = new StringBuilder ();
+    for (int i = 0; i < 500; ++i)
+      aSB.append ("Entry ").append (i).append (" of a long text in a box that is not splittable\n");
+    final String sText = aSB.toString ().trim ();
+    final FontSpec r10 = new FontSpec (PreloadFont.REGULAR, 10);
+
+    // The text is never split, because the surrounding box is not splittable
+    final PLText aLazy = new PLText (sText, r10).setLazyLayout (true);
+    final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (30);
+    aPS1.addElement (new PLBox (aLazy).setVertSplittable (false));
+
+    final PageLayoutPDF aPageLayout = new PageLayoutPDF ();
+    aPageLayout.addPageSet (aPS1);
+    aPageLayout.renderTo (new File ("pdf/pltext/lazy-layout-not-split.pdf"));
+
+    // All lines were fitted and rendered
+    assertEquals (500, aLazy.getPreparedLineCountUnmodified ());
+    final ICommonsList <TextAndWidthSpec> aLines = aLazy.getAllPreparedLinesUnmodified ();
+    assertEquals ("Entry 499 of a long text in a box that is not splittable", aLines.getLastOrNull ().getText ());
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.font.lato2.EFontResourceLato2;
+import com.helger.pdflayout.render.PreparationContextGlobal;
+
+/**
+ * Test class for class {@link CodePointCoverage}.
+ *
+ * @author Philip Helger
+ */
+public final class CodePointCoverageTest
+{
+  @Test
+  public void testStandard14 () throws IOException
+  {
+    final CodePointCoverage aCoverage = PreloadFont.REGULAR.getCodePointCoverage ();
+    assertTrue (aCoverage.contains ('A'));
+    assertTrue (aCoverage.contains ('€'));
+    // o with double acute is not WinAnsi
+    assertFalse (aCoverage.contains ('ő'));
+    assertFalse (aCoverage.contains (-1));
+    // Same object
+    assertSame (aCoverage, PreloadFont.REGULAR.getCodePointCoverage ());
+  }
+
+  @Test
+  public void testCustomFont () throws IOException
+  {
+    final PreloadFont aPreloadFont = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    final CodePointCoverage aCoverage = aPreloadFont.getCodePointCoverage ();
+    assertTrue (aCoverage.getCount () > 200);
+    assertTrue (aCoverage.contains ('A'));
+    assertTrue (aCoverage.contains ('ő'));
+    // CJK is not contained
+    assertFalse (aCoverage.contains ('中'));
+  }
+
+  @Test
+  public void testFallbackFonts () throws IOException
+  {
+    final PreloadFont aLato = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    final FontSpec aFontSpec = new FontSpec (PreloadFont.REGULAR, 10).getCloneWithFallbackFonts (aLato);
+    assertTrue (aFontSpec.hasFallbackFonts ());
+    assertEquals (1, aFontSpec.getAllFallbackFonts ().size ());
+    assertNotEquals (new FontSpec (PreloadFont.REGULAR, 10), aFontSpec);
+    // Retained when cloning
+    assertTrue (aFontSpec.getCloneWithDifferentFontSize (12).hasFallbackFonts ());
+    assertFalse (aFontSpec.getCloneWithFallbackFonts ().hasFallbackFonts ());
+
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      final PreparationContextGlobal aCtx = new PreparationContextGlobal (aDoc);
+      final LoadedFont aLoadedFont = aCtx.getLoadedFont (aFontSpec);
+      assertTrue (aLoadedFont.hasFallbackFonts ());
+
+      final LoadedFont aHelvetica = aCtx.getLoadedFont (new FontSpec (PreloadFont.REGULAR, 10));
+      final LoadedFont aLoadedLato = aCtx.getLoadedFont (new FontSpec (aLato, 10));
+      assertFalse (aHelvetica.hasFallbackFonts ());
+
+      assertSame (aLoadedFont, aLoadedFont.getFontForCodePoint ('A'));
+      assertSame (aLoadedLato, aLoadedFont.getFontForCodePoint ('ő'));
+      // Not contained anywhere - primary font
+      assertSame (aLoadedFont, aLoadedFont.getFontForCodePoint ('中'));
+
+      // Widths are taken from the font containing the code point
+      assertEquals (aHelvetica.getStringWidth ("A", 10), aLoadedFont.getStringWidth ("A", 10), 0.0001f);
+      assertEquals (aLoadedLato.getStringWidth ("ő", 10), aLoadedFont.getStringWidth ("ő", 10), 0.0001f);
+
+      // Fallback fonts provided for fitting are the same as the ones of the font
+      final TextFitSpec aFitSpec = TextFitSpec.DEFAULT.getCloneWithFallbackFonts (new CommonsArrayList <> (aLoadedLato));
+      assertEquals (aLoadedFont.getFitToWidth ("őőő ő", 10, 20), aHelvetica.getFitToWidth ("őőő ő", 10, 20, aFitSpec));
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import com.helger.font.lato2.EFontResourceLato2;
+import com.helger.pdflayout.render.PreparationContextGlobal;
+
+/**
+ * Test class for class {@link CodePointWidthCache}.
+ *
+ * @author Philip Helger
+ */
+public final class CodePointWidthCacheTest
+{
+  @Test
+  public void testBasic ()
+  {
+    final CodePointWidthCache aCache = new CodePointWidthCache ();
+    assertEquals (0, aCache.size ());
+    assertEquals (CodePointWidthCache.NOT_CACHED, aCache.getWidth ('a'), 0f);
+
+    aCache.putWidth ('a', 556f);
+    assertEquals (1, aCache.size ());
+    assertEquals (556f, aCache.getWidth ('a'), 0f);
+    assertEquals (CodePointWidthCache.NOT_CACHED, aCache.getWidth ('b'), 0f);
+
+    aCache.clear ();
+    assertEquals (0, aCache.size ());
+    assertEquals (CodePointWidthCache.NOT_CACHED, aCache.getWidth ('a'), 0f);
+  }
+
+  @Test
+  public void testBMPAndSupplementary ()
+  {
+    final CodePointWidthCache aCache = new CodePointWidthCache ();
+    // Zero width must be distinguishable from "not cached"
+    aCache.putWidth ('\u200b', 0f);
+    aCache.putWidth (Character.MAX_VALUE, 123.25f);
+    aCache.putWidth (0x1F600, 1000f);
+    assertEquals (3, aCache.size ());
+    assertEquals (0f, aCache.getWidth ('\u200b'), 0f);
+    assertEquals (123.25f, aCache.getWidth (Character.MAX_VALUE), 0f);
+    assertEquals (1000f, aCache.getWidth (0x1F600), 0f);
+    assertEquals (CodePointWidthCache.NOT_CACHED, aCache.getWidth ('\u200c'), 0f);
+    assertEquals (CodePointWidthCache.NOT_CACHED, aCache.getWidth (0x1F601), 0f);
+
+    // Overwriting does not change the size
+    aCache.putWidth ('\u200b', 0f);
+    assertEquals (3, aCache.size ());
+  }
+
+  @Test
+  public void testSharedBetweenDocuments () throws IOException
+  {
+    final PreloadFont aPreloadFont = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    final FontSpec aFontSpec = new FontSpec (aPreloadFont, 10);
+    final CodePointWidthCache aCache = aPreloadFont.getCodePointWidthCache ();
+    assertEquals (0, aCache.size ());
+
+    final float fWidth1;
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      final LoadedFont aLF = new PreparationContextGlobal (aDoc).getLoadedFont (aFontSpec);
+      fWidth1 = aLF.getStringWidth ("Hello world", 10);
+      assertTrue (fWidth1 > 0);
+    }
+    // "Hello world" has 8 distinct code points
+    assertEquals (8, aCache.size ());
+
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      final LoadedFont aLF = new PreparationContextGlobal (aDoc).getLoadedFont (aFontSpec);
+      // Same result, no new entries
+      assertEquals (fWidth1, aLF.getStringWidth ("Hello world", 10), 0.0001f);
+      assertEquals (8, aCache.size ());
+    }
+
+    // Standard fonts share the cache as well
+    assertSame (PreloadFont.REGULAR.getCodePointWidthCache (), PreloadFont.REGULAR.getCodePointWidthCache ());
+    assertNotSame (PreloadFont.REGULAR.getCodePointWidthCache (), PreloadFont.REGULAR_BOLD.getCodePointWidthCache ());
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Test class for class {@link FittedTextLines}.
+ *
+ * @author Philip Helger
+ */
+public final class FittedTextLinesTest
+{
+  private static LoadedFont _createFont () throws IOException
+  {
+    return new LoadedFont (PreloadFont.REGULAR.loadPDFont (null),
+                           PreloadFont.REGULAR.getFallbackCodePoint (),
+                           PreloadFont.REGULAR.getFontLineHeight ());
+  }
+
+  @Test
+  public void testEmpty () throws IOException
+  {
+    final LoadedFont aFont = _createFont ();
+    assertEquals (0, aFont.getFitToWidthOffsets (null, 10, 100, TextFitSpec.DEFAULT).getLineCount ());
+    assertEquals (0, aFont.getFitToWidthOffsets ("", 10, 100, TextFitSpec.DEFAULT).getLineCount ());
+  }
+
+  @Test
+  public void testOffsets () throws IOException
+  {
+    final LoadedFont aFont = _createFont ();
+    final String sText = "Hello World\nSecond\n";
+    final FittedTextLines aLines = aFont.getFitToWidthOffsets (sText, 10, 1000, TextFitSpec.DEFAULT);
+    assertEquals (3, aLines.getLineCount ());
+    assertEquals (0, aLines.getLineStartOffset (0));
+    assertEquals (11, aLines.getLineEndOffset (0));
+    assertEquals ("Hello World", aLines.getLineText (0));
+    assertEquals (aFont.getStringWidth ("Hello World", 10), aLines.getLineWidth (0), 0.0001f);
+    assertTrue (aLines.isLineDisplayAsNewline (0));
+    assertEquals (12, aLines.getLineStartOffset (1));
+    assertEquals ("Second", aLines.getLineText (1));
+    // Trailing empty line
+    assertEquals ("", aLines.getLineText (2));
+    assertEquals (0f, aLines.getLineWidth (2), 0f);
+  }
+
+  @Test
+  public void testWrapping () throws IOException
+  {
+    final LoadedFont aFont = _createFont ();
+    final String sText = "aaa bbb ccc";
+    // Room for "aaa bbb" but not for "aaa bbb ccc"
+    final float fMaxWidth = aFont.getStringWidth ("aaa bbb", 10) + 1;
+    final FittedTextLines aLines = aFont.getFitToWidthOffsets (sText, 10, fMaxWidth, TextFitSpec.DEFAULT);
+    assertEquals (2, aLines.getLineCount ());
+    assertEquals ("aaa bbb", aLines.getLineText (0));
+    assertFalse (aLines.isLineDisplayAsNewline (0));
+    assertEquals ("ccc", aLines.getLineText (1));
+    assertEquals (8, aLines.getLineStartOffset (1));
+    assertTrue (aLines.isLineDisplayAsNewline (1));
+
+    // Word longer than the line
+    final FittedTextLines aSplit = aFont.getFitToWidthOffsets ("abcdabcdab",
+                                                               10,
+                                                               aFont.getStringWidth ("abcd", 10) + 0.1f,
+                                                               TextFitSpec.DEFAULT);
+    assertEquals ("abcd", aSplit.getLineText (0));
+    assertEquals ("abcd", aSplit.getLineText (1));
+    assertEquals ("ab", aSplit.getLineText (2));
+  }
+
+  @Test
+  public void testSameAsTextAndWidthSpec () throws IOException
+  {
+    final LoadedFont aFont = _createFont ();
+    final String sText = "Lorem ipsum dolor sit amet, consetetur sadipscing elitr, sed diam nonumy eirmod tempor\n\n" +
+                         "invidunt ut labore et dolore magna aliquyam erat, sed diam voluptua.";
+    final FittedTextLines aLines = aFont.getFitToWidthOffsets (sText, 10, 120, TextFitSpec.DEFAULT);
+    final ICommonsList <TextAndWidthSpec> aSpecs = aFont.getFitToWidth (sText, 10, 120);
+    assertEquals (aLines.getLineCount (), aSpecs.size ());
+    for (int i = 0; i < aSpecs.size (); ++i)
+    {
+      final TextAndWidthSpec aSpec = aSpecs.get (i);
+      assertEquals (aLines.getLineEndOffset (i) - aLines.getLineStartOffset (i), aSpec.getTextLength ());
+      assertEquals (aLines.getLineText (i), aSpec.getText ());
+      assertEquals (aLines.getLineWidth (i), aSpec.getWidth (), 0f);
+      assertEquals (aLines.isLineDisplayAsNewline (i), aSpec.isDisplayAsNewline ());
+      // Same as a materialized one
+      assertEquals (new TextAndWidthSpec (aSpec.getText (), aSpec.getWidth (), aSpec.isDisplayAsNewline ()), aSpec);
+    }
+  }
+
+  @Test
+  public void testContinueFitting () throws IOException
+  {
+    final LoadedFont aFont = _createFont ();
+    final String sText = "Lorem ipsum dolor sit amet, consetetur sadipscing elitr, sed diam nonumy eirmod tempor\n\n" +
+                         "invidunt ut labore et dolore magna aliquyam erat, sed diam voluptua.\n";
+    final FittedTextLines aAll = aFont.getFitToWidthOffsets (sText, 10, 120, TextFitSpec.DEFAULT);
+    assertTrue (aAll.isComplete ());
+    assertEquals (-1, aAll.getNextOffset ());
+
+    for (int nMaxLines = 1; nMaxLines <= aAll.getLineCount (); ++nMaxLines)
+    {
+      // Fit in chunks and compare with fitting everything at once
+      int nLineIndex = 0;
+      int nOffset = 0;
+      while (true)
+      {
+        final FittedTextLines aPart = aFont.getFitToWidthOffsets (sText,
+                                                                  10,
+                                                                  120,
+                                                                  TextFitSpec.DEFAULT.getCloneWithLineRange (nOffset,
+                                                                                                             nMaxLines));
+        assertTrue (aPart.getLineCount () <= nMaxLines);
+        for (int i = 0; i < aPart.getLineCount (); ++i)
+        {
+          assertEquals (aAll.getLineStartOffset (nLineIndex), aPart.getLineStartOffset (i));
+          assertEquals (aAll.getLineEndOffset (nLineIndex), aPart.getLineEndOffset (i));
+          assertEquals (aAll.getLineWidth (nLineIndex), aPart.getLineWidth (i), 0f);
+          assertEquals (aAll.isLineDisplayAsNewline (nLineIndex), aPart.isLineDisplayAsNewline (i));
+          nLineIndex++;
+        }
+        if (aPart.isComplete ())
+          break;
+        assertEquals (nMaxLines, aPart.getLineCount ());
+        nOffset = aPart.getNextOffset ();
+      }
+      assertEquals (aAll.getLineCount (), nLineIndex);
+    }
+  }
+
+  @Test
+  public void testUnicodeLineBreaking () throws IOException
+  {
+    final LoadedFont aFont = _createFont ();
+    final String sText = "aaaa-bbbb";
+    // Room for "aaaa-bb" but not for the whole word
+    final float fMaxWidth = aFont.getStringWidth ("aaaa-bb", 10) + 0.1f;
+
+    final TextFitSpec aUnicodeSpec = TextFitSpec.DEFAULT.getCloneWithUnicodeLineBreaking (true);
+
+    // Default: the word is split where the line is full
+    FittedTextLines aLines = aFont.getFitToWidthOffsets (sText, 10, fMaxWidth, TextFitSpec.DEFAULT);
+    assertEquals (2, aLines.getLineCount ());
+    assertEquals ("aaaa-bb", aLines.getLineText (0));
+    assertEquals ("bb", aLines.getLineText (1));
+
+    // Split after the hyphen
+    aLines = aFont.getFitToWidthOffsets (sText, 10, fMaxWidth, aUnicodeSpec);
+    assertEquals (2, aLines.getLineCount ());
+    assertEquals ("aaaa-", aLines.getLineText (0));
+    assertEquals (aFont.getStringWidth ("aaaa-", 10), aLines.getLineWidth (0), 0.0001f);
+    assertFalse (aLines.isLineDisplayAsNewline (0));
+    assertEquals ("bbbb", aLines.getLineText (1));
+
+    // Same result when fitting only a part of the text
+    aLines = aFont.getFitToWidthOffsets (sText, 10, fMaxWidth, aUnicodeSpec.getCloneWithLineRange (0, 1));
+    assertEquals (1, aLines.getLineCount ());
+    assertEquals ("aaaa-", aLines.getLineText (0));
+
+    // Spaces still work as before
+    aLines = aFont.getFitToWidthOffsets ("aaa bbb ccc", 10, aFont.getStringWidth ("aaa bbb", 10) + 1, aUnicodeSpec);
+    assertEquals (2, aLines.getLineCount ());
+    assertEquals ("aaa bbb", aLines.getLineText (0));
+    assertEquals ("ccc", aLines.getLineText (1));
+  }
+
+  @Test
+  public void testTotalFit () throws IOException
+  {
+    final LoadedFont aFont = _createFont ();
+    final String sText = "aaa bb cc ddddd\naaa bb cc ddddd";
+    final float fMaxWidth = aFont.getStringWidth ("aaa bb", 10) + 0.1f;
+
+    // Greedy fills the first line
+    FittedTextLines aLines = aFont.getFitToWidthOffsets (sText, 10, fMaxWidth, TextFitSpec.DEFAULT);
+    assertEquals (6, aLines.getLineCount ());
+    assertEquals ("aaa bb", aLines.getLineText (0));
+    assertEquals ("cc", aLines.getLineText (1));
+    assertEquals ("ddddd", aLines.getLineText (2));
+
+    // Total fit evens out the lines of each paragraph
+    aLines = aFont.getFitToWidthOffsets (sText, 10, fMaxWidth, TextFitSpec.DEFAULT.getCloneWithTotalFit (true));
+    assertEquals (6, aLines.getLineCount ());
+    for (int i = 0; i < 6; i += 3)
+    {
+      assertEquals ("aaa", aLines.getLineText (i));
+      assertEquals (aFont.getStringWidth ("aaa", 10), aLines.getLineWidth (i), 0.001f);
+      assertFalse (aLines.isLineDisplayAsNewline (i));
+      assertEquals ("bb cc", aLines.getLineText (i + 1));
+      assertFalse (aLines.isLineDisplayAsNewline (i + 1));
+      assertEquals ("ddddd", aLines.getLineText (i + 2));
+      assertTrue (aLines.isLineDisplayAsNewline (i + 2));
+    }
+    assertEquals (4, aLines.getLineStartOffset (1));
+    assertEquals (16, aLines.getLineStartOffset (3));
+
+    // Words that are too long are split greedily
+    final String sLong = "abcdabcdab";
+    final float fNarrow = aFont.getStringWidth ("abcd", 10) + 0.1f;
+    assertEquals (aFont.getFitToWidth (sLong, 10, fNarrow),
+                  aFont.getFitToWidth (sLong, 10, fNarrow, TextFitSpec.DEFAULT.getCloneWithTotalFit (true)));
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testTotalFitOnlyForWholeText ()
+  {
+    // Total fit cannot be continued later on
+    TextFitSpec.DEFAULT.getCloneWithTotalFit (true).getCloneWithLineRange (0, 1);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.font.lato2.EFontResourceLato2;
+import com.helger.font.open_sans.EFontResourceOpenSans;
+
+/**
+ * Test class for class {@link FontMetricsSnapshot}.
+ *
+ * @author Philip Helger
+ */
+public final class FontMetricsSnapshotTest
+{
+  @Test
+  public void testRoundTrip () throws IOException
+  {
+    final PreloadFont aLato = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    final PreloadFont aOpenSans = PreloadFont.createEmbedding (EFontResourceOpenSans.OPEN_SANS_NORMAL.getFontResource ());
+    final FontMetricsSnapshot aSnapshot = FontMetricsSnapshot.create (new CommonsArrayList <> (aLato,
+                                                                                              aOpenSans,
+                                                                                              PreloadFont.REGULAR));
+    // Standard 14 fonts are skipped
+    assertEquals (2, aSnapshot.size ());
+    assertEquals (new CommonsArrayList <> (aLato.getID (), aOpenSans.getID ()), aSnapshot.getAllFontIDs ());
+
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    aSnapshot.writeTo (aBAOS);
+    final FontMetricsSnapshot aRead = FontMetricsSnapshot.readFrom (new ByteArrayInputStream (aBAOS.toByteArray ()));
+    assertEquals (2, aRead.size ());
+
+    final FontMetricsSnapshot.FontMetrics aOrig = aSnapshot.getFontMetrics (aLato.getID ());
+    final FontMetricsSnapshot.FontMetrics aCopy = aRead.getFontMetrics (aLato.getID ());
+    assertNotNull (aCopy);
+    assertArrayEquals (aOrig.getFontDirectoryDigest (), aCopy.getFontDirectoryDigest ());
+    assertEquals (aOrig.getLineHeightHHEA (), aCopy.getLineHeightHHEA (), 0f);
+    assertEquals (aOrig.getLineHeightOS2 (), aCopy.getLineHeightOS2 (), 0f);
+    assertEquals (aLato.getCodePointCoverage ().getCount (), aCopy.getCodePointCount ());
+    assertTrue (aCopy.getAdvanceWidth ('A') > 0);
+    assertEquals (aOrig.getAdvanceWidth ('A'), aCopy.getAdvanceWidth ('A'), 0f);
+    assertEquals (aOrig.getAdvanceWidth ('ő'), aCopy.getAdvanceWidth ('ő'), 0f);
+    assertEquals (-1, aCopy.getAdvanceWidth ('中'), 0f);
+  }
+
+  @Test
+  public void testApplyWithoutParsing () throws IOException
+  {
+    final PreloadFont aSource = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    FontMetricsSnapshot.create (new CommonsArrayList <> (aSource)).writeTo (aBAOS);
+    final FontMetricsSnapshot aSnapshot = FontMetricsSnapshot.readFrom (new ByteArrayInputStream (aBAOS.toByteArray ()));
+
+    // Simulates a new process
+    final PreloadFont aFresh = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    assertEquals (1, aSnapshot.applyTo (new CommonsArrayList <> (aFresh, PreloadFont.REGULAR)));
+    assertTrue (aFresh.hasFontMetricsApplied ());
+
+    // Measuring related information is available without parsing
+    assertTrue (aFresh.setUseFontLineHeightFromHHEA ().isSuccess ());
+    assertTrue (aFresh.getFontLineHeight () > 0);
+    assertEquals (aSource.getCodePointCoverage ().getCount (), aFresh.getCodePointCoverage ().getCount ());
+    assertTrue (aFresh.getCodePointWidthCache ().getWidth ('W') > 0);
+    assertFalse (aFresh.isParsed ());
+
+    // Widths are the same as measured with the font program
+    final String sText = "Árvíztűrő tükörfúrógép - Quick brown fox 123";
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      final LoadedFont aMeasured = new LoadedFont (aSource.loadPDFont (aDoc),
+                                                   aSource.getFallbackCodePoint (),
+                                                   aSource.getFontLineHeight ());
+      final LoadedFont aFromSnapshot = new LoadedFont (aFresh.loadPDFont (aDoc),
+                                                       aFresh.getFallbackCodePoint (),
+                                                       aFresh.getFontLineHeight (),
+                                                       aFresh.getCodePointWidthCache (),
+                                                       null,
+                                                       aFresh.getCodePointCoverage ());
+      assertEquals (aMeasured.getStringWidth (sText, 10), aFromSnapshot.getStringWidth (sText, 10), 0.0001f);
+      assertEquals (aMeasured.getDescent (10), aFromSnapshot.getDescent (10), 0.0001f);
+    }
+  }
+
+  @Test
+  public void testDifferentFontProgramIsIgnored () throws IOException
+  {
+    final PreloadFont aSource = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    final ByteArrayOutputStream aBAOS = new ByteArrayOutputStream ();
+    FontMetricsSnapshot.create (new CommonsArrayList <> (aSource)).writeTo (aBAOS);
+    final byte [] aBytes = aBAOS.toByteArray ();
+
+    // Modify the first byte of the table directory hash: magic, version, font count and ID come first
+    final int nDigestOffset = 4 + 4 + 4 + 2 + aSource.getID ().getBytes (StandardCharsets.UTF_8).length;
+    aBytes[nDigestOffset] ^= 0x01;
+    final FontMetricsSnapshot aSnapshot = FontMetricsSnapshot.readFrom (new ByteArrayInputStream (aBytes));
+    assertEquals (1, aSnapshot.size ());
+
+    final PreloadFont aFresh = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    assertEquals (0, aSnapshot.applyTo (new CommonsArrayList <> (aFresh)));
+    assertFalse (aFresh.hasFontMetricsApplied ());
+  }
+}
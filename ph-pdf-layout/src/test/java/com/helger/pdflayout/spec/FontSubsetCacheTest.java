@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import com.helger.base.io.nonblocking.NonBlockingByteArrayOutputStream;
+import com.helger.font.lato2.EFontResourceLato2;
+import com.helger.pdflayout.IPDDocumentCustomizer;
+import com.helger.pdflayout.PDFCreationException;
+import com.helger.pdflayout.PLDebugTestRule;
+import com.helger.pdflayout.PageLayoutPDF;
+import com.helger.pdflayout.base.PLPageSet;
+import com.helger.pdflayout.element.text.PLText;
+import com.helger.pdflayout.pdfbox.PDPageContentStreamWithCache;
+
+/**
+ * Test class for {@link FontSubsetCache}
+ *
+ * @author Philip Helger
+ */
+public final class FontSubsetCacheTest
+{
+  @Rule
+  public final TestRule m_aRule = new PLDebugTestRule ();
+
+  private static final PreloadFont FONT = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+
+  private static byte @NonNull [] _render (@NonNull final String sText) throws PDFCreationException, IOException
+  {
+    return _render (sText, null);
+  }
+
+  private static byte @NonNull [] _render (@NonNull final String sText,
+                                           @Nullable final IPDDocumentCustomizer aCustomizer) throws PDFCreationException,
+                                                                                              IOException
+  {
+    final PLPageSet aPS1 = new PLPageSet (PDRectangle.A4).setMargin (30);
+    aPS1.addElement (new PLText (sText, new FontSpec (FONT, 12)));
+    try (final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      new PageLayoutPDF ().addPageSet (aPS1).setDocumentCustomizer (aCustomizer).renderTo (aOS);
+      return aOS.toByteArray ();
+    }
+  }
+
+  /**
+   * Draw the first text via {@link LoadedFont} and the second text directly via
+   * {@link com.helger.pdflayout.pdfbox.PDPageContentStreamExt#showText(String)} and subset the
+   * font with the provided cache.
+   */
+  private static byte @NonNull [] _renderManually (@NonNull final FontSubsetCache aCache,
+                                                   @NonNull final String sLoadedFontText,
+                                                   @NonNull final String sShowText) throws IOException
+  {
+    try (final PDDocument aDoc = new PDDocument ();
+         final NonBlockingByteArrayOutputStream aOS = new NonBlockingByteArrayOutputStream ())
+    {
+      final PDPage aPage = new PDPage (PDRectangle.A4);
+      aDoc.addPage (aPage);
+      final LoadedFont aLoadedFont = new LoadedFont (FONT.loadPDFont (aDoc), FONT.getFallbackCodePoint (), -1);
+      final PDPageContentStreamWithCache aCS = new PDPageContentStreamWithCache (aDoc,
+                                                                                 aPage,
+                                                                                 PDPageContentStream.AppendMode.OVERWRITE,
+                                                                                 false);
+      aCS.beginText ();
+      aCS.setFont (aLoadedFont, new FontSpec (FONT, 12));
+      aCS.moveTextPositionByAmount (50, 700);
+      aCS.drawString (sLoadedFontText);
+      aCS.getContentStream ().showText (sShowText);
+      aCS.endText ();
+      aCS.close ();
+      aCache.subsetFont (aDoc, FONT, aLoadedFont);
+      aDoc.save (aOS);
+      return aOS.toByteArray ();
+    }
+  }
+
+  @NonNull
+  private static String _getText (final byte @NonNull [] aPDF) throws IOException
+  {
+    try (final PDDocument aDoc = Loader.loadPDF (aPDF))
+    {
+      return new PDFTextStripper ().getText (aDoc).trim ();
+    }
+  }
+
+  @Test
+  public void testReuseAcrossDocuments () throws PDFCreationException, IOException
+  {
+    final FontSubsetCache aCache = new FontSubsetCache ();
+    FontSubsetCache.setGlobalInstance (aCache);
+    try
+    {
+      final byte [] aPDF1 = _render ("Invoice 4711");
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (1, aCache.getMissCount ());
+      assertEquals (1, aCache.size ());
+
+      // Same glyphs in a different order
+      final byte [] aPDF2 = _render ("Invoice 1147");
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (1, aCache.getMissCount ());
+      assertEquals (1, aCache.size ());
+
+      // Different glyphs
+      final byte [] aPDF3 = _render ("Invoice 0815");
+      assertEquals (1, aCache.getHitCount ());
+      assertEquals (2, aCache.getMissCount ());
+      assertEquals (2, aCache.size ());
+
+      // The text must be extractable from the restored subsets
+      assertEquals ("Invoice 4711", _getText (aPDF1));
+      assertEquals ("Invoice 1147", _getText (aPDF2));
+      assertEquals ("Invoice 0815", _getText (aPDF3));
+
+      aCache.clear ();
+      assertEquals (0, aCache.size ());
+      assertEquals (0, aCache.getCurrentBytes ());
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (0, aCache.getMissCount ());
+    }
+    finally
+    {
+      FontSubsetCache.setGlobalInstance (null);
+    }
+  }
+
+  @Test
+  public void testEviction () throws PDFCreationException, IOException
+  {
+    // Too small for any font
+    final FontSubsetCache aCache = new FontSubsetCache (1);
+    FontSubsetCache.setGlobalInstance (aCache);
+    try
+    {
+      _render ("Invoice 4711");
+      final byte [] aPDF = _render ("Invoice 4711");
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (2, aCache.getMissCount ());
+      assertEquals (0, aCache.size ());
+      assertEquals (0, aCache.getCurrentBytes ());
+      assertEquals ("Invoice 4711", _getText (aPDF));
+    }
+    finally
+    {
+      FontSubsetCache.setGlobalInstance (null);
+    }
+  }
+
+  @Test
+  public void testCodePointsAddedViaShowText () throws IOException
+  {
+    final FontSubsetCache aCache = new FontSubsetCache ();
+
+    final byte [] aPDF1 = _renderManually (aCache, "Invoice", " 4711");
+    assertEquals (0, aCache.getHitCount ());
+    assertEquals (1, aCache.getMissCount ());
+
+    // Same code points in total, split differently
+    final byte [] aPDF2 = _renderManually (aCache, "Invoice 4", "711");
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (1, aCache.getMissCount ());
+
+    // Same code points via LoadedFont, but additional ones via showText
+    final byte [] aPDF3 = _renderManually (aCache, "Invoice", " 4711 XYZ");
+    assertEquals (1, aCache.getHitCount ());
+    assertEquals (2, aCache.getMissCount ());
+
+    // All glyphs must be present in the subsets
+    assertEquals ("Invoice 4711", _getText (aPDF1));
+    assertEquals ("Invoice 4711", _getText (aPDF2));
+    assertEquals ("Invoice 4711 XYZ", _getText (aPDF3));
+  }
+
+  @Test
+  public void testNotUsedWithDocumentCustomizer () throws PDFCreationException, IOException
+  {
+    final FontSubsetCache aCache = new FontSubsetCache ();
+    FontSubsetCache.setGlobalInstance (aCache);
+    try
+    {
+      final byte [] aPDF = _render ("Invoice 4711", aDoc -> {});
+      assertEquals (0, aCache.getHitCount ());
+      assertEquals (0, aCache.getMissCount ());
+      assertEquals (0, aCache.size ());
+      assertEquals ("Invoice 4711", _getText (aPDF));
+    }
+    finally
+    {
+      FontSubsetCache.setGlobalInstance (null);
+    }
+  }
+}
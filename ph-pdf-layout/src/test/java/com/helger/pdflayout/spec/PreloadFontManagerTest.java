@@ -21,12 +21,18 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
 import com.helger.font.api.IFontResource;
 import com.helger.font.lato2.EFontResourceLato2;
 
@@ -52,6 +58,53 @@ public final class PreloadFontManagerTest
                 aMgr.getOrAddEmbeddingPreloadFont (EFontResourceLato2.LATO2_BLACK));
   }
 
+  @Test
+  public void testConcurrentGetOrAdd () throws Exception
+  {
+    final PreloadFontManager aMgr = new PreloadFontManager ();
+    final int nThreads = 8;
+    final ExecutorService aES = Executors.newFixedThreadPool (nThreads);
+    try
+    {
+      final CountDownLatch aStart = new CountDownLatch (1);
+      final ICommonsList <Future <PreloadFont>> aFutures = new CommonsArrayList <> ();
+      for (int i = 0; i < nThreads; ++i)
+        aFutures.add (aES.submit ( () -> {
+          aStart.await ();
+          return aMgr.getOrAddEmbeddingPreloadFont (EFontResourceLato2.LATO2_NORMAL);
+        }));
+      aStart.countDown ();
+
+      final PreloadFont aFirst = aFutures.getFirstOrNull ().get ();
+      assertNotNull (aFirst);
+      for (final Future <PreloadFont> aFuture : aFutures)
+        assertSame (aFirst, aFuture.get ());
+      assertSame (aFirst, aMgr.getPreloadFontOfID (EFontResourceLato2.LATO2_NORMAL));
+    }
+    finally
+    {
+      aES.shutdown ();
+    }
+  }
+
+  @Test (expected = IllegalArgumentException.class)
+  public void testAddTwice ()
+  {
+    final PreloadFontManager aMgr = new PreloadFontManager (false);
+    aMgr.addPreloadFont (PreloadFont.REGULAR);
+    aMgr.addPreloadFont (PreloadFont.REGULAR);
+  }
+
+  @Test
+  public void testGlobalInstance ()
+  {
+    final PreloadFontManager aMgr = PreloadFontManager.getGlobalInstance ();
+    assertSame (aMgr, PreloadFontManager.getGlobalInstance ());
+    assertSame (PreloadFont.REGULAR, aMgr.getPreloadFontOfID (PreloadFont.REGULAR.getID ()));
+    for (final PreloadFont aPreloadFont : PreloadFont.getAllStandard14PreloadFonts ().values ())
+      assertSame (aPreloadFont, aMgr.getPreloadFontOfID (aPreloadFont.getID ()));
+  }
+
   public void _test (final PDType1Font f, final int nCP) throws IOException
   {
     LOGGER.info ("Character: " + (char) nCP);
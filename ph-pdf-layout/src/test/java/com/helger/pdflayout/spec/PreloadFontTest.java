@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.junit.Test;
+
+import com.helger.font.api.IFontResource;
+import com.helger.font.lato2.EFontResourceLato2;
+
+/**
+ * Test class for class {@link PreloadFont}.
+ *
+ * @author Philip Helger
+ */
+public final class PreloadFontTest
+{
+  @Test
+  public void testStandard14AreAlwaysParsed ()
+  {
+    for (final PreloadFont aPreloadFont : PreloadFont.getAllStandard14PreloadFonts ().values ())
+      assertTrue (aPreloadFont.isParsed ());
+  }
+
+  @Test
+  public void testLazyParsing () throws IOException
+  {
+    final PreloadFont aPreloadFont = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    // Not parsed upon creation
+    assertFalse (aPreloadFont.isParsed ());
+
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      assertNotNull (aPreloadFont.loadPDFont (aDoc));
+      assertTrue (aPreloadFont.isParsed ());
+      // Second time, nothing changes
+      assertNotNull (aPreloadFont.loadPDFont (aDoc));
+      assertTrue (aPreloadFont.isParsed ());
+    }
+  }
+
+  @Test
+  public void testMemoryMappedFile () throws IOException
+  {
+    final IFontResource aFontRes = EFontResourceLato2.LATO2_BLACK.getFontResource ();
+    final File aFile = new File ("target/preloadfont-mmap.ttf");
+    aFile.getParentFile ().mkdirs ();
+    try (final InputStream aIS = aFontRes.getInputStream ())
+    {
+      Files.copy (aIS, aFile.toPath (), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    final PreloadFont aMapped = PreloadFont.createEmbedding (aFontRes, aFile);
+    final PreloadFont aHeap = PreloadFont.createEmbedding (aFontRes);
+    // Same identity
+    assertEquals (aHeap, aMapped);
+    assertFalse (aMapped.isParsed ());
+
+    try (final PDDocument aDoc = new PDDocument ())
+    {
+      final PDFont aMappedFont = aMapped.loadPDFont (aDoc);
+      final PDFont aHeapFont = aHeap.loadPDFont (aDoc);
+      assertTrue (aMapped.isParsed ());
+      assertEquals (aHeapFont.getStringWidth ("Memory mapped"), aMappedFont.getStringWidth ("Memory mapped"), 0.0001f);
+    }
+  }
+
+  @Test
+  public void testFontDirectoryDigest () throws IOException
+  {
+    assertNull (PreloadFont.REGULAR.getFontDirectoryDigest ());
+
+    final PreloadFont aNormal = PreloadFont.createEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ());
+    final String sDigest = aNormal.getFontDirectoryDigest ();
+    assertNotNull (sDigest);
+    // SHA-256 as hex
+    assertEquals (64, sDigest.length ());
+    // Reading the table directory does not parse the font
+    assertFalse (aNormal.isParsed ());
+
+    // Stable for the same font program
+    assertEquals (sDigest,
+                  PreloadFont.createNonEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ())
+                             .getFontDirectoryDigest ());
+    // Different for a different font program
+    assertNotEquals (sDigest,
+                     PreloadFont.createEmbedding (EFontResourceLato2.LATO2_BLACK.getFontResource ())
+                                .getFontDirectoryDigest ());
+  }
+}
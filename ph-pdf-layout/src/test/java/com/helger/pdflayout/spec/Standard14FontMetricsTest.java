@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.Test;
+
+import com.helger.font.lato2.EFontResourceLato2;
+
+/**
+ * Test class for class {@link Standard14FontMetrics}.
+ *
+ * @author Philip Helger
+ */
+public final class Standard14FontMetricsTest
+{
+  private static final String TEXT = "Grüße aus Wien – 10 € für  \"alles\" ✓ 😀";
+
+  @Test
+  public void testAllStandard14Fonts () throws IOException
+  {
+    for (final PreloadFont aPreloadFont : PreloadFont.getAllStandard14PreloadFonts ().values ())
+    {
+      final Standard14FontMetrics aMetrics = aPreloadFont.getStandard14Metrics ();
+      assertNotNull (aMetrics);
+      assertTrue (aMetrics.size () > 0);
+      // Created only once
+      assertSame (aMetrics, aPreloadFont.getStandard14Metrics ());
+      // Widths were copied
+      assertTrue (aPreloadFont.getCodePointWidthCache ().size () >= aMetrics.size ());
+    }
+
+    assertNull (PreloadFont.createNonEmbedding (EFontResourceLato2.LATO2_NORMAL.getFontResource ())
+                           .getStandard14Metrics ());
+  }
+
+  @Test
+  public void testSameResultAsPDFBox () throws IOException
+  {
+    for (final PreloadFont aPreloadFont : new PreloadFont [] { PreloadFont.REGULAR,
+                                                               PreloadFont.TIMES_BOLD,
+                                                               PreloadFont.MONOSPACE,
+                                                               PreloadFont.SYMBOL,
+                                                               PreloadFont.ZAPF_DINGBATS })
+    {
+      // Without any precomputed data
+      final LoadedFont aPlain = new LoadedFont (aPreloadFont.loadPDFont (null),
+                                                aPreloadFont.getFallbackCodePoint (),
+                                                aPreloadFont.getFontLineHeight ());
+      // With precomputed data
+      final LoadedFont aPrecomputed = new LoadedFont (aPreloadFont.loadPDFont (null),
+                                                      aPreloadFont.getFallbackCodePoint (),
+                                                      aPreloadFont.getFontLineHeight (),
+                                                      aPreloadFont.getCodePointWidthCache (),
+                                                      aPreloadFont.getStandard14Metrics (),
+                                                      aPreloadFont.getCodePointCoverage ());
+      assertEquals (aPlain.getStringWidth (TEXT, 12), aPrecomputed.getStringWidth (TEXT, 12), 0.0001f);
+      assertArrayEquals (aPlain.getEncodedForPageContentStream (TEXT),
+                         aPrecomputed.getEncodedForPageContentStream (TEXT));
+    }
+  }
+
+  @Test
+  public void testCreate () throws IOException
+  {
+    final Standard14FontMetrics aMetrics = Standard14FontMetrics.create (Standard14Fonts.FontName.HELVETICA);
+    assertSame (Standard14Fonts.FontName.HELVETICA, aMetrics.getFontName ());
+    // At least all printable ASCII characters
+    assertTrue (aMetrics.size () >= 95);
+
+    final LoadedFont.EncodedCodePoint aECP = aMetrics.getEncodedCodePoint ('A');
+    assertNotNull (aECP);
+    assertEquals ('A', aECP.getCodePoint ());
+    // WinAnsiEncoding
+    assertEquals (0x41, aECP.getEncodedIntValue ());
+    assertNull (aMetrics.getEncodedCodePoint (0x1F600));
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.helger.unittest.support.TestHelper;
+
+/**
+ * Test class for class {@link TextAndWidthSpec}.
+ *
+ * @author Philip Helger
+ */
+public final class TextAndWidthSpecTest
+{
+  @Test
+  public void testOffsets ()
+  {
+    final TextAndWidthSpec aTW = new TextAndWidthSpec ("Hello World", 6, 11, 20, true);
+    assertEquals ("World", aTW.getText ());
+    assertEquals (5, aTW.getTextLength ());
+    assertEquals (20f, aTW.getWidth (), 0f);
+    assertTrue (aTW.isDisplayAsNewline ());
+    assertFalse (aTW.hasEncodedText ());
+
+    TestHelper.testDefaultImplementationWithEqualContentObject (aTW, new TextAndWidthSpec ("World", 20, true));
+  }
+
+  @Test
+  public void testEncodedText () throws IOException
+  {
+    final LoadedFont aFont = new LoadedFont (PreloadFont.REGULAR.loadPDFont (null),
+                                             PreloadFont.REGULAR.getFallbackCodePoint (),
+                                             PreloadFont.REGULAR.getFontLineHeight ());
+    final TextAndWidthSpec aTW = new TextAndWidthSpec ("abc Hello World", 4, 15, 50, false);
+    final TextAndWidthSpec aEncoded = aFont.getWithEncodedText (aTW);
+    assertNotSame (aTW, aEncoded);
+    assertTrue (aEncoded.hasEncodedText ());
+    assertArrayEquals (aFont.getEncodedForPageContentStream ("Hello World"), aEncoded.getEncodedText ());
+
+    // Encoding is not part of equals/hashCode
+    TestHelper.testDefaultImplementationWithEqualContentObject (aTW, aEncoded);
+
+    // Already encoded
+    assertSame (aEncoded, aFont.getWithEncodedText (aEncoded));
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Test class for class {@link TotalFitLineBreaker}.
+ *
+ * @author Philip Helger
+ */
+public final class TotalFitLineBreakerTest
+{
+  /**
+   * Add the words with a width of 1 per char, separated by spaces with a width of 1.
+   *
+   * @return The paragraph width
+   */
+  private static double _addWords (final TotalFitLineBreaker aBreaker, final String... aWords)
+  {
+    double dPos = 0;
+    for (int i = 0; i < aWords.length; ++i)
+    {
+      if (i > 0)
+      {
+        aBreaker.addBreakCandidate (dPos, dPos + 1, false);
+        dPos++;
+      }
+      dPos += aWords[i].length ();
+    }
+    return dPos;
+  }
+
+  @Test
+  public void testBasic ()
+  {
+    final TotalFitLineBreaker aBreaker = new TotalFitLineBreaker (6);
+    assertEquals (6, aBreaker.getMaxWidth (), 0);
+    assertEquals (TotalFitLineBreaker.DEFAULT_MAX_LOOK_BACK, aBreaker.getMaxLookBack ());
+
+    // Empty paragraph
+    assertArrayEquals (new int [0], aBreaker.getBreaks (0));
+
+    // Everything fits on one line
+    double dWidth = _addWords (aBreaker, "aa", "bb");
+    assertEquals (1, aBreaker.getBreakCandidateCount ());
+    assertArrayEquals (new int [0], aBreaker.getBreaks (dWidth));
+
+    // Greedy would result in "aaa bb" / "cc" / "ddddd"
+    aBreaker.reset ();
+    assertEquals (0, aBreaker.getBreakCandidateCount ());
+    dWidth = _addWords (aBreaker, "aaa", "bb", "cc", "ddddd");
+    assertArrayEquals (new int [] { 0, 2 }, aBreaker.getBreaks (dWidth));
+
+    // A word that is too long
+    aBreaker.reset ();
+    dWidth = _addWords (aBreaker, "aaa", "bbbbbbb", "cc");
+    assertNull (aBreaker.getBreaks (dWidth));
+  }
+
+  @Test
+  public void testWithinWord ()
+  {
+    final TotalFitLineBreaker aBreaker = new TotalFitLineBreaker (6);
+    // "aaaa-bbbb" with a break opportunity after the hyphen
+    aBreaker.addBreakCandidate (5, 5, true);
+    assertArrayEquals (new int [] { 0 }, aBreaker.getBreaks (9));
+  }
+
+  @Test
+  public void testMaxLookBack ()
+  {
+    // Candidates at every position, but a line may only span 2 of them
+    final TotalFitLineBreaker aBreaker = new TotalFitLineBreaker (100, 2);
+    for (int i = 1; i < 10; ++i)
+      aBreaker.addBreakCandidate (i, i, false);
+    assertArrayEquals (new int [] { 1, 3, 5, 7 }, aBreaker.getBreaks (10));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.spec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.helger.collection.commons.CommonsArrayList;
+import com.helger.collection.commons.ICommonsList;
+
+/**
+ * Test class for class {@link UnicodeLineBreaker}.
+ *
+ * @author Philip Helger
+ */
+public final class UnicodeLineBreakerTest
+{
+  @SuppressWarnings ("boxing")
+  private static ICommonsList <Integer> _getBreaks (final String sText)
+  {
+    final UnicodeLineBreaker aLB = new UnicodeLineBreaker ();
+    final ICommonsList <Integer> ret = new CommonsArrayList <> ();
+    int nOfs = 0;
+    while (nOfs < sText.length ())
+    {
+      final int nCP = sText.codePointAt (nOfs);
+      if (aLB.isBreakOpportunityBefore (nCP))
+        ret.add (nOfs);
+      nOfs += Character.charCount (nCP);
+    }
+    return ret;
+  }
+
+  @SuppressWarnings ("boxing")
+  private static ICommonsList <Integer> _list (final int... aValues)
+  {
+    final ICommonsList <Integer> ret = new CommonsArrayList <> ();
+    for (final int n : aValues)
+      ret.add (n);
+    return ret;
+  }
+
+  @Test
+  public void testLineBreakClass ()
+  {
+    assertSame (ELineBreakClass.AL, UnicodeLineBreaker.getLineBreakClass ('a'));
+    assertSame (ELineBreakClass.NU, UnicodeLineBreaker.getLineBreakClass ('1'));
+    assertSame (ELineBreakClass.HY, UnicodeLineBreaker.getLineBreakClass ('-'));
+    assertSame (ELineBreakClass.SY, UnicodeLineBreaker.getLineBreakClass ('/'));
+    assertSame (ELineBreakClass.OP, UnicodeLineBreaker.getLineBreakClass ('('));
+    assertSame (ELineBreakClass.CP, UnicodeLineBreaker.getLineBreakClass (')'));
+    assertSame (ELineBreakClass.SP, UnicodeLineBreaker.getLineBreakClass (' '));
+    assertSame (ELineBreakClass.GL, UnicodeLineBreaker.getLineBreakClass (0x00A0));
+    assertSame (ELineBreakClass.ZW, UnicodeLineBreaker.getLineBreakClass (0x200B));
+    assertSame (ELineBreakClass.CM, UnicodeLineBreaker.getLineBreakClass (0x0301));
+    assertSame (ELineBreakClass.ID, UnicodeLineBreaker.getLineBreakClass (0x4E00));
+    assertSame (ELineBreakClass.CL, UnicodeLineBreaker.getLineBreakClass (0x3002));
+    assertSame (ELineBreakClass.NS, UnicodeLineBreaker.getLineBreakClass (0x3041));
+    assertSame (ELineBreakClass.ID, UnicodeLineBreaker.getLineBreakClass (0x20000));
+  }
+
+  @Test
+  public void testBreakOpportunities ()
+  {
+    // Spaces
+    assertEquals (_list (2), _getBreaks ("a b"));
+    assertEquals (_list (), _getBreaks ("abc"));
+    // Hyphens
+    assertEquals (_list (5), _getBreaks ("well-known"));
+    assertEquals (_list (), _getBreaks ("a-5"));
+    assertEquals (_list (), _getBreaks ("-abc"));
+    // URLs
+    assertEquals (_list (7, 13), _getBreaks ("http://x.org/a"));
+    // Ideographs, but not before closing punctuation or small kana
+    assertEquals (_list (1, 2), _getBreaks ("\u65E5\u672C\u8A9E"));
+    assertEquals (_list (1), _getBreaks ("\u65E5\u672C\u3002"));
+    assertEquals (_list (), _getBreaks ("\u30C1\u30E3"));
+    // No break within numbers and parentheses or at non-breaking spaces
+    assertEquals (_list (), _getBreaks ("100%"));
+    assertEquals (_list (), _getBreaks ("$100"));
+    assertEquals (_list (), _getBreaks ("(a)"));
+    assertEquals (_list (), _getBreaks ("a\u00A0b"));
+    assertEquals (_list (), _getBreaks ("( a"));
+    // Zero width space
+    assertEquals (_list (2), _getBreaks ("a\u200Bb"));
+    // Combining marks stay with their base
+    assertEquals (_list (2), _getBreaks ("\u65E5\u0301\u672C"));
+  }
+
+  @Test
+  public void testReset ()
+  {
+    final UnicodeLineBreaker aLB = new UnicodeLineBreaker ();
+    assertFalse (aLB.isBreakOpportunityBefore (0x65E5));
+    aLB.reset ();
+    // Start of line again
+    assertFalse (aLB.isBreakOpportunityBefore (0x672C));
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2014-2026 Philip Helger (www.helger.com)
+ * philip[at]helger[dot]com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.helger.pdflayout.supplementary.benchmark;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.helger.pdflayout.spec.FittedTextLines;
+import com.helger.pdflayout.spec.LoadedFont;
+import com.helger.pdflayout.spec.PreloadFont;
+import com.helger.pdflayout.spec.TextFitSpec;
+
+/**
+ * Compare the runtime of greedy line fitting with the total fit line breaking of
+ * {@link LoadedFont#getFitToWidthOffsets(String, float, float, TextFitSpec)} for different line widths.
+ *
+ * @author Philip Helger
+ */
+public final class MainTotalFitLineBreaking
+{
+  private static final Logger LOGGER = LoggerFactory.getLogger (MainTotalFitLineBreaking.class);
+
+  private static final float FONT_SIZE = 10f;
+  private static final int WARMUP_RUNS = 20;
+  private static final int RUNS = 50;
+
+  private static long _measure (final LoadedFont aFont,
+                                final String sText,
+                                final float fMaxWidth,
+                                final boolean bTotalFit) throws IOException
+  {
+    final TextFitSpec aSpec = TextFitSpec.DEFAULT.getCloneWithTotalFit (bTotalFit);
+    int nLineCount = 0;
+    for (int i = 0; i < WARMUP_RUNS; ++i)
+      nLineCount += aFont.getFitToWidthOffsets (sText, FONT_SIZE, fMaxWidth, aSpec).getLineCount ();
+
+    final long nStart = System.nanoTime ();
+    for (int i = 0; i < RUNS; ++i)
+      nLineCount += aFont.getFitToWidthOffsets (sText, FONT_SIZE, fMaxWidth, aSpec).getLineCount ();
+    final long nDuration = (System.nanoTime () - nStart) / RUNS;
+    if (nLineCount == 0)
+      throw new IllegalStateException ("No lines fitted");
+    return nDuration;
+  }
+
+  public static void main (final String [] args) throws IOException
+  {
+    final String s = "Lorem ipsum dolor sit amet, consetetur sadipscing elitr, sed diam nonumy eirmod tempor invidunt ut labore et dolore magna aliquyam erat, sed diam voluptua. At vero eos et accusam et justo duo dolores et ea rebum. Stet clita kasd gubergren, no sea takimata sanctus est Lorem ipsum dolor sit amet. ";
+    final StringBuilder aSB = new StringBuilder ();
+    for (int i = 0; i < 500; i++)
+    {
+      aSB.append (s);
+      if (i % 10 == 9)
+        aSB.append ('\n');
+    }
+    final String sText = aSB.toString ();
+
+    final LoadedFont aFont = new LoadedFont (PreloadFont.REGULAR.loadPDFont (null),
+                                             PreloadFont.REGULAR.getFallbackCodePoint (),
+                                             PreloadFont.REGULAR.getFontLineHeight ());
+    LOGGER.info ("Fitting " + sText.length () + " chars, average of " + RUNS + " runs");
+
+    for (final float fMaxWidth : new float [] { 80, 150, 300, 500 })
+    {
+      final long nGreedy = _measure (aFont, sText, fMaxWidth, false);
+      final long nTotalFit = _measure (aFont, sText, fMaxWidth, true);
+      final FittedTextLines aGreedyLines = aFont.getFitToWidthOffsets (sText, FONT_SIZE, fMaxWidth, TextFitSpec.DEFAULT);
+      final FittedTextLines aTotalFitLines = aFont.getFitToWidthOffsets (sText,
+                                                                         FONT_SIZE,
+                                                                         fMaxWidth,
+                                                                         TextFitSpec.DEFAULT.getCloneWithTotalFit (true));
+      LOGGER.info ("Width " +
+                   fMaxWidth +
+                   ": greedy " +
+                   (nGreedy / 1_000) +
+                   "us (" +
+                   aGreedyLines.getLineCount () +
+                   " lines), total fit " +
+                   (nTotalFit / 1_000) +
+                   "us (" +
+                   aTotalFitLines.getLineCount () +
+                   " lines), overhead " +
+                   String.format ("%.2f", Double.valueOf ((double) nTotalFit / nGreedy)) +
+                   "x");
+    }
+  }
+}